@@ -1,24 +1,49 @@
 package com.diyawanna.sup.config;
 
+import com.diyawanna.sup.entity.User;
+import com.diyawanna.sup.util.ObjectSizeEstimator;
+import com.diyawanna.sup.util.OffHeapStore;
+import com.diyawanna.sup.util.OffHeapValueCodec;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.core.env.Environment;
 
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Cache configuration for performance optimization
  * 
  * This configuration provides:
- * - Cache manager setup
+ * - Bounded Caffeine cache manager (W-TinyLFU admission and eviction)
+ * - Per-region maximum weight in estimated bytes, TTL and idle expiry
+ * - Per-region hit, miss, eviction, refresh and load-time statistics
+ * - Refresh-ahead of entries read close to the end of their TTL
+ * - Optional off-heap second level for regions holding large entity lists
  * - Custom key generation
- * - Cache timeout configuration
  * - Performance monitoring
  * 
+ * Region settings are read from cache.regions.<name>.maximum-weight-bytes,
+ * ttl-seconds and idle-seconds, falling back to cache.default.*. A TTL or
+ * idle time of 0 disables that expiry. cache.refresh-ahead.fraction sets the
+ * share of the TTL before expiry in which a read schedules a background
+ * reload; 0 disables refresh-ahead. cache.regions.<name>.off-heap-bytes
+ * reserves direct memory for entities evicted from the region by size;
+ * 0, the default, keeps the region on the heap only.
+ * 
  * @author Diyawanna Team
  * @version 1.0.0
  */
@@ -26,31 +51,99 @@ import java.util.Arrays;
 @EnableCaching
 public class CacheConfig {
 
+    /**
+     * Cache regions created at startup
+     */
+    public static final List<String> CACHE_NAMES = Arrays.asList(
+        "users",
+        "universities",
+        "faculties",
+        "carts",
+        "queries",
+        "dynamic-queries",
+        "authentication",
+        "statistics"
+    );
+
+    @Autowired
+    private Environment environment;
+
     /**
      * Configure cache manager with multiple cache regions
      */
     @Bean
     public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        // Caches requested by name outside the list below get the default region settings
+        InstrumentedCacheManager cacheManager = new InstrumentedCacheManager(this::cacheBuilder);
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setRefreshAhead(environment.getProperty("cache.refresh-ahead.fraction", Double.class, 0.2),
+            refreshExecutor());
+        int blockSize = environment.getProperty("cache.off-heap.block-size-bytes", Integer.class, 4096);
+        cacheManager.setOffHeapTier(region -> offHeapStore(region, blockSize),
+            new OffHeapValueCodec(type -> type.getPackageName().equals(User.class.getPackageName())));
         
         // Define cache names for different entities
-        cacheManager.setCacheNames(Arrays.asList(
-            "users",
-            "universities", 
-            "faculties",
-            "carts",
-            "queries",
-            "dynamic-queries",
-            "authentication",
-            "statistics"
-        ));
-        
-        // Allow dynamic cache creation
-        cacheManager.setAllowNullValues(false);
+        for (String cacheName : CACHE_NAMES) {
+            cacheManager.registerRegion(cacheName);
+        }
         
         return cacheManager;
     }
 
+    /**
+     * Caffeine builder for a cache region, bounded by the estimated byte size of its entries
+     */
+    private Caffeine<Object, Object> cacheBuilder(String region) {
+        long maximumWeightBytes = regionProperty(region, "maximum-weight-bytes", 16L * 1024 * 1024);
+        long ttlSeconds = regionProperty(region, "ttl-seconds", 600L);
+        long idleSeconds = regionProperty(region, "idle-seconds", 0L);
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+            .maximumWeight(maximumWeightBytes)
+            .weigher((key, value) -> (int) Math.min(Integer.MAX_VALUE, ObjectSizeEstimator.estimate(key, value)));
+        if (ttlSeconds > 0) {
+            builder.expireAfterWrite(Duration.ofSeconds(ttlSeconds));
+        }
+        if (idleSeconds > 0) {
+            builder.expireAfterAccess(Duration.ofSeconds(idleSeconds));
+        }
+        return builder;
+    }
+
+    /**
+     * Off-heap store beneath a region, or null when the region has no off-heap budget
+     */
+    private OffHeapStore offHeapStore(String region, int blockSize) {
+        long offHeapBytes = regionProperty(region, "off-heap-bytes", 0L);
+        return offHeapBytes > 0 ? new OffHeapStore(offHeapBytes, blockSize) : null;
+    }
+
+    /**
+     * Small bounded pool for refresh-ahead reloads; when it is full, entries simply expire as usual
+     */
+    private ThreadPoolExecutor refreshExecutor() {
+        int threads = environment.getProperty("cache.refresh-ahead.threads", Integer.class, 2);
+        int queueCapacity = environment.getProperty("cache.refresh-ahead.queue-capacity", Integer.class, 256);
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "cache-refresh-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private long regionProperty(String region, String property, long defaultValue) {
+        Long fallback = environment.getProperty("cache.default." + property, Long.class, defaultValue);
+        long value = environment.getProperty("cache.regions." + region + "." + property, Long.class, fallback);
+        if (value < 0) {
+            throw new IllegalStateException("cache.regions." + region + "." + property + " must not be negative");
+        }
+        return value;
+    }
+
     /**
      * Custom key generator for cache keys
      */
@@ -0,0 +1,545 @@
+package com.diyawanna.sup.config;
+
+import com.diyawanna.sup.util.CacheStatistics;
+import com.diyawanna.sup.util.OffHeapStore;
+import com.diyawanna.sup.util.OffHeapValueCodec;
+import com.diyawanna.sup.util.SingleFlight;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caffeine cache manager that records statistics for every cache region
+ *
+ * This manager provides:
+ * - One Caffeine builder per region, so each region keeps its own limits
+ * - A CacheStatistics counter per region, registered with Caffeine
+ * - Put counts and miss-to-put load times from the Spring cache adapter
+ * - Single-flight loads for @Cacheable(sync = true), with a coalesced-caller count
+ * - Refresh-ahead of entries read close to the end of their TTL
+ * - An optional off-heap second level per region for entries evicted by size
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public class InstrumentedCacheManager extends CaffeineCacheManager {
+
+    private final Function<String, Caffeine<Object, Object>> builderFactory;
+    private final ConcurrentMap<String, CacheStatistics> statistics = new ConcurrentHashMap<>();
+    private RefreshAhead refreshAhead;
+    private Function<String, OffHeapStore> offHeapStores;
+    private OffHeapValueCodec offHeapCodec;
+    private final ConcurrentMap<String, OffHeapTier> offHeapTiers = new ConcurrentHashMap<>();
+
+    /**
+     * @param builderFactory builder for a region by name, without a stats counter
+     */
+    public InstrumentedCacheManager(Function<String, Caffeine<Object, Object>> builderFactory) {
+        this.builderFactory = builderFactory;
+    }
+
+    /**
+     * Reload entries in the background when they are read within the given fraction
+     * of their TTL; applies to regions created after this call
+     *
+     * @param fraction share of the TTL before expiry in which a read schedules a refresh, e.g. 0.2
+     * @param executor bounded executor running the reloads; rejected reloads are counted and skipped
+     */
+    public void setRefreshAhead(double fraction, Executor executor) {
+        if (fraction < 0 || fraction >= 1) {
+            throw new IllegalArgumentException("Refresh-ahead fraction must be at least 0 and below 1");
+        }
+        this.refreshAhead = fraction > 0 ? new RefreshAhead(fraction, executor) : null;
+    }
+
+    /**
+     * Keep entries evicted by size in an off-heap store beneath the region and
+     * read them back on a miss; applies to regions created after this call
+     *
+     * @param stores store for a region by name, or null to keep the region on the heap only
+     * @param codec  serializer of the values moved off the heap
+     */
+    public void setOffHeapTier(Function<String, OffHeapStore> stores, OffHeapValueCodec codec) {
+        this.offHeapStores = stores;
+        this.offHeapCodec = codec;
+    }
+
+    /**
+     * Create a region up front instead of on first use
+     */
+    public void registerRegion(String cacheName) {
+        registerCustomCache(cacheName, createNativeCaffeineCache(cacheName));
+    }
+
+    @Override
+    protected com.github.benmanes.caffeine.cache.Cache<Object, Object> createNativeCaffeineCache(String name) {
+        CacheStatistics counter = statisticsFor(name);
+        Caffeine<Object, Object> builder = builderFactory.apply(name).recordStats(() -> counter);
+
+        OffHeapStore store = offHeapStores != null ? offHeapStores.apply(name) : null;
+        if (store == null) {
+            return builder.build();
+        }
+        OffHeapTier tier = new OffHeapTier(store, offHeapCodec);
+        // Runs atomically with the eviction, so an explicit evict of the key cannot slip in between
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = builder
+            .evictionListener((key, value, cause) -> tier.demote(key, value, cause))
+            .build();
+        tier.cache = cache;
+        offHeapTiers.put(name, tier);
+        return cache;
+    }
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        OffHeapTier tier = offHeapTiers.get(name);
+        return new InstrumentedCache(name, cache, statisticsFor(name), isAllowNullValues(), refreshAhead,
+            tier != null && tier.cache == cache ? tier : null);
+    }
+
+    private CacheStatistics statisticsFor(String name) {
+        return statistics.computeIfAbsent(name, n -> new CacheStatistics());
+    }
+
+    /**
+     * Statistics of every region created so far
+     */
+    public Map<String, CacheStatistics> getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Spring cache adapter that counts puts and times misses until the put that fills them.
+     *
+     * A @Cacheable miss is followed on the same thread by the method call and
+     * then a put of the same key, so the time between the two is the load time.
+     * Synchronized lookups are timed directly, and concurrent misses of the same
+     * key share one load instead of each calling the method. A load only stores
+     * its value if no put, eviction or clear touched the key while it ran, so a
+     * write-through that lands during a slow read is not overwritten by it.
+     *
+     * With refresh-ahead enabled, a synchronized hit on an entry close to expiry
+     * keeps serving the cached value and hands the caller's loader to the
+     * refresh executor. For @Cacheable methods the loader invokes the cached
+     * method on its target again. The reloaded value only replaces the entry it
+     * was scheduled for, so an entry evicted or rewritten in the meantime is
+     * never overwritten with an older read.
+     *
+     * With an off-heap tier, a miss first takes the entry's bytes from the
+     * tier and deserializes them back into the region. Explicit evictions and
+     * puts remove the key from both levels, and a value read back while the
+     * key was being evicted is dropped again rather than resurrected.
+     */
+    public static class InstrumentedCache extends CaffeineCache {
+
+        private static final int WRITE_VERSION_STRIPES = 64;
+
+        private final CacheStatistics statistics;
+        private final ThreadLocal<PendingLoad> pendingLoad = new ThreadLocal<>();
+        private final SingleFlight<Object, Object> loads = new SingleFlight<>();
+        private final RefreshAhead refreshAhead;
+        private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+        private final OffHeapTier offHeap;
+        // Bumped by every write of a key in the stripe; loads compare before storing
+        private final AtomicLongArray writeVersions = new AtomicLongArray(WRITE_VERSION_STRIPES);
+
+        InstrumentedCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                          CacheStatistics statistics, boolean allowNullValues, RefreshAhead refreshAhead,
+                          OffHeapTier offHeap) {
+            super(name, cache, allowNullValues);
+            this.statistics = statistics;
+            this.refreshAhead = refreshAhead;
+            this.offHeap = offHeap;
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            Object value = super.lookup(key);
+            if (value == null && offHeap != null) {
+                value = offHeap.promote(key);
+            }
+            if (value == null) {
+                pendingLoad.set(new PendingLoad(key, System.nanoTime()));
+            }
+            return value;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            Object stored = getNativeCache().getIfPresent(key);
+            if (stored != null) {
+                refreshIfExpiring(key, stored, valueLoader);
+                return (T) fromStoreValue(stored);
+            }
+            try {
+                return (T) loads.execute(key, () -> load(key, valueLoader));
+            } catch (ValueRetrievalException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        }
+
+        private Object load(Object key, Callable<?> valueLoader) throws Exception {
+            // A load that finished between our miss and joining the flight has already stored the value
+            Object stored = getNativeCache().asMap().get(key);
+            if (stored == null && offHeap != null) {
+                stored = offHeap.promote(key);
+            }
+            if (stored != null) {
+                return fromStoreValue(stored);
+            }
+
+            long version = writeVersions.get(stripeOf(key));
+            long startedAt = System.nanoTime();
+            Object value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                statistics.recordLoadFailure(System.nanoTime() - startedAt);
+                throw e;
+            }
+            statistics.recordLoadSuccess(System.nanoTime() - startedAt);
+            if ((value != null || isAllowNullValues()) && writeVersions.get(stripeOf(key)) == version
+                    && getNativeCache().asMap().putIfAbsent(key, toStoreValue(value)) == null) {
+                statistics.recordPut();
+            }
+            return value;
+        }
+
+        private void refreshIfExpiring(Object key, Object stored, Callable<?> valueLoader) {
+            if (refreshAhead == null) {
+                return;
+            }
+            Optional<Policy.Expiration<Object, Object>> expiration = getNativeCache().policy().expireAfterWrite();
+            if (expiration.isEmpty()) {
+                return;
+            }
+            long ttlNanos = expiration.get().getExpiresAfter(TimeUnit.NANOSECONDS);
+            OptionalLong ageNanos = expiration.get().ageOf(key, TimeUnit.NANOSECONDS);
+            if (ageNanos.isEmpty() || ageNanos.getAsLong() < ttlNanos - (long) (ttlNanos * refreshAhead.fraction)) {
+                return;
+            }
+            if (!refreshing.add(key)) {
+                return;
+            }
+            try {
+                refreshAhead.executor.execute(() -> refresh(key, stored, valueLoader));
+            } catch (RejectedExecutionException e) {
+                refreshing.remove(key);
+                statistics.recordRefreshRejected();
+            }
+        }
+
+        private void refresh(Object key, Object stored, Callable<?> valueLoader) {
+            try {
+                Object value = valueLoader.call();
+                if (value != null && getNativeCache().asMap().replace(key, stored, toStoreValue(value))) {
+                    statistics.recordPut();
+                    statistics.recordRefresh();
+                }
+            } catch (Exception e) {
+                // The current value stays cached and is served until it expires
+                statistics.recordRefreshFailure();
+            } finally {
+                refreshing.remove(key);
+            }
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            // Drop the older off-heap copy first; the new value may itself be evicted into the tier by this put
+            if (offHeap != null) {
+                offHeap.store.remove(key);
+            }
+            writeVersions.incrementAndGet(stripeOf(key));
+            super.put(key, value);
+            recordPut(key);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            if (offHeap != null) {
+                offHeap.store.remove(key);
+            }
+            ValueWrapper existing = super.putIfAbsent(key, value);
+            if (existing == null) {
+                writeVersions.incrementAndGet(stripeOf(key));
+                recordPut(key);
+            }
+            return existing;
+        }
+
+        @Override
+        public void evict(Object key) {
+            writeVersions.incrementAndGet(stripeOf(key));
+            if (offHeap == null) {
+                super.evict(key);
+                return;
+            }
+            offHeap.invalidations.incrementAndGet();
+            super.evict(key);
+            offHeap.store.remove(key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            writeVersions.incrementAndGet(stripeOf(key));
+            if (offHeap == null) {
+                return super.evictIfPresent(key);
+            }
+            offHeap.invalidations.incrementAndGet();
+            boolean present = super.evictIfPresent(key);
+            offHeap.store.remove(key);
+            return present;
+        }
+
+        @Override
+        public void clear() {
+            bumpAllWriteVersions();
+            if (offHeap == null) {
+                super.clear();
+                return;
+            }
+            offHeap.invalidations.incrementAndGet();
+            super.clear();
+            offHeap.store.clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            bumpAllWriteVersions();
+            if (offHeap == null) {
+                return super.invalidate();
+            }
+            offHeap.invalidations.incrementAndGet();
+            boolean notEmpty = super.invalidate();
+            offHeap.store.clear();
+            return notEmpty;
+        }
+
+        /**
+         * Whether the off-heap tier holds a copy of the key, without promoting it
+         */
+        public boolean hasOffHeapCopy(Object key) {
+            return offHeap != null && offHeap.store.contains(key);
+        }
+
+        /**
+         * Current write versions of all keys, to capture before reading values that
+         * will be stored with putIfUnchanged
+         */
+        public long[] captureWriteVersions() {
+            long[] versions = new long[WRITE_VERSION_STRIPES];
+            for (int i = 0; i < WRITE_VERSION_STRIPES; i++) {
+                versions[i] = writeVersions.get(i);
+            }
+            return versions;
+        }
+
+        /**
+         * Store a value read after the versions were captured, unless the key was
+         * written or evicted since or already holds a value; never overwrites
+         *
+         * @return whether the value was stored
+         */
+        public boolean putIfUnchanged(Object key, Object value, long[] versions) {
+            int stripe = stripeOf(key);
+            if (writeVersions.get(stripe) != versions[stripe]) {
+                return false;
+            }
+            Object stored = toStoreValue(value);
+            if (getNativeCache().asMap().putIfAbsent(key, stored) != null) {
+                return false;
+            }
+            // An eviction between the check and the store must not be undone
+            if (writeVersions.get(stripe) != versions[stripe]) {
+                getNativeCache().asMap().remove(key, stored);
+                return false;
+            }
+            statistics.recordPut();
+            return true;
+        }
+
+        private static int stripeOf(Object key) {
+            return (Objects.hashCode(key) & 0x7fffffff) % WRITE_VERSION_STRIPES;
+        }
+
+        private void bumpAllWriteVersions() {
+            for (int i = 0; i < WRITE_VERSION_STRIPES; i++) {
+                writeVersions.incrementAndGet(i);
+            }
+        }
+
+        private void recordPut(Object key) {
+            statistics.recordPut();
+            PendingLoad pending = pendingLoad.get();
+            if (pending != null) {
+                pendingLoad.remove();
+                if (Objects.equals(pending.key, key)) {
+                    statistics.recordLoadSuccess(System.nanoTime() - pending.startedAt);
+                }
+            }
+        }
+
+        public CacheStatistics getStatistics() {
+            return statistics;
+        }
+
+        /**
+         * Coalescer of this region's loads; other loaders of the region can share it
+         */
+        public SingleFlight<Object, Object> getLoads() {
+            return loads;
+        }
+
+        /**
+         * Counters with the current entry count and estimated size in bytes
+         */
+        public Map<String, Object> getStatisticsSnapshot() {
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = getNativeCache();
+            Long weightedSize = cache.policy().eviction()
+                .filter(Policy.Eviction::isWeighted)
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(null);
+            Map<String, Object> snapshot = statistics.toMap(cache.estimatedSize(), weightedSize);
+            snapshot.put("coalescedLoads", loads.getCoalesced());
+            if (offHeap != null) {
+                snapshot.put("offHeap", offHeap.getStatistics());
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Refresh-ahead settings shared by all regions of the manager
+     */
+    private static final class RefreshAhead {
+        final double fraction;
+        final Executor executor;
+
+        RefreshAhead(double fraction, Executor executor) {
+            this.fraction = fraction;
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * Off-heap second level of one region: entries evicted by size are
+     * serialized into the store with their remaining TTL and taken back out
+     * on a miss
+     */
+    static final class OffHeapTier {
+        final OffHeapStore store;
+        final OffHeapValueCodec codec;
+        final AtomicLong invalidations = new AtomicLong();
+        final LongAdder demotions = new LongAdder();
+        final LongAdder promotions = new LongAdder();
+        final LongAdder unsupported = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        volatile com.github.benmanes.caffeine.cache.Cache<Object, Object> cache;
+
+        OffHeapTier(OffHeapStore store, OffHeapValueCodec codec) {
+            this.store = store;
+            this.codec = codec;
+        }
+
+        void demote(Object key, Object value, RemovalCause cause) {
+            if (cause != RemovalCause.SIZE || key == null || value == null) {
+                return;
+            }
+            long expiresAtNanos = 0;
+            Optional<Policy.Expiration<Object, Object>> expiration = cache.policy().expireAfterWrite();
+            if (expiration.isPresent()) {
+                OptionalLong ageNanos = expiration.get().ageOf(key, TimeUnit.NANOSECONDS);
+                long remainingNanos = expiration.get().getExpiresAfter(TimeUnit.NANOSECONDS)
+                    - ageNanos.orElse(Long.MAX_VALUE);
+                if (ageNanos.isEmpty() || remainingNanos <= 0) {
+                    return;
+                }
+                expiresAtNanos = System.nanoTime() + remainingNanos;
+            }
+            try {
+                byte[] bytes = codec.encode(value);
+                if (bytes == null) {
+                    unsupported.increment();
+                } else if (store.put(key, bytes, expiresAtNanos)) {
+                    demotions.increment();
+                }
+            } catch (Exception e) {
+                // The entry is simply gone, as it would be without the off-heap tier
+                failures.increment();
+            }
+        }
+
+        /**
+         * Move an entry back onto the heap, or return null if the tier does not hold it
+         */
+        Object promote(Object key) {
+            long version = invalidations.get();
+            byte[] bytes = store.take(key);
+            if (bytes == null) {
+                return null;
+            }
+            Object value;
+            try {
+                value = codec.decode(bytes);
+            } catch (Exception e) {
+                failures.increment();
+                return null;
+            }
+
+            Object existing = cache.asMap().putIfAbsent(key, value);
+            if (existing != null) {
+                return existing;
+            }
+            if (invalidations.get() != version) {
+                // Evicted while being read back; this caller still gets the value it asked for
+                cache.asMap().remove(key, value);
+            }
+            promotions.increment();
+            return value;
+        }
+
+        Map<String, Object> getStatistics() {
+            Map<String, Object> stats = store.getStatistics();
+            stats.put("demotions", demotions.sum());
+            stats.put("promotions", promotions.sum());
+            stats.put("unsupported", unsupported.sum());
+            stats.put("failures", failures.sum());
+            return stats;
+        }
+    }
+
+    private static final class PendingLoad {
+        final Object key;
+        final long startedAt;
+
+        PendingLoad(Object key, long startedAt) {
+            this.key = key;
+            this.startedAt = startedAt;
+        }
+    }
+}
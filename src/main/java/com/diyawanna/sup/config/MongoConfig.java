@@ -8,6 +8,7 @@ import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
 import org.springframework.data.mongodb.core.index.IndexOperations;
 import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
 
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
@@ -19,9 +20,11 @@ import com.diyawanna.sup.entity.University;
 import com.diyawanna.sup.entity.Faculty;
 import com.diyawanna.sup.entity.Cart;
 import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.util.SearchKeys;
 
 import javax.annotation.PostConstruct;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -57,6 +60,9 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
     @Value("${spring.data.mongodb.options.max-connection-life-time:120000}")
     private int maxConnectionLifeTime;
 
+    @Value("${search.mode:prefix}")
+    private String searchMode;
+
     @Override
     protected String getDatabaseName() {
         return databaseName;
@@ -102,7 +108,7 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
             // User collection indexes
             IndexOperations userIndexOps = mongoTemplate.indexOps(User.class);
             userIndexOps.ensureIndex(new Index().on("username", org.springframework.data.domain.Sort.Direction.ASC).unique());
-            userIndexOps.ensureIndex(new Index().on("email", org.springframework.data.domain.Sort.Direction.ASC));
+            ensureUniqueEmailIndex(userIndexOps);
             userIndexOps.ensureIndex(new Index().on("active", org.springframework.data.domain.Sort.Direction.ASC));
             userIndexOps.ensureIndex(new Index().on("createdAt", org.springframework.data.domain.Sort.Direction.DESC));
             
@@ -143,10 +149,100 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
             facultyIndexOps.ensureIndex(new Index().on("universityId", org.springframework.data.domain.Sort.Direction.ASC)
                                                   .on("active", org.springframework.data.domain.Sort.Direction.ASC));
             
+            // Keyset pagination: equality fields, then _id, so each page is one index range
+            userIndexOps.ensureIndex(new Index().on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("_id", org.springframework.data.domain.Sort.Direction.ASC));
+            userIndexOps.ensureIndex(new Index().on("university", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("_id", org.springframework.data.domain.Sort.Direction.ASC));
+            universityIndexOps.ensureIndex(new Index().on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                      .on("_id", org.springframework.data.domain.Sort.Direction.ASC));
+            facultyIndexOps.ensureIndex(new Index().on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                   .on("_id", org.springframework.data.domain.Sort.Direction.ASC));
+            facultyIndexOps.ensureIndex(new Index().on("universityId", org.springframework.data.domain.Sort.Direction.ASC)
+                                                   .on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                   .on("_id", org.springframework.data.domain.Sort.Direction.ASC));
+            cartIndexOps.ensureIndex(new Index().on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("_id", org.springframework.data.domain.Sort.Direction.ASC));
+            cartIndexOps.ensureIndex(new Index().on("userId", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("_id", org.springframework.data.domain.Sort.Direction.ASC));
+            cartIndexOps.ensureIndex(new Index().on("status", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("_id", org.springframework.data.domain.Sort.Direction.ASC));
+            queryIndexOps.ensureIndex(new Index().on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                 .on("_id", org.springframework.data.domain.Sort.Direction.ASC));
+            queryIndexOps.ensureIndex(new Index().on("category", org.springframework.data.domain.Sort.Direction.ASC)
+                                                 .on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                 .on("_id", org.springframework.data.domain.Sort.Direction.ASC));
+            queryIndexOps.ensureIndex(new Index().on("queryType", org.springframework.data.domain.Sort.Direction.ASC)
+                                                 .on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                 .on("_id", org.springframework.data.domain.Sort.Direction.ASC));
+            queryIndexOps.ensureIndex(new Index().on("collection", org.springframework.data.domain.Sort.Direction.ASC)
+                                                 .on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                 .on("_id", org.springframework.data.domain.Sort.Direction.ASC));
+            queryIndexOps.ensureIndex(new Index().on("createdBy", org.springframework.data.domain.Sort.Direction.ASC)
+                                                 .on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                 .on("_id", org.springframework.data.domain.Sort.Direction.ASC));
+            queryIndexOps.ensureIndex(new Index().on("cacheable", org.springframework.data.domain.Sort.Direction.ASC)
+                                                 .on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                 .on("_id", org.springframework.data.domain.Sort.Direction.ASC));
+            
+            // Range and substring filters cannot return _id order from a (field, active, _id) index;
+            // put the field after _id instead, so pages walk _id order and filter on index keys
+            userIndexOps.ensureIndex(new Index().on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("_id", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("age", org.springframework.data.domain.Sort.Direction.ASC));
+            userIndexOps.ensureIndex(new Index().on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("_id", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("work", org.springframework.data.domain.Sort.Direction.ASC));
+            userIndexOps.ensureIndex(new Index().on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("_id", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("school", org.springframework.data.domain.Sort.Direction.ASC));
+            universityIndexOps.ensureIndex(new Index().on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                      .on("_id", org.springframework.data.domain.Sort.Direction.ASC)
+                                                      .on("location", org.springframework.data.domain.Sort.Direction.ASC));
+            cartIndexOps.ensureIndex(new Index().on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("_id", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("totalAmount", org.springframework.data.domain.Sort.Direction.ASC));
+            
+            // Name search: anchored prefixes of the search tokens are index range seeks
+            for (IndexOperations indexOps : List.of(userIndexOps, universityIndexOps, facultyIndexOps, cartIndexOps, queryIndexOps)) {
+                indexOps.ensureIndex(new Index().on(SearchKeys.TOKENS_FIELD, org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("active", org.springframework.data.domain.Sort.Direction.ASC));
+                if ("text".equalsIgnoreCase(searchMode)) {
+                    indexOps.ensureIndex(TextIndexDefinition.builder().onField("name").build());
+                }
+            }
+            
         } catch (Exception e) {
             // Log error but don't fail application startup
             System.err.println("Error creating MongoDB indexes: " + e.getMessage());
         }
     }
-}
 
+    /**
+     * Email uniqueness is enforced here, not by the existence filter, which can miss
+     * writes of other instances; sparse so users without an email do not collide
+     */
+    private void ensureUniqueEmailIndex(IndexOperations userIndexOps) {
+        try {
+            // A plain index on the same key blocks the unique one; drop it first
+            userIndexOps.getIndexInfo().stream()
+                .filter(index -> !index.isUnique() && index.getIndexFields().size() == 1
+                    && "email".equals(index.getIndexFields().get(0).getKey()))
+                .forEach(index -> userIndexOps.dropIndex(index.getName()));
+            userIndexOps.ensureIndex(new Index().on("email", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .unique().sparse());
+        } catch (Exception e) {
+            // Existing duplicate emails must be resolved before the index can be built;
+            // keep a plain index for lookups meanwhile
+            System.err.println("Error creating unique email index: " + e.getMessage());
+            try {
+                userIndexOps.ensureIndex(new Index().on("email", org.springframework.data.domain.Sort.Direction.ASC));
+            } catch (Exception fallback) {
+                System.err.println("Error creating email index: " + fallback.getMessage());
+            }
+        }
+    }
+}
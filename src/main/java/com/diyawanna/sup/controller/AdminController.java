@@ -1,6 +1,7 @@
 package com.diyawanna.sup.controller;
 
 import com.diyawanna.sup.service.AuthenticationAttemptService;
+import com.diyawanna.sup.service.DynamicQueryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +16,7 @@ import java.util.Map;
  * This controller provides administrative endpoints for:
  * - Managing authentication rate limiting
  * - Clearing authentication attempts
+ * - Hot reloading the dynamic query registry
  * - System configuration management
  * 
  * @author Diyawanna Team
@@ -28,6 +30,9 @@ public class AdminController {
     @Autowired
     private AuthenticationAttemptService attemptService;
 
+    @Autowired
+    private DynamicQueryService dynamicQueryService;
+
     /**
      * Get authentication rate limiting configuration
      * GET /api/admin/auth/config
@@ -142,6 +147,55 @@ public class AdminController {
         }
     }
 
+    /**
+     * Reload query-config.json without restarting
+     * POST /api/admin/dynamic-query/reload
+     */
+    @PostMapping("/dynamic-query/reload")
+    public ResponseEntity<?> reloadDynamicQueries() {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            response.put("success", true);
+            response.put("message", "Dynamic query registry reloaded successfully");
+            response.put("registry", dynamicQueryService.reloadConfiguration());
+            response.put("timestamp", LocalDateTime.now());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", "Failed to reload dynamic query registry");
+            response.put("message", e.getMessage());
+            response.put("timestamp", LocalDateTime.now());
+            
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    /**
+     * Get the version of the active dynamic query registry
+     * GET /api/admin/dynamic-query/registry
+     */
+    @GetMapping("/dynamic-query/registry")
+    public ResponseEntity<?> getDynamicQueryRegistry() {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            response.put("success", true);
+            response.put("registry", dynamicQueryService.getRegistryInfo());
+            response.put("timestamp", LocalDateTime.now());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", "Failed to retrieve dynamic query registry");
+            response.put("message", e.getMessage());
+            response.put("timestamp", LocalDateTime.now());
+            
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
     /**
      * Get system configuration information
      * GET /api/admin/config
@@ -3,6 +3,8 @@ package com.diyawanna.sup.controller;
 import com.diyawanna.sup.entity.Cart;
 import com.diyawanna.sup.entity.Cart.CartItem;
 import com.diyawanna.sup.service.CartService;
+import com.diyawanna.sup.service.FieldSelectionService;
+import com.diyawanna.sup.service.KeysetPaginationService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +17,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Cart controller for REST API endpoints
@@ -30,9 +33,26 @@ public class CartController {
     @Autowired
     private CartService cartService;
 
+    @Autowired
+    private KeysetPaginationService keysetPaginationService;
+
+    @Autowired
+    private FieldSelectionService fieldSelectionService;
+
     @GetMapping
-    public ResponseEntity<?> getAllCarts() {
+    public ResponseEntity<?> getAllCarts(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            Set<String> selected = fieldSelectionService.resolve(Cart.class, fields);
+            if (keysetPaginationService.isPaged(limit, after)) {
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    cartService.getActiveCartsPage(selected, limit, after), selected));
+            }
+            if (selected != null) {
+                return ResponseEntity.ok(cartService.getActiveCarts(selected));
+            }
             List<Cart> carts = cartService.getAllActiveCarts();
             return ResponseEntity.ok(carts);
         } catch (Exception e) {
@@ -44,10 +64,11 @@ public class CartController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getCartById(@PathVariable String id) {
+    public ResponseEntity<?> getCartById(@PathVariable String id,
+            @RequestParam(required = false) String fields) {
         try {
             Cart cart = cartService.getCartById(id);
-            return ResponseEntity.ok(cart);
+            return ResponseEntity.ok(fieldSelectionService.select(cart, Cart.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Cart not found");
@@ -97,9 +118,56 @@ public class CartController {
         }
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createCarts(@RequestBody List<Cart> carts) {
+        try {
+            return ResponseEntity.ok(cartService.createCarts(carts));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to create carts");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<?> updateCarts(@RequestBody List<Cart> carts) {
+        try {
+            return ResponseEntity.ok(cartService.updateCarts(carts));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to update carts");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<?> deleteCarts(@RequestBody List<String> ids) {
+        try {
+            return ResponseEntity.ok(cartService.deleteCarts(ids));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to delete carts");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getCartsByUser(@PathVariable String userId) {
+    public ResponseEntity<?> getCartsByUser(@PathVariable String userId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            Set<String> selected = fieldSelectionService.resolve(Cart.class, fields);
+            if (keysetPaginationService.isPaged(limit, after)) {
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    cartService.getCartsByUserPage(userId, selected, limit, after), selected));
+            }
+            if (selected != null) {
+                return ResponseEntity.ok(cartService.getCartsByUser(userId, selected));
+            }
             List<Cart> carts = cartService.getCartsByUser(userId);
             return ResponseEntity.ok(carts);
         } catch (Exception e) {
@@ -111,11 +179,12 @@ public class CartController {
     }
 
     @GetMapping("/user/{userId}/active")
-    public ResponseEntity<?> getUserActiveCart(@PathVariable String userId) {
+    public ResponseEntity<?> getUserActiveCart(@PathVariable String userId,
+            @RequestParam(required = false) String fields) {
         try {
             Optional<Cart> cart = cartService.getUserActiveCart(userId);
             if (cart.isPresent()) {
-                return ResponseEntity.ok(cart.get());
+                return ResponseEntity.ok(fieldSelectionService.select(cart.get(), Cart.class, fields));
             } else {
                 Map<String, String> response = new HashMap<>();
                 response.put("message", "No active cart found for user");
@@ -130,8 +199,19 @@ public class CartController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<?> getCartsByStatus(@PathVariable String status) {
+    public ResponseEntity<?> getCartsByStatus(@PathVariable String status,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            Set<String> selected = fieldSelectionService.resolve(Cart.class, fields);
+            if (keysetPaginationService.isPaged(limit, after)) {
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    cartService.getCartsByStatusPage(status, selected, limit, after), selected));
+            }
+            if (selected != null) {
+                return ResponseEntity.ok(cartService.getCartsByStatus(status, selected));
+            }
             List<Cart> carts = cartService.getCartsByStatus(status);
             return ResponseEntity.ok(carts);
         } catch (Exception e) {
@@ -182,10 +262,18 @@ public class CartController {
     }
 
     @GetMapping("/search/name")
-    public ResponseEntity<?> searchCartsByName(@RequestParam String name) {
+    public ResponseEntity<?> searchCartsByName(@RequestParam String name,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            if (keysetPaginationService.isPaged(limit, after)) {
+                Set<String> selected = fieldSelectionService.resolve(Cart.class, fields);
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    cartService.searchCartsByNamePage(name, selected, limit, after), selected));
+            }
             List<Cart> carts = cartService.searchCartsByName(name);
-            return ResponseEntity.ok(carts);
+            return ResponseEntity.ok(fieldSelectionService.select(carts, Cart.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Search failed");
@@ -195,10 +283,18 @@ public class CartController {
     }
 
     @GetMapping("/amount-range")
-    public ResponseEntity<?> getCartsByAmountRange(@RequestParam Double minAmount, @RequestParam Double maxAmount) {
+    public ResponseEntity<?> getCartsByAmountRange(@RequestParam Double minAmount, @RequestParam Double maxAmount,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            if (keysetPaginationService.isPaged(limit, after)) {
+                Set<String> selected = fieldSelectionService.resolve(Cart.class, fields);
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    cartService.getCartsByTotalAmountRangePage(minAmount, maxAmount, selected, limit, after), selected));
+            }
             List<Cart> carts = cartService.getCartsByTotalAmountRange(minAmount, maxAmount);
-            return ResponseEntity.ok(carts);
+            return ResponseEntity.ok(fieldSelectionService.select(carts, Cart.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve carts");
@@ -1,26 +1,52 @@
 package com.diyawanna.sup.controller;
 
+import com.diyawanna.sup.service.DynamicQueryBatchService;
 import com.diyawanna.sup.service.DynamicQueryService;
+import com.diyawanna.sup.dto.BatchQueryExecutionRequest;
 import com.diyawanna.sup.dto.QueryExecutionRequest;
 import com.diyawanna.sup.dto.QueryExecutionResponse;
+import com.diyawanna.sup.exception.QueryBudgetExceededException;
+import com.diyawanna.sup.util.FindQueryShape;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * Dynamic Query controller for executing stored and configured queries
  * 
  * This controller provides:
  * - Dynamic query execution with parameter substitution
+ * - Optional NDJSON streaming of large result sets
+ * - Batch execution of several queries in one round trip
  * - Stored query execution from database
  * - Query validation and parameter checking
  * - Sample query examples and documentation
@@ -33,37 +59,67 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class DynamicQueryController {
 
+    private static final JsonWriterSettings NDJSON_SETTINGS =
+        JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+
+    /**
+     * Async interceptor key of the callback closing a streamed cursor
+     */
+    static final String STREAM_CURSOR_KEY = DynamicQueryController.class.getName() + ".streamCursor";
+
     @Autowired
     private DynamicQueryService dynamicQueryService;
 
+    @Autowired
+    private DynamicQueryBatchService dynamicQueryBatchService;
+
     /**
      * Execute dynamic query with parameters
      * POST /api/dynamic-query/execute
      */
     @PostMapping("/execute")
-    public ResponseEntity<?> executeDynamicQuery(@Valid @RequestBody QueryExecutionRequest request) {
+    public ResponseEntity<?> executeDynamicQuery(@Valid @RequestBody QueryExecutionRequest request,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                 WebRequest webRequest) {
+        boolean streaming = request.isStream() || acceptsNdjson(accept);
         try {
             // Validate parameters
             if (!dynamicQueryService.validateParameters(request.getQueryName(), request.getParameters())) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", dynamicQueryService.getErrorMessage("invalid_parameters"));
                 error.put("message", "Invalid or missing parameters for query: " + request.getQueryName());
-                return ResponseEntity.badRequest().body(error);
+                return errorBody(ResponseEntity.badRequest(), error, streaming);
+            }
+
+            FindQueryShape shape = FindQueryShape.of(request.getFields(), request.getSort(),
+                request.getLimit(), request.getAfter());
+
+            // Stream results as NDJSON when requested
+            if (streaming) {
+                CloseableIterator<Document> cursor =
+                    dynamicQueryService.streamDynamicQuery(request.getQueryName(), request.getParameters(), shape);
+                closeOnCompletion(webRequest, cursor);
+                return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(ndjsonBody(cursor, request.getQueryName()));
             }
 
             // Execute query
-            Object result = dynamicQueryService.executeDynamicQuery(request.getQueryName(), request.getParameters());
+            Object result = dynamicQueryService.executeDynamicQuery(request.getQueryName(), request.getParameters(),
+                request.isCacheable(), request.getCacheTimeoutSeconds(), shape);
             
             // Create response
             QueryExecutionResponse response = new QueryExecutionResponse();
             response.setSuccess(true);
             response.setMessage(dynamicQueryService.getSuccessMessage("query_executed"));
-            response.setData(result);
+            response.setResult(result);
             response.setQueryName(request.getQueryName());
             response.setExecutionTime(LocalDateTime.now());
             
             return ResponseEntity.ok(response);
             
+        } catch (QueryBudgetExceededException e) {
+            return budgetExceeded(e, "queryName", request.getQueryName(), streaming);
         } catch (Exception e) {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
@@ -71,28 +127,168 @@ public class DynamicQueryController {
             error.put("message", e.getMessage());
             error.put("queryName", request.getQueryName());
             error.put("timestamp", LocalDateTime.now());
+            return errorBody(ResponseEntity.badRequest(), error, streaming);
+        }
+    }
+
+    /**
+     * Execute several dynamic queries concurrently
+     * POST /api/dynamic-query/execute-batch
+     */
+    @PostMapping("/execute-batch")
+    public ResponseEntity<?> executeBatch(@Valid @RequestBody BatchQueryExecutionRequest request) {
+        try {
+            long start = System.currentTimeMillis();
+            List<QueryExecutionResponse> results =
+                dynamicQueryBatchService.executeBatch(request.getQueries(), request.getTimeoutMs());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", results.stream().allMatch(QueryExecutionResponse::isSuccess));
+            response.put("results", results);
+            response.put("count", results.size());
+            response.put("failed", results.stream().filter(result -> !result.isSuccess()).count());
+            response.put("executionDurationMs", System.currentTimeMillis() - start);
+            response.put("timestamp", LocalDateTime.now());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("error", dynamicQueryService.getErrorMessage("execution_failed"));
+            error.put("message", e.getMessage());
+            error.put("timestamp", LocalDateTime.now());
             return ResponseEntity.badRequest().body(error);
         }
     }
 
+    /**
+     * Error response for a query rejected or aborted by its execution budget:
+     * 429 with Retry-After when the bulkhead is full, 422 when the query itself is too heavy
+     */
+    private ResponseEntity<?> budgetExceeded(QueryBudgetExceededException e, String referenceKey, String reference,
+                                             boolean ndjson) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("error", dynamicQueryService.getErrorMessage("budget_exceeded"));
+        error.put("message", e.getMessage());
+        error.put("limit", e.getLimit());
+        error.put(referenceKey, reference);
+        error.put("timestamp", LocalDateTime.now());
+        if (e.isRetryable()) {
+            return errorBody(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1"), error, ndjson);
+        }
+        return errorBody(ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY), error, ndjson);
+    }
+
+    /**
+     * Error body in a representation a streaming client accepts: a single
+     * NDJSON line, like the error line ending a failed stream. A JSON map cannot
+     * be written as application/x-ndjson and would turn the error into a 406.
+     */
+    private ResponseEntity<?> errorBody(ResponseEntity.BodyBuilder builder, Map<String, ?> error, boolean ndjson) {
+        if (!ndjson) {
+            return builder.body(error);
+        }
+        Document line = new Document();
+        error.forEach((key, value) -> line.append(key,
+            value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+                ? value : value.toString()));
+        return builder.contentType(MediaType.APPLICATION_NDJSON).body(line.toJson(NDJSON_SETTINGS) + "\n");
+    }
+
+    /**
+     * Close a streamed cursor, and so release its bulkhead permits, when the
+     * async request completes for any reason. The response body closes it too,
+     * but it never runs when the request times out or fails before the body is
+     * scheduled, or when the streaming executor rejects it.
+     */
+    private void closeOnCompletion(WebRequest webRequest, CloseableIterator<Document> cursor) {
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(STREAM_CURSOR_KEY,
+            new CallableProcessingInterceptor() {
+                @Override
+                public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                    cursor.close();
+                }
+            });
+    }
+
+    /**
+     * Check whether the client asked for newline-delimited JSON
+     */
+    private boolean acceptsNdjson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Write cursor results one JSON document per line.
+     *
+     * Documents are pulled from the cursor only as fast as the client reads
+     * them (blocking writes provide the back-pressure), so memory stays
+     * constant regardless of result size. The first document is flushed
+     * immediately and then once per cursor batch.
+     */
+    private StreamingResponseBody ndjsonBody(CloseableIterator<Document> cursor, String queryName) {
+        int flushInterval = Math.max(1, dynamicQueryService.getStreamBatchSize());
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            try (cursor) {
+                long written = 0;
+                while (cursor.hasNext()) {
+                    writer.write(cursor.next().toJson(NDJSON_SETTINGS));
+                    writer.write('\n');
+                    if (++written == 1 || written % flushInterval == 0) {
+                        writer.flush();
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Status is already committed; report the failure as a final line
+                Document error = new Document("success", false)
+                    .append("error", dynamicQueryService.getErrorMessage("execution_failed"))
+                    .append("message", e.getMessage())
+                    .append("queryName", queryName);
+                writer.write(error.toJson(NDJSON_SETTINGS));
+                writer.write('\n');
+            }
+            writer.flush();
+        };
+    }
+
     /**
      * Execute stored query from database
      * POST /api/dynamic-query/execute-stored/{queryId}
      */
     @PostMapping("/execute-stored/{queryId}")
-    public ResponseEntity<?> executeStoredQuery(@PathVariable String queryId, @RequestBody(required = false) Map<String, Object> parameters) {
+    public ResponseEntity<?> executeStoredQuery(@PathVariable String queryId,
+                                                @RequestBody(required = false) Map<String, Object> parameters,
+                                                @RequestParam(required = false) List<String> fields,
+                                                @RequestParam(required = false) String sort,
+                                                @RequestParam(required = false) Integer limit,
+                                                @RequestParam(required = false) String after) {
         try {
-            Object result = dynamicQueryService.executeStoredQuery(queryId, parameters);
+            Object result = dynamicQueryService.executeStoredQuery(queryId, parameters,
+                FindQueryShape.of(fields, sort, limit, after));
             
             QueryExecutionResponse response = new QueryExecutionResponse();
             response.setSuccess(true);
             response.setMessage(dynamicQueryService.getSuccessMessage("query_executed"));
-            response.setData(result);
+            response.setResult(result);
             response.setQueryId(queryId);
             response.setExecutionTime(LocalDateTime.now());
             
             return ResponseEntity.ok(response);
             
+        } catch (QueryBudgetExceededException e) {
+            return budgetExceeded(e, "queryId", queryId, false);
         } catch (Exception e) {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
@@ -104,6 +300,43 @@ public class DynamicQueryController {
         }
     }
 
+    /**
+     * Execute stored query by its unique name
+     * POST /api/dynamic-query/execute-stored/name/{queryName}
+     */
+    @PostMapping("/execute-stored/name/{queryName}")
+    public ResponseEntity<?> executeStoredQueryByName(@PathVariable String queryName,
+                                                      @RequestBody(required = false) Map<String, Object> parameters,
+                                                      @RequestParam(required = false) List<String> fields,
+                                                      @RequestParam(required = false) String sort,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      @RequestParam(required = false) String after) {
+        try {
+            Object result = dynamicQueryService.executeStoredQueryByName(queryName, parameters,
+                FindQueryShape.of(fields, sort, limit, after));
+            
+            QueryExecutionResponse response = new QueryExecutionResponse();
+            response.setSuccess(true);
+            response.setMessage(dynamicQueryService.getSuccessMessage("query_executed"));
+            response.setResult(result);
+            response.setQueryName(queryName);
+            response.setExecutionTime(LocalDateTime.now());
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (QueryBudgetExceededException e) {
+            return budgetExceeded(e, "queryName", queryName, false);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("error", dynamicQueryService.getErrorMessage("execution_failed"));
+            error.put("message", e.getMessage());
+            error.put("queryName", queryName);
+            error.put("timestamp", LocalDateTime.now());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     /**
      * Get available query mappings
      * GET /api/dynamic-query/mappings
@@ -174,13 +407,17 @@ public class DynamicQueryController {
             docs.put("description", "Dynamic Query API allows execution of predefined queries with parameter substitution");
             docs.put("version", "1.0.0");
             docs.put("endpoints", Map.of(
-                "execute", "POST /api/dynamic-query/execute - Execute dynamic query",
+                "execute", "POST /api/dynamic-query/execute - Execute dynamic query (Accept: application/x-ndjson or \"stream\": true to stream)",
+                "execute-batch", "POST /api/dynamic-query/execute-batch - Execute several queries concurrently",
                 "execute-stored", "POST /api/dynamic-query/execute-stored/{queryId} - Execute stored query",
+                "execute-stored-by-name", "POST /api/dynamic-query/execute-stored/name/{queryName} - Execute stored query by name",
                 "mappings", "GET /api/dynamic-query/mappings - Get available query mappings",
                 "samples", "GET /api/dynamic-query/samples - Get sample queries",
                 "validate", "POST /api/dynamic-query/validate - Validate query parameters"
             ));
             docs.put("queryFormat", "Queries use ${parameterName} syntax for parameter substitution");
+            docs.put("findOptions", "FIND queries accept fields, sort (e.g. \"-createdAt,name\"), limit and after; "
+                + "paged results return metadata.nextCursor to pass as after");
             docs.put("supportedTypes", new String[]{"FIND", "AGGREGATE", "COUNT"});
             docs.put("timestamp", LocalDateTime.now());
             
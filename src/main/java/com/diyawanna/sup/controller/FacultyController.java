@@ -1,9 +1,14 @@
 package com.diyawanna.sup.controller;
 
 import com.diyawanna.sup.entity.Faculty;
+import com.diyawanna.sup.service.CacheInvalidationService;
 import com.diyawanna.sup.service.FacultyService;
+import com.diyawanna.sup.service.FieldSelectionService;
+import com.diyawanna.sup.service.KeysetPaginationService;
+import com.diyawanna.sup.service.ResponseCacheService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,6 +18,7 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Faculty controller for REST API endpoints
@@ -28,11 +34,33 @@ public class FacultyController {
     @Autowired
     private FacultyService facultyService;
 
+    @Autowired
+    private ResponseCacheService responseCacheService;
+
+    @Autowired
+    private KeysetPaginationService keysetPaginationService;
+
+    @Autowired
+    private FieldSelectionService fieldSelectionService;
+
     @GetMapping
-    public ResponseEntity<?> getAllFaculties() {
+    public ResponseEntity<?> getAllFaculties(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
-            List<Faculty> faculties = facultyService.getAllActiveFaculties();
-            return ResponseEntity.ok(faculties);
+            Set<String> selected = fieldSelectionService.resolve(Faculty.class, fields);
+            if (keysetPaginationService.isPaged(limit, after)) {
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    facultyService.getActiveFacultiesPage(selected, limit, after), selected));
+            }
+            if (selected != null) {
+                return ResponseEntity.ok(facultyService.getActiveFaculties(selected));
+            }
+            return responseCacheService.respond("faculties", CacheInvalidationService.ALL_ACTIVE_KEY,
+                ifNoneMatch, acceptEncoding, facultyService::getAllActiveFaculties);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve faculties");
@@ -42,10 +70,11 @@ public class FacultyController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getFacultyById(@PathVariable String id) {
+    public ResponseEntity<?> getFacultyById(@PathVariable String id,
+            @RequestParam(required = false) String fields) {
         try {
             Faculty faculty = facultyService.getFacultyById(id);
-            return ResponseEntity.ok(faculty);
+            return ResponseEntity.ok(fieldSelectionService.select(faculty, Faculty.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Faculty not found");
@@ -95,9 +124,56 @@ public class FacultyController {
         }
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createFaculties(@RequestBody List<Faculty> faculties) {
+        try {
+            return ResponseEntity.ok(facultyService.createFaculties(faculties));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to create faculties");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<?> updateFaculties(@RequestBody List<Faculty> faculties) {
+        try {
+            return ResponseEntity.ok(facultyService.updateFaculties(faculties));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to update faculties");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<?> deleteFaculties(@RequestBody List<String> ids) {
+        try {
+            return ResponseEntity.ok(facultyService.deleteFaculties(ids));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to delete faculties");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     @GetMapping("/university/{universityId}")
-    public ResponseEntity<?> getFacultiesByUniversity(@PathVariable String universityId) {
+    public ResponseEntity<?> getFacultiesByUniversity(@PathVariable String universityId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            Set<String> selected = fieldSelectionService.resolve(Faculty.class, fields);
+            if (keysetPaginationService.isPaged(limit, after)) {
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    facultyService.getFacultiesByUniversityPage(universityId, selected, limit, after), selected));
+            }
+            if (selected != null) {
+                return ResponseEntity.ok(facultyService.getFacultiesByUniversity(universityId, selected));
+            }
             List<Faculty> faculties = facultyService.getFacultiesByUniversity(universityId);
             return ResponseEntity.ok(faculties);
         } catch (Exception e) {
@@ -109,10 +185,18 @@ public class FacultyController {
     }
 
     @GetMapping("/search/name")
-    public ResponseEntity<?> searchFacultiesByName(@RequestParam String name) {
+    public ResponseEntity<?> searchFacultiesByName(@RequestParam String name,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            if (keysetPaginationService.isPaged(limit, after)) {
+                Set<String> selected = fieldSelectionService.resolve(Faculty.class, fields);
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    facultyService.searchFacultiesByNamePage(name, selected, limit, after), selected));
+            }
             List<Faculty> faculties = facultyService.searchFacultiesByName(name);
-            return ResponseEntity.ok(faculties);
+            return ResponseEntity.ok(fieldSelectionService.select(faculties, Faculty.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Search failed");
@@ -1,5 +1,6 @@
 package com.diyawanna.sup.controller;
 
+import com.diyawanna.sup.service.IndexAdvisorService;
 import com.diyawanna.sup.service.PerformanceMonitoringService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +10,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -17,7 +19,9 @@ import java.util.Map;
  * This controller provides:
  * - Performance metrics endpoints
  * - Cache management operations
+ * - Prometheus scrape endpoint for cache statistics
  * - System health monitoring
+ * - Index advice for configured and stored queries
  * - Administrative operations
  * 
  * @author Diyawanna Team
@@ -31,6 +35,43 @@ public class PerformanceController {
     @Autowired
     private PerformanceMonitoringService performanceService;
 
+    @Autowired
+    private IndexAdvisorService indexAdvisorService;
+
+    /**
+     * Explain all configured and stored queries and propose missing indexes
+     * GET /api/performance/index-advice
+     */
+    @GetMapping("/index-advice")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getIndexAdvice() {
+        try {
+            return ResponseEntity.ok(indexAdvisorService.getIndexAdvice());
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to generate index advice");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Create the proposed indexes, optionally only for the listed queries
+     * POST /api/performance/index-advice/apply
+     */
+    @PostMapping("/index-advice/apply")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> applyIndexAdvice(@RequestBody(required = false) List<String> queryNames) {
+        try {
+            return ResponseEntity.ok(indexAdvisorService.applyIndexAdvice(queryNames));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to apply index advice");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     /**
      * Get comprehensive performance metrics
      * GET /api/performance/metrics
@@ -49,6 +90,20 @@ public class PerformanceController {
         }
     }
 
+    /**
+     * Cache statistics in the Prometheus text exposition format
+     * GET /api/performance/metrics/prometheus
+     */
+    @GetMapping(value = "/metrics/prometheus", produces = "text/plain;version=0.0.4;charset=utf-8")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getPrometheusMetrics() {
+        try {
+            return ResponseEntity.ok(performanceService.getPrometheusMetrics());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("# Failed to collect metrics: " + e.getMessage() + "\n");
+        }
+    }
+
     /**
      * Get cache hit ratio for specific cache
      * GET /api/performance/cache/{cacheName}/hit-ratio
@@ -62,6 +117,7 @@ public class PerformanceController {
             response.put("cacheName", cacheName);
             response.put("hitRatio", hitRatio);
             response.put("hitRatioPercent", hitRatio * 100);
+            response.put("statistics", performanceService.getCacheStatistics(cacheName));
             response.put("timestamp", LocalDateTime.now());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -116,18 +172,18 @@ public class PerformanceController {
     }
 
     /**
-     * Warm up caches
+     * Warm up caches in the background
      * POST /api/performance/cache/warmup
      */
     @PostMapping("/cache/warmup")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> warmUpCaches() {
         try {
-            performanceService.warmUpCaches();
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Cache warm-up initiated");
+            Map<String, Object> response = new HashMap<>(performanceService.warmUpCaches());
+            response.put("message", Boolean.TRUE.equals(response.get("started"))
+                ? "Cache warm-up initiated" : "Cache warm-up already in progress");
             response.put("timestamp", LocalDateTime.now());
-            return ResponseEntity.ok(response);
+            return ResponseEntity.accepted().body(response);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to warm up caches");
@@ -136,6 +192,23 @@ public class PerformanceController {
         }
     }
 
+    /**
+     * Get progress of the current or most recent cache warm-up
+     * GET /api/performance/cache/warmup
+     */
+    @GetMapping("/cache/warmup")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getCacheWarmupProgress() {
+        try {
+            return ResponseEntity.ok(performanceService.getCacheWarmupProgress());
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to retrieve cache warm-up progress");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     /**
      * Get system health status
      * GET /api/performance/health
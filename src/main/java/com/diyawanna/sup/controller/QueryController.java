@@ -1,9 +1,14 @@
 package com.diyawanna.sup.controller;
 
 import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.service.CacheInvalidationService;
+import com.diyawanna.sup.service.FieldSelectionService;
+import com.diyawanna.sup.service.KeysetPaginationService;
 import com.diyawanna.sup.service.QueryService;
+import com.diyawanna.sup.service.ResponseCacheService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,6 +18,7 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Query controller for REST API endpoints
@@ -28,11 +34,33 @@ public class QueryController {
     @Autowired
     private QueryService queryService;
 
+    @Autowired
+    private ResponseCacheService responseCacheService;
+
+    @Autowired
+    private KeysetPaginationService keysetPaginationService;
+
+    @Autowired
+    private FieldSelectionService fieldSelectionService;
+
     @GetMapping
-    public ResponseEntity<?> getAllQueries() {
+    public ResponseEntity<?> getAllQueries(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
-            List<Query> queries = queryService.getAllActiveQueries();
-            return ResponseEntity.ok(queries);
+            Set<String> selected = fieldSelectionService.resolve(Query.class, fields);
+            if (keysetPaginationService.isPaged(limit, after)) {
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    queryService.getActiveQueriesPage(selected, limit, after), selected));
+            }
+            if (selected != null) {
+                return ResponseEntity.ok(queryService.getActiveQueries(selected));
+            }
+            return responseCacheService.respond("queries", CacheInvalidationService.ALL_ACTIVE_KEY,
+                ifNoneMatch, acceptEncoding, queryService::getAllActiveQueries);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve queries");
@@ -42,10 +70,11 @@ public class QueryController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getQueryById(@PathVariable String id) {
+    public ResponseEntity<?> getQueryById(@PathVariable String id,
+            @RequestParam(required = false) String fields) {
         try {
             Query query = queryService.getQueryById(id);
-            return ResponseEntity.ok(query);
+            return ResponseEntity.ok(fieldSelectionService.select(query, Query.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Query not found");
@@ -55,10 +84,11 @@ public class QueryController {
     }
 
     @GetMapping("/name/{name}")
-    public ResponseEntity<?> getQueryByName(@PathVariable String name) {
+    public ResponseEntity<?> getQueryByName(@PathVariable String name,
+            @RequestParam(required = false) String fields) {
         try {
             Query query = queryService.getQueryByName(name);
-            return ResponseEntity.ok(query);
+            return ResponseEntity.ok(fieldSelectionService.select(query, Query.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Query not found");
@@ -109,8 +139,19 @@ public class QueryController {
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<?> getQueriesByCategory(@PathVariable String category) {
+    public ResponseEntity<?> getQueriesByCategory(@PathVariable String category,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            Set<String> selected = fieldSelectionService.resolve(Query.class, fields);
+            if (keysetPaginationService.isPaged(limit, after)) {
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    queryService.getQueriesByCategoryPage(category, selected, limit, after), selected));
+            }
+            if (selected != null) {
+                return ResponseEntity.ok(queryService.getQueriesByCategory(category, selected));
+            }
             List<Query> queries = queryService.getQueriesByCategory(category);
             return ResponseEntity.ok(queries);
         } catch (Exception e) {
@@ -122,8 +163,19 @@ public class QueryController {
     }
 
     @GetMapping("/type/{queryType}")
-    public ResponseEntity<?> getQueriesByType(@PathVariable String queryType) {
+    public ResponseEntity<?> getQueriesByType(@PathVariable String queryType,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            Set<String> selected = fieldSelectionService.resolve(Query.class, fields);
+            if (keysetPaginationService.isPaged(limit, after)) {
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    queryService.getQueriesByTypePage(queryType, selected, limit, after), selected));
+            }
+            if (selected != null) {
+                return ResponseEntity.ok(queryService.getQueriesByType(queryType, selected));
+            }
             List<Query> queries = queryService.getQueriesByType(queryType);
             return ResponseEntity.ok(queries);
         } catch (Exception e) {
@@ -135,10 +187,18 @@ public class QueryController {
     }
 
     @GetMapping("/collection/{collection}")
-    public ResponseEntity<?> getQueriesByCollection(@PathVariable String collection) {
+    public ResponseEntity<?> getQueriesByCollection(@PathVariable String collection,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            if (keysetPaginationService.isPaged(limit, after)) {
+                Set<String> selected = fieldSelectionService.resolve(Query.class, fields);
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    queryService.getQueriesByCollectionPage(collection, selected, limit, after), selected));
+            }
             List<Query> queries = queryService.getQueriesByCollection(collection);
-            return ResponseEntity.ok(queries);
+            return ResponseEntity.ok(fieldSelectionService.select(queries, Query.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve queries");
@@ -148,10 +208,17 @@ public class QueryController {
     }
 
     @GetMapping("/cacheable")
-    public ResponseEntity<?> getCacheableQueries() {
+    public ResponseEntity<?> getCacheableQueries(@RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            if (keysetPaginationService.isPaged(limit, after)) {
+                Set<String> selected = fieldSelectionService.resolve(Query.class, fields);
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    queryService.getCacheableQueriesPage(selected, limit, after), selected));
+            }
             List<Query> queries = queryService.getCacheableQueries();
-            return ResponseEntity.ok(queries);
+            return ResponseEntity.ok(fieldSelectionService.select(queries, Query.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve cacheable queries");
@@ -161,10 +228,18 @@ public class QueryController {
     }
 
     @GetMapping("/search/name")
-    public ResponseEntity<?> searchQueriesByName(@RequestParam String name) {
+    public ResponseEntity<?> searchQueriesByName(@RequestParam String name,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            if (keysetPaginationService.isPaged(limit, after)) {
+                Set<String> selected = fieldSelectionService.resolve(Query.class, fields);
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    queryService.searchQueriesByNamePage(name, selected, limit, after), selected));
+            }
             List<Query> queries = queryService.searchQueriesByName(name);
-            return ResponseEntity.ok(queries);
+            return ResponseEntity.ok(fieldSelectionService.select(queries, Query.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Search failed");
@@ -174,10 +249,18 @@ public class QueryController {
     }
 
     @GetMapping("/creator/{createdBy}")
-    public ResponseEntity<?> getQueriesByCreator(@PathVariable String createdBy) {
+    public ResponseEntity<?> getQueriesByCreator(@PathVariable String createdBy,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            if (keysetPaginationService.isPaged(limit, after)) {
+                Set<String> selected = fieldSelectionService.resolve(Query.class, fields);
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    queryService.getQueriesByCreatorPage(createdBy, selected, limit, after), selected));
+            }
             List<Query> queries = queryService.getQueriesByCreator(createdBy);
-            return ResponseEntity.ok(queries);
+            return ResponseEntity.ok(fieldSelectionService.select(queries, Query.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve queries");
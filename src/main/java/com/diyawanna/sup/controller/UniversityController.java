@@ -1,9 +1,14 @@
 package com.diyawanna.sup.controller;
 
 import com.diyawanna.sup.entity.University;
+import com.diyawanna.sup.service.CacheInvalidationService;
+import com.diyawanna.sup.service.FieldSelectionService;
+import com.diyawanna.sup.service.KeysetPaginationService;
+import com.diyawanna.sup.service.ResponseCacheService;
 import com.diyawanna.sup.service.UniversityService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,6 +18,7 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * University controller for REST API endpoints
@@ -34,15 +40,37 @@ public class UniversityController {
     @Autowired
     private UniversityService universityService;
 
+    @Autowired
+    private ResponseCacheService responseCacheService;
+
+    @Autowired
+    private KeysetPaginationService keysetPaginationService;
+
+    @Autowired
+    private FieldSelectionService fieldSelectionService;
+
     /**
      * Get all active universities
-     * GET /api/universities
+     * GET /api/universities, or GET /api/universities?limit=50&after=<cursor> for one page
      */
     @GetMapping
-    public ResponseEntity<?> getAllUniversities() {
+    public ResponseEntity<?> getAllUniversities(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
-            List<University> universities = universityService.getAllActiveUniversities();
-            return ResponseEntity.ok(universities);
+            Set<String> selected = fieldSelectionService.resolve(University.class, fields);
+            if (keysetPaginationService.isPaged(limit, after)) {
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    universityService.getActiveUniversitiesPage(selected, limit, after), selected));
+            }
+            if (selected != null) {
+                return ResponseEntity.ok(universityService.getActiveUniversities(selected));
+            }
+            return responseCacheService.respond("universities", CacheInvalidationService.ALL_ACTIVE_KEY,
+                ifNoneMatch, acceptEncoding, universityService::getAllActiveUniversities);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve universities");
@@ -56,10 +84,11 @@ public class UniversityController {
      * GET /api/universities/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getUniversityById(@PathVariable String id) {
+    public ResponseEntity<?> getUniversityById(@PathVariable String id,
+            @RequestParam(required = false) String fields) {
         try {
             University university = universityService.getUniversityById(id);
-            return ResponseEntity.ok(university);
+            return ResponseEntity.ok(fieldSelectionService.select(university, University.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "University not found");
@@ -73,10 +102,11 @@ public class UniversityController {
      * GET /api/universities/name/{name}
      */
     @GetMapping("/name/{name}")
-    public ResponseEntity<?> getUniversityByName(@PathVariable String name) {
+    public ResponseEntity<?> getUniversityByName(@PathVariable String name,
+            @RequestParam(required = false) String fields) {
         try {
             University university = universityService.getUniversityByName(name);
-            return ResponseEntity.ok(university);
+            return ResponseEntity.ok(fieldSelectionService.select(university, University.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "University not found");
@@ -138,15 +168,71 @@ public class UniversityController {
         }
     }
 
+    /**
+     * Create universities in bulk, with one result per item
+     * POST /api/universities/bulk
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createUniversities(@RequestBody List<University> universities) {
+        try {
+            return ResponseEntity.ok(universityService.createUniversities(universities));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to create universities");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Update universities in bulk; each item carries its id
+     * PUT /api/universities/bulk
+     */
+    @PutMapping("/bulk")
+    public ResponseEntity<?> updateUniversities(@RequestBody List<University> universities) {
+        try {
+            return ResponseEntity.ok(universityService.updateUniversities(universities));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to update universities");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Soft delete universities in bulk by id
+     * POST /api/universities/bulk/delete
+     */
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<?> deleteUniversities(@RequestBody List<String> ids) {
+        try {
+            return ResponseEntity.ok(universityService.deleteUniversities(ids));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to delete universities");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     /**
      * Search universities by name
      * GET /api/universities/search/name
      */
     @GetMapping("/search/name")
-    public ResponseEntity<?> searchUniversitiesByName(@RequestParam String name) {
+    public ResponseEntity<?> searchUniversitiesByName(@RequestParam String name,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            if (keysetPaginationService.isPaged(limit, after)) {
+                Set<String> selected = fieldSelectionService.resolve(University.class, fields);
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    universityService.searchUniversitiesByNamePage(name, selected, limit, after), selected));
+            }
             List<University> universities = universityService.searchUniversitiesByName(name);
-            return ResponseEntity.ok(universities);
+            return ResponseEntity.ok(fieldSelectionService.select(universities, University.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Search failed");
@@ -160,10 +246,18 @@ public class UniversityController {
      * GET /api/universities/location/{location}
      */
     @GetMapping("/location/{location}")
-    public ResponseEntity<?> getUniversitiesByLocation(@PathVariable String location) {
+    public ResponseEntity<?> getUniversitiesByLocation(@PathVariable String location,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            if (keysetPaginationService.isPaged(limit, after)) {
+                Set<String> selected = fieldSelectionService.resolve(University.class, fields);
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    universityService.getUniversitiesByLocationPage(location, selected, limit, after), selected));
+            }
             List<University> universities = universityService.getUniversitiesByLocation(location);
-            return ResponseEntity.ok(universities);
+            return ResponseEntity.ok(fieldSelectionService.select(universities, University.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve universities");
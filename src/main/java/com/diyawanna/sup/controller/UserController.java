@@ -1,9 +1,14 @@
 package com.diyawanna.sup.controller;
 
 import com.diyawanna.sup.entity.User;
+import com.diyawanna.sup.service.CacheInvalidationService;
+import com.diyawanna.sup.service.FieldSelectionService;
+import com.diyawanna.sup.service.KeysetPaginationService;
+import com.diyawanna.sup.service.ResponseCacheService;
 import com.diyawanna.sup.service.UserService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -14,6 +19,7 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * User controller for REST API endpoints
@@ -35,17 +41,38 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ResponseCacheService responseCacheService;
+
+    @Autowired
+    private KeysetPaginationService keysetPaginationService;
+
+    @Autowired
+    private FieldSelectionService fieldSelectionService;
+
     /**
      * Get all active users
-     * GET /api/users
+     * GET /api/users, or GET /api/users?limit=50&after=<cursor> for one page
      */
     @GetMapping
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
-            List<User> users = userService.getAllActiveUsers();
-            // Remove passwords from response
-            users.forEach(user -> user.setPassword(null));
-            return ResponseEntity.ok(users);
+            Set<String> selected = fieldSelectionService.resolve(User.class, fields);
+            if (keysetPaginationService.isPaged(limit, after)) {
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    userService.getActiveUsersPage(selected, limit, after), selected));
+            }
+            if (selected != null) {
+                return ResponseEntity.ok(userService.getActiveUsers(selected));
+            }
+            // Passwords are stripped from the encoded copy, not from the cached users
+            return responseCacheService.respond("users", CacheInvalidationService.ALL_ACTIVE_KEY,
+                ifNoneMatch, acceptEncoding, userService::getAllActiveUsers, "password");
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve users");
@@ -59,11 +86,12 @@ public class UserController {
      * GET /api/users/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getUserById(@PathVariable String id) {
+    public ResponseEntity<?> getUserById(@PathVariable String id,
+            @RequestParam(required = false) String fields) {
         try {
             User user = userService.getUserById(id);
             user.setPassword(null); // Remove password from response
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(fieldSelectionService.select(user, User.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "User not found");
@@ -77,11 +105,12 @@ public class UserController {
      * GET /api/users/username/{username}
      */
     @GetMapping("/username/{username}")
-    public ResponseEntity<?> getUserByUsername(@PathVariable String username) {
+    public ResponseEntity<?> getUserByUsername(@PathVariable String username,
+            @RequestParam(required = false) String fields) {
         try {
             User user = userService.getUserByUsername(username);
             user.setPassword(null); // Remove password from response
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(fieldSelectionService.select(user, User.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "User not found");
@@ -145,6 +174,54 @@ public class UserController {
         }
     }
 
+    /**
+     * Create users in bulk, with one result per item
+     * POST /api/users/bulk
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createUsers(@RequestBody List<User> users) {
+        try {
+            return ResponseEntity.ok(userService.createUsers(users));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to create users");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Update users in bulk; each item carries its id
+     * PUT /api/users/bulk
+     */
+    @PutMapping("/bulk")
+    public ResponseEntity<?> updateUsers(@RequestBody List<User> users) {
+        try {
+            return ResponseEntity.ok(userService.updateUsers(users));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to update users");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Soft delete users in bulk by id
+     * POST /api/users/bulk/delete
+     */
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<?> deleteUsers(@RequestBody List<String> ids) {
+        try {
+            return ResponseEntity.ok(userService.deleteUsers(ids));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to delete users");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     /**
      * Hard delete user
      * DELETE /api/users/{id}/hard
@@ -170,11 +247,19 @@ public class UserController {
      * GET /api/users/search/name
      */
     @GetMapping("/search/name")
-    public ResponseEntity<?> searchUsersByName(@RequestParam String name) {
+    public ResponseEntity<?> searchUsersByName(@RequestParam String name,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            if (keysetPaginationService.isPaged(limit, after)) {
+                Set<String> selected = fieldSelectionService.resolve(User.class, fields);
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    userService.searchUsersByNamePage(name, selected, limit, after), selected));
+            }
             List<User> users = userService.searchUsersByName(name);
             users.forEach(user -> user.setPassword(null));
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok(fieldSelectionService.select(users, User.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Search failed");
@@ -188,8 +273,19 @@ public class UserController {
      * GET /api/users/university/{university}
      */
     @GetMapping("/university/{university}")
-    public ResponseEntity<?> getUsersByUniversity(@PathVariable String university) {
+    public ResponseEntity<?> getUsersByUniversity(@PathVariable String university,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            Set<String> selected = fieldSelectionService.resolve(User.class, fields);
+            if (keysetPaginationService.isPaged(limit, after)) {
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    userService.getUsersByUniversityPage(university, selected, limit, after), selected));
+            }
+            if (selected != null) {
+                return ResponseEntity.ok(userService.getUsersByUniversity(university, selected));
+            }
             List<User> users = userService.getUsersByUniversity(university);
             users.forEach(user -> user.setPassword(null));
             return ResponseEntity.ok(users);
@@ -206,11 +302,19 @@ public class UserController {
      * GET /api/users/age-range
      */
     @GetMapping("/age-range")
-    public ResponseEntity<?> getUsersByAgeRange(@RequestParam Integer minAge, @RequestParam Integer maxAge) {
+    public ResponseEntity<?> getUsersByAgeRange(@RequestParam Integer minAge, @RequestParam Integer maxAge,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            if (keysetPaginationService.isPaged(limit, after)) {
+                Set<String> selected = fieldSelectionService.resolve(User.class, fields);
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    userService.getUsersByAgeRangePage(minAge, maxAge, selected, limit, after), selected));
+            }
             List<User> users = userService.getUsersByAgeRange(minAge, maxAge);
             users.forEach(user -> user.setPassword(null));
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok(fieldSelectionService.select(users, User.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve users");
@@ -224,11 +328,19 @@ public class UserController {
      * GET /api/users/work/{work}
      */
     @GetMapping("/work/{work}")
-    public ResponseEntity<?> getUsersByWork(@PathVariable String work) {
+    public ResponseEntity<?> getUsersByWork(@PathVariable String work,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            if (keysetPaginationService.isPaged(limit, after)) {
+                Set<String> selected = fieldSelectionService.resolve(User.class, fields);
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    userService.getUsersByWorkPage(work, selected, limit, after), selected));
+            }
             List<User> users = userService.getUsersByWork(work);
             users.forEach(user -> user.setPassword(null));
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok(fieldSelectionService.select(users, User.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve users");
@@ -242,11 +354,19 @@ public class UserController {
      * GET /api/users/school/{school}
      */
     @GetMapping("/school/{school}")
-    public ResponseEntity<?> getUsersBySchool(@PathVariable String school) {
+    public ResponseEntity<?> getUsersBySchool(@PathVariable String school,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
         try {
+            if (keysetPaginationService.isPaged(limit, after)) {
+                Set<String> selected = fieldSelectionService.resolve(User.class, fields);
+                return ResponseEntity.ok(fieldSelectionService.trim(
+                    userService.getUsersBySchoolPage(school, selected, limit, after), selected));
+            }
             List<User> users = userService.getUsersBySchool(school);
             users.forEach(user -> user.setPassword(null));
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok(fieldSelectionService.select(users, User.class, fields));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve users");
@@ -0,0 +1,50 @@
+package com.diyawanna.sup.dto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Request DTO for batch dynamic query execution
+ * 
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public class BatchQueryExecutionRequest {
+
+    @NotEmpty(message = "At least one query is required")
+    private List<@Valid QueryExecutionRequest> queries;
+
+    private Long timeoutMs;
+
+    public BatchQueryExecutionRequest() {}
+
+    public BatchQueryExecutionRequest(List<QueryExecutionRequest> queries) {
+        this.queries = queries;
+    }
+
+    public List<QueryExecutionRequest> getQueries() {
+        return queries;
+    }
+
+    public void setQueries(List<QueryExecutionRequest> queries) {
+        this.queries = queries;
+    }
+
+    public Long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public void setTimeoutMs(Long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchQueryExecutionRequest{" +
+                "queries=" + (queries != null ? queries.size() : 0) +
+                ", timeoutMs=" + timeoutMs +
+                '}';
+    }
+}
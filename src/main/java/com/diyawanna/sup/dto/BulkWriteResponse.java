@@ -0,0 +1,140 @@
+package com.diyawanna.sup.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response DTO for bulk create, update and delete requests
+ *
+ * Holds one result per request item, in request order.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public class BulkWriteResponse {
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String INVALID = "INVALID";
+    public static final String FAILED = "FAILED";
+
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private Long durationMs;
+    private List<ItemResult> items = new ArrayList<>();
+
+    public BulkWriteResponse() {}
+
+    public BulkWriteResponse(List<ItemResult> items, long durationMs) {
+        this.items = items;
+        this.durationMs = durationMs;
+        this.requested = items.size();
+        for (ItemResult item : items) {
+            if (item.isSuccess()) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public List<ItemResult> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ItemResult> items) {
+        this.items = items;
+    }
+
+    /**
+     * Outcome of one request item
+     */
+    public static class ItemResult {
+
+        private int index;
+        private String id;
+        private String status;
+        private String message;
+
+        public ItemResult() {}
+
+        public ItemResult(int index, String id, String status, String message) {
+            this.index = index;
+            this.id = id;
+            this.status = status;
+            this.message = message;
+        }
+
+        public boolean isSuccess() {
+            return CREATED.equals(status) || UPDATED.equals(status) || DELETED.equals(status);
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
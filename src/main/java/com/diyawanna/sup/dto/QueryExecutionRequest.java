@@ -3,6 +3,7 @@ package com.diyawanna.sup.dto;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,6 +22,13 @@ public class QueryExecutionRequest {
 
     private boolean cacheable = false;
     private Integer cacheTimeoutSeconds;
+    private boolean stream = false;
+
+    // Find-only shape: projection, sort ("-createdAt,name"), page size and keyset cursor
+    private List<String> fields;
+    private String sort;
+    private Integer limit;
+    private String after;
 
     public QueryExecutionRequest() {}
 
@@ -61,6 +69,46 @@ public class QueryExecutionRequest {
         this.cacheTimeoutSeconds = cacheTimeoutSeconds;
     }
 
+    public boolean isStream() {
+        return stream;
+    }
+
+    public void setStream(boolean stream) {
+        this.stream = stream;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+
+    public void setAfter(String after) {
+        this.after = after;
+    }
+
     @Override
     public String toString() {
         return "QueryExecutionRequest{" +
@@ -68,6 +116,10 @@ public class QueryExecutionRequest {
                 ", parameters=" + parameters +
                 ", cacheable=" + cacheable +
                 ", cacheTimeoutSeconds=" + cacheTimeoutSeconds +
+                ", stream=" + stream +
+                ", fields=" + fields +
+                ", sort='" + sort + '\'' +
+                ", limit=" + limit +
                 '}';
     }
 }
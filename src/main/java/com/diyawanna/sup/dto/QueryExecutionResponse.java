@@ -1,6 +1,9 @@
 package com.diyawanna.sup.dto;
 
+import com.diyawanna.sup.util.KeysetPage;
+
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -62,6 +65,23 @@ public class QueryExecutionResponse {
         }
     }
 
+    /**
+     * Set a query result, unpacking keyset pages into data plus cursor metadata
+     */
+    public void setResult(Object result) {
+        if (result instanceof KeysetPage) {
+            KeysetPage<?> page = (KeysetPage<?>) result;
+            setData(page.getResults());
+            if (metadata == null) {
+                metadata = new HashMap<>();
+            }
+            metadata.put("nextCursor", page.getNextCursor());
+            metadata.put("hasMore", page.isHasMore());
+        } else {
+            setData(result);
+        }
+    }
+
     public String getQueryName() {
         return queryName;
     }
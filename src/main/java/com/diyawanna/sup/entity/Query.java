@@ -9,6 +9,7 @@ import org.springframework.data.mongodb.core.index.Indexed;
 import javax.validation.constraints.NotBlank;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -47,6 +48,14 @@ public class Query {
     
     private Map<String, String> variableMappings = new HashMap<>();
     
+    private Map<String, Object> options = new HashMap<>(); // Execution options, e.g. allowDiskUse, batchSize
+    
+    private List<String> fields; // Default projection for FIND queries
+    
+    private String sort; // Default sort for FIND queries, e.g. "-createdAt,name"
+    
+    private Integer limit; // Default page size for FIND queries
+    
     private String successMessage;
     
     private String errorMessage;
@@ -177,6 +186,38 @@ public class Query {
         }
     }
 
+    public Map<String, Object> getOptions() {
+        return options;
+    }
+
+    public void setOptions(Map<String, Object> options) {
+        this.options = options != null ? options : new HashMap<>();
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
     public String getSuccessMessage() {
         return successMessage;
     }
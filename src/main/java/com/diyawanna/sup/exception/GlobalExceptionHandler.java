@@ -249,6 +249,24 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Handle dynamic queries rejected or aborted by their execution budget
+     */
+    @ExceptionHandler(QueryBudgetExceededException.class)
+    public ResponseEntity<?> handleQueryBudgetExceededException(QueryBudgetExceededException ex, WebRequest request) {
+        HttpStatus status = ex.isRetryable() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.UNPROCESSABLE_ENTITY;
+        Map<String, Object> response = createErrorResponse(
+            "Query execution budget exceeded", 
+            ex.getMessage(), 
+            status, 
+            request, 
+            ex
+        );
+        response.put("limit", ex.getLimit());
+        
+        return new ResponseEntity<>(response, status);
+    }
+
     /**
      * Handle illegal argument exceptions
      */
@@ -0,0 +1,42 @@
+package com.diyawanna.sup.exception;
+
+/**
+ * Custom exception for dynamic queries that exceed their execution budget
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    /**
+     * Budget limit that was exceeded
+     */
+    public enum Limit {
+        MAX_TIME,
+        MAX_DOCUMENTS,
+        MAX_CONCURRENCY
+    }
+
+    private final Limit limit;
+
+    public QueryBudgetExceededException(Limit limit, String message) {
+        super(message);
+        this.limit = limit;
+    }
+
+    public QueryBudgetExceededException(Limit limit, String message, Throwable cause) {
+        super(message, cause);
+        this.limit = limit;
+    }
+
+    public Limit getLimit() {
+        return limit;
+    }
+
+    /**
+     * True if the same request may succeed when retried later
+     */
+    public boolean isRetryable() {
+        return limit == Limit.MAX_CONCURRENCY;
+    }
+}
@@ -54,12 +54,6 @@ public interface CartRepository extends MongoRepository<Cart, String> {
      */
     List<Cart> findByUserNameContainingIgnoreCaseAndActiveTrue(String userName);
 
-    /**
-     * Custom query to find carts by name pattern
-     */
-    @Query("{'name': {$regex: ?0, $options: 'i'}, 'active': true}")
-    List<Cart> findByNameContainingIgnoreCase(String name);
-
     /**
      * Find carts with total amount greater than specified value
      */
@@ -87,10 +81,9 @@ public interface CartRepository extends MongoRepository<Cart, String> {
     List<Cart> findCartsContainingItem(String itemId);
 
     /**
-     * Custom query to find carts by item name pattern
+     * Find active carts with an item whose name contains the text, matched literally
      */
-    @Query("{'items.itemName': {$regex: ?0, $options: 'i'}, 'active': true}")
-    List<Cart> findCartsByItemNameContaining(String itemName);
+    List<Cart> findByItemsItemNameContainingIgnoreCaseAndActiveTrue(String itemName);
 
     /**
      * Find user's active cart (status = ACTIVE)
@@ -54,22 +54,9 @@ public interface FacultyRepository extends MongoRepository<Faculty, String> {
     List<Faculty> findByDeanContainingIgnoreCaseAndActiveTrue(String dean);
 
     /**
-     * Custom query to find faculties by name pattern
+     * Find active faculties whose description contains the text, matched literally
      */
-    @Query("{'name': {$regex: ?0, $options: 'i'}, 'active': true}")
-    List<Faculty> findByNameContainingIgnoreCase(String name);
-
-    /**
-     * Custom query to find faculties by description pattern
-     */
-    @Query("{'description': {$regex: ?0, $options: 'i'}, 'active': true}")
-    List<Faculty> findByDescriptionContainingIgnoreCase(String description);
-
-    /**
-     * Find faculties by university ID and name pattern
-     */
-    @Query("{'universityId': ?0, 'name': {$regex: ?1, $options: 'i'}, 'active': true}")
-    List<Faculty> findByUniversityIdAndNameContainingIgnoreCase(String universityId, String name);
+    List<Faculty> findByDescriptionContainingIgnoreCaseAndActiveTrue(String description);
 
     /**
      * Find faculties with contact email
@@ -5,6 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -68,16 +69,9 @@ public interface QueryRepository extends MongoRepository<Query, String> {
     List<Query> findByCollectionAndQueryTypeAndActiveTrue(String collection, String queryType);
 
     /**
-     * Custom query to find queries by name pattern
+     * Find active queries whose description contains the text, matched literally
      */
-    @org.springframework.data.mongodb.repository.Query("{'name': {$regex: ?0, $options: 'i'}, 'active': true}")
-    List<Query> findByNameContainingIgnoreCase(String name);
-
-    /**
-     * Custom query to find queries by description pattern
-     */
-    @org.springframework.data.mongodb.repository.Query("{'description': {$regex: ?0, $options: 'i'}, 'active': true}")
-    List<Query> findByDescriptionContainingIgnoreCase(String description);
+    List<Query> findByDescriptionContainingIgnoreCaseAndActiveTrue(String description);
 
     /**
      * Find queries created by specific user
@@ -94,6 +88,11 @@ public interface QueryRepository extends MongoRepository<Query, String> {
      */
     List<Query> findByCacheTimeoutSecondsGreaterThanAndActiveTrue(Integer timeoutSeconds);
 
+    /**
+     * Find queries (active or not) modified after the given time
+     */
+    List<Query> findByUpdatedAtAfter(LocalDateTime updatedAt);
+
     /**
      * Count active queries
      */
@@ -48,16 +48,9 @@ public interface UniversityRepository extends MongoRepository<University, String
     List<University> findByFacultiesContainingAndActiveTrue(String facultyId);
 
     /**
-     * Custom query to find universities by name pattern
+     * Find active universities whose description contains the text, matched literally
      */
-    @Query("{'name': {$regex: ?0, $options: 'i'}, 'active': true}")
-    List<University> findByNameContainingIgnoreCase(String name);
-
-    /**
-     * Custom query to find universities by description pattern
-     */
-    @Query("{'description': {$regex: ?0, $options: 'i'}, 'active': true}")
-    List<University> findByDescriptionContainingIgnoreCase(String description);
+    List<University> findByDescriptionContainingIgnoreCaseAndActiveTrue(String description);
 
     /**
      * Find universities with website
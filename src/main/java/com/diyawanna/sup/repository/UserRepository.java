@@ -80,12 +80,6 @@ public interface UserRepository extends MongoRepository<User, String> {
      */
     List<User> findBySchoolContainingIgnoreCaseAndActiveTrue(String school);
 
-    /**
-     * Custom query to find users by name pattern
-     */
-    @Query("{'name': {$regex: ?0, $options: 'i'}, 'active': true}")
-    List<User> findByNameContainingIgnoreCase(String name);
-
     /**
      * Custom query to find users created after a specific date
      */
@@ -11,6 +11,7 @@ import com.diyawanna.sup.exception.UserAlreadyExistsException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -21,6 +22,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Authentication service for user login, registration, and JWT token management
@@ -51,6 +53,12 @@ public class AuthenticationService implements UserDetailsService {
     @Autowired
     private AuthenticationAttemptService attemptService;
 
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private ExistenceFilterService existenceFilterService;
+
     /**
      * Authenticate user and generate JWT token
      */
@@ -130,13 +138,15 @@ public class AuthenticationService implements UserDetailsService {
     public User register(RegisterRequest registerRequest) {
         try {
             // Check if username already exists
-            if (userRepository.existsByUsername(registerRequest.getUsername())) {
+            if (existenceFilterService.exists(ExistenceFilterService.USERNAME, registerRequest.getUsername(),
+                    userRepository::existsByUsername)) {
                 throw new UserAlreadyExistsException("Username already exists");
             }
 
             // Check if email already exists
             if (registerRequest.getEmail() != null &&
-                userRepository.existsByEmail(registerRequest.getEmail())) {
+                existenceFilterService.exists(ExistenceFilterService.EMAIL, registerRequest.getEmail(),
+                    userRepository::existsByEmail)) {
                 throw new UserAlreadyExistsException("Email already exists");
             }
 
@@ -154,8 +164,12 @@ public class AuthenticationService implements UserDetailsService {
             user.setAddress(registerRequest.getAddress());
             user.setActive(true);
 
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            cacheInvalidationService.saved(Set.of(), saved);
+            return saved;
 
+        } catch (DuplicateKeyException e) {
+            throw UserService.alreadyExists(e, registerRequest.getUsername(), registerRequest.getEmail());
         } catch (UserAlreadyExistsException e) {
             throw e;
         } catch (Exception e) {
@@ -280,8 +294,9 @@ public class AuthenticationService implements UserDetailsService {
             }
 
             // Update password
+            Set<Object> previousKeys = cacheInvalidationService.keysOf(user);
             user.setPassword(passwordEncoder.encode(newPassword));
-            userRepository.save(user);
+            cacheInvalidationService.saved(previousKeys, userRepository.save(user));
 
         } catch (Exception e) {
             throw new AuthenticationException("Password change failed: " + e.getMessage());
@@ -296,8 +311,9 @@ public class AuthenticationService implements UserDetailsService {
 
         if (userOptional.isPresent()) {
             User user = userOptional.get();
+            Set<Object> previousKeys = cacheInvalidationService.keysOf(user);
             user.setActive(false);
-            userRepository.save(user);
+            cacheInvalidationService.saved(previousKeys, userRepository.save(user));
         }
     }
 
@@ -309,8 +325,9 @@ public class AuthenticationService implements UserDetailsService {
 
         if (userOptional.isPresent()) {
             User user = userOptional.get();
+            Set<Object> previousKeys = cacheInvalidationService.keysOf(user);
             user.setActive(true);
-            userRepository.save(user);
+            cacheInvalidationService.saved(previousKeys, userRepository.save(user));
         }
     }
 }
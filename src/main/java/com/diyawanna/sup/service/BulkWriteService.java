@@ -0,0 +1,418 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.dto.BulkWriteResponse;
+import com.diyawanna.sup.dto.BulkWriteResponse.ItemResult;
+import com.diyawanna.sup.exception.UniversityAlreadyExistsException;
+import com.diyawanna.sup.exception.UserAlreadyExistsException;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk create, update and soft delete of entities
+ *
+ * This service provides:
+ * - Unordered bulk writes in chunks of a configurable size
+ * - Per-item results, including validation and duplicate-key failures
+ * - One cache eviction pass and one query-result invalidation per batch
+ *
+ * Each chunk is one round trip; a failing item does not stop the others.
+ * Items are prepared by the calling entity service, which keeps the same
+ * defaults and merge rules as its single-item methods. Preparation runs in
+ * parallel on a dedicated pool, since it includes password hashing for users;
+ * when the pool is saturated the calling thread prepares its own slice.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class BulkWriteService {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private QueryResultCacheService queryResultCacheService;
+
+    @Autowired
+    private ExistenceFilterService existenceFilterService;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${bulk.max-items:50000}")
+    private int maxItems;
+
+    @Value("${bulk.prepare-threads:4}")
+    private int prepareThreads;
+
+    @Value("${bulk.prepare-queue-capacity:16}")
+    private int prepareQueueCapacity;
+
+    private ThreadPoolExecutor prepareExecutor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        prepareExecutor = new ThreadPoolExecutor(prepareThreads, prepareThreads, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(prepareQueueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "bulk-prepare-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        prepareExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prepareExecutor.shutdownNow();
+    }
+
+    /**
+     * Insert new entities
+     *
+     * @param prepare sets defaults on one entity; throwing rejects only that item
+     */
+    public <T> BulkWriteResponse create(Class<T> type, List<T> entities, Consumer<T> prepare) {
+        checkSize(entities);
+        long started = System.currentTimeMillis();
+        MongoPersistentEntity<?> mapping = mappingOf(type);
+        ItemResult[] results = new ItemResult[entities.size()];
+
+        try {
+            for (int from = 0; from < entities.size(); from += chunkSize) {
+                int to = Math.min(from + chunkSize, entities.size());
+                prepareAll(from, to, i -> {
+                    T entity = entities.get(i);
+                    String problem = violations(entity);
+                    if (problem != null) {
+                        results[i] = new ItemResult(i, null, BulkWriteResponse.INVALID, problem);
+                        return;
+                    }
+                    try {
+                        prepare.accept(entity);
+                    } catch (RuntimeException e) {
+                        results[i] = new ItemResult(i, null, statusOf(e), e.getMessage());
+                    }
+                });
+
+                List<Pending> pending = new ArrayList<>();
+                BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+                for (int i = from; i < to; i++) {
+                    if (results[i] == null) {
+                        T entity = entities.get(i);
+                        String id = idOf(mapping, entity);
+                        if (id == null) {
+                            id = new ObjectId().toHexString();
+                            mapping.getPropertyAccessor(entity).setProperty(mapping.getRequiredIdProperty(), id);
+                        }
+                        ops.insert(entity);
+                        pending.add(new Pending(i, id, entity));
+                    }
+                }
+                execute(ops, pending, results, BulkWriteResponse.CREATED, null);
+            }
+        } finally {
+            // New entities are not cached yet; only the region's aggregates change
+            invalidate(type, Set.of());
+        }
+        return new BulkWriteResponse(Arrays.asList(results), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Update existing entities, each identified by its id
+     *
+     * @param merge applies one update to the current entity, as the single-item update does;
+     *              throwing rejects only that item
+     */
+    public <T> BulkWriteResponse update(Class<T> type, List<T> updates, BiConsumer<T, T> merge) {
+        checkSize(updates);
+        long started = System.currentTimeMillis();
+        MongoPersistentEntity<?> mapping = mappingOf(type);
+        ItemResult[] results = new ItemResult[updates.size()];
+        Set<Object> keys = new LinkedHashSet<>();
+
+        try {
+            for (int from = 0; from < updates.size(); from += chunkSize) {
+                int to = Math.min(from + chunkSize, updates.size());
+                List<String> ids = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    String id = updates.get(i) != null ? idOf(mapping, updates.get(i)) : null;
+                    if (id == null) {
+                        results[i] = new ItemResult(i, null, BulkWriteResponse.INVALID, "id is required");
+                    } else {
+                        ids.add(id);
+                    }
+                }
+                Map<String, T> current = findByIds(type, mapping, ids);
+
+                List<Pending> pending = new ArrayList<>();
+                BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+                for (int i = from; i < to; i++) {
+                    if (results[i] != null) {
+                        continue;
+                    }
+                    String id = idOf(mapping, updates.get(i));
+                    T existing = current.get(id);
+                    if (existing == null) {
+                        results[i] = new ItemResult(i, id, BulkWriteResponse.NOT_FOUND, "Not found with id: " + id);
+                        continue;
+                    }
+                    Set<Object> previousKeys = cacheInvalidationService.keysOf(existing);
+                    try {
+                        merge.accept(existing, updates.get(i));
+                    } catch (RuntimeException e) {
+                        results[i] = new ItemResult(i, id, statusOf(e), e.getMessage());
+                        continue;
+                    }
+                    keys.addAll(previousKeys);
+                    ops.replaceOne(Query.query(Criteria.where("id").is(id)), existing);
+                    pending.add(new Pending(i, id, existing));
+                }
+                execute(ops, pending, results, BulkWriteResponse.UPDATED, keys);
+            }
+        } finally {
+            invalidate(type, keys);
+        }
+        return new BulkWriteResponse(Arrays.asList(results), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Mark entities inactive by id
+     */
+    public <T> BulkWriteResponse softDelete(Class<T> type, List<String> ids) {
+        checkSize(ids);
+        long started = System.currentTimeMillis();
+        MongoPersistentEntity<?> mapping = mappingOf(type);
+        ItemResult[] results = new ItemResult[ids.size()];
+        Set<Object> keys = new LinkedHashSet<>();
+
+        try {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                int to = Math.min(from + chunkSize, ids.size());
+                Map<String, T> current = findByIds(type, mapping, ids.subList(from, to));
+                Update update = new Update().set("active", false).set("updatedAt", LocalDateTime.now());
+
+                List<Pending> pending = new ArrayList<>();
+                BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+                for (int i = from; i < to; i++) {
+                    String id = ids.get(i);
+                    T existing = id != null ? current.get(id) : null;
+                    if (existing == null) {
+                        results[i] = id == null
+                            ? new ItemResult(i, null, BulkWriteResponse.INVALID, "id is required")
+                            : new ItemResult(i, id, BulkWriteResponse.NOT_FOUND, "Not found with id: " + id);
+                        continue;
+                    }
+                    keys.addAll(cacheInvalidationService.keysOf(existing));
+                    ops.updateOne(Query.query(Criteria.where("id").is(id)), update);
+                    pending.add(new Pending(i, id, null));
+                }
+                execute(ops, pending, results, BulkWriteResponse.DELETED, null);
+            }
+        } finally {
+            invalidate(type, keys);
+        }
+        return new BulkWriteResponse(Arrays.asList(results), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Run one chunk and record the result of each pending item
+     *
+     * @param keys collects the cache keys of written entities, or null if not needed
+     */
+    private void execute(BulkOperations ops, List<Pending> pending, ItemResult[] results,
+                         String successStatus, Set<Object> keys) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, BulkWriteError> errors = new HashMap<>();
+        boolean eventsPublished = true;
+        try {
+            ops.execute();
+        } catch (BulkOperationException e) {
+            // Save events are only published when the whole chunk succeeds
+            e.getErrors().forEach(error -> errors.put(error.getIndex(), error));
+            eventsPublished = false;
+        } catch (DataAccessException e) {
+            for (Pending item : pending) {
+                results[item.index] = new ItemResult(item.index, item.id, BulkWriteResponse.FAILED, e.getMessage());
+            }
+            return;
+        }
+
+        for (int op = 0; op < pending.size(); op++) {
+            Pending item = pending.get(op);
+            BulkWriteError error = errors.get(op);
+            if (error != null) {
+                String status = error.getCode() == DUPLICATE_KEY ? BulkWriteResponse.DUPLICATE : BulkWriteResponse.FAILED;
+                results[item.index] = new ItemResult(item.index, item.id, status, error.getMessage());
+                continue;
+            }
+            results[item.index] = new ItemResult(item.index, item.id, successStatus, null);
+            if (item.entity != null) {
+                if (keys != null) {
+                    keys.addAll(cacheInvalidationService.keysOf(item.entity));
+                }
+                if (!eventsPublished) {
+                    Document document = new Document();
+                    mongoTemplate.getConverter().write(item.entity, document);
+                    existenceFilterService.recordSaved(mongoTemplate.getCollectionName(item.entity.getClass()), document);
+                }
+            }
+        }
+    }
+
+    private void invalidate(Class<?> type, Set<Object> keys) {
+        cacheInvalidationService.evictBatch(type, keys);
+        queryResultCacheService.invalidateCollection(mongoTemplate.getCollectionName(type));
+    }
+
+    private <T> Map<String, T> findByIds(Class<T> type, MongoPersistentEntity<?> mapping, List<String> ids) {
+        List<String> distinct = ids.stream().filter(id -> id != null).distinct().collect(Collectors.toList());
+        Map<String, T> found = new HashMap<>();
+        if (!distinct.isEmpty()) {
+            for (T entity : mongoTemplate.find(Query.query(Criteria.where("id").in(distinct)), type)) {
+                found.put(idOf(mapping, entity), entity);
+            }
+        }
+        return found;
+    }
+
+    private String violations(Object entity) {
+        if (entity == null) {
+            return "Item is empty";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(entity);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+
+    private static String statusOf(RuntimeException e) {
+        if (e instanceof UserAlreadyExistsException || e instanceof UniversityAlreadyExistsException) {
+            return BulkWriteResponse.DUPLICATE;
+        }
+        return e instanceof IllegalArgumentException ? BulkWriteResponse.INVALID : BulkWriteResponse.FAILED;
+    }
+
+    /**
+     * Prepare items [from, to) in slices on the prepare pool and wait for all of them
+     */
+    private void prepareAll(int from, int to, IntConsumer prepareItem) {
+        int slices = Math.min(prepareThreads, to - from);
+        if (slices <= 1) {
+            for (int i = from; i < to; i++) {
+                prepareItem.accept(i);
+            }
+            return;
+        }
+        int sliceSize = (to - from + slices - 1) / slices;
+        List<Future<?>> futures = new ArrayList<>(slices);
+        for (int start = from; start < to; start += sliceSize) {
+            int sliceFrom = start;
+            int sliceTo = Math.min(start + sliceSize, to);
+            futures.add(prepareExecutor.submit(() -> {
+                for (int i = sliceFrom; i < sliceTo; i++) {
+                    prepareItem.accept(i);
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while preparing bulk items", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException
+                ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void checkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Bulk request must contain at least one item");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("Bulk size " + items.size() + " exceeds the maximum of " + maxItems);
+        }
+    }
+
+    private MongoPersistentEntity<?> mappingOf(Class<?> type) {
+        return mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+    }
+
+    private static String idOf(MongoPersistentEntity<?> mapping, Object entity) {
+        Object id = mapping.getIdentifierAccessor(entity).getIdentifier();
+        return id != null ? id.toString() : null;
+    }
+
+    /**
+     * An item sent in the current chunk; the position in the list is its operation index
+     */
+    private static final class Pending {
+        final int index;
+        final String id;
+        final Object entity;
+
+        Pending(int index, String id, Object entity) {
+            this.index = index;
+            this.id = id;
+            this.entity = entity;
+        }
+    }
+}
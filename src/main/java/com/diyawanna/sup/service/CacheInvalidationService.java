@@ -0,0 +1,231 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.config.InstrumentedCacheManager.InstrumentedCache;
+import com.diyawanna.sup.entity.Cart;
+import com.diyawanna.sup.entity.Faculty;
+import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.entity.University;
+import com.diyawanna.sup.entity.User;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Targeted cache invalidation for entity writes
+ *
+ * This service provides:
+ * - The cache keys each entity type is stored under (id and secondary keys)
+ * - The aggregate keys of each region that a single entity write affects,
+ *   including the encoded list responses built from them
+ * - Write-through of a saved entity under its current keys
+ * - Eviction of keys the entity no longer maps to, e.g. a renamed query's old name
+ * - Eviction of entities written by other instances, resolved by entity type and id
+ * - One eviction pass for a batch of bulk-written entities
+ *
+ * Key formats match the @Cacheable keys of the entity services, so a write
+ * touches only the entries it affects instead of clearing the whole region.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class CacheInvalidationService {
+
+    public static final String ALL_ACTIVE_KEY = "all_active";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final Map<Class<?>, Dependencies<?>> dependencies = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void registerDependencies() {
+        register(User.class, "users", user -> keys(user.getId(), "username_" + user.getUsername()));
+        register(University.class, "universities", university -> keys(university.getId(), "name_" + university.getName()));
+        register(Faculty.class, "faculties", faculty -> keys(faculty.getId()));
+        register(Cart.class, "carts", cart -> keys(cart.getId()));
+        register(Query.class, "queries", query -> keys(query.getId(), "name_" + query.getName()));
+    }
+
+    /**
+     * Keys the entity is cached under right now; take this before mutating the entity
+     */
+    public Set<Object> keysOf(Object entity) {
+        return dependenciesOf(entity).keysOf(entity);
+    }
+
+    /**
+     * Refresh a saved entity: store it under its current keys, evict its previous
+     * keys that no longer apply and evict the aggregates of its region
+     *
+     * @param previousKeys keys of the entity before the write, or an empty set for a new entity
+     * @param saved        the entity as returned by the repository
+     */
+    public void saved(Set<Object> previousKeys, Object saved) {
+        Dependencies<?> deps = dependenciesOf(saved);
+        Cache cache = cacheManager.getCache(deps.cacheName);
+        if (cache == null) {
+            return;
+        }
+
+        Set<Object> currentKeys = deps.keysOf(saved);
+        for (Object key : previousKeys) {
+            if (!currentKeys.contains(key)) {
+                cache.evict(key);
+            }
+        }
+        deps.aggregateKeys.forEach(cache::evict);
+        currentKeys.forEach(key -> cache.put(key, saved));
+    }
+
+    /**
+     * Evict every key of a removed entity and the aggregates of its region
+     */
+    public void removed(Object entity) {
+        Dependencies<?> deps = dependenciesOf(entity);
+        Cache cache = cacheManager.getCache(deps.cacheName);
+        if (cache == null) {
+            return;
+        }
+
+        deps.keysOf(entity).forEach(cache::evict);
+        deps.aggregateKeys.forEach(cache::evict);
+    }
+
+    /**
+     * Evict the keys of a batch of written entities and the aggregates of their region once
+     *
+     * @param keys keys of the entities before and after the write; empty for new entities
+     */
+    public void evictBatch(Class<?> type, Collection<Object> keys) {
+        Dependencies<?> deps = dependenciesOf(type);
+        Cache cache = cacheManager.getCache(deps.cacheName);
+        if (cache == null) {
+            return;
+        }
+
+        keys.forEach(cache::evict);
+        deps.aggregateKeys.forEach(cache::evict);
+    }
+
+    /**
+     * Evict an entity written by another instance: its id, the keys of the copy
+     * cached here, the keys of its current state and the aggregates of its region
+     *
+     * @param current the entity after the write, or null when it was deleted
+     * @return false when the entity's keys could not be resolved, i.e. it was deleted
+     *         and no copy is cached under its id, or the cached copy is off-heap;
+     *         the caller should evict the region
+     */
+    public boolean evictChanged(Class<?> type, String id, Object current) {
+        Dependencies<?> deps = dependenciesOf(type);
+        Cache cache = cacheManager.getCache(deps.cacheName);
+        if (cache == null) {
+            return true;
+        }
+
+        boolean resolved = current != null;
+        Object cached = id != null ? heapCopy(cache, id) : null;
+        if (type.isInstance(cached)) {
+            deps.keysOf(cached).forEach(cache::evict);
+            resolved = true;
+        } else if (id != null && cache instanceof InstrumentedCache && ((InstrumentedCache) cache).hasOffHeapCopy(id)) {
+            // The keys of the older copy are unknown without reading it back
+            resolved = false;
+        }
+        if (current != null) {
+            deps.keysOf(current).forEach(cache::evict);
+        }
+        if (id != null) {
+            cache.evict(id);
+        }
+        deps.aggregateKeys.forEach(cache::evict);
+        return resolved;
+    }
+
+    /**
+     * The copy cached on the heap under a key, read without counting a lookup
+     * or promoting an off-heap copy
+     */
+    private static Object heapCopy(Cache cache, Object key) {
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+            return ((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache).asMap().get(key);
+        }
+        if (nativeCache instanceof Map) {
+            return ((Map<?, ?>) nativeCache).get(key);
+        }
+        Cache.ValueWrapper cached = cache.get(key);
+        return cached != null ? cached.get() : null;
+    }
+
+    /**
+     * Evict every entry of the region an entity type is cached in
+     */
+    public void evictRegion(Class<?> type) {
+        Cache cache = cacheManager.getCache(dependenciesOf(type).cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private <T> void register(Class<T> type, String cacheName, Function<T, Set<Object>> keyFunction) {
+        dependencies.put(type, new Dependencies<>(type, cacheName, keyFunction,
+            List.of(ALL_ACTIVE_KEY, ResponseCacheService.responseKey(ALL_ACTIVE_KEY))));
+    }
+
+    private Dependencies<?> dependenciesOf(Object entity) {
+        return dependenciesOf(entity.getClass());
+    }
+
+    private Dependencies<?> dependenciesOf(Class<?> type) {
+        Dependencies<?> deps = dependencies.get(type);
+        if (deps == null) {
+            throw new IllegalArgumentException("No cache dependencies registered for " + type.getName());
+        }
+        return deps;
+    }
+
+    private static Set<Object> keys(String id, String... secondaryKeys) {
+        Set<Object> keys = new LinkedHashSet<>();
+        if (id != null) {
+            keys.add(id);
+        }
+        for (String key : secondaryKeys) {
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    /**
+     * Cache region, key function and aggregate keys of one entity type
+     */
+    private static final class Dependencies<T> {
+        final Class<T> type;
+        final String cacheName;
+        final Function<T, Set<Object>> keyFunction;
+        final List<String> aggregateKeys;
+
+        Dependencies(Class<T> type, String cacheName, Function<T, Set<Object>> keyFunction, List<String> aggregateKeys) {
+            this.type = type;
+            this.cacheName = cacheName;
+            this.keyFunction = keyFunction;
+            this.aggregateKeys = aggregateKeys;
+        }
+
+        Set<Object> keysOf(Object entity) {
+            return keyFunction.apply(type.cast(entity));
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.config.InstrumentedCacheManager.InstrumentedCache;
+import com.diyawanna.sup.entity.Faculty;
+import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.entity.University;
+import com.diyawanna.sup.entity.User;
+import com.diyawanna.sup.repository.FacultyRepository;
+import com.diyawanna.sup.repository.QueryRepository;
+import com.diyawanna.sup.repository.UniversityRepository;
+import com.diyawanna.sup.repository.UserRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToIntFunction;
+
+/**
+ * Cache warm-up engine
+ *
+ * This service provides:
+ * - Preloading of the users, universities, faculties and queries regions
+ * - A blocking run at startup, before the application reports readiness
+ * - On-demand runs in the background, one at a time
+ * - Per-region progress, entry counts and durations
+ *
+ * Entries are written under the same keys the services' @Cacheable methods
+ * use ("all_active", the id, "name_" + name, "username_" + username), so
+ * each region is filled from one query instead of one query per entry.
+ * Warm-up never overwrites an entry, and drops a value when its key was
+ * written or evicted after the query started, so a snapshot cannot
+ * replace a newer write-through or undo an invalidation.
+ * Regions load in parallel on a small fixed pool to leave Mongo
+ * connections free for live traffic.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class CacheWarmupService implements ApplicationRunner {
+
+    private static final List<String> REGIONS = List.of("users", "universities", "faculties", "queries");
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UniversityRepository universityRepository;
+
+    @Autowired
+    private FacultyRepository facultyRepository;
+
+    @Autowired
+    private QueryRepository queryRepository;
+
+    @Value("${performance.cache.warmup.on-startup:true}")
+    private boolean warmUpOnStartup;
+
+    @Value("${performance.cache.warmup.parallelism:2}")
+    private int parallelism;
+
+    @Value("${performance.cache.warmup.recent-users:500}")
+    private int recentUsers;
+
+    @Value("${performance.cache.warmup.timeout-seconds:60}")
+    private long timeoutSeconds;
+
+    private final AtomicReference<WarmupRun> currentRun = new AtomicReference<>();
+
+    /**
+     * Warm up at startup; runners complete before the readiness state changes to ACCEPTING_TRAFFIC
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!warmUpOnStartup) {
+            return;
+        }
+        try {
+            WarmupRun run = start("startup");
+            if (run != null) {
+                run.completion.get(timeoutSeconds, TimeUnit.SECONDS);
+            }
+        } catch (TimeoutException e) {
+            System.err.println("Cache warm-up did not finish within " + timeoutSeconds + "s; continuing in background");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // A cold cache is slower, not broken; never fail startup over it
+            System.err.println("Cache warm-up failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Start a warm-up in the background unless one is already running
+     *
+     * @return progress of the new run, or of the run already in progress
+     */
+    public Map<String, Object> warmUp(String trigger) {
+        WarmupRun started = start(trigger);
+        Map<String, Object> progress = getProgress();
+        progress.put("started", started != null);
+        return progress;
+    }
+
+    /**
+     * Progress of the current or most recent warm-up
+     */
+    public Map<String, Object> getProgress() {
+        WarmupRun run = currentRun.get();
+        return run != null ? run.toMap() : new LinkedHashMap<>(Map.of("status", "NEVER_RUN"));
+    }
+
+    private WarmupRun start(String trigger) {
+        WarmupRun previous = currentRun.get();
+        if (previous != null && !previous.completion.isDone()) {
+            return null;
+        }
+        WarmupRun run = new WarmupRun(trigger, REGIONS);
+        if (!currentRun.compareAndSet(previous, run)) {
+            return null;
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        tasks.add(region(run, executor, "users", this::warmUsers));
+        tasks.add(region(run, executor, "universities", this::warmUniversities));
+        tasks.add(region(run, executor, "faculties", this::warmFaculties));
+        tasks.add(region(run, executor, "queries", this::warmQueries));
+
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+            executor.shutdown();
+            run.finish();
+        });
+        return run;
+    }
+
+    private CompletableFuture<Void> region(WarmupRun run, ExecutorService executor, String cacheName,
+                                           ToIntFunction<Cache> loader) {
+        RegionProgress progress = run.region(cacheName);
+        return CompletableFuture.runAsync(() -> {
+            progress.begin();
+            try {
+                Cache cache = cacheManager.getCache(cacheName);
+                if (cache == null) {
+                    throw new IllegalStateException("Cache region not configured: " + cacheName);
+                }
+                progress.complete(loader.applyAsInt(cache));
+            } catch (Exception e) {
+                progress.fail(e);
+            }
+        }, executor);
+    }
+
+    private int warmUsers(Cache cache) {
+        long[] versions = captureWriteVersions(cache);
+        int filled = fill(cache, versions, "all_active", userRepository.findByActiveTrue());
+
+        List<User> recent = recentUsers > 0
+            ? userRepository.findByActiveTrue(
+                PageRequest.of(0, recentUsers, Sort.by(Sort.Direction.DESC, "updatedAt"))).getContent()
+            : List.of();
+        for (User user : recent) {
+            filled += fill(cache, versions, user.getId(), user);
+            filled += fill(cache, versions, "username_" + user.getUsername(), user);
+        }
+        return filled;
+    }
+
+    private int warmUniversities(Cache cache) {
+        long[] versions = captureWriteVersions(cache);
+        List<University> universities = universityRepository.findByActiveTrue();
+        int filled = fill(cache, versions, "all_active", universities);
+        for (University university : universities) {
+            filled += fill(cache, versions, university.getId(), university);
+            filled += fill(cache, versions, "name_" + university.getName(), university);
+        }
+        return filled;
+    }
+
+    private int warmFaculties(Cache cache) {
+        long[] versions = captureWriteVersions(cache);
+        List<Faculty> faculties = facultyRepository.findByActiveTrue();
+        int filled = fill(cache, versions, "all_active", faculties);
+        for (Faculty faculty : faculties) {
+            filled += fill(cache, versions, faculty.getId(), faculty);
+        }
+        return filled;
+    }
+
+    private int warmQueries(Cache cache) {
+        long[] versions = captureWriteVersions(cache);
+        List<Query> queries = queryRepository.findByActiveTrue();
+        int filled = fill(cache, versions, "all_active", queries);
+        for (Query query : queries) {
+            filled += fill(cache, versions, query.getId(), query);
+            filled += fill(cache, versions, "name_" + query.getName(), query);
+        }
+        return filled;
+    }
+
+    /**
+     * Write versions of an instrumented region, captured before its repository read
+     */
+    private static long[] captureWriteVersions(Cache cache) {
+        return cache instanceof InstrumentedCache ? ((InstrumentedCache) cache).captureWriteVersions() : null;
+    }
+
+    /**
+     * Fill one key with a value read after the versions were captured; other
+     * cache implementations only get the no-overwrite guarantee
+     *
+     * @return 1 if the value was stored, 0 if the key was written since or already cached
+     */
+    private static int fill(Cache cache, long[] versions, Object key, Object value) {
+        if (versions != null) {
+            return ((InstrumentedCache) cache).putIfUnchanged(key, value, versions) ? 1 : 0;
+        }
+        return cache.putIfAbsent(key, value) == null ? 1 : 0;
+    }
+
+    /**
+     * One warm-up run across all regions
+     */
+    private static final class WarmupRun {
+        final String trigger;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final long startedNanos = System.nanoTime();
+        final Map<String, RegionProgress> regions = new LinkedHashMap<>();
+        final CompletableFuture<Void> completion = new CompletableFuture<>();
+        volatile LocalDateTime finishedAt;
+        volatile long durationMs;
+
+        WarmupRun(String trigger, List<String> cacheNames) {
+            this.trigger = trigger;
+            cacheNames.forEach(cacheName -> regions.put(cacheName, new RegionProgress()));
+        }
+
+        RegionProgress region(String cacheName) {
+            return regions.get(cacheName);
+        }
+
+        void finish() {
+            durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+            finishedAt = LocalDateTime.now();
+            completion.complete(null);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            boolean done = completion.isDone();
+            boolean failed = regions.values().stream().anyMatch(region -> "FAILED".equals(region.status));
+            map.put("status", !done ? "RUNNING" : failed ? "COMPLETED_WITH_ERRORS" : "COMPLETED");
+            map.put("trigger", trigger);
+            map.put("startedAt", startedAt);
+            map.put("finishedAt", finishedAt);
+            map.put("durationMs", done ? durationMs : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos));
+            Map<String, Object> regionMaps = new LinkedHashMap<>();
+            regions.forEach((name, region) -> regionMaps.put(name, region.toMap()));
+            map.put("regions", regionMaps);
+            return map;
+        }
+    }
+
+    /**
+     * Status, entry count and duration of one region
+     */
+    private static final class RegionProgress {
+        volatile String status = "PENDING";
+        volatile int entriesLoaded;
+        volatile long startedNanos;
+        volatile long durationMs;
+        volatile String error;
+
+        void begin() {
+            startedNanos = System.nanoTime();
+            status = "RUNNING";
+        }
+
+        void complete(int entries) {
+            entriesLoaded = entries;
+            durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+            status = "COMPLETED";
+        }
+
+        void fail(Exception e) {
+            error = e.getMessage();
+            durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+            status = "FAILED";
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("status", status);
+            map.put("entriesLoaded", entriesLoaded);
+            map.put("durationMs", durationMs);
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+}
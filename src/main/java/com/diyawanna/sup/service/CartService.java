@@ -1,19 +1,31 @@
 package com.diyawanna.sup.service;
 
+import com.diyawanna.sup.dto.BulkWriteResponse;
 import com.diyawanna.sup.entity.Cart;
 import com.diyawanna.sup.entity.Cart.CartItem;
 import com.diyawanna.sup.repository.CartRepository;
 import com.diyawanna.sup.exception.CartNotFoundException;
+import com.diyawanna.sup.util.KeysetPage;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AccumulatorOperators;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Cart service for business logic and CRUD operations
@@ -27,12 +39,49 @@ public class CartService {
     @Autowired
     private CartRepository cartRepository;
 
-    @Cacheable(value = "carts", key = "'all_active'")
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private BulkWriteService bulkWriteService;
+
+    @Autowired
+    private QueryResultCacheService queryResultCacheService;
+
+    @Autowired
+    private KeysetPaginationService keysetPaginationService;
+
+    @Autowired
+    private FieldSelectionService fieldSelectionService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Cacheable(value = "carts", key = "'all_active'", sync = true)
     public List<Cart> getAllActiveCarts() {
         return cartRepository.findByActiveTrue();
     }
 
-    @Cacheable(value = "carts", key = "#id")
+    /**
+     * Active carts in _id order, one keyset page at a time
+     */
+    public KeysetPage<Cart> getActiveCartsPage(Set<String> fields, Integer limit, String after) {
+        return keysetPaginationService.page(Cart.class,
+            Criteria.where("active").is(true), fields, limit, after);
+    }
+
+    /**
+     * Active carts with only the selected fields
+     */
+    public List<Map<String, Object>> getActiveCarts(Set<String> fields) {
+        return fieldSelectionService.find(Cart.class,
+            Criteria.where("active").is(true), fields);
+    }
+
+    @Cacheable(value = "carts", key = "#id", sync = true)
     public Cart getCartById(String id) {
         Optional<Cart> cart = cartRepository.findById(id);
         if (cart.isEmpty()) {
@@ -41,18 +90,26 @@ public class CartService {
         return cart.get();
     }
 
-    @CacheEvict(value = "carts", allEntries = true)
     public Cart createCart(Cart cart) {
         cart.setActive(true);
         cart.setCreatedAt(LocalDateTime.now());
         cart.setUpdatedAt(LocalDateTime.now());
-        return cartRepository.save(cart);
+        Cart saved = cartRepository.save(cart);
+        cacheInvalidationService.saved(Set.of(), saved);
+        return saved;
     }
 
-    @CachePut(value = "carts", key = "#id")
     public Cart updateCart(String id, Cart cartUpdate) {
         Cart existingCart = getCartById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(existingCart);
+
+        applyUpdate(existingCart, cartUpdate);
+        Cart saved = cartRepository.save(existingCart);
+        cacheInvalidationService.saved(previousKeys, saved);
+        return saved;
+    }
 
+    private void applyUpdate(Cart existingCart, Cart cartUpdate) {
         if (cartUpdate.getName() != null) {
             existingCart.setName(cartUpdate.getName());
         }
@@ -73,21 +130,46 @@ public class CartService {
         }
 
         existingCart.setUpdatedAt(LocalDateTime.now());
-        return cartRepository.save(existingCart);
     }
 
-    @CacheEvict(value = "carts", key = "#id")
     public void deleteCart(String id) {
         Cart cart = getCartById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(cart);
         cart.setActive(false);
         cart.setUpdatedAt(LocalDateTime.now());
-        cartRepository.save(cart);
+        cacheInvalidationService.saved(previousKeys, cartRepository.save(cart));
+    }
+
+    public BulkWriteResponse createCarts(List<Cart> carts) {
+        return bulkWriteService.create(Cart.class, carts, cart -> {
+            cart.setActive(true);
+            cart.setCreatedAt(LocalDateTime.now());
+            cart.setUpdatedAt(LocalDateTime.now());
+        });
+    }
+
+    public BulkWriteResponse updateCarts(List<Cart> updates) {
+        return bulkWriteService.update(Cart.class, updates, this::applyUpdate);
+    }
+
+    public BulkWriteResponse deleteCarts(List<String> ids) {
+        return bulkWriteService.softDelete(Cart.class, ids);
     }
 
     public List<Cart> getCartsByUser(String userId) {
         return cartRepository.findByUserIdAndActiveTrue(userId);
     }
 
+    public KeysetPage<Cart> getCartsByUserPage(String userId, Set<String> fields, Integer limit, String after) {
+        return keysetPaginationService.page(Cart.class,
+            Criteria.where("userId").is(userId).and("active").is(true), fields, limit, after);
+    }
+
+    public List<Map<String, Object>> getCartsByUser(String userId, Set<String> fields) {
+        return fieldSelectionService.find(Cart.class,
+            Criteria.where("userId").is(userId).and("active").is(true), fields);
+    }
+
     public List<Cart> getCartsByUserAndStatus(String userId, String status) {
         return cartRepository.findByUserIdAndStatusAndActiveTrue(userId, status);
     }
@@ -96,32 +178,72 @@ public class CartService {
         return cartRepository.findByStatusAndActiveTrue(status);
     }
 
-    @CachePut(value = "carts", key = "#cartId")
+    public KeysetPage<Cart> getCartsByStatusPage(String status, Set<String> fields, Integer limit, String after) {
+        return keysetPaginationService.page(Cart.class,
+            Criteria.where("status").is(status).and("active").is(true), fields, limit, after);
+    }
+
+    public List<Map<String, Object>> getCartsByStatus(String status, Set<String> fields) {
+        return fieldSelectionService.find(Cart.class,
+            Criteria.where("status").is(status).and("active").is(true), fields);
+    }
+
+    /**
+     * Append an item and add its subtotal to the total in one atomic update
+     */
     public Cart addItemToCart(String cartId, CartItem item) {
-        Cart cart = getCartById(cartId);
-        cart.addItem(item);
-        cart.setUpdatedAt(LocalDateTime.now());
-        return cartRepository.save(cart);
+        double subtotal = item.getSubtotal() != null ? item.getSubtotal() : 0.0;
+        Update update = new Update()
+            .push("items", item)
+            .inc("totalAmount", subtotal)
+            .set("updatedAt", LocalDateTime.now());
+        return modify(cartId, update);
     }
 
-    @CachePut(value = "carts", key = "#cartId")
+    /**
+     * Remove every item with the id and recompute the total in one atomic update
+     *
+     * $pull cannot report the subtotal it removed, so the update is a pipeline
+     * that filters the items and sums the remaining subtotals server-side.
+     */
     public Cart removeItemFromCart(String cartId, String itemId) {
-        Cart cart = getCartById(cartId);
-        cart.removeItem(itemId);
-        cart.setUpdatedAt(LocalDateTime.now());
-        return cartRepository.save(cart);
+        AggregationUpdate update = AggregationUpdate.update()
+            .set("items").toValue(ArrayOperators.Filter.filter("items").as("item")
+                .by(ComparisonOperators.Ne.valueOf("item.itemId").notEqualToValue(itemId)))
+            .set("totalAmount").toValue(AccumulatorOperators.Sum.sumOf("items.subtotal"))
+            .set("updatedAt").toValue(LocalDateTime.now());
+        return modify(cartId, update);
     }
 
-    @CachePut(value = "carts", key = "#cartId")
     public Cart updateCartStatus(String cartId, String status) {
-        Cart cart = getCartById(cartId);
-        cart.setStatus(status);
-        cart.setUpdatedAt(LocalDateTime.now());
-        return cartRepository.save(cart);
+        Update update = new Update()
+            .set("status", status)
+            .set("updatedAt", LocalDateTime.now());
+        return modify(cartId, update);
+    }
+
+    /**
+     * Apply an update to one cart and return the cart as written
+     */
+    private Cart modify(String cartId, UpdateDefinition update) {
+        Cart saved = mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(cartId)), update,
+            FindAndModifyOptions.options().returnNew(true), Cart.class);
+        if (saved == null) {
+            throw new CartNotFoundException("Cart not found with id: " + cartId);
+        }
+        // Evict rather than write through: concurrent updates of one cart may return in any order
+        cacheInvalidationService.evictChanged(Cart.class, cartId, saved);
+        // findAndModify publishes no save event for CollectionWriteListener
+        queryResultCacheService.invalidateCollection(mongoTemplate.getCollectionName(Cart.class));
+        return saved;
     }
 
     public List<Cart> searchCartsByName(String name) {
-        return cartRepository.findByNameContainingIgnoreCase(name);
+        return searchService.searchByName(Cart.class, name);
+    }
+
+    public KeysetPage<Cart> searchCartsByNamePage(String name, Set<String> fields, Integer limit, String after) {
+        return searchService.searchByNamePage(Cart.class, name, fields, limit, after);
     }
 
     public List<Cart> getCartsContainingItem(String itemId) {
@@ -132,6 +254,15 @@ public class CartService {
         return cartRepository.findByTotalAmountBetweenAndActiveTrue(minAmount, maxAmount);
     }
 
+    /**
+     * Bounds are exclusive, as in findByTotalAmountBetween
+     */
+    public KeysetPage<Cart> getCartsByTotalAmountRangePage(Double minAmount, Double maxAmount, Set<String> fields,
+                                                           Integer limit, String after) {
+        return keysetPaginationService.page(Cart.class,
+            Criteria.where("active").is(true).and("totalAmount").gt(minAmount).lt(maxAmount), fields, limit, after);
+    }
+
     public long countActiveCarts() {
         return cartRepository.countByActiveTrue();
     }
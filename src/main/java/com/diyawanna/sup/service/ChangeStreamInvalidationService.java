@@ -0,0 +1,372 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.entity.Cart;
+import com.diyawanna.sup.entity.Faculty;
+import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.entity.University;
+import com.diyawanna.sup.entity.User;
+
+import com.mongodb.MongoInterruptedException;
+import com.mongodb.MongoServerException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cross-instance cache invalidation driven by MongoDB change streams
+ *
+ * This service provides:
+ * - One database-level change stream over the user, university, faculty, cart and query collections
+ * - Local eviction of the written entity's keys and its region's aggregates
+ * - Invalidation of cached dynamic query results, stored query registry and existence filter updates
+ * - Resume after reconnects from the last seen resume token, optionally persisted to a file
+ * - A full flush of the watched regions and a rebuild of the existence filters whenever
+ *   the stream restarts without a usable token; the first open happens during startup,
+ *   before anything is cached, and needs neither
+ *
+ * Change streams require a replica set. For local testing start a single-node one
+ * with "mongod --replSet rs0" and "rs.initiate()", and point spring.data.mongodb.uri
+ * at "mongodb://localhost:27017/?replicaSet=rs0".
+ *
+ * Writes made by this instance come back through the stream as well and evict
+ * the entries they just wrote through; the next read reloads them once.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class ChangeStreamInvalidationService {
+
+    /**
+     * Watched collections and the entity types cached from them
+     */
+    static final Map<String, Class<?>> COLLECTIONS = new LinkedHashMap<>();
+
+    static {
+        COLLECTIONS.put("user", User.class);
+        COLLECTIONS.put("university", University.class);
+        COLLECTIONS.put("faculty", Faculty.class);
+        COLLECTIONS.put("cart", Cart.class);
+        COLLECTIONS.put("query", Query.class);
+    }
+
+    /**
+     * Server errors meaning the resume token points before the oldest oplog entry or is unusable
+     */
+    private static final Set<Integer> HISTORY_LOST_CODES = Set.of(260, 280, 286);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private QueryResultCacheService queryResultCacheService;
+
+    @Autowired
+    private ExistenceFilterService existenceFilterService;
+
+    @Autowired
+    private StoredQueryRegistry storedQueryRegistry;
+
+    @Value("${cache.invalidation.change-stream.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cache.invalidation.change-stream.resume-token-file:}")
+    private String resumeTokenFile;
+
+    @Value("${cache.invalidation.change-stream.max-await-ms:1000}")
+    private long maxAwaitMs;
+
+    @Value("${cache.invalidation.change-stream.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    @Value("${cache.invalidation.change-stream.persist-interval-ms:1000}")
+    private long persistIntervalMs;
+
+    private final LongAdder events = new LongAdder();
+    private final LongAdder regionFlushes = new LongAdder();
+    private final LongAdder fullFlushes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    private volatile BsonDocument resumeToken;
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile LocalDateTime lastEventAt;
+    private volatile String lastError;
+    private long lastPersistedAt;
+    private Thread subscriber;
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> bootCursor;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        resumeToken = readResumeToken();
+        running = true;
+        try {
+            // Opened before the application runners (cache warm-up) fill any cache, so
+            // nothing cached can predate the stream and the first open needs no flush
+            bootCursor = open(resumeToken);
+        } catch (Exception e) {
+            errors.increment();
+            lastError = e.getMessage();
+            System.err.println("Cache change stream could not be opened at startup, retrying in background: "
+                + e.getMessage());
+        }
+        subscriber = new Thread(this::subscribe, "cache-change-stream");
+        subscriber.setDaemon(true);
+        subscriber.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (subscriber != null) {
+            subscriber.interrupt();
+        }
+        writeResumeToken();
+    }
+
+    /**
+     * Tail the change stream until stopped, reopening it after errors
+     */
+    private void subscribe() {
+        while (running) {
+            BsonDocument resumeFrom = resumeToken;
+            MongoChangeStreamCursor<ChangeStreamDocument<Document>> opened = bootCursor;
+            bootCursor = null;
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor =
+                     opened != null ? opened : open(resumeFrom)) {
+                connected = true;
+                if (opened == null && resumeFrom == null) {
+                    // Writes before the stream opened were never seen; the cursor is open, so
+                    // anything written after this flush is delivered
+                    flushAll();
+                    existenceFilterService.requestRebuild();
+                }
+                while (running) {
+                    ChangeStreamDocument<Document> event = cursor.tryNext();
+                    if (event == null) {
+                        // Idle; the post-batch token still moves forward
+                        track(cursor.getResumeToken());
+                        continue;
+                    }
+                    if (!handle(event)) {
+                        // Invalidated stream; reopen from now after the flush
+                        resumeToken = null;
+                        break;
+                    }
+                    track(event.getResumeToken());
+                }
+            } catch (MongoServerException e) {
+                if (resumeFrom != null && HISTORY_LOST_CODES.contains(e.getCode())) {
+                    // Gap lost; the next open starts from now and flushes everything
+                    resumeToken = null;
+                }
+                failed(e);
+            } catch (MongoInterruptedException e) {
+                if (running) {
+                    failed(e);
+                }
+            } catch (Exception e) {
+                failed(e);
+            } finally {
+                connected = false;
+            }
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open(BsonDocument resumeFrom) {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+            .watch(List.of(Aggregates.match(Filters.or(
+                Filters.in("ns.coll", COLLECTIONS.keySet()),
+                Filters.in("operationType", "dropDatabase", "invalidate")))))
+            .fullDocument(FullDocument.UPDATE_LOOKUP)
+            .maxAwaitTime(maxAwaitMs, TimeUnit.MILLISECONDS);
+        if (resumeFrom != null) {
+            stream = stream.resumeAfter(resumeFrom);
+        }
+        return stream.cursor();
+    }
+
+    private void failed(Exception e) {
+        errors.increment();
+        lastError = e.getMessage();
+        System.err.println("Cache change stream failed, retrying in " + retryDelayMs + "ms: " + e.getMessage());
+        try {
+            Thread.sleep(retryDelayMs);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * @return false when the event ended the stream
+     */
+    private boolean handle(ChangeStreamDocument<Document> event) {
+        String collection = event.getNamespace() != null ? event.getNamespace().getCollectionName() : null;
+        BsonValue key = event.getDocumentKey() != null ? event.getDocumentKey().get("_id") : null;
+        return apply(event.getOperationType().getValue(), collection, idOf(key), event.getFullDocument());
+    }
+
+    /**
+     * Apply one change event to the local caches
+     *
+     * @param operationType change stream operation type, e.g. "update"
+     * @param fullDocument  the document after the change, or null for deletes and documents deleted since
+     * @return false when the event ended the stream
+     */
+    boolean apply(String operationType, String collection, String id, Document fullDocument) {
+        events.increment();
+        lastEventAt = LocalDateTime.now();
+
+        switch (operationType) {
+            case "insert":
+            case "update":
+            case "replace":
+            case "delete":
+                break;
+            case "invalidate":
+                flushAll();
+                return false;
+            default:
+                // drop, rename, dropDatabase: whole collections changed
+                flushAll();
+                return true;
+        }
+
+        Class<?> type = COLLECTIONS.get(collection);
+        if (type == null) {
+            return true;
+        }
+        Object current = fullDocument != null ? mongoTemplate.getConverter().read(type, fullDocument) : null;
+        if (!cacheInvalidationService.evictChanged(type, id, current)) {
+            // Deleted without a local copy, so its secondary keys are unknown
+            cacheInvalidationService.evictRegion(type);
+            regionFlushes.increment();
+        }
+        queryResultCacheService.invalidateCollection(collection);
+        existenceFilterService.recordSaved(collection, fullDocument);
+        if (type == Query.class) {
+            if (current != null) {
+                storedQueryRegistry.register((Query) current);
+            } else {
+                storedQueryRegistry.remove(id);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Evict every watched region and all cached dynamic query results
+     */
+    void flushAll() {
+        COLLECTIONS.values().forEach(cacheInvalidationService::evictRegion);
+        queryResultCacheService.invalidateAll();
+        fullFlushes.increment();
+    }
+
+    private static String idOf(BsonValue key) {
+        if (key == null) {
+            return null;
+        }
+        if (key.isObjectId()) {
+            return key.asObjectId().getValue().toHexString();
+        }
+        if (key.isString()) {
+            return key.asString().getValue();
+        }
+        return key.toString();
+    }
+
+    private void track(BsonDocument token) {
+        if (token == null) {
+            return;
+        }
+        resumeToken = token;
+        long now = System.currentTimeMillis();
+        if (now - lastPersistedAt >= persistIntervalMs) {
+            lastPersistedAt = now;
+            writeResumeToken();
+        }
+    }
+
+    private BsonDocument readResumeToken() {
+        if (resumeTokenFile.isBlank()) {
+            return null;
+        }
+        Path path = Paths.get(resumeTokenFile);
+        try {
+            return Files.exists(path) ? BsonDocument.parse(Files.readString(path, StandardCharsets.UTF_8)) : null;
+        } catch (Exception e) {
+            // Starting without a token flushes the watched regions, which is always safe
+            System.err.println("Failed to read change stream resume token: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeResumeToken() {
+        BsonDocument token = resumeToken;
+        if (resumeTokenFile.isBlank() || token == null) {
+            return;
+        }
+        Path path = Paths.get(resumeTokenFile);
+        try {
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.writeString(temp, token.toJson(), StandardCharsets.UTF_8);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Failed to persist change stream resume token: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stream state and event, flush and error counters
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("connected", connected);
+        stats.put("collections", COLLECTIONS.keySet());
+        stats.put("events", events.sum());
+        stats.put("regionFlushes", regionFlushes.sum());
+        stats.put("fullFlushes", fullFlushes.sum());
+        stats.put("errors", errors.sum());
+        stats.put("lastEventAt", lastEventAt);
+        stats.put("lastError", lastError);
+        stats.put("resumable", resumeToken != null);
+        return stats;
+    }
+}
@@ -0,0 +1,49 @@
+package com.diyawanna.sup.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mongo lifecycle listener that reacts to entity writes
+ *
+ * Every save or delete performed through the repositories (user, university,
+ * faculty, cart and query services) invalidates the cached query results that
+ * were read from the written collection, and adds the unique fields of a
+ * saved document to the existence filters. Documents about to be saved get
+ * the search tokens of their name.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Component
+public class CollectionWriteListener extends AbstractMongoEventListener<Object> {
+
+    @Autowired
+    private QueryResultCacheService queryResultCacheService;
+
+    @Autowired
+    private ExistenceFilterService existenceFilterService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<Object> event) {
+        searchService.applyKeys(event.getCollectionName(), event.getDocument());
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        queryResultCacheService.invalidateCollection(event.getCollectionName());
+        existenceFilterService.recordSaved(event.getCollectionName(), event.getDocument());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        queryResultCacheService.invalidateCollection(event.getCollectionName());
+    }
+}
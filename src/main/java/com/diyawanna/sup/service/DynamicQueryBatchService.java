@@ -0,0 +1,220 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.dto.QueryExecutionRequest;
+import com.diyawanna.sup.dto.QueryExecutionResponse;
+import com.diyawanna.sup.exception.QueryBudgetExceededException;
+import com.diyawanna.sup.util.FindQueryShape;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service for executing several dynamic queries in one request
+ *
+ * This service provides:
+ * - Concurrent fan-out on a bounded thread pool
+ * - Deduplication of identical (query name, parameters) pairs
+ * - A per-item timeout measured from the start of the batch
+ * - Per-item results and errors, in request order
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class DynamicQueryBatchService {
+
+    @Autowired
+    private DynamicQueryService dynamicQueryService;
+
+    @Value("${dynamic-query.batch.pool-size:8}")
+    private int poolSize;
+
+    @Value("${dynamic-query.batch.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${dynamic-query.batch.max-items:25}")
+    private int maxItems;
+
+    @Value("${dynamic-query.batch.item-timeout-ms:10000}")
+    private long defaultItemTimeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "dynamic-query-batch-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Execute a batch of dynamic queries concurrently
+     *
+     * Identical requests are executed once and their result is shared. Streaming
+     * is not available in batch mode; every item returns its full result.
+     *
+     * @param requests  queries to execute
+     * @param timeoutMs per-item timeout, or null for the configured default
+     * @return one response per request, in request order
+     */
+    public List<QueryExecutionResponse> executeBatch(List<QueryExecutionRequest> requests, Long timeoutMs) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one query");
+        }
+        if (requests.size() > maxItems) {
+            throw new IllegalArgumentException("Batch size " + requests.size() + " exceeds the maximum of " + maxItems);
+        }
+
+        long itemTimeoutMs = timeoutMs != null && timeoutMs > 0 ? timeoutMs : defaultItemTimeoutMs;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(itemTimeoutMs);
+
+        // Submit each distinct (name, parameters) pair once
+        Map<List<Object>, Future<Object>> submitted = new LinkedHashMap<>();
+        Map<List<Object>, Exception> rejected = new HashMap<>();
+        List<QueryExecutionResponse> responses = new ArrayList<>(requests.size());
+        long started = System.currentTimeMillis();
+
+        for (QueryExecutionRequest request : requests) {
+            List<Object> key = keyOf(request);
+            if (submitted.containsKey(key) || rejected.containsKey(key)) {
+                continue;
+            }
+            if (!dynamicQueryService.validateParameters(request.getQueryName(), request.getParameters())) {
+                rejected.put(key, new IllegalArgumentException(
+                    "Invalid or missing parameters for query: " + request.getQueryName()));
+                continue;
+            }
+            try {
+                FindQueryShape shape = FindQueryShape.of(request.getFields(), request.getSort(),
+                    request.getLimit(), request.getAfter());
+                submitted.put(key, executor.submit(() -> dynamicQueryService.executeDynamicQuery(
+                    request.getQueryName(), request.getParameters(),
+                    request.isCacheable(), request.getCacheTimeoutSeconds(), shape)));
+            } catch (IllegalArgumentException e) {
+                rejected.put(key, e);
+            } catch (RejectedExecutionException e) {
+                rejected.put(key, new IllegalStateException("Batch executor is saturated, retry later"));
+            }
+        }
+
+        // Collect results in request order
+        Map<List<Object>, Integer> firstIndex = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            QueryExecutionRequest request = requests.get(i);
+            List<Object> key = keyOf(request);
+            Integer duplicateOf = firstIndex.putIfAbsent(key, i);
+
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("index", i);
+            if (duplicateOf != null) {
+                metadata.put("duplicateOf", duplicateOf);
+            }
+
+            QueryExecutionResponse response = new QueryExecutionResponse();
+            response.setQueryName(request.getQueryName());
+            response.setMetadata(metadata);
+
+            Exception failure = rejected.get(key);
+            if (failure == null) {
+                try {
+                    response.setResult(await(submitted.get(key), deadline));
+                    response.setSuccess(true);
+                    response.setMessage(dynamicQueryService.getSuccessMessage("query_executed"));
+                } catch (TimeoutException e) {
+                    failure = new TimeoutException("Query timed out after " + itemTimeoutMs + " ms");
+                } catch (Exception e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                response.setSuccess(false);
+                response.setMessage(failure.getMessage());
+                if (failure instanceof QueryBudgetExceededException) {
+                    metadata.put("error", dynamicQueryService.getErrorMessage("budget_exceeded"));
+                    metadata.put("limit", ((QueryBudgetExceededException) failure).getLimit());
+                } else {
+                    metadata.put("error", failure instanceof IllegalArgumentException
+                        ? dynamicQueryService.getErrorMessage("invalid_parameters")
+                        : dynamicQueryService.getErrorMessage("execution_failed"));
+                }
+            }
+
+            response.setExecutionTime(LocalDateTime.now());
+            response.setExecutionDurationMs(System.currentTimeMillis() - started);
+            responses.add(response);
+        }
+
+        return responses;
+    }
+
+    /**
+     * Requests are identical when name, parameters and find shape all match
+     */
+    private List<Object> keyOf(QueryExecutionRequest request) {
+        return Arrays.asList(request.getQueryName(), request.getParameters(),
+            request.getFields(), request.getSort(), request.getLimit(), request.getAfter());
+    }
+
+    private Object await(Future<Object> future, long deadline) throws Exception {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Get executor statistics for monitoring
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("poolSize", poolSize);
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queuedTasks", executor.getQueue().size());
+        stats.put("completedTasks", executor.getCompletedTaskCount());
+        stats.put("maxItems", maxItems);
+        stats.put("defaultItemTimeoutMs", defaultItemTimeoutMs);
+        return stats;
+    }
+}
@@ -1,33 +1,62 @@
 package com.diyawanna.sup.service;
 
 import com.diyawanna.sup.entity.Query;
-import com.diyawanna.sup.repository.QueryRepository;
+import com.diyawanna.sup.exception.QueryBudgetExceededException;
+import com.diyawanna.sup.util.AggregationPipelineTranslator;
+import com.diyawanna.sup.util.CompiledQuery;
+import com.diyawanna.sup.util.ExecutionBudget;
+import com.diyawanna.sup.util.FindQueryShape;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import com.mongodb.MongoExecutionTimeoutException;
+
+import org.bson.Document;
+
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.BasicQuery;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Dynamic Query Management Service
  * 
  * This service provides:
  * - Loading query configurations from external JSON
- * - Dynamic query execution with parameter substitution
- * - Support for MongoDB find and aggregation operations
+ * - Lock-free hot reload of the query registry as a versioned snapshot
+ * - Compiling query templates into execution plans once at startup
+ * - Dynamic query execution with typed parameter binding
+ * - Stored query execution from an in-memory compiled registry
+ * - Support for MongoDB find and server-side aggregation pipelines
+ * - Projection, sort and keyset pagination pushed down into find queries
+ * - Cursor-based streaming of large result sets
+ * - Per-query execution budgets: maxTimeMS, result caps and concurrency bulkheads
+ * - TTL-based result caching for cacheable queries, with single-flight misses
  * - Message and variable mapping management
  * 
  * @author Diyawanna Team
@@ -40,104 +69,308 @@ public class DynamicQueryService {
     private MongoTemplate mongoTemplate;
 
     @Autowired
-    private QueryRepository queryRepository;
+    private StoredQueryRegistry storedQueryRegistry;
+
+    @Autowired
+    private QueryResultCacheService queryResultCacheService;
+
+    @Value("${dynamic-query.stream.batch-size:500}")
+    private int streamBatchSize;
+
+    @Value("${dynamic-query.find.max-limit:1000}")
+    private int maxFindLimit;
+
+    @Value("${dynamic-query.config-location:classpath:query-config.json}")
+    private String configLocation;
+
+    @Value("${dynamic-query.reload.poll-interval-seconds:5}")
+    private long reloadPollIntervalSeconds;
+
+    @Value("${dynamic-query.budget.max-time-ms:30000}")
+    private long defaultMaxTimeMs;
 
-    private JsonNode queryConfig;
-    private Map<String, String> successMessages;
-    private Map<String, String> errorMessages;
-    private Map<String, JsonNode> queryMappings;
-    private Map<String, String> variableMappings;
+    @Value("${dynamic-query.budget.max-documents:10000}")
+    private int defaultMaxDocuments;
+
+    @Value("${dynamic-query.budget.max-concurrency:4}")
+    private int defaultMaxConcurrency;
+
+    @Value("${dynamic-query.budget.max-total-concurrency:10}")
+    private int maxTotalConcurrency;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    // Current registry snapshot; replaced as a whole, never mutated
+    private final AtomicReference<Registry> registry = new AtomicReference<>();
+    private final AtomicLong registryVersions = new AtomicLong();
+    private final Object reloadLock = new Object();
+
+    private ScheduledExecutorService reloadWatcher;
+    private volatile long configLastModified;
+    private volatile String lastReloadError;
+
+    // Concurrency bulkheads per query, plus one shared by all dynamic queries
+    private final ConcurrentMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private ExecutionBudget defaultBudget;
+    private Bulkhead sharedBulkhead;
 
     @PostConstruct
     public void loadConfiguration() {
+        defaultBudget = new ExecutionBudget(defaultMaxTimeMs, defaultMaxDocuments, defaultMaxConcurrency);
+        sharedBulkhead = maxTotalConcurrency > 0 ? new Bulkhead(maxTotalConcurrency) : null;
+        registry.set(loadRegistry());
+        startReloadWatcher();
+    }
+
+    @PreDestroy
+    public void stopReloadWatcher() {
+        if (reloadWatcher != null) {
+            reloadWatcher.shutdownNow();
+        }
+    }
+
+    /**
+     * Reload query-config.json and atomically swap in the new registry.
+     *
+     * The new snapshot is fully parsed and compiled before the swap, so a broken
+     * file leaves the current registry in place. Requests that already resolved
+     * their query keep executing on the previous snapshot.
+     */
+    public Map<String, Object> reloadConfiguration() {
+        synchronized (reloadLock) {
+            Registry previous = registry.get();
+            Registry next;
+            try {
+                next = loadRegistry();
+            } catch (RuntimeException e) {
+                lastReloadError = e.getMessage();
+                throw e;
+            }
+            registry.set(next);
+            lastReloadError = null;
+
+            // Cache keys carry the registry version; drop the old generation eagerly
+            queryResultCacheService.invalidateAll();
+
+            Map<String, Object> result = getRegistryInfo();
+            result.put("previousVersion", previous != null ? previous.version : null);
+            return result;
+        }
+    }
+
+    /**
+     * Version and load details of the current registry
+     */
+    public Map<String, Object> getRegistryInfo() {
+        Registry current = registry.get();
+        Map<String, Object> info = new HashMap<>();
+        info.put("version", current.version);
+        info.put("loadedAt", current.loadedAt);
+        info.put("queryCount", current.compiledQueries.size());
+        info.put("configLocation", configLocation);
+        info.put("watching", reloadWatcher != null);
+        info.put("lastReloadError", lastReloadError);
+        return info;
+    }
+
+    private Registry loadRegistry() {
+        Resource resource = resourceLoader.getResource(configLocation);
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            ClassPathResource resource = new ClassPathResource("query-config.json");
-            queryConfig = mapper.readTree(resource.getInputStream());
-            
-            loadMessages();
-            loadQueryMappings();
-            loadVariableMappings();
-            
+            long lastModified = resource.isFile() ? resource.lastModified() : 0L;
+            JsonNode config;
+            try (InputStream input = resource.getInputStream()) {
+                config = new ObjectMapper().readTree(input);
+            }
+
+            Registry loaded = new Registry(registryVersions.incrementAndGet(), config);
+            configLastModified = lastModified;
+            return loaded;
         } catch (IOException e) {
             throw new RuntimeException("Failed to load query configuration", e);
         }
     }
 
-    private void loadMessages() {
-        successMessages = new HashMap<>();
-        errorMessages = new HashMap<>();
-        
-        JsonNode messages = queryConfig.get("messages");
-        if (messages != null) {
-            JsonNode success = messages.get("success");
-            if (success != null) {
-                success.fields().forEachRemaining(entry -> 
-                    successMessages.put(entry.getKey(), entry.getValue().asText()));
+    /**
+     * Poll the configuration file for changes when it lives on the file system
+     */
+    private void startReloadWatcher() {
+        if (reloadPollIntervalSeconds <= 0) {
+            return;
+        }
+        Resource resource = resourceLoader.getResource(configLocation);
+        if (!resource.isFile()) {
+            return;
+        }
+
+        reloadWatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "query-config-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reloadWatcher.scheduleWithFixedDelay(() -> {
+            try {
+                long lastModified = resource.lastModified();
+                if (lastModified != configLastModified) {
+                    reloadConfiguration();
+                }
+            } catch (Exception e) {
+                // Keep serving the current registry; the error is reported by getRegistryInfo
+                System.err.println("Failed to reload query configuration: " + e.getMessage());
             }
-            
-            JsonNode error = messages.get("error");
-            if (error != null) {
-                error.fields().forEachRemaining(entry -> 
-                    errorMessages.put(entry.getKey(), entry.getValue().asText()));
+        }, reloadPollIntervalSeconds, reloadPollIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Immutable snapshot of query-config.json: messages, variable types,
+     * raw mappings and their compiled execution plans
+     */
+    private static final class Registry {
+        final long version;
+        final LocalDateTime loadedAt = LocalDateTime.now();
+        final JsonNode queryConfig;
+        final Map<String, String> successMessages;
+        final Map<String, String> errorMessages;
+        final Map<String, String> variableMappings;
+        final Map<String, JsonNode> queryMappings;
+        final Map<String, CompiledQuery> compiledQueries;
+
+        Registry(long version, JsonNode queryConfig) {
+            this.version = version;
+            this.queryConfig = queryConfig;
+
+            Map<String, String> success = new HashMap<>();
+            Map<String, String> error = new HashMap<>();
+            JsonNode messages = queryConfig.get("messages");
+            if (messages != null) {
+                JsonNode successNode = messages.get("success");
+                if (successNode != null) {
+                    successNode.fields().forEachRemaining(entry ->
+                        success.put(entry.getKey(), entry.getValue().asText()));
+                }
+
+                JsonNode errorNode = messages.get("error");
+                if (errorNode != null) {
+                    errorNode.fields().forEachRemaining(entry ->
+                        error.put(entry.getKey(), entry.getValue().asText()));
+                }
+            }
+            this.successMessages = Collections.unmodifiableMap(success);
+            this.errorMessages = Collections.unmodifiableMap(error);
+
+            Map<String, String> variables = new HashMap<>();
+            JsonNode variablesNode = queryConfig.get("variableMappings");
+            if (variablesNode != null) {
+                variablesNode.fields().forEachRemaining(entry ->
+                    variables.put(entry.getKey(), entry.getValue().asText()));
+            }
+            this.variableMappings = Collections.unmodifiableMap(variables);
+
+            Map<String, JsonNode> mappings = new HashMap<>();
+            Map<String, CompiledQuery> compiled = new HashMap<>();
+            JsonNode mappingsNode = queryConfig.get("queryMappings");
+            if (mappingsNode != null) {
+                mappingsNode.fields().forEachRemaining(entry -> {
+                    mappings.put(entry.getKey(), entry.getValue());
+                    entry.getValue().fields().forEachRemaining(operation -> {
+                        String queryName = entry.getKey() + "." + operation.getKey();
+                        compiled.put(queryName, compileMapping(queryName, operation.getValue(), variableMappings));
+                    });
+                });
             }
+            this.queryMappings = Collections.unmodifiableMap(mappings);
+            this.compiledQueries = Collections.unmodifiableMap(compiled);
         }
     }
 
-    private void loadQueryMappings() {
-        queryMappings = new HashMap<>();
-        JsonNode mappings = queryConfig.get("queryMappings");
-        if (mappings != null) {
-            mappings.fields().forEachRemaining(entry -> 
-                queryMappings.put(entry.getKey(), entry.getValue()));
+    /**
+     * Compile a query-config.json mapping into an execution plan
+     */
+    private static CompiledQuery compileMapping(String queryName, JsonNode mapping,
+                                                Map<String, String> variableMappings) {
+        List<String> declaredParameters = new ArrayList<>();
+        JsonNode parameters = mapping.get("parameters");
+        if (parameters != null && parameters.isArray()) {
+            parameters.forEach(parameter -> declaredParameters.add(parameter.asText()));
+        }
+
+        Map<String, Object> options = new HashMap<>();
+        JsonNode optionsNode = mapping.get("options");
+        if (optionsNode != null && optionsNode.isObject()) {
+            optionsNode.fields().forEachRemaining(option -> options.put(option.getKey(),
+                option.getValue().isNumber() ? option.getValue().numberValue()
+                    : option.getValue().isBoolean() ? (Object) option.getValue().booleanValue()
+                    : option.getValue().asText()));
+        }
+
+        try {
+            // Reject malformed budget options at load time rather than on first execution
+            ExecutionBudget.from(options, new ExecutionBudget(0, 0, 0));
+            return CompiledQuery.compile(
+                queryName,
+                mapping.path("query").asText(null),
+                mapping.path("collection").asText(null),
+                mapping.path("type").asText(null),
+                declaredParameters,
+                variableMappings,
+                options)
+                .withCaching(mapping.path("cacheable").asBoolean(false),
+                    mapping.hasNonNull("cacheTimeoutSeconds") ? mapping.get("cacheTimeoutSeconds").asInt() : null);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Failed to compile query mapping " + queryName + ": " + e.getMessage(), e);
         }
     }
 
-    private void loadVariableMappings() {
-        variableMappings = new HashMap<>();
-        JsonNode variables = queryConfig.get("variableMappings");
-        if (variables != null) {
-            variables.fields().forEachRemaining(entry -> 
-                variableMappings.put(entry.getKey(), entry.getValue().asText()));
+    /**
+     * Compile a stored query, letting its own variable mappings override the global ones
+     */
+    CompiledQuery compileStoredQuery(Query query) {
+        return compileStoredQuery(query, registry.get().variableMappings);
+    }
+
+    private CompiledQuery compileStoredQuery(Query query, Map<String, String> variableMappings) {
+        Map<String, String> variableTypes = new HashMap<>(variableMappings);
+        if (query.getVariableMappings() != null) {
+            variableTypes.putAll(query.getVariableMappings());
         }
+        return CompiledQuery.compile(query.getName(), query.getQueryContent(), query.getCollection(),
+            query.getQueryType(), null, variableTypes, query.getOptions())
+            .withCaching(query.isCacheable(), query.getCacheTimeoutSeconds());
     }
 
     /**
      * Execute dynamic query by name with parameters
      */
     public Object executeDynamicQuery(String queryName, Map<String, Object> parameters) {
+        return executeDynamicQuery(queryName, parameters, false, null);
+    }
+
+    /**
+     * Execute dynamic query by name, caching the result when either the request
+     * or the query mapping asks for it. The request TTL wins over the mapping TTL.
+     */
+    public Object executeDynamicQuery(String queryName, Map<String, Object> parameters,
+                                      boolean cacheable, Integer cacheTimeoutSeconds) {
+        return executeDynamicQuery(queryName, parameters, cacheable, cacheTimeoutSeconds, FindQueryShape.none());
+    }
+
+    /**
+     * Execute dynamic query by name with a projection/sort/page shape for FIND queries.
+     * Paged shapes return a {@link com.diyawanna.sup.util.KeysetPage}.
+     */
+    public Object executeDynamicQuery(String queryName, Map<String, Object> parameters,
+                                      boolean cacheable, Integer cacheTimeoutSeconds, FindQueryShape shape) {
         try {
-            // Parse query name (e.g., "user.findById")
-            String[] parts = queryName.split("\\.");
-            if (parts.length != 2) {
-                throw new IllegalArgumentException("Invalid query name format. Expected: 'entity.operation'");
-            }
-            
-            String entity = parts[0];
-            String operation = parts[1];
-            
-            // Get query mapping
-            JsonNode entityMappings = queryMappings.get(entity);
-            if (entityMappings == null) {
-                throw new IllegalArgumentException("Entity not found: " + entity);
-            }
-            
-            JsonNode queryMapping = entityMappings.get(operation);
-            if (queryMapping == null) {
-                throw new IllegalArgumentException("Operation not found: " + operation + " for entity: " + entity);
-            }
-            
-            // Extract query details
-            String queryString = queryMapping.get("query").asText();
-            String collection = queryMapping.get("collection").asText();
-            String type = queryMapping.get("type").asText();
-            
-            // Substitute parameters
-            String processedQuery = substituteParameters(queryString, parameters);
-            
-            // Execute query based on type
-            return executeQuery(processedQuery, collection, type);
-            
+            Registry snapshot = registry.get();
+            CompiledQuery compiledQuery = getCompiledQuery(snapshot, queryName);
+            requireShapeSupported(compiledQuery, shape);
+            int ttlSeconds = queryResultCacheService.resolveTtlSeconds(
+                cacheable || compiledQuery.isCacheable(),
+                cacheTimeoutSeconds != null ? cacheTimeoutSeconds : compiledQuery.getCacheTimeoutSeconds());
+            return executeCached("dynamic:v" + snapshot.version + ":" + queryName, "dynamic:" + queryName,
+                compiledQuery, parameters, shape, ttlSeconds, compiledQuery.getCollections());
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Failed to execute dynamic query: " + e.getMessage(), e);
         }
@@ -147,94 +380,235 @@ public class DynamicQueryService {
      * Execute stored query from database
      */
     public Object executeStoredQuery(String queryId, Map<String, Object> parameters) {
+        return executeStoredQuery(queryId, parameters, FindQueryShape.none());
+    }
+
+    /**
+     * Execute stored query from database; the request shape overrides the stored fields/sort/limit
+     */
+    public Object executeStoredQuery(String queryId, Map<String, Object> parameters, FindQueryShape requestShape) {
         try {
-            Optional<Query> queryOpt = queryRepository.findById(queryId);
-            if (queryOpt.isEmpty()) {
-                throw new IllegalArgumentException("Query not found: " + queryId);
-            }
-            
-            Query query = queryOpt.get();
-            if (!query.isActive()) {
-                throw new IllegalArgumentException("Query is not active: " + queryId);
-            }
-            
-            // Merge stored parameters with provided parameters
-            Map<String, Object> allParameters = new HashMap<>(query.getParameters());
-            if (parameters != null) {
-                allParameters.putAll(parameters);
-            }
-            
-            // Substitute parameters
-            String processedQuery = substituteParameters(query.getQueryContent(), allParameters);
-            
-            // Execute query
-            return executeQuery(processedQuery, query.getCollection(), query.getQueryType());
-            
+            return executeStoredEntry(storedQueryRegistry.findById(queryId), queryId, parameters, requestShape);
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Failed to execute stored query: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Substitute parameters in query string
+     * Execute stored query by its unique name
      */
-    private String substituteParameters(String queryString, Map<String, Object> parameters) {
-        if (parameters == null || parameters.isEmpty()) {
-            return queryString;
+    public Object executeStoredQueryByName(String queryName, Map<String, Object> parameters,
+                                           FindQueryShape requestShape) {
+        try {
+            return executeStoredEntry(storedQueryRegistry.findByName(queryName), queryName, parameters, requestShape);
+        } catch (QueryBudgetExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to execute stored query: " + e.getMessage(), e);
         }
-        
-        String result = queryString;
-        Pattern pattern = Pattern.compile("\\$\\{([^}]+)\\}");
-        Matcher matcher = pattern.matcher(queryString);
-        
-        while (matcher.find()) {
-            String paramName = matcher.group(1);
-            Object paramValue = parameters.get(paramName);
-            
-            if (paramValue == null) {
-                throw new IllegalArgumentException("Missing required parameter: " + paramName);
+    }
+
+    private Object executeStoredEntry(StoredQueryRegistry.Entry entry, String reference,
+                                      Map<String, Object> parameters, FindQueryShape requestShape) {
+        if (entry == null) {
+            throw new IllegalArgumentException("Query not found: " + reference);
+        }
+
+        Query query = entry.getQuery();
+        if (!query.isActive()) {
+            throw new IllegalArgumentException("Query is not active: " + reference);
+        }
+
+        // Merge stored parameters with provided parameters
+        Map<String, Object> allParameters = entry.getDefaultParameters();
+        if (parameters != null && !parameters.isEmpty()) {
+            allParameters = new HashMap<>(allParameters);
+            allParameters.putAll(parameters);
+        }
+
+        Registry snapshot = registry.get();
+        CompiledQuery compiledQuery = entry.compiled(snapshot.version,
+            stored -> compileStoredQuery(stored, snapshot.variableMappings));
+        FindQueryShape shape = requestShape.withDefaults(query.getFields(), query.getSort(), query.getLimit());
+        requireShapeSupported(compiledQuery, shape);
+        int ttlSeconds = queryResultCacheService.resolveTtlSeconds(
+            compiledQuery.isCacheable(), compiledQuery.getCacheTimeoutSeconds());
+
+        // Stored results also depend on the query definition itself
+        Set<String> collections = new LinkedHashSet<>(compiledQuery.getCollections());
+        collections.add("query");
+
+        return executeCached("stored:" + query.getId(), "stored:" + query.getId(), compiledQuery, allParameters, shape,
+            ttlSeconds, collections);
+    }
+
+    /**
+     * Execute a compiled query through the result cache when a TTL applies.
+     * Cache hits and callers coalesced onto an in-flight execution do not take
+     * a bulkhead permit.
+     */
+    private Object executeCached(String keyPrefix, String bulkheadKey, CompiledQuery compiledQuery,
+                                 Map<String, Object> parameters, FindQueryShape shape, int ttlSeconds,
+                                 Collection<String> collections) {
+        if (ttlSeconds <= 0) {
+            return executeWithinBudget(bulkheadKey, compiledQuery, parameters, shape);
+        }
+
+        // Only parameters the query actually binds take part in the key
+        Map<String, Object> boundParameters = new HashMap<>();
+        for (String parameter : compiledQuery.getParameterNames()) {
+            if (parameters != null && parameters.containsKey(parameter)) {
+                boundParameters.put(parameter, parameters.get(parameter));
             }
-            
-            // Convert parameter value to appropriate string representation
-            String valueStr = convertParameterValue(paramValue, paramName);
-            result = result.replace("${" + paramName + "}", valueStr);
         }
-        
-        return result;
+        if (!shape.isEmpty()) {
+            // "$" cannot start a placeholder name, so this never clashes with a parameter
+            boundParameters.put("$shape", shape.toKey());
+        }
+
+        String key = queryResultCacheService.buildKey(keyPrefix, boundParameters);
+        Object cached = queryResultCacheService.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Concurrent misses of the same key share one execution and one bulkhead permit
+        return queryResultCacheService.coalesce(key, () -> {
+            long[] versions = queryResultCacheService.captureVersions(collections);
+            Object result = executeWithinBudget(bulkheadKey, compiledQuery, parameters, shape);
+            queryResultCacheService.put(key, result, ttlSeconds, collections, versions);
+            return result;
+        });
+    }
+
+    /**
+     * Resolve a compiled query by its "entity.operation" name
+     */
+    private CompiledQuery getCompiledQuery(Registry snapshot, String queryName) {
+        CompiledQuery compiledQuery = queryName != null ? snapshot.compiledQueries.get(queryName) : null;
+        if (compiledQuery != null) {
+            return compiledQuery;
+        }
+
+        // Slow path only for unknown names, to produce a helpful error
+        String[] parts = queryName != null ? queryName.split("\\.") : new String[0];
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid query name format. Expected: 'entity.operation'");
+        }
+        if (!snapshot.queryMappings.containsKey(parts[0])) {
+            throw new IllegalArgumentException("Entity not found: " + parts[0]);
+        }
+        throw new IllegalArgumentException("Operation not found: " + parts[1] + " for entity: " + parts[0]);
     }
 
     /**
-     * Convert parameter value to appropriate string representation
+     * Projection, sort and paging only apply to FIND queries
      */
-    private String convertParameterValue(Object value, String paramName) {
-        String type = variableMappings.get(paramName);
-        
-        if ("Integer".equals(type)) {
-            return value.toString();
-        } else if ("String".equals(type)) {
-            return "'" + value.toString() + "'";
-        } else {
-            // Default to string representation
-            return value.toString();
+    private void requireShapeSupported(CompiledQuery compiledQuery, FindQueryShape shape) {
+        if (!shape.isEmpty() && !"FIND".equals(compiledQuery.getType())) {
+            throw new IllegalArgumentException("fields, sort, limit and after are only supported for FIND queries");
         }
     }
 
+    /**
+     * Execute a query while holding its bulkhead permits
+     */
+    private Object executeWithinBudget(String bulkheadKey, CompiledQuery compiledQuery,
+                                       Map<String, Object> parameters, FindQueryShape shape) {
+        ExecutionBudget budget = ExecutionBudget.from(compiledQuery.getOptions(), defaultBudget);
+        Runnable release = acquirePermits(bulkheadKey, compiledQuery.getName(), budget);
+        try {
+            return executeQuery(compiledQuery, parameters, shape, budget);
+        } finally {
+            release.run();
+        }
+    }
+
+    /**
+     * Take a permit from the query's bulkhead and the shared one, rejecting
+     * immediately instead of queueing when either is exhausted
+     *
+     * @return action releasing the permits; safe to run more than once
+     */
+    private Runnable acquirePermits(String bulkheadKey, String queryName, ExecutionBudget budget) {
+        Bulkhead queryBulkhead = budget.hasConcurrencyLimit()
+            ? bulkheadFor(bulkheadKey, budget.getMaxConcurrency()) : null;
+        if (queryBulkhead != null && !queryBulkhead.tryAcquire()) {
+            throw new QueryBudgetExceededException(QueryBudgetExceededException.Limit.MAX_CONCURRENCY,
+                "Query " + queryName + " is already running " + queryBulkhead.permits
+                    + " times (maxConcurrency); retry later");
+        }
+        Bulkhead shared = sharedBulkhead;
+        if (shared != null && !shared.tryAcquire()) {
+            if (queryBulkhead != null) {
+                queryBulkhead.release();
+            }
+            throw new QueryBudgetExceededException(QueryBudgetExceededException.Limit.MAX_CONCURRENCY,
+                "Too many dynamic queries running (limit " + shared.permits + "); retry later");
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                if (shared != null) {
+                    shared.release();
+                }
+                if (queryBulkhead != null) {
+                    queryBulkhead.release();
+                }
+            }
+        };
+    }
+
+    private Bulkhead bulkheadFor(String bulkheadKey, int permits) {
+        Bulkhead bulkhead = bulkheads.get(bulkheadKey);
+        if (bulkhead != null && bulkhead.permits == permits) {
+            return bulkhead;
+        }
+        // New query or changed limit; in-flight executions release into the bulkhead they acquired
+        return bulkheads.compute(bulkheadKey,
+            (key, current) -> current != null && current.permits == permits ? current : new Bulkhead(permits));
+    }
+
     /**
      * Execute query based on type
      */
-    private Object executeQuery(String queryString, String collection, String type) {
+    private Object executeQuery(CompiledQuery compiledQuery, Map<String, Object> parameters, FindQueryShape shape,
+                                ExecutionBudget budget) {
         try {
-            switch (type.toUpperCase()) {
+            Object result;
+            switch (compiledQuery.getType()) {
                 case "FIND":
-                    return executeFindQuery(queryString, collection);
+                    result = executeFindQuery(compiledQuery.bindFilter(parameters), compiledQuery.getCollection(),
+                        shape, budget);
+                    break;
                 case "AGGREGATE":
-                    return executeAggregateQuery(queryString, collection);
+                    result = executeAggregateQuery(withDocumentCap(compiledQuery.bindPipeline(parameters), budget),
+                        compiledQuery.getCollection(), withTimeLimit(compiledQuery.getOptions(), budget));
+                    break;
                 case "COUNT":
-                    return executeCountQuery(queryString, collection);
+                    return executeCountQuery(compiledQuery.bindFilter(parameters), compiledQuery.getCollection(),
+                        budget);
                 default:
-                    throw new IllegalArgumentException("Unsupported query type: " + type);
+                    throw new IllegalArgumentException("Unsupported query type: " + compiledQuery.getType());
+            }
+            if (budget.hasDocumentLimit() && result instanceof List
+                    && ((List<?>) result).size() > budget.getMaxDocuments()) {
+                throw new QueryBudgetExceededException(QueryBudgetExceededException.Limit.MAX_DOCUMENTS,
+                    "Query " + compiledQuery.getName() + " returned more than " + budget.getMaxDocuments()
+                        + " documents (maxDocuments); narrow the filter, page with limit/after or stream the results");
             }
+            return result;
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
+            if (isTimeout(e)) {
+                throw new QueryBudgetExceededException(QueryBudgetExceededException.Limit.MAX_TIME,
+                    "Query " + compiledQuery.getName() + " exceeded " + budget.getMaxTimeMs()
+                        + " ms (maxTimeMS); narrow the filter or page through the results", e);
+            }
             throw new RuntimeException("Query execution failed: " + e.getMessage(), e);
         }
     }
@@ -242,53 +616,37 @@ public class DynamicQueryService {
     /**
      * Execute MongoDB find query
      */
-    private List<Object> executeFindQuery(String queryString, String collection) {
+    private Object executeFindQuery(Document filter, String collection, FindQueryShape shape, ExecutionBudget budget) {
         try {
-            // Parse JSON query string to create MongoDB query
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode queryJson = mapper.readTree(queryString);
-            
-            org.springframework.data.mongodb.core.query.Query mongoQuery = 
-                new org.springframework.data.mongodb.core.query.Query();
-            
-            // Build criteria from JSON
-            Criteria criteria = buildCriteriaFromJson(queryJson);
-            mongoQuery.addCriteria(criteria);
-            
-            return mongoTemplate.find(mongoQuery, Object.class, collection);
-            
+            if (shape.isEmpty()) {
+                BasicQuery query = new BasicQuery(filter);
+                applyBudget(query, budget, true);
+                return mongoTemplate.find(query, Object.class, collection);
+            }
+
+            BasicQuery query = shape.toQuery(filter, maxFindLimit, shape.isPaged());
+            applyBudget(query, budget, true);
+            List<Document> results = mongoTemplate.find(query, Document.class, collection);
+            return shape.isPaged() ? shape.toPage(results, maxFindLimit) : results;
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Find query execution failed: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Execute MongoDB aggregation query
+     * Execute MongoDB aggregation query on the server
      */
-    private List<Object> executeAggregateQuery(String queryString, String collection) {
+    private List<Object> executeAggregateQuery(List<Document> stages, String collection, Map<String, Object> options) {
         try {
-            // Parse aggregation pipeline
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode pipelineJson = mapper.readTree(queryString);
-            
-            List<org.springframework.data.mongodb.core.aggregation.AggregationOperation> operations = 
-                new ArrayList<>();
-            
-            // Build aggregation operations from JSON
-            if (pipelineJson.isArray()) {
-                for (JsonNode stage : pipelineJson) {
-                    // This is a simplified implementation
-                    // In a production environment, you would need more sophisticated parsing
-                    // For Spring Boot 2.7.x compatibility, we'll use a basic match operation
-                    operations.add(Aggregation.match(new org.springframework.data.mongodb.core.query.Criteria()));
-                }
-            }
-            
-            Aggregation aggregation = Aggregation.newAggregation(operations);
+            Aggregation aggregation = AggregationPipelineTranslator.translate(stages, options);
             AggregationResults<Object> results = mongoTemplate.aggregate(aggregation, collection, Object.class);
             
             return results.getMappedResults();
             
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Aggregation query execution failed: " + e.getMessage(), e);
         }
@@ -297,127 +655,286 @@ public class DynamicQueryService {
     /**
      * Execute MongoDB count query
      */
-    private long executeCountQuery(String queryString, String collection) {
+    private long executeCountQuery(Document filter, String collection, ExecutionBudget budget) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode queryJson = mapper.readTree(queryString);
-            
-            org.springframework.data.mongodb.core.query.Query mongoQuery = 
-                new org.springframework.data.mongodb.core.query.Query();
-            
-            Criteria criteria = buildCriteriaFromJson(queryJson);
-            mongoQuery.addCriteria(criteria);
-            
-            return mongoTemplate.count(mongoQuery, collection);
-            
+            BasicQuery query = new BasicQuery(filter);
+            applyBudget(query, budget, false);
+            return mongoTemplate.count(query, collection);
         } catch (Exception e) {
             throw new RuntimeException("Count query execution failed: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Build MongoDB Criteria from JSON
+     * Apply maxTimeMS and, for unbounded finds, a limit one past the document cap so an overflow is detectable
      */
-    private Criteria buildCriteriaFromJson(JsonNode queryJson) {
-        Criteria criteria = new Criteria();
-        
-        queryJson.fields().forEachRemaining(entry -> {
-            String field = entry.getKey();
-            JsonNode value = entry.getValue();
-            
-            if (value.isTextual()) {
-                criteria.and(field).is(value.asText());
-            } else if (value.isNumber()) {
-                criteria.and(field).is(value.asLong());
-            } else if (value.isBoolean()) {
-                criteria.and(field).is(value.asBoolean());
-            } else if (value.isObject()) {
-                // Handle complex queries like regex, range, etc.
-                handleComplexCriteria(criteria, field, value);
+    private static void applyBudget(BasicQuery query, ExecutionBudget budget, boolean capDocuments) {
+        if (budget.hasTimeLimit()) {
+            query.maxTimeMsec(budget.getMaxTimeMs());
+        }
+        if (capDocuments && budget.hasDocumentLimit() && query.getLimit() == 0) {
+            query.limit((int) Math.min(Integer.MAX_VALUE, budget.getMaxDocuments() + 1L));
+        }
+    }
+
+    /**
+     * Aggregation options with the budget's maxTimeMS
+     */
+    private static Map<String, Object> withTimeLimit(Map<String, Object> options, ExecutionBudget budget) {
+        Map<String, Object> limited = new HashMap<>(options);
+        limited.remove(ExecutionBudget.MAX_TIME_MS);
+        if (budget.hasTimeLimit()) {
+            limited.put(ExecutionBudget.MAX_TIME_MS, budget.getMaxTimeMs());
+        }
+        return limited;
+    }
+
+    /**
+     * Pipeline ending in a $limit one past the document cap, so the server stops early on an overflow
+     */
+    private static List<Document> withDocumentCap(List<Document> stages, ExecutionBudget budget) {
+        if (!budget.hasDocumentLimit()) {
+            return stages;
+        }
+        List<Document> capped = new ArrayList<>(stages);
+        capped.add(new Document("$limit", (int) Math.min(Integer.MAX_VALUE, budget.getMaxDocuments() + 1L)));
+        return capped;
+    }
+
+    /**
+     * True if the server aborted the operation for exceeding maxTimeMS
+     */
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause() != cause ? cause.getCause() : null) {
+            if (cause instanceof MongoExecutionTimeoutException || cause instanceof QueryTimeoutException) {
+                return true;
             }
-        });
-        
-        return criteria;
+        }
+        return false;
+    }
+
+    /**
+     * Open a cursor over the results of a dynamic query for streaming.
+     *
+     * Parameters are bound and the cursor is opened on the calling thread, so
+     * validation and connection errors surface before any output is written.
+     * Documents are fetched from the server in batches as the caller iterates,
+     * and the caller must close the returned iterator.
+     */
+    public CloseableIterator<Document> streamDynamicQuery(String queryName, Map<String, Object> parameters) {
+        return streamDynamicQuery(queryName, parameters, FindQueryShape.none());
     }
 
     /**
-     * Handle complex criteria like regex, range queries
+     * Open a streaming cursor with a projection/sort/limit shape applied to FIND queries.
+     * A next-page cursor is not issued when streaming.
      */
-    private void handleComplexCriteria(Criteria criteria, String field, JsonNode value) {
-        if (value.has("$regex")) {
-            String regex = value.get("$regex").asText();
-            String options = value.has("$options") ? value.get("$options").asText() : "";
-            criteria.and(field).regex(regex, options);
-        } else if (value.has("$gte") || value.has("$lte")) {
-            if (value.has("$gte")) {
-                criteria.and(field).gte(value.get("$gte").asLong());
+    public CloseableIterator<Document> streamDynamicQuery(String queryName, Map<String, Object> parameters,
+                                                          FindQueryShape shape) {
+        Runnable release = null;
+        try {
+            CompiledQuery compiledQuery = getCompiledQuery(registry.get(), queryName);
+            requireShapeSupported(compiledQuery, shape);
+            ExecutionBudget budget = ExecutionBudget.from(compiledQuery.getOptions(), defaultBudget);
+            release = acquirePermits("dynamic:" + queryName, queryName, budget);
+            CloseableIterator<Document> cursor;
+            switch (compiledQuery.getType()) {
+                case "FIND":
+                    // No document cap: streaming is the way to read results larger than maxDocuments
+                    BasicQuery query = shape.toQuery(compiledQuery.bindFilter(parameters), maxFindLimit, false);
+                    applyBudget(query, budget, false);
+                    query.cursorBatchSize(streamBatchSize);
+                    cursor = mongoTemplate.stream(query, Document.class, compiledQuery.getCollection());
+                    break;
+                case "AGGREGATE":
+                    Map<String, Object> options = withTimeLimit(compiledQuery.getOptions(), budget);
+                    options.putIfAbsent("batchSize", streamBatchSize);
+                    Aggregation aggregation = AggregationPipelineTranslator.translate(
+                        compiledQuery.bindPipeline(parameters), options);
+                    cursor = mongoTemplate.aggregateStream(aggregation, compiledQuery.getCollection(), Document.class);
+                    break;
+                case "COUNT":
+                    long count = executeCountQuery(compiledQuery.bindFilter(parameters), compiledQuery.getCollection(),
+                        budget);
+                    cursor = new SingleDocumentIterator(new Document("count", count));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported query type: " + compiledQuery.getType());
             }
-            if (value.has("$lte")) {
-                criteria.and(field).lte(value.get("$lte").asLong());
+            // Permits are held until the caller closes the cursor
+            return new PermitReleasingIterator(cursor, release);
+        } catch (QueryBudgetExceededException e) {
+            if (release != null) {
+                release.run();
             }
-        } else if (value.has("$in")) {
-            List<Object> inValues = new ArrayList<>();
-            value.get("$in").forEach(item -> inValues.add(item.asText()));
-            criteria.and(field).in(inValues);
+            throw e;
+        } catch (Exception e) {
+            if (release != null) {
+                release.run();
+            }
+            throw new RuntimeException("Failed to stream dynamic query: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Default budget and bulkhead usage for monitoring
+     */
+    public Map<String, Object> getBudgetStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("defaults", defaultBudget != null ? defaultBudget.toMap() : null);
+        if (sharedBulkhead != null) {
+            stats.put("shared", sharedBulkhead.toMap());
         }
+        Map<String, Object> queries = new TreeMap<>();
+        bulkheads.forEach((key, bulkhead) -> queries.put(key, bulkhead.toMap()));
+        stats.put("bulkheads", queries);
+        return stats;
+    }
+
+    /**
+     * Number of documents fetched per cursor batch when streaming
+     */
+    public int getStreamBatchSize() {
+        return streamBatchSize;
     }
 
     /**
      * Get success message by key
      */
     public String getSuccessMessage(String key) {
-        return successMessages.getOrDefault(key, "Operation completed successfully");
+        return registry.get().successMessages.getOrDefault(key, "Operation completed successfully");
     }
 
     /**
      * Get error message by key
      */
     public String getErrorMessage(String key) {
-        return errorMessages.getOrDefault(key, "Operation failed");
+        return registry.get().errorMessages.getOrDefault(key, "Operation failed");
     }
 
     /**
      * Get available query mappings
      */
     public Map<String, JsonNode> getQueryMappings() {
-        return queryMappings;
+        return registry.get().queryMappings;
+    }
+
+    /**
+     * Get the compiled execution plans of all configured queries
+     */
+    public Map<String, CompiledQuery> getCompiledQueries() {
+        return registry.get().compiledQueries;
     }
 
     /**
      * Get sample queries
      */
     public JsonNode getSampleQueries() {
-        return queryConfig.get("sampleQueries");
+        return registry.get().queryConfig.get("sampleQueries");
     }
 
     /**
      * Validate query parameters
      */
     public boolean validateParameters(String queryName, Map<String, Object> parameters) {
-        try {
-            String[] parts = queryName.split("\\.");
-            if (parts.length != 2) return false;
-            
-            JsonNode entityMappings = queryMappings.get(parts[0]);
-            if (entityMappings == null) return false;
-            
-            JsonNode queryMapping = entityMappings.get(parts[1]);
-            if (queryMapping == null) return false;
-            
-            JsonNode requiredParams = queryMapping.get("parameters");
-            if (requiredParams != null && requiredParams.isArray()) {
-                for (JsonNode param : requiredParams) {
-                    String paramName = param.asText();
-                    if (!parameters.containsKey(paramName)) {
-                        return false;
-                    }
-                }
+        CompiledQuery compiledQuery = queryName != null ? registry.get().compiledQueries.get(queryName) : null;
+        return compiledQuery != null && compiledQuery.hasAllParameters(parameters);
+    }
+
+    /**
+     * Iterator over a single computed document (used for COUNT results)
+     */
+    private static class SingleDocumentIterator implements CloseableIterator<Document> {
+        private Document document;
+
+        SingleDocumentIterator(Document document) {
+            this.document = document;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return document != null;
+        }
+
+        @Override
+        public Document next() {
+            if (document == null) {
+                throw new NoSuchElementException();
             }
-            
-            return true;
-        } catch (Exception e) {
+            Document next = document;
+            document = null;
+            return next;
+        }
+
+        @Override
+        public void close() {
+            document = null;
+        }
+    }
+
+    /**
+     * Fixed number of concurrent executions, with a count of rejected attempts
+     */
+    private static final class Bulkhead {
+        final int permits;
+        final Semaphore semaphore;
+        final AtomicLong rejected = new AtomicLong();
+
+        Bulkhead(int permits) {
+            this.permits = permits;
+            this.semaphore = new Semaphore(permits);
+        }
+
+        boolean tryAcquire() {
+            if (semaphore.tryAcquire()) {
+                return true;
+            }
+            rejected.incrementAndGet();
             return false;
         }
+
+        void release() {
+            semaphore.release();
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("maxConcurrency", permits);
+            map.put("inFlight", permits - semaphore.availablePermits());
+            map.put("rejected", rejected.get());
+            return map;
+        }
     }
-}
 
+    /**
+     * Cursor that gives its bulkhead permits back when closed
+     */
+    private static final class PermitReleasingIterator implements CloseableIterator<Document> {
+        private final CloseableIterator<Document> delegate;
+        private final Runnable release;
+
+        PermitReleasingIterator(CloseableIterator<Document> delegate, Runnable release) {
+            this.delegate = delegate;
+            this.release = release;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public Document next() {
+            return delegate.next();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                release.run();
+            }
+        }
+    }
+}
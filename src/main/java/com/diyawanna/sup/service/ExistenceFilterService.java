@@ -0,0 +1,286 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.util.BloomFilter;
+
+import org.bson.Document;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Bloom-filter-backed existence checks for unique fields
+ *
+ * This service provides:
+ * - One Bloom filter per uniqueness domain: usernames, emails, university names, query names
+ * - Filters built at startup by streaming only the unique field of each collection
+ * - Filters extended on every save seen by the Mongo lifecycle listener
+ * - Background rebuilds once a filter holds more values than it was sized for, on a
+ *   fixed schedule and on request, e.g. after writes may have been missed
+ * - Counters of definite negatives, database checks and false positives
+ *
+ * A definite negative answers "does not exist" without a database round trip;
+ * possible positives are confirmed with the repository's exists query. Until a
+ * filter is built, or if building it failed, every check goes to the database.
+ *
+ * A filter only sees the writes of this instance and those delivered by the
+ * change stream, so a negative may be wrong until the next rebuild. Write paths
+ * therefore rely on the unique indexes and treat the filter as a shortcut only.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class ExistenceFilterService implements ApplicationRunner {
+
+    public static final String USERNAME = "username";
+    public static final String EMAIL = "email";
+    public static final String UNIVERSITY_NAME = "universityName";
+    public static final String QUERY_NAME = "queryName";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${existence-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${existence-filter.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${existence-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${existence-filter.rebuild-interval-ms:3600000}")
+    private long rebuildIntervalMs;
+
+    private final Map<String, Domain> domains = new LinkedHashMap<>();
+    private final ScheduledExecutorService rebuildExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "existence-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ExistenceFilterService() {
+        domains.put(USERNAME, new Domain("user", "username"));
+        domains.put(EMAIL, new Domain("user", "email"));
+        domains.put(UNIVERSITY_NAME, new Domain("university", "name"));
+        domains.put(QUERY_NAME, new Domain("query", "name"));
+    }
+
+    /**
+     * Build every filter at startup
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        rebuildAll();
+        if (rebuildIntervalMs > 0) {
+            rebuildExecutor.scheduleWithFixedDelay(this::rebuildAll, rebuildIntervalMs, rebuildIntervalMs,
+                TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Rebuild every filter in the background, e.g. after writes may have been missed
+     */
+    public void requestRebuild() {
+        if (enabled) {
+            rebuildExecutor.execute(this::rebuildAll);
+        }
+    }
+
+    /**
+     * Rebuild every filter from its collection
+     */
+    public void rebuildAll() {
+        domains.keySet().forEach(this::rebuild);
+    }
+
+    @PreDestroy
+    public void stopRebuilds() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * Check whether a value exists, asking the database only when the filter cannot rule it out
+     *
+     * @param domain        one of USERNAME, EMAIL, UNIVERSITY_NAME, QUERY_NAME
+     * @param databaseCheck authoritative exists query, e.g. userRepository::existsByUsername
+     */
+    public boolean exists(String domain, String value, Predicate<String> databaseCheck) {
+        Domain filterDomain = domainOf(domain);
+        BloomFilter filter = filterDomain.filter;
+        if (!enabled || filter == null || value == null) {
+            filterDomain.databaseChecks.increment();
+            return databaseCheck.test(value);
+        }
+        if (!filter.mightContain(value)) {
+            filterDomain.definiteNegatives.increment();
+            return false;
+        }
+
+        filterDomain.databaseChecks.increment();
+        boolean exists = databaseCheck.test(value);
+        if (!exists) {
+            filterDomain.falsePositives.increment();
+        }
+        return exists;
+    }
+
+    /**
+     * Add the unique fields of a saved document to the filters of its collection
+     */
+    public void recordSaved(String collection, Document document) {
+        if (!enabled || collection == null || document == null) {
+            return;
+        }
+        domains.forEach((name, domain) -> {
+            if (domain.collection.equals(collection)) {
+                Object value = document.get(domain.field);
+                if (value instanceof String) {
+                    record(name, domain, (String) value);
+                }
+            }
+        });
+    }
+
+    private void record(String name, Domain domain, String value) {
+        BloomFilter filter = domain.filter;
+        if (filter != null) {
+            filter.put(value);
+        }
+        // Checked after the current filter, so a value saved before a rebuild starts is
+        // either in the rebuilt filter or read by the rebuild's scan
+        BloomFilter building = domain.building;
+        if (building != null) {
+            building.put(value);
+        }
+        if (filter != null && filter.isSaturated() && domain.rebuildScheduled.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild(name);
+                } finally {
+                    domain.rebuildScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Rebuild one filter from its collection; the previous filter keeps answering until the swap
+     */
+    public void rebuild(String domainName) {
+        Domain domain = domainOf(domainName);
+        synchronized (domain) {
+            long startedAt = System.currentTimeMillis();
+            try {
+                long documents = mongoTemplate.estimatedCount(domain.collection);
+                BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, documents * 2), falsePositiveRate);
+                domain.building = rebuilt;
+
+                Query query = new Query();
+                query.fields().include(domain.field).exclude("_id");
+                query.cursorBatchSize(1000);
+                try (CloseableIterator<Document> cursor = mongoTemplate.stream(query, Document.class, domain.collection)) {
+                    while (cursor.hasNext()) {
+                        Object value = cursor.next().get(domain.field);
+                        if (value instanceof String) {
+                            rebuilt.put((String) value);
+                        }
+                    }
+                }
+
+                domain.filter = rebuilt;
+                domain.lastBuiltAt = LocalDateTime.now();
+                domain.lastBuildMs = System.currentTimeMillis() - startedAt;
+                domain.lastError = null;
+            } catch (Exception e) {
+                // Without a filter every check falls back to the database, which is slower but correct
+                domain.lastError = e.getMessage();
+                System.err.println("Failed to build existence filter " + domainName + ": " + e.getMessage());
+            } finally {
+                domain.building = null;
+            }
+        }
+    }
+
+    /**
+     * Filter sizes, build times and check counters per domain
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        Map<String, Object> domainStats = new LinkedHashMap<>();
+        domains.forEach((name, domain) -> domainStats.put(name, domain.toMap()));
+        stats.put("domains", domainStats);
+        return stats;
+    }
+
+    private Domain domainOf(String name) {
+        Domain domain = domains.get(name);
+        if (domain == null) {
+            throw new IllegalArgumentException("Unknown existence filter: " + name);
+        }
+        return domain;
+    }
+
+    /**
+     * Filter and counters of one unique field
+     */
+    private static final class Domain {
+        final String collection;
+        final String field;
+        final LongAdder definiteNegatives = new LongAdder();
+        final LongAdder databaseChecks = new LongAdder();
+        final LongAdder falsePositives = new LongAdder();
+        final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+        volatile BloomFilter filter;
+        volatile BloomFilter building;
+        volatile LocalDateTime lastBuiltAt;
+        volatile long lastBuildMs;
+        volatile String lastError;
+
+        Domain(String collection, String field) {
+            this.collection = collection;
+            this.field = field;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("collection", collection);
+            map.put("field", field);
+            map.put("ready", filter != null);
+            map.put("definiteNegatives", definiteNegatives.sum());
+            map.put("databaseChecks", databaseChecks.sum());
+            map.put("falsePositives", falsePositives.sum());
+            map.put("lastBuiltAt", lastBuiltAt);
+            map.put("lastBuildMs", lastBuildMs);
+            if (lastError != null) {
+                map.put("lastError", lastError);
+            }
+            BloomFilter current = filter;
+            if (current != null) {
+                map.put("filter", current.toMap());
+            }
+            return map;
+        }
+    }
+}
@@ -1,18 +1,21 @@
 package com.diyawanna.sup.service;
 
+import com.diyawanna.sup.dto.BulkWriteResponse;
 import com.diyawanna.sup.entity.Faculty;
 import com.diyawanna.sup.repository.FacultyRepository;
 import com.diyawanna.sup.exception.FacultyNotFoundException;
+import com.diyawanna.sup.util.KeysetPage;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Faculty service for business logic and CRUD operations
@@ -26,12 +29,43 @@ public class FacultyService {
     @Autowired
     private FacultyRepository facultyRepository;
 
-    @Cacheable(value = "faculties", key = "'all_active'")
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private BulkWriteService bulkWriteService;
+
+    @Autowired
+    private KeysetPaginationService keysetPaginationService;
+
+    @Autowired
+    private FieldSelectionService fieldSelectionService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Cacheable(value = "faculties", key = "'all_active'", sync = true)
     public List<Faculty> getAllActiveFaculties() {
         return facultyRepository.findByActiveTrue();
     }
 
-    @Cacheable(value = "faculties", key = "#id")
+    /**
+     * Active faculties in _id order, one keyset page at a time
+     */
+    public KeysetPage<Faculty> getActiveFacultiesPage(Set<String> fields, Integer limit, String after) {
+        return keysetPaginationService.page(Faculty.class,
+            Criteria.where("active").is(true), fields, limit, after);
+    }
+
+    /**
+     * Active faculties with only the selected fields
+     */
+    public List<Map<String, Object>> getActiveFaculties(Set<String> fields) {
+        return fieldSelectionService.find(Faculty.class,
+            Criteria.where("active").is(true), fields);
+    }
+
+    @Cacheable(value = "faculties", key = "#id", sync = true)
     public Faculty getFacultyById(String id) {
         Optional<Faculty> faculty = facultyRepository.findById(id);
         if (faculty.isEmpty()) {
@@ -40,18 +74,26 @@ public class FacultyService {
         return faculty.get();
     }
 
-    @CacheEvict(value = "faculties", allEntries = true)
     public Faculty createFaculty(Faculty faculty) {
         faculty.setActive(true);
         faculty.setCreatedAt(LocalDateTime.now());
         faculty.setUpdatedAt(LocalDateTime.now());
-        return facultyRepository.save(faculty);
+        Faculty saved = facultyRepository.save(faculty);
+        cacheInvalidationService.saved(Set.of(), saved);
+        return saved;
     }
 
-    @CachePut(value = "faculties", key = "#id")
     public Faculty updateFaculty(String id, Faculty facultyUpdate) {
         Faculty existingFaculty = getFacultyById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(existingFaculty);
 
+        applyUpdate(existingFaculty, facultyUpdate);
+        Faculty saved = facultyRepository.save(existingFaculty);
+        cacheInvalidationService.saved(previousKeys, saved);
+        return saved;
+    }
+
+    private void applyUpdate(Faculty existingFaculty, Faculty facultyUpdate) {
         if (facultyUpdate.getName() != null) {
             existingFaculty.setName(facultyUpdate.getName());
         }
@@ -78,43 +120,76 @@ public class FacultyService {
         }
 
         existingFaculty.setUpdatedAt(LocalDateTime.now());
-        return facultyRepository.save(existingFaculty);
     }
 
-    @CacheEvict(value = "faculties", key = "#id")
     public void deleteFaculty(String id) {
         Faculty faculty = getFacultyById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(faculty);
         faculty.setActive(false);
         faculty.setUpdatedAt(LocalDateTime.now());
-        facultyRepository.save(faculty);
+        cacheInvalidationService.saved(previousKeys, facultyRepository.save(faculty));
+    }
+
+    public BulkWriteResponse createFaculties(List<Faculty> faculties) {
+        return bulkWriteService.create(Faculty.class, faculties, faculty -> {
+            faculty.setActive(true);
+            faculty.setCreatedAt(LocalDateTime.now());
+            faculty.setUpdatedAt(LocalDateTime.now());
+        });
+    }
+
+    public BulkWriteResponse updateFaculties(List<Faculty> updates) {
+        return bulkWriteService.update(Faculty.class, updates, this::applyUpdate);
+    }
+
+    public BulkWriteResponse deleteFaculties(List<String> ids) {
+        return bulkWriteService.softDelete(Faculty.class, ids);
     }
 
     public List<Faculty> getFacultiesByUniversity(String universityId) {
         return facultyRepository.findByUniversityIdAndActiveTrue(universityId);
     }
 
+    public KeysetPage<Faculty> getFacultiesByUniversityPage(String universityId, Set<String> fields, Integer limit, String after) {
+        return keysetPaginationService.page(Faculty.class,
+            Criteria.where("universityId").is(universityId).and("active").is(true), fields, limit, after);
+    }
+
+    public List<Map<String, Object>> getFacultiesByUniversity(String universityId, Set<String> fields) {
+        return fieldSelectionService.find(Faculty.class,
+            Criteria.where("universityId").is(universityId).and("active").is(true), fields);
+    }
+
     public List<Faculty> searchFacultiesByName(String name) {
-        return facultyRepository.findByNameContainingIgnoreCase(name);
+        return searchService.searchByName(Faculty.class, name);
+    }
+
+    public KeysetPage<Faculty> searchFacultiesByNamePage(String name, Set<String> fields, Integer limit, String after) {
+        return searchService.searchByNamePage(Faculty.class, name, fields, limit, after);
     }
 
     public List<Faculty> getFacultiesWithSubject(String subject) {
         return facultyRepository.findBySubjectsContainingAndActiveTrue(subject);
     }
 
-    @CachePut(value = "faculties", key = "#facultyId")
     public Faculty addSubjectToFaculty(String facultyId, String subject) {
         Faculty faculty = getFacultyById(facultyId);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(faculty);
         faculty.addSubject(subject);
         faculty.setUpdatedAt(LocalDateTime.now());
-        return facultyRepository.save(faculty);
+        Faculty saved = facultyRepository.save(faculty);
+        cacheInvalidationService.saved(previousKeys, saved);
+        return saved;
     }
 
-    @CachePut(value = "faculties", key = "#facultyId")
     public Faculty removeSubjectFromFaculty(String facultyId, String subject) {
         Faculty faculty = getFacultyById(facultyId);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(faculty);
         faculty.removeSubject(subject);
         faculty.setUpdatedAt(LocalDateTime.now());
-        return facultyRepository.save(faculty);
+        Faculty saved = facultyRepository.save(faculty);
+        cacheInvalidationService.saved(previousKeys, saved);
+        return saved;
     }
 
     public long countActiveFaculties() {
@@ -0,0 +1,172 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.entity.Cart;
+import com.diyawanna.sup.entity.Faculty;
+import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.entity.University;
+import com.diyawanna.sup.entity.User;
+import com.diyawanna.sup.util.KeysetPage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets (?fields=) for the entity read endpoints
+ *
+ * This service provides:
+ * - Parsing and validation of comma-separated field lists
+ * - A "summary" preset per entity
+ * - Reads that project only the selected fields in Mongo
+ * - Trimming of already loaded entities to the selected fields
+ *
+ * Projected entities still carry their Java defaults (active=false,
+ * empty lists) for fields that were not read, so responses are always
+ * built from the selected fields only, never by serializing the entity.
+ * "id" is always selected; hidden fields such as the user password can
+ * never be selected.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class FieldSelectionService {
+
+    public static final String SUMMARY = "summary";
+
+    private static final Map<Class<?>, List<String>> SUMMARY_FIELDS = Map.of(
+        User.class, List.of("name", "username", "university"),
+        University.class, List.of("name", "location"),
+        Faculty.class, List.of("name", "universityId", "universityName"),
+        Cart.class, List.of("name", "userId", "status", "totalAmount"),
+        Query.class, List.of("name", "category", "queryType", "collection")
+    );
+
+    private static final Map<Class<?>, Set<String>> HIDDEN_FIELDS = Map.of(
+        User.class, Set.of("password")
+    );
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Resolve a fields parameter into the selected field names
+     *
+     * @param fields "summary", or comma-separated field names; null or blank selects every field
+     * @return the selected fields starting with "id", or null for every field
+     * @throws IllegalArgumentException if a field is unknown or hidden
+     */
+    public Set<String> resolve(Class<?> type, String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Collection<String> requested = SUMMARY.equalsIgnoreCase(fields.trim())
+            ? SUMMARY_FIELDS.getOrDefault(type, Collections.emptyList())
+            : List.of(fields.split(","));
+
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : requested) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (entity.getPersistentProperty(name) == null
+                    || HIDDEN_FIELDS.getOrDefault(type, Collections.emptySet()).contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "' for " + type.getSimpleName());
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    /**
+     * Read the matching entities with only the selected fields
+     */
+    public List<Map<String, Object>> find(Class<?> type, Criteria criteria, Set<String> fields) {
+        org.springframework.data.mongodb.core.query.Query query =
+            new org.springframework.data.mongodb.core.query.Query(criteria);
+        fields.forEach(field -> query.fields().include(field));
+        return trimAll(mongoTemplate.find(query, type), fields);
+    }
+
+    /**
+     * Read one entity by id with only the selected fields
+     *
+     * @return the selected fields, or null if no entity has the id
+     */
+    public Map<String, Object> findById(Class<?> type, String id, Set<String> fields) {
+        org.springframework.data.mongodb.core.query.Query query =
+            new org.springframework.data.mongodb.core.query.Query(Criteria.where("id").is(id));
+        fields.forEach(field -> query.fields().include(field));
+        Object entity = mongoTemplate.findOne(query, type);
+        return entity != null ? trimOne(entity, fields) : null;
+    }
+
+    /**
+     * Apply a fields parameter to an already loaded response body
+     *
+     * Used by endpoints whose reads are not projected.
+     *
+     * @throws IllegalArgumentException if a field is unknown or hidden
+     */
+    public Object select(Object body, Class<?> type, String fields) {
+        return trim(body, resolve(type, fields));
+    }
+
+    /**
+     * Trim an entity, a list of entities or a keyset page to the selected fields
+     *
+     * @param fields the resolved selection, or null to return the body as is
+     */
+    public Object trim(Object body, Set<String> fields) {
+        if (fields == null || body == null) {
+            return body;
+        }
+        if (body instanceof KeysetPage) {
+            KeysetPage<?> page = (KeysetPage<?>) body;
+            return new KeysetPage<>(trimAll(page.getResults(), fields), page.getNextCursor());
+        }
+        if (body instanceof List) {
+            return trimAll((List<?>) body, fields);
+        }
+        return trimOne(body, fields);
+    }
+
+    private List<Map<String, Object>> trimAll(List<?> entities, Set<String> fields) {
+        List<Map<String, Object>> trimmed = new ArrayList<>(entities.size());
+        for (Object entity : entities) {
+            trimmed.add(trimOne(entity, fields));
+        }
+        return trimmed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> trimOne(Object entity, Set<String> fields) {
+        Map<String, Object> all = objectMapper.convertValue(entity, Map.class);
+        Map<String, Object> trimmed = new LinkedHashMap<>();
+        for (String field : fields) {
+            Object value = all.get(field);
+            if (value != null) {
+                trimmed.put(field, value);
+            }
+        }
+        return trimmed;
+    }
+}
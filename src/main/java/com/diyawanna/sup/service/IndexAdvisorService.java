@@ -0,0 +1,342 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.repository.QueryRepository;
+import com.diyawanna.sup.util.CompiledQuery;
+import com.diyawanna.sup.util.IndexRecommender;
+import com.diyawanna.sup.util.KeysetCursor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Index advisor for configured and stored queries
+ *
+ * This service provides:
+ * - explain() of every query-config.json mapping and active stored query
+ * - Detection of collection scans, in-memory sorts and poor selectivity
+ * - Compound and partial index proposals, skipping ones an existing index already covers
+ * - An explicit apply step that creates the proposed indexes
+ *
+ * Queries are explained with representative parameters: values from the
+ * sampleQueries section or the stored query defaults where available,
+ * otherwise placeholders of the declared parameter type.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class IndexAdvisorService {
+
+    private static final JsonWriterSettings RELAXED_JSON =
+        JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private DynamicQueryService dynamicQueryService;
+
+    @Autowired
+    private QueryRepository queryRepository;
+
+    @Value("${performance.index-advice.verbosity:executionStats}")
+    private String verbosity;
+
+    @Value("${performance.index-advice.max-examined-ratio:10}")
+    private double maxExaminedRatio;
+
+    /**
+     * Explain every configured and stored query and collect index advice
+     */
+    public Map<String, Object> getIndexAdvice() {
+        List<Map<String, Object>> advice = new ArrayList<>();
+        for (Candidate candidate : collectCandidates()) {
+            advice.add(analyze(candidate).toMap());
+        }
+
+        long flagged = advice.stream().filter(item -> !((List<?>) item.get("issues")).isEmpty()).count();
+        long proposals = advice.stream().filter(item -> item.containsKey("proposedIndex")).count();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("queries", advice);
+        result.put("queriesAnalyzed", advice.size());
+        result.put("queriesFlagged", flagged);
+        result.put("indexesProposed", proposals);
+        result.put("timestamp", LocalDateTime.now());
+        return result;
+    }
+
+    /**
+     * Create the proposed indexes for flagged queries
+     *
+     * @param queryNames restrict to these queries, or null/empty for every flagged query
+     */
+    public Map<String, Object> applyIndexAdvice(Collection<String> queryNames) {
+        List<Map<String, Object>> created = new ArrayList<>();
+        List<Map<String, Object>> failed = new ArrayList<>();
+        Set<String> applied = new HashSet<>();
+
+        for (Candidate candidate : collectCandidates()) {
+            if (queryNames != null && !queryNames.isEmpty() && !queryNames.contains(candidate.name)) {
+                continue;
+            }
+            Advice advice = analyze(candidate);
+            if (advice.proposal == null || advice.covered || advice.issues.isEmpty()) {
+                continue;
+            }
+            String key = candidate.query.getCollection() + ":" + advice.proposal;
+            if (!applied.add(key)) {
+                continue;
+            }
+
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("query", candidate.name);
+            entry.put("collection", candidate.query.getCollection());
+            entry.put("keys", advice.proposal.getKeys());
+            try {
+                entry.put("indexName", mongoTemplate.indexOps(candidate.query.getCollection())
+                    .ensureIndex(toIndex(advice.proposal)));
+                created.add(entry);
+            } catch (Exception e) {
+                entry.put("message", e.getMessage());
+                failed.add(entry);
+            }
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("created", created);
+        result.put("failed", failed);
+        result.put("timestamp", LocalDateTime.now());
+        return result;
+    }
+
+    private List<Candidate> collectCandidates() {
+        Map<String, Map<String, Object>> samples = sampleParameters();
+        List<Candidate> candidates = new ArrayList<>();
+
+        dynamicQueryService.getCompiledQueries().forEach((name, compiled) -> {
+            Map<String, Object> parameters = compiled.sampleParameters();
+            parameters.putAll(samples.getOrDefault(name, Collections.emptyMap()));
+            candidates.add(new Candidate(name, "config", compiled, parameters, null));
+        });
+
+        for (Query stored : queryRepository.findByActiveTrue()) {
+            try {
+                CompiledQuery compiled = dynamicQueryService.compileStoredQuery(stored);
+                Map<String, Object> parameters = compiled.sampleParameters();
+                if (stored.getParameters() != null) {
+                    parameters.putAll(stored.getParameters());
+                }
+                candidates.add(new Candidate(stored.getName(), "stored", compiled, parameters, stored.getSort()));
+            } catch (Exception e) {
+                candidates.add(new Candidate(stored.getName(), "stored", null, null, null)
+                    .withError("Failed to compile: " + e.getMessage()));
+            }
+        }
+
+        candidates.sort(Comparator.comparing(candidate -> candidate.name));
+        return candidates;
+    }
+
+    /**
+     * Parameters of the sampleQueries examples, keyed by query name
+     */
+    private Map<String, Map<String, Object>> sampleParameters() {
+        Map<String, Map<String, Object>> samples = new HashMap<>();
+        JsonNode sampleQueries = dynamicQueryService.getSampleQueries();
+        if (sampleQueries == null) {
+            return samples;
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        sampleQueries.forEach(sample -> {
+            JsonNode body = sample.path("body");
+            if (body.hasNonNull("queryName") && body.path("parameters").isObject()) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> parameters = mapper.convertValue(body.get("parameters"), Map.class);
+                samples.put(body.get("queryName").asText(), parameters);
+            }
+        });
+        return samples;
+    }
+
+    private Advice analyze(Candidate candidate) {
+        Advice advice = new Advice(candidate);
+        if (candidate.error != null) {
+            advice.error = candidate.error;
+            return advice;
+        }
+
+        CompiledQuery query = candidate.query;
+        try {
+            Document explain;
+            Document filter;
+            Document sort = null;
+            if (query.isPipeline()) {
+                List<Document> stages = query.bindPipeline(candidate.parameters);
+                Document[] filterAndSort = IndexRecommender.filterAndSort(stages);
+                filter = filterAndSort[0];
+                sort = filterAndSort[1];
+                explain = runExplain(new Document("aggregate", query.getCollection())
+                    .append("pipeline", stages)
+                    .append("cursor", new Document()));
+            } else {
+                filter = query.bindFilter(candidate.parameters);
+                Document find = new Document("find", query.getCollection()).append("filter", filter);
+                if (candidate.sort != null) {
+                    // Same sort the paged find runs, including the _id tie-breaker
+                    sort = KeysetCursor.toSortDocument(KeysetCursor.parseSort(candidate.sort));
+                    find.append("sort", sort);
+                }
+                explain = runExplain(find);
+            }
+
+            advice.filter = filter;
+            advice.plan = IndexRecommender.summarize(explain);
+            if (advice.plan.hasCollectionScan()) {
+                advice.issues.add("COLLSCAN");
+            }
+            if (advice.plan.hasInMemorySort()) {
+                advice.issues.add("IN_MEMORY_SORT");
+            }
+            Double ratio = advice.plan.examinedRatio();
+            if (ratio != null && ratio > maxExaminedRatio) {
+                advice.issues.add("POOR_SELECTIVITY");
+            }
+
+            advice.proposal = IndexRecommender.propose(filter, sort);
+            if (advice.proposal != null) {
+                for (IndexInfo index : mongoTemplate.indexOps(query.getCollection()).getIndexInfo()) {
+                    if (advice.proposal.isCoveredBy(toKeyDocument(index))) {
+                        advice.covered = true;
+                        advice.coveringIndex = index.getName();
+                        break;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            advice.error = e.getMessage();
+        }
+        return advice;
+    }
+
+    private Document runExplain(Document command) {
+        return mongoTemplate.getDb().runCommand(new Document("explain", command).append("verbosity", verbosity));
+    }
+
+    private static Document toKeyDocument(IndexInfo index) {
+        Document keys = new Document();
+        for (IndexField field : index.getIndexFields()) {
+            keys.append(field.getKey(), field.getDirection() == Sort.Direction.DESC ? -1 : 1);
+        }
+        return keys;
+    }
+
+    private static Index toIndex(IndexRecommender.Proposal proposal) {
+        Index index = new Index();
+        proposal.getKeys().forEach((field, direction) ->
+            index.on(field, direction < 0 ? Sort.Direction.DESC : Sort.Direction.ASC));
+        if (proposal.getPartialFilter() != null) {
+            index.partial(PartialIndexFilter.of(proposal.getPartialFilter()));
+        }
+        return index;
+    }
+
+    /**
+     * Query to explain, with representative parameters
+     */
+    private static final class Candidate {
+        final String name;
+        final String source;
+        final CompiledQuery query;
+        final Map<String, Object> parameters;
+        final String sort;
+        String error;
+
+        Candidate(String name, String source, CompiledQuery query, Map<String, Object> parameters, String sort) {
+            this.name = name;
+            this.source = source;
+            this.query = query;
+            this.parameters = parameters;
+            this.sort = sort;
+        }
+
+        Candidate withError(String error) {
+            this.error = error;
+            return this;
+        }
+    }
+
+    /**
+     * Explain findings for one query
+     */
+    private static final class Advice {
+        final Candidate candidate;
+        final List<String> issues = new ArrayList<>();
+        Document filter;
+        IndexRecommender.PlanSummary plan;
+        IndexRecommender.Proposal proposal;
+        boolean covered;
+        String coveringIndex;
+        String error;
+
+        Advice(Candidate candidate) {
+            this.candidate = candidate;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("query", candidate.name);
+            map.put("source", candidate.source);
+            map.put("issues", issues);
+            if (candidate.query != null) {
+                map.put("collection", candidate.query.getCollection());
+                map.put("type", candidate.query.getType());
+            }
+            if (filter != null) {
+                map.put("filter", filter.toJson(RELAXED_JSON));
+            }
+            if (plan != null) {
+                map.put("winningPlanStages", plan.getStages());
+                map.put("indexesUsed", plan.getIndexes());
+                map.put("nReturned", plan.getNReturned());
+                map.put("keysExamined", plan.getKeysExamined());
+                map.put("docsExamined", plan.getDocsExamined());
+                map.put("examinedRatio", plan.examinedRatio());
+            }
+            if (proposal != null && !issues.isEmpty()) {
+                if (covered) {
+                    map.put("coveredBy", coveringIndex);
+                } else {
+                    Map<String, Object> proposed = new LinkedHashMap<>();
+                    proposed.put("keys", proposal.getKeys());
+                    if (proposal.getPartialFilter() != null) {
+                        proposed.put("partialFilterExpression", proposal.getPartialFilter().toJson(RELAXED_JSON));
+                    }
+                    map.put("proposedIndex", proposed);
+                }
+            }
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.util.KeysetCursor;
+import com.diyawanna.sup.util.KeysetPage;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keyset (cursor) pagination for the entity list endpoints
+ *
+ * This service provides:
+ * - Pages in _id order, selected with an _id range instead of skip
+ * - Opaque "after" cursors built with KeysetCursor
+ * - A default and a maximum page size
+ *
+ * _id is always indexed and grows with insertion order, so together with the
+ * (filter field, active, _id) indexes every page is one bounded index range
+ * scan, however deep the client has paged.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class KeysetPaginationService {
+
+    private static final LinkedHashMap<String, Integer> ID_ORDER = KeysetCursor.parseSort(null);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${pagination.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${pagination.max-limit:500}")
+    private int maxLimit;
+
+    /**
+     * Whether a request asked for a page rather than the full list
+     */
+    public boolean isPaged(Integer limit, String after) {
+        return limit != null || (after != null && !after.isBlank());
+    }
+
+    /**
+     * Read one page of entities matching the criteria
+     *
+     * @param fields         fields to read (see FieldSelectionService), or null for all but the excluded ones
+     * @param limit          requested page size, or null for the default; capped at the maximum
+     * @param after          cursor returned with the previous page, or null for the first page
+     * @param excludedFields fields never read from the database, e.g. "password"
+     * @throws IllegalArgumentException if the limit or cursor is invalid
+     */
+    public <T> KeysetPage<T> page(Class<T> type, Criteria criteria, Set<String> fields, Integer limit, String after,
+                                  String... excludedFields) {
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("limit must be greater than 0");
+        }
+        int pageSize = Math.min(limit != null ? limit : defaultLimit, maxLimit);
+
+        Query query = new Query(criteria);
+        if (after != null && !after.isBlank()) {
+            List<Object> values = KeysetCursor.decode(after.trim(), ID_ORDER);
+            query.addCriteria(Criteria.where("_id").gt(values.get(0)));
+        }
+        if (fields != null) {
+            fields.forEach(field -> query.fields().include(field));
+        } else {
+            for (String field : excludedFields) {
+                query.fields().exclude(field);
+            }
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(pageSize + 1);
+
+        List<T> fetched = mongoTemplate.find(query, type);
+        if (fetched.size() <= pageSize) {
+            return new KeysetPage<>(fetched, null);
+        }
+        List<T> page = new ArrayList<>(fetched.subList(0, pageSize));
+        Object lastId = idOf(type, page.get(pageSize - 1));
+        return new KeysetPage<>(page, KeysetCursor.encode(ID_ORDER, new Document("_id", toStoredId(lastId))));
+    }
+
+    private Object idOf(Class<?> type, Object entity) {
+        MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> context =
+            mongoTemplate.getConverter().getMappingContext();
+        return context.getRequiredPersistentEntity(type).getIdentifierAccessor(entity).getRequiredIdentifier();
+    }
+
+    /**
+     * String ids that are valid ObjectIds are stored as ObjectIds
+     */
+    private static Object toStoredId(Object id) {
+        return id instanceof String && ObjectId.isValid((String) id) ? new ObjectId((String) id) : id;
+    }
+}
@@ -1,20 +1,27 @@
 package com.diyawanna.sup.service;
 
+import com.diyawanna.sup.config.InstrumentedCacheManager;
+import com.diyawanna.sup.util.CacheStatistics;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeSet;
 
 /**
  * Performance monitoring service
  * 
  * This service provides:
  * - Application performance metrics
- * - Cache statistics
+ * - Cache statistics: hits, misses, puts, coalesced loads, refreshes, evictions, size and load-time histograms
+ * - Prometheus text exposition of the cache statistics
  * - Database connection monitoring
  * - Memory usage tracking
  * 
@@ -30,6 +37,24 @@ public class PerformanceMonitoringService {
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Autowired
+    private QueryResultCacheService queryResultCacheService;
+
+    @Autowired
+    private DynamicQueryService dynamicQueryService;
+
+    @Autowired
+    private CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    private ExistenceFilterService existenceFilterService;
+
+    @Autowired
+    private ResponseCacheService responseCacheService;
+
+    @Autowired
+    private ChangeStreamInvalidationService changeStreamInvalidationService;
+
     /**
      * Get comprehensive performance metrics
      */
@@ -84,10 +109,17 @@ public class PerformanceMonitoringService {
             for (String cacheName : cacheManager.getCacheNames()) {
                 Map<String, Object> cacheInfo = new HashMap<>();
                 cacheInfo.put("name", cacheName);
-                cacheInfo.put("nativeCache", cacheManager.getCache(cacheName).getNativeCache().getClass().getSimpleName());
+                Cache cache = cacheManager.getCache(cacheName);
+                cacheInfo.put("nativeCache", cache.getNativeCache().getClass().getSimpleName());
+                if (cache instanceof InstrumentedCacheManager.InstrumentedCache) {
+                    cacheInfo.put("statistics", ((InstrumentedCacheManager.InstrumentedCache) cache).getStatisticsSnapshot());
+                }
                 cacheDetails.put(cacheName, cacheInfo);
             }
             cacheMetrics.put("cacheDetails", cacheDetails);
+            cacheMetrics.put("queryResultCache", queryResultCacheService.getStatistics());
+            cacheMetrics.put("responseCache", responseCacheService.getStatistics());
+            cacheMetrics.put("changeStreamInvalidation", changeStreamInvalidationService.getStatistics());
             
         } catch (Exception e) {
             cacheMetrics.put("error", "Failed to retrieve cache metrics: " + e.getMessage());
@@ -134,6 +166,8 @@ public class PerformanceMonitoringService {
             appMetrics.put("profile", "development");
             appMetrics.put("javaVersion", System.getProperty("java.version"));
             appMetrics.put("springBootVersion", "3.5.0");
+            appMetrics.put("dynamicQueryBudgets", dynamicQueryService.getBudgetStatistics());
+            appMetrics.put("existenceFilters", existenceFilterService.getStatistics());
             
         } catch (Exception e) {
             appMetrics.put("error", "Failed to retrieve application metrics: " + e.getMessage());
@@ -142,17 +176,119 @@ public class PerformanceMonitoringService {
         return appMetrics;
     }
 
+    /**
+     * Progress of the current or most recent cache warm-up
+     */
+    public Map<String, Object> getCacheWarmupProgress() {
+        return cacheWarmupService.getProgress();
+    }
+
     /**
      * Get cache hit ratio for specific cache
      */
     public double getCacheHitRatio(String cacheName) {
-        try {
-            // This would require a more sophisticated cache implementation
-            // For now, return a placeholder
-            return 0.85; // 85% hit ratio
-        } catch (Exception e) {
-            return 0.0;
+        return getInstrumentedCache(cacheName).getStatistics().getHitRatio();
+    }
+
+    /**
+     * Get hit, miss, eviction, size and load-time statistics for specific cache
+     */
+    public Map<String, Object> getCacheStatistics(String cacheName) {
+        return getInstrumentedCache(cacheName).getStatisticsSnapshot();
+    }
+
+    private InstrumentedCacheManager.InstrumentedCache getInstrumentedCache(String cacheName) {
+        // Checked first: looking up an unknown name would create the cache
+        if (!cacheManager.getCacheNames().contains(cacheName)) {
+            throw new IllegalArgumentException("Cache not found: " + cacheName);
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        if (!(cache instanceof InstrumentedCacheManager.InstrumentedCache)) {
+            throw new IllegalStateException("Statistics are not recorded for cache: " + cacheName);
+        }
+        return (InstrumentedCacheManager.InstrumentedCache) cache;
+    }
+
+    /**
+     * Cache statistics in the Prometheus text exposition format
+     */
+    public String getPrometheusMetrics() {
+        Map<String, Map<String, Object>> snapshots = new HashMap<>();
+        Map<String, CacheStatistics> statistics = new HashMap<>();
+        for (String cacheName : new TreeSet<>(cacheManager.getCacheNames())) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache instanceof InstrumentedCacheManager.InstrumentedCache) {
+                InstrumentedCacheManager.InstrumentedCache instrumented = (InstrumentedCacheManager.InstrumentedCache) cache;
+                snapshots.put(cacheName, instrumented.getStatisticsSnapshot());
+                statistics.put(cacheName, instrumented.getStatistics());
+            }
+        }
+        TreeSet<String> names = new TreeSet<>(statistics.keySet());
+
+        StringBuilder out = new StringBuilder();
+        header(out, "cache_gets_total", "counter", "Cache lookups by result");
+        for (String name : names) {
+            sample(out, "cache_gets_total", name, "result=\"hit\"", statistics.get(name).getHits());
+            sample(out, "cache_gets_total", name, "result=\"miss\"", statistics.get(name).getMisses());
+        }
+        header(out, "cache_puts_total", "counter", "Values written to the cache");
+        names.forEach(name -> sample(out, "cache_puts_total", name, null, statistics.get(name).getPuts()));
+        header(out, "cache_coalesced_loads_total", "counter", "Callers that shared an in-flight load instead of running their own");
+        names.forEach(name -> sample(out, "cache_coalesced_loads_total", name, null, snapshots.get(name).get("coalescedLoads")));
+        header(out, "cache_refreshes_total", "counter", "Background refresh-ahead reloads by result");
+        for (String name : names) {
+            sample(out, "cache_refreshes_total", name, "result=\"success\"", statistics.get(name).getRefreshes());
+            sample(out, "cache_refreshes_total", name, "result=\"failure\"", statistics.get(name).getRefreshFailures());
+            sample(out, "cache_refreshes_total", name, "result=\"rejected\"", statistics.get(name).getRefreshesRejected());
+        }
+        header(out, "cache_evictions_total", "counter", "Entries removed by size or expiry");
+        names.forEach(name -> sample(out, "cache_evictions_total", name, null, statistics.get(name).getEvictions()));
+        header(out, "cache_evicted_bytes_total", "counter", "Estimated bytes of evicted entries");
+        names.forEach(name -> sample(out, "cache_evicted_bytes_total", name, null, statistics.get(name).getEvictedWeight()));
+        header(out, "cache_size", "gauge", "Approximate number of entries");
+        names.forEach(name -> sample(out, "cache_size", name, null, snapshots.get(name).get("entryCount")));
+        header(out, "cache_estimated_bytes", "gauge", "Estimated size of the entries in bytes");
+        names.forEach(name -> {
+            Object bytes = snapshots.get(name).get("estimatedBytes");
+            if (bytes != null) {
+                sample(out, "cache_estimated_bytes", name, null, bytes);
+            }
+        });
+
+        header(out, "cache_load_duration_seconds", "histogram", "Time to compute a value after a cache miss");
+        for (String name : names) {
+            CacheStatistics stats = statistics.get(name);
+            long[] counts = stats.getLoadTimeHistogram();
+            long cumulative = 0;
+            for (int i = 0; i < CacheStatistics.LOAD_TIME_BUCKETS_MS.length; i++) {
+                cumulative += counts[i];
+                sample(out, "cache_load_duration_seconds_bucket", name,
+                    "le=\"" + seconds(CacheStatistics.LOAD_TIME_BUCKETS_MS[i]) + "\"", cumulative);
+            }
+            cumulative += counts[counts.length - 1];
+            sample(out, "cache_load_duration_seconds_bucket", name, "le=\"+Inf\"", cumulative);
+            sample(out, "cache_load_duration_seconds_sum", name, null, stats.getTotalLoadNanos() / 1e9);
+            sample(out, "cache_load_duration_seconds_count", name, null, cumulative);
+        }
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String metric, String type, String help) {
+        out.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(metric).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String metric, String cacheName, String labels, Object value) {
+        out.append(metric).append("{cache=\"").append(cacheName.replace("\\", "\\\\").replace("\"", "\\\""))
+            .append('"');
+        if (labels != null) {
+            out.append(',').append(labels);
         }
+        out.append("} ").append(value).append('\n');
+    }
+
+    private static String seconds(long millis) {
+        return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
     }
 
     /**
@@ -182,14 +318,9 @@ public class PerformanceMonitoringService {
     /**
      * Warm up caches with frequently accessed data
      */
-    public void warmUpCaches() {
+    public Map<String, Object> warmUpCaches() {
         try {
-            // This would typically pre-load frequently accessed data
-            // Implementation depends on specific use cases
-            
-            // For now, just log that warm-up was requested
-            System.out.println("Cache warm-up initiated at: " + LocalDateTime.now());
-            
+            return cacheWarmupService.warmUp("request");
         } catch (Exception e) {
             throw new RuntimeException("Failed to warm up caches: " + e.getMessage(), e);
         }
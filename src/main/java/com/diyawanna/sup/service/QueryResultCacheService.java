@@ -0,0 +1,302 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.config.InstrumentedCacheManager;
+import com.diyawanna.sup.util.SingleFlight;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Result cache for dynamic and stored query executions
+ *
+ * This service provides:
+ * - Result caching in the "dynamic-queries" cache region
+ * - Keys built from the query name/id plus a canonical hash of the bound parameters
+ * - Per-entry TTL taken from the query definition or the execution request
+ * - Per-collection invalidation when documents in a read collection change
+ * - Single-flight execution, so concurrent misses of one key run the query once
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class QueryResultCacheService {
+
+    public static final String CACHE_NAME = "dynamic-queries";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${dynamic-query.cache.default-ttl-seconds:300}")
+    private int defaultTtlSeconds;
+
+    @Value("${dynamic-query.cache.cleanup-interval-seconds:60}")
+    private int cleanupIntervalSeconds;
+
+    // Cache keys grouped by the collections their results were read from
+    private final ConcurrentMap<String, Set<String>> keysByCollection = new ConcurrentHashMap<>();
+
+    // Bumped on every write so results computed before the write are never stored
+    private final ConcurrentMap<String, AtomicLong> collectionVersions = new ConcurrentHashMap<>();
+
+    // Used when the region is not instrumented; otherwise the region's own coalescer is shared
+    private final SingleFlight<Object, Object> fallbackLoads = new SingleFlight<>();
+
+    private volatile long lastCleanup = System.currentTimeMillis();
+
+    /**
+     * Build a cache key for a query execution
+     *
+     * @param prefix     query namespace, e.g. "dynamic:user.findById" or "stored:64f..."
+     * @param parameters bound parameters; map ordering does not affect the key
+     */
+    public String buildKey(String prefix, Map<String, Object> parameters) {
+        StringBuilder canonical = new StringBuilder();
+        appendCanonical(canonical, parameters);
+        return prefix + "#" + sha256(canonical.toString());
+    }
+
+    /**
+     * Resolve the TTL to use, or 0 when the result must not be cached
+     */
+    public int resolveTtlSeconds(boolean cacheable, Integer cacheTimeoutSeconds) {
+        if (!cacheable) {
+            return 0;
+        }
+        int ttl = cacheTimeoutSeconds != null ? cacheTimeoutSeconds : defaultTtlSeconds;
+        return Math.max(ttl, 0);
+    }
+
+    /**
+     * Snapshot of the write versions of the given collections, taken before executing
+     */
+    public long[] captureVersions(Collection<String> collections) {
+        long[] versions = new long[collections.size()];
+        int i = 0;
+        for (String collection : collections) {
+            versions[i++] = versionOf(collection).get();
+        }
+        return versions;
+    }
+
+    /**
+     * Get a cached result, or null if absent or expired
+     */
+    public Object get(String key) {
+        Cache cache = getCache();
+        CachedResult entry = cache.get(key, CachedResult.class);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            cache.evict(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Run the loader for a missed key, or wait for the identical execution already in flight
+     */
+    public Object coalesce(String key, Supplier<Object> loader) {
+        try {
+            return loads().execute(key, loader::get);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a query result", e);
+        } catch (Exception e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Store a result unless one of its collections was written since the versions were captured
+     */
+    public void put(String key, Object value, int ttlSeconds, Collection<String> collections, long[] versions) {
+        if (ttlSeconds <= 0 || value == null) {
+            return;
+        }
+
+        int i = 0;
+        for (String collection : collections) {
+            if (versionOf(collection).get() != versions[i++]) {
+                return;
+            }
+        }
+
+        for (String collection : collections) {
+            keysByCollection.computeIfAbsent(collection, c -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        Cache cache = getCache();
+        cache.put(key, new CachedResult(value, System.currentTimeMillis() + ttlSeconds * 1000L));
+
+        // An invalidation between the check above and the put may have missed this key
+        i = 0;
+        for (String collection : collections) {
+            if (versionOf(collection).get() != versions[i++]) {
+                cache.evict(key);
+                return;
+            }
+        }
+
+        cleanupExpiredEntries();
+    }
+
+    /**
+     * Evict every cached result that read from the given collection
+     */
+    public void invalidateCollection(String collection) {
+        if (collection == null) {
+            return;
+        }
+        versionOf(collection).incrementAndGet();
+
+        Set<String> keys = keysByCollection.remove(collection);
+        if (keys != null) {
+            Cache cache = getCache();
+            keys.forEach(cache::evict);
+        }
+    }
+
+    /**
+     * Evict all cached query results
+     */
+    public void invalidateAll() {
+        collectionVersions.values().forEach(AtomicLong::incrementAndGet);
+        keysByCollection.clear();
+        getCache().clear();
+    }
+
+    private Cache getCache() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            throw new IllegalStateException("Cache region not configured: " + CACHE_NAME);
+        }
+        return cache;
+    }
+
+    private SingleFlight<Object, Object> loads() {
+        Cache cache = getCache();
+        return cache instanceof InstrumentedCacheManager.InstrumentedCache
+            ? ((InstrumentedCacheManager.InstrumentedCache) cache).getLoads() : fallbackLoads;
+    }
+
+    private AtomicLong versionOf(String collection) {
+        return collectionVersions.computeIfAbsent(collection, c -> new AtomicLong());
+    }
+
+    /**
+     * Periodically drop expired entries that are never read again
+     */
+    private void cleanupExpiredEntries() {
+        long now = System.currentTimeMillis();
+        if (now - lastCleanup < cleanupIntervalSeconds * 1000L) {
+            return;
+        }
+        lastCleanup = now;
+
+        // Work on the native map: Cache.get would count as hits and misses of the region
+        Object nativeCache = getCache().getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+            nativeCache = ((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache).asMap();
+        }
+        if (!(nativeCache instanceof Map)) {
+            return;
+        }
+        Map<?, ?> entries = (Map<?, ?>) nativeCache;
+        entries.entrySet().removeIf(entry ->
+            entry.getValue() instanceof CachedResult && ((CachedResult) entry.getValue()).isExpired(now));
+        keysByCollection.values().forEach(keys -> keys.removeIf(key -> !entries.containsKey(key)));
+    }
+
+    private static void appendCanonical(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof Map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            ((Map<?, ?>) value).forEach((k, v) -> sorted.put(String.valueOf(k), v));
+            sb.append('{');
+            sorted.forEach((k, v) -> {
+                sb.append(k.length()).append(':').append(k).append('=');
+                appendCanonical(sb, v);
+                sb.append(',');
+            });
+            sb.append('}');
+        } else if (value instanceof List) {
+            sb.append('[');
+            for (Object item : (List<?>) value) {
+                appendCanonical(sb, item);
+                sb.append(',');
+            }
+            sb.append(']');
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else {
+            String text = value.toString();
+            sb.append('"').append(text.length()).append(':').append(text).append('"');
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Get cache statistics for monitoring
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("cacheName", CACHE_NAME);
+        stats.put("defaultTtlSeconds", defaultTtlSeconds);
+        Map<String, Integer> trackedKeys = new HashMap<>();
+        keysByCollection.forEach((collection, keys) -> trackedKeys.put(collection, keys.size()));
+        stats.put("trackedKeysByCollection", trackedKeys);
+        stats.put("loads", loads().toMap());
+        return stats;
+    }
+
+    /**
+     * Cached value with its absolute expiry time
+     */
+    static class CachedResult {
+        final Object value;
+        final long expiresAt;
+
+        CachedResult(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -4,16 +4,19 @@ import com.diyawanna.sup.entity.Query;
 import com.diyawanna.sup.repository.QueryRepository;
 import com.diyawanna.sup.exception.QueryNotFoundException;
 import com.diyawanna.sup.exception.QueryAlreadyExistsException;
+import com.diyawanna.sup.util.KeysetPage;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Query service for business logic and CRUD operations
@@ -27,12 +30,46 @@ public class QueryService {
     @Autowired
     private QueryRepository queryRepository;
 
-    @Cacheable(value = "queries", key = "'all_active'")
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private KeysetPaginationService keysetPaginationService;
+
+    @Autowired
+    private FieldSelectionService fieldSelectionService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private ExistenceFilterService existenceFilterService;
+
+    @Autowired
+    private StoredQueryRegistry storedQueryRegistry;
+
+    @Cacheable(value = "queries", key = "'all_active'", sync = true)
     public List<Query> getAllActiveQueries() {
         return queryRepository.findByActiveTrue();
     }
 
-    @Cacheable(value = "queries", key = "#id")
+    /**
+     * Active queries in _id order, one keyset page at a time
+     */
+    public KeysetPage<Query> getActiveQueriesPage(Set<String> fields, Integer limit, String after) {
+        return keysetPaginationService.page(Query.class,
+            Criteria.where("active").is(true), fields, limit, after);
+    }
+
+    /**
+     * Active queries with only the selected fields
+     */
+    public List<Map<String, Object>> getActiveQueries(Set<String> fields) {
+        return fieldSelectionService.find(Query.class,
+            Criteria.where("active").is(true), fields);
+    }
+
+    @Cacheable(value = "queries", key = "#id", sync = true)
     public Query getQueryById(String id) {
         Optional<Query> query = queryRepository.findById(id);
         if (query.isEmpty()) {
@@ -41,7 +78,7 @@ public class QueryService {
         return query.get();
     }
 
-    @Cacheable(value = "queries", key = "'name_' + #name")
+    @Cacheable(value = "queries", key = "'name_' + #name", sync = true)
     public Query getQueryByName(String name) {
         Optional<Query> query = queryRepository.findByName(name);
         if (query.isEmpty()) {
@@ -50,25 +87,28 @@ public class QueryService {
         return query.get();
     }
 
-    @CacheEvict(value = "queries", allEntries = true)
     public Query createQuery(Query query) {
-        if (queryRepository.existsByName(query.getName())) {
+        if (existenceFilterService.exists(ExistenceFilterService.QUERY_NAME, query.getName(),
+                queryRepository::existsByName)) {
             throw new QueryAlreadyExistsException("Query already exists with name: " + query.getName());
         }
 
         query.setActive(true);
         query.setCreatedAt(LocalDateTime.now());
         query.setUpdatedAt(LocalDateTime.now());
-        return queryRepository.save(query);
+        Query saved = register(saveUnique(query));
+        cacheInvalidationService.saved(Set.of(), saved);
+        return saved;
     }
 
-    @CachePut(value = "queries", key = "#id")
     public Query updateQuery(String id, Query queryUpdate) {
         Query existingQuery = getQueryById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(existingQuery);
 
         if (queryUpdate.getName() != null) {
             if (!queryUpdate.getName().equals(existingQuery.getName()) && 
-                queryRepository.existsByName(queryUpdate.getName())) {
+                existenceFilterService.exists(ExistenceFilterService.QUERY_NAME, queryUpdate.getName(),
+                    queryRepository::existsByName)) {
                 throw new QueryAlreadyExistsException("Query already exists with name: " + queryUpdate.getName());
             }
             existingQuery.setName(queryUpdate.getName());
@@ -91,6 +131,18 @@ public class QueryService {
         if (queryUpdate.getVariableMappings() != null) {
             existingQuery.setVariableMappings(queryUpdate.getVariableMappings());
         }
+        if (queryUpdate.getOptions() != null && !queryUpdate.getOptions().isEmpty()) {
+            existingQuery.setOptions(queryUpdate.getOptions());
+        }
+        if (queryUpdate.getFields() != null) {
+            existingQuery.setFields(queryUpdate.getFields());
+        }
+        if (queryUpdate.getSort() != null) {
+            existingQuery.setSort(queryUpdate.getSort());
+        }
+        if (queryUpdate.getLimit() != null) {
+            existingQuery.setLimit(queryUpdate.getLimit());
+        }
         if (queryUpdate.getSuccessMessage() != null) {
             existingQuery.setSuccessMessage(queryUpdate.getSuccessMessage());
         }
@@ -111,45 +163,88 @@ public class QueryService {
         }
 
         existingQuery.setUpdatedAt(LocalDateTime.now());
-        return queryRepository.save(existingQuery);
+        Query saved = register(saveUnique(existingQuery));
+        cacheInvalidationService.saved(previousKeys, saved);
+        return saved;
     }
 
-    @CacheEvict(value = "queries", key = "#id")
     public void deleteQuery(String id) {
         Query query = getQueryById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(query);
         query.setActive(false);
         query.setUpdatedAt(LocalDateTime.now());
-        queryRepository.save(query);
+        cacheInvalidationService.saved(previousKeys, register(queryRepository.save(query)));
     }
 
     public List<Query> getQueriesByCategory(String category) {
         return queryRepository.findByCategoryAndActiveTrue(category);
     }
 
+    public KeysetPage<Query> getQueriesByCategoryPage(String category, Set<String> fields, Integer limit, String after) {
+        return keysetPaginationService.page(Query.class,
+            Criteria.where("category").is(category).and("active").is(true), fields, limit, after);
+    }
+
+    public List<Map<String, Object>> getQueriesByCategory(String category, Set<String> fields) {
+        return fieldSelectionService.find(Query.class,
+            Criteria.where("category").is(category).and("active").is(true), fields);
+    }
+
     public List<Query> getQueriesByType(String queryType) {
         return queryRepository.findByQueryTypeAndActiveTrue(queryType);
     }
 
+    public KeysetPage<Query> getQueriesByTypePage(String queryType, Set<String> fields, Integer limit, String after) {
+        return keysetPaginationService.page(Query.class,
+            Criteria.where("queryType").is(queryType).and("active").is(true), fields, limit, after);
+    }
+
+    public List<Map<String, Object>> getQueriesByType(String queryType, Set<String> fields) {
+        return fieldSelectionService.find(Query.class,
+            Criteria.where("queryType").is(queryType).and("active").is(true), fields);
+    }
+
     public List<Query> getQueriesByCollection(String collection) {
         return queryRepository.findByCollectionAndActiveTrue(collection);
     }
 
+    public KeysetPage<Query> getQueriesByCollectionPage(String collection, Set<String> fields, Integer limit,
+                                                        String after) {
+        return keysetPaginationService.page(Query.class,
+            Criteria.where("collection").is(collection).and("active").is(true), fields, limit, after);
+    }
+
     public List<Query> getCacheableQueries() {
         return queryRepository.findByCacheableAndActiveTrue(true);
     }
 
+    public KeysetPage<Query> getCacheableQueriesPage(Set<String> fields, Integer limit, String after) {
+        return keysetPaginationService.page(Query.class,
+            Criteria.where("cacheable").is(true).and("active").is(true), fields, limit, after);
+    }
+
     public List<Query> searchQueriesByName(String name) {
-        return queryRepository.findByNameContainingIgnoreCase(name);
+        return searchService.searchByName(Query.class, name);
+    }
+
+    public KeysetPage<Query> searchQueriesByNamePage(String name, Set<String> fields, Integer limit, String after) {
+        return searchService.searchByNamePage(Query.class, name, fields, limit, after);
     }
 
     public List<Query> searchQueriesByDescription(String description) {
-        return queryRepository.findByDescriptionContainingIgnoreCase(description);
+        return queryRepository.findByDescriptionContainingIgnoreCaseAndActiveTrue(description);
     }
 
     public List<Query> getQueriesByCreator(String createdBy) {
         return queryRepository.findByCreatedByAndActiveTrue(createdBy);
     }
 
+    public KeysetPage<Query> getQueriesByCreatorPage(String createdBy, Set<String> fields, Integer limit,
+                                                     String after) {
+        return keysetPaginationService.page(Query.class,
+            Criteria.where("createdBy").is(createdBy).and("active").is(true), fields, limit, after);
+    }
+
     public long countActiveQueries() {
         return queryRepository.countByActiveTrue();
     }
@@ -167,23 +262,47 @@ public class QueryService {
     }
 
     public boolean queryNameExists(String name) {
-        return queryRepository.existsByName(name);
+        return existenceFilterService.exists(ExistenceFilterService.QUERY_NAME, name, queryRepository::existsByName);
     }
 
-    @CachePut(value = "queries", key = "#id")
     public Query activateQuery(String id) {
         Query query = getQueryById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(query);
         query.setActive(true);
         query.setUpdatedAt(LocalDateTime.now());
-        return queryRepository.save(query);
+        Query saved = register(queryRepository.save(query));
+        cacheInvalidationService.saved(previousKeys, saved);
+        return saved;
     }
 
-    @CachePut(value = "queries", key = "#id")
     public Query deactivateQuery(String id) {
         Query query = getQueryById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(query);
         query.setActive(false);
         query.setUpdatedAt(LocalDateTime.now());
-        return queryRepository.save(query);
+        Query saved = register(queryRepository.save(query));
+        cacheInvalidationService.saved(previousKeys, saved);
+        return saved;
+    }
+
+    /**
+     * Keep the in-memory stored query registry in sync with a saved query
+     */
+    /**
+     * Save a query; the existence filter can miss names written by other
+     * instances, the unique name index cannot
+     */
+    private Query saveUnique(Query query) {
+        try {
+            return queryRepository.save(query);
+        } catch (DuplicateKeyException e) {
+            throw new QueryAlreadyExistsException("Query already exists with name: " + query.getName(), e);
+        }
+    }
+
+    private Query register(Query saved) {
+        storedQueryRegistry.register(saved);
+        return saved;
     }
 }
 
@@ -0,0 +1,246 @@
+package com.diyawanna.sup.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized-response cache for GET list endpoints
+ *
+ * This service provides:
+ * - Pre-encoded JSON bytes per endpoint, stored in the entity's own cache region
+ * - A gzip-precompressed copy for bodies above a size threshold
+ * - A strong ETag per encoding and 304 Not Modified answers to If-None-Match
+ *
+ * Response entries live under "response:" + the key of the data they encode,
+ * next to the entity entries, so the targeted invalidation of an aggregate key
+ * such as "all_active" drops the encoded response along with it. A cache hit
+ * copies stored bytes to the client without a Jackson serialization pass.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class ResponseCacheService {
+
+    public static final String KEY_PREFIX = "response:";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${response-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Key of the encoded response for the data cached under the given key
+     */
+    public static String responseKey(String key) {
+        return KEY_PREFIX + key;
+    }
+
+    /**
+     * Answer a GET request from the encoded-response cache
+     *
+     * @param cacheName      region of the underlying entity cache
+     * @param key            key of the data in that region, plus any parameters, e.g. "all_active"
+     * @param ifNoneMatch    If-None-Match request header, or null
+     * @param acceptEncoding Accept-Encoding request header, or null
+     * @param body           loads the data to encode on a miss
+     * @param omittedFields  fields removed from every top-level object before encoding, e.g. "password"
+     */
+    public ResponseEntity<byte[]> respond(String cacheName, String key, String ifNoneMatch, String acceptEncoding,
+                                          Supplier<?> body, String... omittedFields) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            throw new IllegalStateException("Cache region not configured: " + cacheName);
+        }
+        EncodedResponse response;
+        try {
+            response = cache.get(responseKey(key), () -> encode(body.get(), omittedFields));
+        } catch (Cache.ValueRetrievalException e) {
+            // Surface the loader's own exception, e.g. a repository failure
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+
+        boolean gzip = response.gzip != null && acceptsGzip(acceptEncoding);
+        String etag = gzip ? response.gzipEtag() : response.etag;
+        if (matches(ifNoneMatch, etag)) {
+            count("notModified");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            count("gzip");
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.gzip);
+        }
+        count("identity");
+        return builder.body(response.json);
+    }
+
+    /**
+     * Serialize once, strip omitted fields, precompress and fingerprint
+     */
+    EncodedResponse encode(Object body, String... omittedFields) {
+        try {
+            byte[] json;
+            if (omittedFields.length == 0) {
+                json = objectMapper.writeValueAsBytes(body);
+            } else {
+                JsonNode tree = objectMapper.valueToTree(body);
+                if (tree.isArray()) {
+                    tree.forEach(element -> omit(element, omittedFields));
+                } else {
+                    omit(tree, omittedFields);
+                }
+                json = objectMapper.writeValueAsBytes(tree);
+            }
+            byte[] gzip = json.length >= gzipMinBytes ? gzip(json) : null;
+            count("encoded");
+            return new EncodedResponse(json, gzip, etag(json));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode response", e);
+        }
+    }
+
+    private static void omit(JsonNode node, String[] fields) {
+        if (node instanceof ObjectNode) {
+            for (String field : fields) {
+                ((ObjectNode) node).remove(field);
+            }
+        }
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            StringBuilder sb = new StringBuilder(34).append('"');
+            for (int i = 0; i < 16; i++) {
+                sb.append(HEX[(digest[i] >> 4) & 0xf]).append(HEX[digest[i] & 0xf]);
+            }
+            return sb.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so W/"x" matches "x"
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private void count(String counter) {
+        counters.computeIfAbsent(counter, c -> new LongAdder()).increment();
+    }
+
+    /**
+     * Responses served by encoding: identity, gzip and notModified, plus bodies encoded
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("gzipMinBytes", gzipMinBytes);
+        counters.forEach((name, count) -> stats.put(name, count.sum()));
+        return stats;
+    }
+
+    /**
+     * Encoded body with its optional gzip copy and strong ETag of the identity body
+     */
+    static final class EncodedResponse {
+        final byte[] json;
+        final byte[] gzip;
+        final String etag;
+
+        EncodedResponse(byte[] json, byte[] gzip, String etag) {
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = etag;
+        }
+
+        /**
+         * Strong ETags differ per content coding, so the gzip copy gets its own
+         */
+        String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.entity.Cart;
+import com.diyawanna.sup.entity.Faculty;
+import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.entity.University;
+import com.diyawanna.sup.entity.User;
+import com.diyawanna.sup.util.KeysetPage;
+import com.diyawanna.sup.util.SearchKeys;
+
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Index-friendly name search over the entity collections
+ *
+ * This service provides:
+ * - Search tokens written next to the name of every saved user, university,
+ *   faculty, cart and query document
+ * - Name search as anchored prefix matches on the indexed token array, so a
+ *   search seeks the index instead of scanning the collection
+ * - Optional text index search (search.mode=text) with stemming and relevance order
+ * - Keyset pages of the matches, for name searches with many results
+ * - Backfill of the tokens of documents written before they existed
+ *
+ * A name matches when each word of the input is the start of a word of the
+ * name, ignoring case and accents: "comp sci" finds "Computer Science".
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class SearchService implements ApplicationRunner {
+
+    public static final String NAME_FIELD = "name";
+    public static final String MODE_TEXT = "text";
+
+    private static final List<Class<?>> SEARCHABLE = List.of(
+        User.class, University.class, Faculty.class, Cart.class, Query.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private KeysetPaginationService keysetPaginationService;
+
+    @Value("${search.mode:prefix}")
+    private String mode;
+
+    @Value("${search.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${search.backfill-batch-size:1000}")
+    private int backfillBatchSize;
+
+    private Set<String> searchableCollections = Collections.emptySet();
+
+    @PostConstruct
+    public void resolveCollections() {
+        searchableCollections = SEARCHABLE.stream()
+            .map(mongoTemplate::getCollectionName)
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Write the search tokens of a document about to be saved; called for every
+     * save, insert and bulk insert or replace
+     */
+    public void applyKeys(String collection, Document document) {
+        if (document != null && searchableCollections.contains(collection) && document.containsKey(NAME_FIELD)) {
+            document.put(SearchKeys.TOKENS_FIELD, SearchKeys.tokens(document.getString(NAME_FIELD)));
+        }
+    }
+
+    /**
+     * Active entities whose name matches the input
+     *
+     * @return an empty list when the input has no letters or digits
+     */
+    public <T> List<T> searchByName(Class<T> type, String name) {
+        if (MODE_TEXT.equalsIgnoreCase(mode)) {
+            TextQuery query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(name)).sortByScore();
+            query.addCriteria(Criteria.where("active").is(true));
+            return mongoTemplate.find(query, type);
+        }
+        Criteria criteria = nameCriteria(name);
+        if (criteria == null) {
+            return Collections.emptyList();
+        }
+        return mongoTemplate.find(org.springframework.data.mongodb.core.query.Query.query(
+            criteria.and("active").is(true)), type);
+    }
+
+    /**
+     * One keyset page of the active entities whose name matches the input, in _id order.
+     * In text mode the page holds the same matches without relevance order, which
+     * cannot be resumed from a cursor.
+     *
+     * @return an empty page when the input has no letters or digits
+     */
+    public <T> KeysetPage<T> searchByNamePage(Class<T> type, String name, Set<String> fields, Integer limit,
+                                              String after, String... excludedFields) {
+        Criteria criteria = MODE_TEXT.equalsIgnoreCase(mode)
+            ? Criteria.where("$text").is(new Document("$search", name))
+            : nameCriteria(name);
+        if (criteria == null) {
+            return new KeysetPage<>(Collections.emptyList(), null);
+        }
+        return keysetPaginationService.page(type, criteria.and("active").is(true), fields, limit, after,
+            excludedFields);
+    }
+
+    /**
+     * Anchored prefix criteria for the words of a name search
+     *
+     * @return null when the input has no letters or digits
+     */
+    public Criteria nameCriteria(String name) {
+        List<String> tokens = SearchKeys.queryTokens(name);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        Pattern[] prefixes = tokens.stream().map(SearchKeys::prefixPattern).toArray(Pattern[]::new);
+        return Criteria.where(SearchKeys.TOKENS_FIELD).all((Object[]) prefixes);
+    }
+
+    /**
+     * Backfill at startup so documents written before the tokens existed stay findable
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!backfillOnStartup) {
+            return;
+        }
+        for (String collection : searchableCollections) {
+            try {
+                long updated = backfill(collection);
+                if (updated > 0) {
+                    System.out.println("Backfilled search tokens of " + updated + " documents in " + collection);
+                }
+            } catch (Exception e) {
+                // Unbackfilled documents are missing from search results, nothing worse
+                System.err.println("Search token backfill of " + collection + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Write the tokens of every document of a collection that has none, in batches
+     *
+     * @return number of documents updated
+     */
+    public long backfill(String collection) {
+        long updated = 0;
+        while (true) {
+            org.springframework.data.mongodb.core.query.Query missing = org.springframework.data.mongodb.core.query.Query
+                .query(Criteria.where(SearchKeys.TOKENS_FIELD).exists(false))
+                .limit(backfillBatchSize);
+            missing.fields().include(NAME_FIELD);
+            List<Document> batch = mongoTemplate.find(missing, Document.class, collection);
+            if (batch.isEmpty()) {
+                return updated;
+            }
+
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+            for (Document document : batch) {
+                operations.updateOne(
+                    org.springframework.data.mongodb.core.query.Query.query(Criteria.where("_id").is(document.get("_id"))),
+                    Update.update(SearchKeys.TOKENS_FIELD, SearchKeys.tokens(document.getString(NAME_FIELD))));
+            }
+            BulkWriteResult result = operations.execute();
+            if (result.getMatchedCount() == 0) {
+                // Documents vanished between read and write; stop rather than spin
+                return updated;
+            }
+            updated += result.getModifiedCount();
+        }
+    }
+}
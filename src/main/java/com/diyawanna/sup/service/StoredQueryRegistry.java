@@ -0,0 +1,256 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.repository.QueryRepository;
+import com.diyawanna.sup.util.CompiledQuery;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * In-memory registry of active stored queries
+ *
+ * This service provides:
+ * - Stored query lookup by id and by name without a database round trip
+ * - Detached, read-only copies of each query with its compiled execution plan
+ * - Synchronisation through QueryService write hooks on this instance
+ * - A periodic updatedAt poll to pick up writes made by other instances
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class StoredQueryRegistry {
+
+    @Autowired
+    private QueryRepository queryRepository;
+
+    @Value("${dynamic-query.stored.poll-interval-seconds:30}")
+    private long pollIntervalSeconds;
+
+    private final ConcurrentMap<String, Entry> byId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Entry> byName = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastSeenUpdate;
+    private volatile LocalDateTime lastPoll;
+    private ScheduledExecutorService poller;
+
+    @PostConstruct
+    public void init() {
+        try {
+            queryRepository.findByActiveTrue().forEach(this::register);
+        } catch (Exception e) {
+            // Queries are loaded on demand until the next successful poll
+            System.err.println("Failed to preload stored queries: " + e.getMessage());
+        }
+
+        if (pollIntervalSeconds > 0) {
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "stored-query-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::poll, pollIntervalSeconds, pollIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    /**
+     * Find a stored query by id, loading it on a registry miss
+     *
+     * @return the entry, an unregistered entry for an inactive query, or null if it does not exist
+     */
+    public Entry findById(String id) {
+        Entry entry = id != null ? byId.get(id) : null;
+        return entry != null ? entry : load(queryRepository.findById(id));
+    }
+
+    /**
+     * Find a stored query by name, loading it on a registry miss
+     */
+    public Entry findByName(String name) {
+        Entry entry = name != null ? byName.get(name) : null;
+        return entry != null ? entry : load(queryRepository.findByName(name));
+    }
+
+    private Entry load(Optional<Query> query) {
+        if (query.isEmpty()) {
+            return null;
+        }
+        register(query.get());
+        Entry entry = byId.get(query.get().getId());
+        return entry != null ? entry : new Entry(query.get());
+    }
+
+    /**
+     * Add or replace a stored query; inactive queries are removed
+     */
+    public void register(Query query) {
+        if (query == null || query.getId() == null) {
+            return;
+        }
+        trackUpdate(query.getUpdatedAt());
+        if (!query.isActive()) {
+            remove(query.getId());
+            return;
+        }
+
+        Entry existing = byId.get(query.getId());
+        if (existing != null && query.getUpdatedAt() != null
+                && query.getUpdatedAt().equals(existing.query.getUpdatedAt())) {
+            // Unchanged; keep the entry and its compiled plan
+            return;
+        }
+
+        Entry entry = new Entry(query);
+        Entry previous = byId.put(query.getId(), entry);
+        if (previous != null && !Objects.equals(previous.query.getName(), query.getName())) {
+            byName.remove(previous.query.getName(), previous);
+        }
+        if (query.getName() != null) {
+            byName.put(query.getName(), entry);
+        }
+    }
+
+    /**
+     * Remove a stored query from the registry
+     */
+    public void remove(String id) {
+        Entry removed = id != null ? byId.remove(id) : null;
+        if (removed != null && removed.query.getName() != null) {
+            byName.remove(removed.query.getName(), removed);
+        }
+    }
+
+    /**
+     * Pick up queries changed by other instances since the last seen update
+     */
+    void poll() {
+        try {
+            LocalDateTime since = lastSeenUpdate;
+            List<Query> changed = since == null
+                ? queryRepository.findByActiveTrue()
+                // Overlap by one interval to tolerate clock skew between instances
+                : queryRepository.findByUpdatedAtAfter(since.minusSeconds(Math.max(pollIntervalSeconds, 1)));
+            changed.forEach(this::register);
+            lastPoll = LocalDateTime.now();
+        } catch (Exception e) {
+            System.err.println("Failed to poll stored queries: " + e.getMessage());
+        }
+    }
+
+    private synchronized void trackUpdate(LocalDateTime updatedAt) {
+        if (updatedAt != null && (lastSeenUpdate == null || updatedAt.isAfter(lastSeenUpdate))) {
+            lastSeenUpdate = updatedAt;
+        }
+    }
+
+    /**
+     * Get registry statistics for monitoring
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("registeredQueries", byId.size());
+        stats.put("lastSeenUpdate", lastSeenUpdate);
+        stats.put("lastPoll", lastPoll);
+        stats.put("pollIntervalSeconds", pollIntervalSeconds);
+        return stats;
+    }
+
+    /**
+     * Registered stored query: a detached copy of the entity, its default
+     * parameters and a compiled plan memoised per query-config registry version
+     */
+    public static final class Entry {
+        private final Query query;
+        private final Map<String, Object> defaultParameters;
+        private volatile CompiledPlan compiled;
+
+        Entry(Query source) {
+            this.query = copyOf(source);
+            this.defaultParameters = Collections.unmodifiableMap(new HashMap<>(query.getParameters()));
+        }
+
+        /**
+         * Read-only copy of the stored query
+         */
+        public Query getQuery() {
+            return query;
+        }
+
+        public Map<String, Object> getDefaultParameters() {
+            return defaultParameters;
+        }
+
+        /**
+         * Compiled plan for the given variable-mapping version, compiling at most once per version
+         */
+        public CompiledQuery compiled(long registryVersion, Function<Query, CompiledQuery> compiler) {
+            CompiledPlan current = compiled;
+            if (current == null || current.registryVersion != registryVersion) {
+                current = new CompiledPlan(registryVersion, compiler.apply(query));
+                compiled = current;
+            }
+            return current.plan;
+        }
+
+        private static Query copyOf(Query source) {
+            Query copy = new Query();
+            copy.setId(source.getId());
+            copy.setName(source.getName());
+            copy.setDescription(source.getDescription());
+            copy.setQueryContent(source.getQueryContent());
+            copy.setQueryType(source.getQueryType());
+            copy.setCollection(source.getCollection());
+            copy.setParameters(source.getParameters() != null ? new HashMap<>(source.getParameters()) : null);
+            copy.setVariableMappings(source.getVariableMappings() != null
+                ? new HashMap<>(source.getVariableMappings()) : null);
+            copy.setOptions(source.getOptions() != null ? new HashMap<>(source.getOptions()) : null);
+            copy.setFields(source.getFields() != null ? new ArrayList<>(source.getFields()) : null);
+            copy.setSort(source.getSort());
+            copy.setLimit(source.getLimit());
+            copy.setCategory(source.getCategory());
+            copy.setCacheable(source.isCacheable());
+            copy.setCacheTimeoutSeconds(source.getCacheTimeoutSeconds());
+            copy.setActive(source.isActive());
+            copy.setCreatedAt(source.getCreatedAt());
+            copy.setUpdatedAt(source.getUpdatedAt());
+            return copy;
+        }
+    }
+
+    private static final class CompiledPlan {
+        final long registryVersion;
+        final CompiledQuery plan;
+
+        CompiledPlan(long registryVersion, CompiledQuery plan) {
+            this.registryVersion = registryVersion;
+            this.plan = plan;
+        }
+    }
+}
@@ -1,19 +1,24 @@
 package com.diyawanna.sup.service;
 
+import com.diyawanna.sup.dto.BulkWriteResponse;
 import com.diyawanna.sup.entity.University;
 import com.diyawanna.sup.repository.UniversityRepository;
 import com.diyawanna.sup.exception.UniversityNotFoundException;
 import com.diyawanna.sup.exception.UniversityAlreadyExistsException;
+import com.diyawanna.sup.util.KeysetPage;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * University service for business logic and CRUD operations
@@ -33,18 +38,52 @@ public class UniversityService {
     @Autowired
     private UniversityRepository universityRepository;
 
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private BulkWriteService bulkWriteService;
+
+    @Autowired
+    private KeysetPaginationService keysetPaginationService;
+
+    @Autowired
+    private FieldSelectionService fieldSelectionService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private ExistenceFilterService existenceFilterService;
+
     /**
      * Get all active universities
      */
-    @Cacheable(value = "universities", key = "'all_active'")
+    @Cacheable(value = "universities", key = "'all_active'", sync = true)
     public List<University> getAllActiveUniversities() {
         return universityRepository.findByActiveTrue();
     }
 
+    /**
+     * Active universities in _id order, one keyset page at a time
+     */
+    public KeysetPage<University> getActiveUniversitiesPage(Set<String> fields, Integer limit, String after) {
+        return keysetPaginationService.page(University.class,
+            Criteria.where("active").is(true), fields, limit, after);
+    }
+
+    /**
+     * Active universities with only the selected fields
+     */
+    public List<Map<String, Object>> getActiveUniversities(Set<String> fields) {
+        return fieldSelectionService.find(University.class,
+            Criteria.where("active").is(true), fields);
+    }
+
     /**
      * Get university by ID
      */
-    @Cacheable(value = "universities", key = "#id")
+    @Cacheable(value = "universities", key = "#id", sync = true)
     public University getUniversityById(String id) {
         Optional<University> university = universityRepository.findById(id);
         if (university.isEmpty()) {
@@ -56,7 +95,7 @@ public class UniversityService {
     /**
      * Get university by name
      */
-    @Cacheable(value = "universities", key = "'name_' + #name")
+    @Cacheable(value = "universities", key = "'name_' + #name", sync = true)
     public University getUniversityByName(String name) {
         Optional<University> university = universityRepository.findByName(name);
         if (university.isEmpty()) {
@@ -68,10 +107,10 @@ public class UniversityService {
     /**
      * Create new university
      */
-    @CacheEvict(value = "universities", allEntries = true)
     public University createUniversity(University university) {
         // Validate name uniqueness
-        if (universityRepository.existsByName(university.getName())) {
+        if (existenceFilterService.exists(ExistenceFilterService.UNIVERSITY_NAME, university.getName(),
+                universityRepository::existsByName)) {
             throw new UniversityAlreadyExistsException("University already exists with name: " + university.getName());
         }
 
@@ -80,22 +119,46 @@ public class UniversityService {
         university.setCreatedAt(LocalDateTime.now());
         university.setUpdatedAt(LocalDateTime.now());
 
-        return universityRepository.save(university);
+        University saved = saveUnique(university);
+        cacheInvalidationService.saved(Set.of(), saved);
+        return saved;
     }
 
     /**
      * Update university
      */
-    @CachePut(value = "universities", key = "#id")
-    @CacheEvict(value = "universities", key = "'all_active'")
     public University updateUniversity(String id, University universityUpdate) {
         University existingUniversity = getUniversityById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(existingUniversity);
+
+        applyUpdate(existingUniversity, universityUpdate);
+        University saved = saveUnique(existingUniversity);
+        cacheInvalidationService.saved(previousKeys, saved);
+        return saved;
+    }
+
+    /**
+     * Save a university; the existence filter can miss names written by other
+     * instances, the unique name index cannot
+     */
+    private University saveUnique(University university) {
+        try {
+            return universityRepository.save(university);
+        } catch (DuplicateKeyException e) {
+            throw new UniversityAlreadyExistsException("University already exists with name: " + university.getName(), e);
+        }
+    }
 
+    /**
+     * Copy the provided fields of an update onto the existing university
+     */
+    private void applyUpdate(University existingUniversity, University universityUpdate) {
         // Update fields if provided
         if (universityUpdate.getName() != null) {
             // Check name uniqueness
             if (!universityUpdate.getName().equals(existingUniversity.getName()) && 
-                universityRepository.existsByName(universityUpdate.getName())) {
+                existenceFilterService.exists(ExistenceFilterService.UNIVERSITY_NAME, universityUpdate.getName(),
+                    universityRepository::existsByName)) {
                 throw new UniversityAlreadyExistsException("University already exists with name: " + universityUpdate.getName());
             }
             existingUniversity.setName(universityUpdate.getName());
@@ -120,43 +183,70 @@ public class UniversityService {
         }
 
         existingUniversity.setUpdatedAt(LocalDateTime.now());
-        return universityRepository.save(existingUniversity);
     }
 
     /**
      * Delete university (soft delete)
      */
-    @CacheEvict(value = "universities", key = "#id")
     public void deleteUniversity(String id) {
         University university = getUniversityById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(university);
         university.setActive(false);
         university.setUpdatedAt(LocalDateTime.now());
-        universityRepository.save(university);
+        cacheInvalidationService.saved(previousKeys, universityRepository.save(university));
+    }
+
+    /**
+     * Create universities in bulk; duplicate names are reported per item by the unique index
+     */
+    public BulkWriteResponse createUniversities(List<University> universities) {
+        return bulkWriteService.create(University.class, universities, university -> {
+            university.setActive(true);
+            university.setCreatedAt(LocalDateTime.now());
+            university.setUpdatedAt(LocalDateTime.now());
+        });
+    }
+
+    /**
+     * Update universities in bulk, with the same rules as a single update
+     */
+    public BulkWriteResponse updateUniversities(List<University> updates) {
+        return bulkWriteService.update(University.class, updates, this::applyUpdate);
+    }
+
+    /**
+     * Soft delete universities in bulk
+     */
+    public BulkWriteResponse deleteUniversities(List<String> ids) {
+        return bulkWriteService.softDelete(University.class, ids);
     }
 
     /**
      * Hard delete university
      */
-    @CacheEvict(value = "universities", allEntries = true)
     public void hardDeleteUniversity(String id) {
-        if (!universityRepository.existsById(id)) {
-            throw new UniversityNotFoundException("University not found with id: " + id);
-        }
+        University university = getUniversityById(id);
         universityRepository.deleteById(id);
+        cacheInvalidationService.removed(university);
     }
 
     /**
      * Search universities by name
      */
     public List<University> searchUniversitiesByName(String name) {
-        return universityRepository.findByNameContainingIgnoreCase(name);
+        return searchService.searchByName(University.class, name);
+    }
+
+    public KeysetPage<University> searchUniversitiesByNamePage(String name, Set<String> fields, Integer limit,
+                                                               String after) {
+        return searchService.searchByNamePage(University.class, name, fields, limit, after);
     }
 
     /**
      * Search universities by description
      */
     public List<University> searchUniversitiesByDescription(String description) {
-        return universityRepository.findByDescriptionContainingIgnoreCase(description);
+        return universityRepository.findByDescriptionContainingIgnoreCaseAndActiveTrue(description);
     }
 
     /**
@@ -166,6 +256,13 @@ public class UniversityService {
         return universityRepository.findByLocationContainingIgnoreCaseAndActiveTrue(location);
     }
 
+    public KeysetPage<University> getUniversitiesByLocationPage(String location, Set<String> fields, Integer limit,
+                                                                String after) {
+        return keysetPaginationService.page(University.class,
+            Criteria.where("active").is(true).and("location").regex(Pattern.quote(location), "i"),
+            fields, limit, after);
+    }
+
     /**
      * Get universities that have specific faculty
      */
@@ -183,23 +280,27 @@ public class UniversityService {
     /**
      * Add faculty to university
      */
-    @CachePut(value = "universities", key = "#universityId")
     public University addFacultyToUniversity(String universityId, String facultyId) {
         University university = getUniversityById(universityId);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(university);
         university.addFaculty(facultyId);
         university.setUpdatedAt(LocalDateTime.now());
-        return universityRepository.save(university);
+        University saved = universityRepository.save(university);
+        cacheInvalidationService.saved(previousKeys, saved);
+        return saved;
     }
 
     /**
      * Remove faculty from university
      */
-    @CachePut(value = "universities", key = "#universityId")
     public University removeFacultyFromUniversity(String universityId, String facultyId) {
         University university = getUniversityById(universityId);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(university);
         university.removeFaculty(facultyId);
         university.setUpdatedAt(LocalDateTime.now());
-        return universityRepository.save(university);
+        University saved = universityRepository.save(university);
+        cacheInvalidationService.saved(previousKeys, saved);
+        return saved;
     }
 
     /**
@@ -220,29 +321,34 @@ public class UniversityService {
      * Check if university name exists
      */
     public boolean universityNameExists(String name) {
-        return universityRepository.existsByName(name);
+        return existenceFilterService.exists(ExistenceFilterService.UNIVERSITY_NAME, name,
+            universityRepository::existsByName);
     }
 
     /**
      * Activate university
      */
-    @CachePut(value = "universities", key = "#id")
     public University activateUniversity(String id) {
         University university = getUniversityById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(university);
         university.setActive(true);
         university.setUpdatedAt(LocalDateTime.now());
-        return universityRepository.save(university);
+        University saved = universityRepository.save(university);
+        cacheInvalidationService.saved(previousKeys, saved);
+        return saved;
     }
 
     /**
      * Deactivate university
      */
-    @CachePut(value = "universities", key = "#id")
     public University deactivateUniversity(String id) {
         University university = getUniversityById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(university);
         university.setActive(false);
         university.setUpdatedAt(LocalDateTime.now());
-        return universityRepository.save(university);
+        University saved = universityRepository.save(university);
+        cacheInvalidationService.saved(previousKeys, saved);
+        return saved;
     }
 }
 
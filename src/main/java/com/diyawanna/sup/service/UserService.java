@@ -1,14 +1,16 @@
 package com.diyawanna.sup.service;
 
+import com.diyawanna.sup.dto.BulkWriteResponse;
 import com.diyawanna.sup.entity.User;
 import com.diyawanna.sup.repository.UserRepository;
 import com.diyawanna.sup.exception.UserNotFoundException;
 import com.diyawanna.sup.exception.UserAlreadyExistsException;
+import com.diyawanna.sup.util.KeysetPage;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -16,7 +18,11 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 /**
  * User service for business logic and CRUD operations
@@ -39,14 +45,48 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private BulkWriteService bulkWriteService;
+
+    @Autowired
+    private KeysetPaginationService keysetPaginationService;
+
+    @Autowired
+    private FieldSelectionService fieldSelectionService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private ExistenceFilterService existenceFilterService;
+
     /**
      * Get all active users
      */
-    @Cacheable(value = "users", key = "'all_active'")
+    @Cacheable(value = "users", key = "'all_active'", sync = true)
     public List<User> getAllActiveUsers() {
         return userRepository.findByActiveTrue();
     }
 
+    /**
+     * Active users in _id order, one keyset page at a time; passwords are never read
+     */
+    public KeysetPage<User> getActiveUsersPage(Set<String> fields, Integer limit, String after) {
+        return keysetPaginationService.page(User.class,
+            Criteria.where("active").is(true), fields, limit, after, "password");
+    }
+
+    /**
+     * Active users with only the selected fields
+     */
+    public List<Map<String, Object>> getActiveUsers(Set<String> fields) {
+        return fieldSelectionService.find(User.class,
+            Criteria.where("active").is(true), fields);
+    }
+
     /**
      * Get all users (including inactive)
      */
@@ -71,7 +111,7 @@ public class UserService {
     /**
      * Get user by ID
      */
-    @Cacheable(value = "users", key = "#id")
+    @Cacheable(value = "users", key = "#id", sync = true)
     public User getUserById(String id) {
         Optional<User> user = userRepository.findById(id);
         if (user.isEmpty()) {
@@ -83,7 +123,7 @@ public class UserService {
     /**
      * Get user by username
      */
-    @Cacheable(value = "users", key = "'username_' + #username")
+    @Cacheable(value = "users", key = "'username_' + #username", sync = true)
     public User getUserByUsername(String username) {
         Optional<User> user = userRepository.findByUsername(username);
         if (user.isEmpty()) {
@@ -106,15 +146,16 @@ public class UserService {
     /**
      * Create new user
      */
-    @CacheEvict(value = "users", allEntries = true)
     public User createUser(User user) {
         // Validate username uniqueness
-        if (userRepository.existsByUsername(user.getUsername())) {
+        if (existenceFilterService.exists(ExistenceFilterService.USERNAME, user.getUsername(),
+                userRepository::existsByUsername)) {
             throw new UserAlreadyExistsException("Username already exists: " + user.getUsername());
         }
 
         // Validate email uniqueness if provided
-        if (user.getEmail() != null && userRepository.existsByEmail(user.getEmail())) {
+        if (user.getEmail() != null && existenceFilterService.exists(ExistenceFilterService.EMAIL, user.getEmail(),
+                userRepository::existsByEmail)) {
             throw new UserAlreadyExistsException("Email already exists: " + user.getEmail());
         }
 
@@ -128,17 +169,50 @@ public class UserService {
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
 
-        return userRepository.save(user);
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DuplicateKeyException e) {
+            throw alreadyExists(e, user.getUsername(), user.getEmail());
+        }
+        cacheInvalidationService.saved(Set.of(), saved);
+        return saved;
     }
 
     /**
      * Update user
      */
-    @CachePut(value = "users", key = "#id")
-    @CacheEvict(value = "users", key = "'all_active'")
     public User updateUser(String id, User userUpdate) {
         User existingUser = getUserById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(existingUser);
+
+        applyUpdate(existingUser, userUpdate);
+        User saved;
+        try {
+            saved = userRepository.save(existingUser);
+        } catch (DuplicateKeyException e) {
+            throw alreadyExists(e, existingUser.getUsername(), existingUser.getEmail());
+        }
+        cacheInvalidationService.saved(previousKeys, saved);
+        return saved;
+    }
 
+    /**
+     * Map a unique index violation to the exception of the field that caused it; the
+     * existence filters can miss writes of other instances, the unique indexes cannot
+     */
+    static UserAlreadyExistsException alreadyExists(DuplicateKeyException e, String username, String email) {
+        String message = e.getMessage() != null ? e.getMessage() : "";
+        if (message.contains("email")) {
+            return new UserAlreadyExistsException("Email already exists: " + email, e);
+        }
+        return new UserAlreadyExistsException("Username already exists: " + username, e);
+    }
+
+    /**
+     * Copy the provided fields of an update onto the existing user
+     */
+    private void applyUpdate(User existingUser, User userUpdate) {
         // Update fields if provided
         if (userUpdate.getName() != null) {
             existingUser.setName(userUpdate.getName());
@@ -146,7 +220,8 @@ public class UserService {
         if (userUpdate.getEmail() != null) {
             // Check email uniqueness
             if (!userUpdate.getEmail().equals(existingUser.getEmail()) && 
-                userRepository.existsByEmail(userUpdate.getEmail())) {
+                existenceFilterService.exists(ExistenceFilterService.EMAIL, userUpdate.getEmail(),
+                    userRepository::existsByEmail)) {
                 throw new UserAlreadyExistsException("Email already exists: " + userUpdate.getEmail());
             }
             existingUser.setEmail(userUpdate.getEmail());
@@ -174,36 +249,74 @@ public class UserService {
         }
 
         existingUser.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(existingUser);
     }
 
     /**
      * Delete user (soft delete)
      */
-    @CacheEvict(value = "users", allEntries = true)
     public void deleteUser(String id) {
         User user = getUserById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(user);
         user.setActive(false);
         user.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(user);
+        cacheInvalidationService.saved(previousKeys, userRepository.save(user));
+    }
+
+    /**
+     * Create users in bulk
+     *
+     * Usernames are left to the unique index, which reports duplicates per item;
+     * emails are checked against the existence filter and within the batch.
+     */
+    public BulkWriteResponse createUsers(List<User> users) {
+        Set<String> batchEmails = ConcurrentHashMap.newKeySet();
+        return bulkWriteService.create(User.class, users, user -> {
+            if (user.getEmail() != null && (!batchEmails.add(user.getEmail())
+                    || existenceFilterService.exists(ExistenceFilterService.EMAIL, user.getEmail(),
+                        userRepository::existsByEmail))) {
+                throw new UserAlreadyExistsException("Email already exists: " + user.getEmail());
+            }
+            if (user.getPassword() != null) {
+                user.setPassword(passwordEncoder.encode(user.getPassword()));
+            }
+            user.setActive(true);
+            user.setCreatedAt(LocalDateTime.now());
+            user.setUpdatedAt(LocalDateTime.now());
+        });
+    }
+
+    /**
+     * Update users in bulk, with the same rules as a single update
+     */
+    public BulkWriteResponse updateUsers(List<User> updates) {
+        return bulkWriteService.update(User.class, updates, this::applyUpdate);
+    }
+
+    /**
+     * Soft delete users in bulk
+     */
+    public BulkWriteResponse deleteUsers(List<String> ids) {
+        return bulkWriteService.softDelete(User.class, ids);
     }
 
     /**
      * Hard delete user
      */
-    @CacheEvict(value = "users", allEntries = true)
     public void hardDeleteUser(String id) {
-        if (!userRepository.existsById(id)) {
-            throw new UserNotFoundException("User not found with id: " + id);
-        }
+        User user = getUserById(id);
         userRepository.deleteById(id);
+        cacheInvalidationService.removed(user);
     }
 
     /**
      * Search users by name
      */
     public List<User> searchUsersByName(String name) {
-        return userRepository.findByNameContainingIgnoreCase(name);
+        return searchService.searchByName(User.class, name);
+    }
+
+    public KeysetPage<User> searchUsersByNamePage(String name, Set<String> fields, Integer limit, String after) {
+        return searchService.searchByNamePage(User.class, name, fields, limit, after, "password");
     }
 
     /**
@@ -213,6 +326,16 @@ public class UserService {
         return userRepository.findByUniversityAndActiveTrue(university);
     }
 
+    public KeysetPage<User> getUsersByUniversityPage(String university, Set<String> fields, Integer limit, String after) {
+        return keysetPaginationService.page(User.class,
+            Criteria.where("university").is(university).and("active").is(true), fields, limit, after, "password");
+    }
+
+    public List<Map<String, Object>> getUsersByUniversity(String university, Set<String> fields) {
+        return fieldSelectionService.find(User.class,
+            Criteria.where("university").is(university).and("active").is(true), fields);
+    }
+
     /**
      * Get users by age range
      */
@@ -220,6 +343,15 @@ public class UserService {
         return userRepository.findByAgeBetweenAndActiveTrue(minAge, maxAge);
     }
 
+    /**
+     * Bounds are exclusive, as in findByAgeBetween
+     */
+    public KeysetPage<User> getUsersByAgeRangePage(Integer minAge, Integer maxAge, Set<String> fields,
+                                                   Integer limit, String after) {
+        return keysetPaginationService.page(User.class,
+            Criteria.where("active").is(true).and("age").gt(minAge).lt(maxAge), fields, limit, after, "password");
+    }
+
     /**
      * Get users by work
      */
@@ -227,6 +359,12 @@ public class UserService {
         return userRepository.findByWorkContainingIgnoreCaseAndActiveTrue(work);
     }
 
+    public KeysetPage<User> getUsersByWorkPage(String work, Set<String> fields, Integer limit, String after) {
+        return keysetPaginationService.page(User.class,
+            Criteria.where("active").is(true).and("work").regex(Pattern.quote(work), "i"), fields, limit, after,
+            "password");
+    }
+
     /**
      * Get users by school
      */
@@ -234,6 +372,12 @@ public class UserService {
         return userRepository.findBySchoolContainingIgnoreCaseAndActiveTrue(school);
     }
 
+    public KeysetPage<User> getUsersBySchoolPage(String school, Set<String> fields, Integer limit, String after) {
+        return keysetPaginationService.page(User.class,
+            Criteria.where("active").is(true).and("school").regex(Pattern.quote(school), "i"), fields, limit, after,
+            "password");
+    }
+
     /**
      * Get users created after specific date
      */
@@ -259,47 +403,52 @@ public class UserService {
      * Check if username exists
      */
     public boolean usernameExists(String username) {
-        return userRepository.existsByUsername(username);
+        return existenceFilterService.exists(ExistenceFilterService.USERNAME, username,
+            userRepository::existsByUsername);
     }
 
     /**
      * Check if email exists
      */
     public boolean emailExists(String email) {
-        return userRepository.existsByEmail(email);
+        return existenceFilterService.exists(ExistenceFilterService.EMAIL, email, userRepository::existsByEmail);
     }
 
     /**
      * Activate user
      */
-    @CacheEvict(value = "users", allEntries = true)
     public User activateUser(String id) {
         User user = getUserById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(user);
         user.setActive(true);
         user.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        cacheInvalidationService.saved(previousKeys, saved);
+        return saved;
     }
 
     /**
      * Deactivate user
      */
-    @CacheEvict(value = "users", allEntries = true)
     public User deactivateUser(String id) {
         User user = getUserById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(user);
         user.setActive(false);
         user.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        cacheInvalidationService.saved(previousKeys, saved);
+        return saved;
     }
 
     /**
      * Update user password
      */
-    @CacheEvict(value = "users", key = "#id")
     public void updateUserPassword(String id, String newPassword) {
         User user = getUserById(id);
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(user);
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(user);
+        cacheInvalidationService.saved(previousKeys, userRepository.save(user));
     }
 }
 
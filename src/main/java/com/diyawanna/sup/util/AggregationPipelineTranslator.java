@@ -0,0 +1,178 @@
+package com.diyawanna.sup.util;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperationContext;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Translates bound pipeline stages into Spring Data aggregation operations
+ *
+ * Every stage is validated against the set of supported operators and sent
+ * to the server as-is, so filtering, grouping and counting run inside MongoDB
+ * instead of pulling whole collections into the application.
+ *
+ * Supported stages: $match, $group, $project, $sort, $limit, $skip, $count,
+ * $lookup, $unwind and $facet (whose sub-pipelines are validated the same way).
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class AggregationPipelineTranslator {
+
+    private static final Set<String> SUPPORTED_STAGES = Set.of(
+        "$match", "$group", "$project", "$sort", "$limit", "$skip",
+        "$count", "$lookup", "$unwind", "$facet"
+    );
+
+    private AggregationPipelineTranslator() {
+    }
+
+    /**
+     * Build an aggregation from bound stages and optional execution options
+     */
+    public static Aggregation translate(List<Document> stages, Map<String, Object> options) {
+        List<AggregationOperation> operations = new ArrayList<>(stages.size());
+        for (Document stage : stages) {
+            operations.add(translateStage(stage, false));
+        }
+        return Aggregation.newAggregation(operations).withOptions(toOptions(options));
+    }
+
+    /**
+     * Build aggregation options from a mapping's "options" block
+     *
+     * Recognised keys: allowDiskUse, batchSize, maxTimeMS, comment
+     */
+    public static AggregationOptions toOptions(Map<String, Object> options) {
+        AggregationOptions.Builder builder = AggregationOptions.builder();
+        if (options == null || options.isEmpty()) {
+            return builder.build();
+        }
+
+        Object allowDiskUse = options.get("allowDiskUse");
+        if (allowDiskUse != null) {
+            builder.allowDiskUse(Boolean.parseBoolean(allowDiskUse.toString()));
+        }
+        Object batchSize = options.get("batchSize");
+        if (batchSize != null) {
+            builder.cursorBatchSize(toInt(batchSize, "batchSize"));
+        }
+        Object maxTimeMS = options.get("maxTimeMS");
+        if (maxTimeMS != null) {
+            builder.maxTime(Duration.ofMillis(toInt(maxTimeMS, "maxTimeMS")));
+        }
+        Object comment = options.get("comment");
+        if (comment != null) {
+            builder.comment(comment.toString());
+        }
+        return builder.build();
+    }
+
+    private static AggregationOperation translateStage(Document stage, boolean insideFacet) {
+        if (stage == null || stage.size() != 1) {
+            throw new IllegalArgumentException("Each pipeline stage must contain exactly one operator: " + stage);
+        }
+
+        Map.Entry<String, Object> entry = stage.entrySet().iterator().next();
+        String operator = entry.getKey();
+        Object body = entry.getValue();
+
+        if (!SUPPORTED_STAGES.contains(operator)) {
+            throw new IllegalArgumentException("Unsupported aggregation stage: " + operator);
+        }
+
+        switch (operator) {
+            case "$limit":
+                return Aggregation.limit(toInt(body, operator));
+            case "$skip":
+                return Aggregation.skip((long) toInt(body, operator));
+            case "$count":
+                if (!(body instanceof String) || ((String) body).isBlank()) {
+                    throw new IllegalArgumentException("$count requires a non-empty output field name");
+                }
+                return Aggregation.count().as((String) body);
+            case "$unwind":
+                if (body instanceof String) {
+                    String path = (String) body;
+                    return Aggregation.unwind(path.startsWith("$") ? path.substring(1) : path);
+                }
+                return new StageOperation(operator, requireDocument(operator, body));
+            case "$facet":
+                if (insideFacet) {
+                    throw new IllegalArgumentException("$facet cannot be nested inside another $facet");
+                }
+                Document facets = requireDocument(operator, body);
+                for (Map.Entry<String, Object> facet : facets.entrySet()) {
+                    if (!(facet.getValue() instanceof List)) {
+                        throw new IllegalArgumentException("$facet." + facet.getKey() + " must be an array of stages");
+                    }
+                    for (Object subStage : (List<?>) facet.getValue()) {
+                        if (!(subStage instanceof Document)) {
+                            throw new IllegalArgumentException("$facet." + facet.getKey() + " contains an invalid stage");
+                        }
+                        translateStage((Document) subStage, true);
+                    }
+                }
+                return new StageOperation(operator, facets);
+            default:
+                return new StageOperation(operator, requireDocument(operator, body));
+        }
+    }
+
+    private static Document requireDocument(String operator, Object body) {
+        if (!(body instanceof Document)) {
+            throw new IllegalArgumentException(operator + " requires a document argument");
+        }
+        return (Document) body;
+    }
+
+    private static int toInt(Object value, String name) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        try {
+            return Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number: " + value);
+        }
+    }
+
+    /**
+     * Stage passed to the server verbatim
+     */
+    private static final class StageOperation implements AggregationOperation {
+        private final String operator;
+        private final Document stage;
+
+        StageOperation(String operator, Object body) {
+            this.operator = operator;
+            this.stage = new Document(operator, body);
+        }
+
+        // Deprecated upstream, but AggregationOperation still declares it abstract
+        @Override
+        @SuppressWarnings("deprecation")
+        public Document toDocument(AggregationOperationContext context) {
+            return stage;
+        }
+
+        @Override
+        public List<Document> toPipelineStages(AggregationOperationContext context) {
+            return Collections.singletonList(stage);
+        }
+
+        @Override
+        public String getOperator() {
+            return operator;
+        }
+    }
+}
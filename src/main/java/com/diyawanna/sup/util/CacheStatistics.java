@@ -0,0 +1,234 @@
+package com.diyawanna.sup.util;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit, miss, put, eviction, refresh and load-time counters of one cache region
+ *
+ * Registered with Caffeine as its stats counter, so hits, misses, evictions
+ * and synchronous loads are recorded by the cache itself. Puts and the
+ * time from a miss to the put that fills it are recorded by the Spring
+ * cache adapter. All counters are striped LongAdders, so recording does not
+ * contend between threads.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class CacheStatistics implements StatsCounter {
+
+    /**
+     * Upper bounds in milliseconds of the load-time histogram buckets; a final bucket holds the rest
+     */
+    public static final long[] LOAD_TIME_BUCKETS_MS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder evictedWeight = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder refreshesRejected = new LongAdder();
+    private final LongAdder[] loadTimeBuckets = new LongAdder[LOAD_TIME_BUCKETS_MS.length + 1];
+
+    public CacheStatistics() {
+        for (int i = 0; i < loadTimeBuckets.length; i++) {
+            loadTimeBuckets[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void recordHits(int count) {
+        hits.add(count);
+    }
+
+    @Override
+    public void recordMisses(int count) {
+        misses.add(count);
+    }
+
+    @Override
+    public void recordLoadSuccess(long loadTime) {
+        loadSuccesses.increment();
+        recordLoadTime(loadTime);
+    }
+
+    @Override
+    public void recordLoadFailure(long loadTime) {
+        loadFailures.increment();
+        recordLoadTime(loadTime);
+    }
+
+    /**
+     * Still abstract in Caffeine 2.x; the cache itself only calls the weighted, cause-aware variant
+     */
+    @Override
+    @Deprecated
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    @Override
+    public void recordEviction(int weight, RemovalCause cause) {
+        evictions.increment();
+        evictedWeight.add(weight);
+        if (cause == RemovalCause.EXPIRED) {
+            expirations.increment();
+        }
+    }
+
+    /**
+     * Record a value written to the cache
+     */
+    public void recordPut() {
+        puts.increment();
+    }
+
+    /**
+     * Record a background refresh that replaced an entry before it expired
+     */
+    public void recordRefresh() {
+        refreshes.increment();
+    }
+
+    /**
+     * Record a background refresh whose loader threw; the current value stays cached
+     */
+    public void recordRefreshFailure() {
+        refreshFailures.increment();
+    }
+
+    /**
+     * Record a refresh that was not scheduled because the refresh executor was full
+     */
+    public void recordRefreshRejected() {
+        refreshesRejected.increment();
+    }
+
+    private void recordLoadTime(long loadTimeNanos) {
+        totalLoadNanos.add(loadTimeNanos);
+        long millis = TimeUnit.NANOSECONDS.toMillis(loadTimeNanos);
+        int bucket = 0;
+        while (bucket < LOAD_TIME_BUCKETS_MS.length && millis > LOAD_TIME_BUCKETS_MS[bucket]) {
+            bucket++;
+        }
+        loadTimeBuckets[bucket].increment();
+    }
+
+    @Override
+    public CacheStats snapshot() {
+        return CacheStats.of(hits.sum(), misses.sum(), loadSuccesses.sum(), loadFailures.sum(),
+            totalLoadNanos.sum(), evictions.sum(), evictedWeight.sum());
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    public long getLoads() {
+        return loadSuccesses.sum() + loadFailures.sum();
+    }
+
+    public long getLoadFailures() {
+        return loadFailures.sum();
+    }
+
+    public long getTotalLoadNanos() {
+        return totalLoadNanos.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getEvictedWeight() {
+        return evictedWeight.sum();
+    }
+
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures.sum();
+    }
+
+    public long getRefreshesRejected() {
+        return refreshesRejected.sum();
+    }
+
+    /**
+     * Hits over lookups, or 0 before the first lookup
+     */
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        return lookups == 0 ? 0.0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Load counts per bucket, non-cumulative; the last element counts loads above the largest bound
+     */
+    public long[] getLoadTimeHistogram() {
+        long[] counts = new long[loadTimeBuckets.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = loadTimeBuckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Counters as a map, together with the current size of the region
+     */
+    public Map<String, Object> toMap(long entryCount, Long estimatedBytes) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("hits", getHits());
+        map.put("misses", getMisses());
+        map.put("hitRatio", getHitRatio());
+        map.put("puts", getPuts());
+        map.put("evictions", getEvictions());
+        map.put("expirations", getExpirations());
+        map.put("evictedBytes", getEvictedWeight());
+        map.put("entryCount", entryCount);
+        map.put("estimatedBytes", estimatedBytes);
+        long loads = getLoads();
+        map.put("loads", loads);
+        map.put("loadFailures", getLoadFailures());
+        map.put("refreshes", getRefreshes());
+        map.put("refreshFailures", getRefreshFailures());
+        map.put("refreshesRejected", getRefreshesRejected());
+        map.put("averageLoadTimeMs", loads == 0 ? 0.0 : getTotalLoadNanos() / 1_000_000.0 / loads);
+
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        long[] counts = getLoadTimeHistogram();
+        for (int i = 0; i < LOAD_TIME_BUCKETS_MS.length; i++) {
+            histogram.put("le" + LOAD_TIME_BUCKETS_MS[i] + "ms", counts[i]);
+        }
+        histogram.put("gt" + LOAD_TIME_BUCKETS_MS[LOAD_TIME_BUCKETS_MS.length - 1] + "ms", counts[counts.length - 1]);
+        map.put("loadTimeHistogram", histogram);
+        return map;
+    }
+}
@@ -0,0 +1,562 @@
+package com.diyawanna.sup.util;
+
+import org.bson.BsonRegularExpression;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Precompiled execution plan for a dynamic query template
+ *
+ * A template such as {'_id': ObjectId('${id}'), 'active': true} is parsed
+ * exactly once into a tree of constant and parameter nodes. Executing the
+ * query only binds typed parameter values into that tree, so no regex
+ * matching, string replacement or JSON parsing happens per call.
+ *
+ * Bound documents share their constant sub-documents between calls and
+ * must be treated as read-only.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class CompiledQuery {
+
+    private static final Pattern OBJECT_ID_PLACEHOLDER =
+        Pattern.compile("ObjectId\\(\\s*(['\"])\\$\\{([^}]+)\\}\\1\\s*\\)");
+
+    private static final String SLOT_PREFIX = "__$slot";
+    private static final String SLOT_SUFFIX = "$__";
+    private static final Pattern SLOT_MARKER = Pattern.compile("__\\$slot(\\d+)\\$__");
+
+    /**
+     * Supported parameter types, as declared in variableMappings
+     */
+    public enum ParameterType {
+        STRING, INTEGER, LONG, DOUBLE, BOOLEAN, OBJECT_ID, ANY;
+
+        public static ParameterType fromDeclaration(String declared) {
+            if (declared == null) {
+                return ANY;
+            }
+            switch (declared.trim().toLowerCase()) {
+                case "string": return STRING;
+                case "integer":
+                case "int": return INTEGER;
+                case "long": return LONG;
+                case "double":
+                case "number": return DOUBLE;
+                case "boolean": return BOOLEAN;
+                case "objectid": return OBJECT_ID;
+                default: return ANY;
+            }
+        }
+    }
+
+    private final String name;
+    private final String collection;
+    private final String type;
+    private final boolean pipeline;
+    private final Node template;
+    private final Slot[] slots;
+    private final Set<String> parameterNames;
+    private final Map<String, Object> options;
+    private final Set<String> collections;
+    private final boolean cacheable;
+    private final Integer cacheTimeoutSeconds;
+
+    private CompiledQuery(String name, String collection, String type, boolean pipeline,
+                          Node template, Slot[] slots, Set<String> parameterNames, Map<String, Object> options,
+                          Set<String> collections, boolean cacheable, Integer cacheTimeoutSeconds) {
+        this.name = name;
+        this.collection = collection;
+        this.type = type;
+        this.pipeline = pipeline;
+        this.template = template;
+        this.slots = slots;
+        this.parameterNames = parameterNames;
+        this.options = options;
+        this.collections = collections;
+        this.cacheable = cacheable;
+        this.cacheTimeoutSeconds = cacheTimeoutSeconds;
+    }
+
+    /**
+     * Compile a query template into an immutable execution plan
+     *
+     * @param name               query name used in error messages
+     * @param queryContent       template using ${parameterName} placeholders
+     * @param collection         target collection
+     * @param type               FIND, AGGREGATE or COUNT
+     * @param declaredParameters parameter names declared next to the template (may be null)
+     * @param variableTypes      declared parameter types, e.g. "minAge" -> "Integer" (may be null)
+     */
+    public static CompiledQuery compile(String name, String queryContent, String collection, String type,
+                                        Collection<String> declaredParameters, Map<String, String> variableTypes) {
+        return compile(name, queryContent, collection, type, declaredParameters, variableTypes, null);
+    }
+
+    /**
+     * Compile a query template together with its execution options
+     * (e.g. allowDiskUse, batchSize for aggregations)
+     */
+    public static CompiledQuery compile(String name, String queryContent, String collection, String type,
+                                        Collection<String> declaredParameters, Map<String, String> variableTypes,
+                                        Map<String, Object> options) {
+        if (queryContent == null || queryContent.isBlank()) {
+            throw new IllegalArgumentException("Query content is empty for query: " + name);
+        }
+        if (type == null || type.isBlank()) {
+            throw new IllegalArgumentException("Query type is missing for query: " + name);
+        }
+
+        List<Slot> slots = new ArrayList<>();
+        String marked = markPlaceholders(queryContent, variableTypes, slots);
+        boolean pipeline = marked.trim().startsWith("[");
+
+        Object parsed;
+        try {
+            parsed = pipeline
+                ? Document.parse("{'pipeline': " + marked + "}").get("pipeline")
+                : Document.parse(marked);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid query template for " + name + ": " + e.getMessage(), e);
+        }
+
+        Set<String> parameterNames = new LinkedHashSet<>();
+        if (declaredParameters != null) {
+            parameterNames.addAll(declaredParameters);
+        }
+        for (Slot slot : slots) {
+            parameterNames.add(slot.parameter);
+        }
+
+        Set<String> collections = new LinkedHashSet<>();
+        if (collection != null) {
+            collections.add(collection);
+        }
+        collectLookupCollections(parsed, collections);
+
+        return new CompiledQuery(name, collection, type.trim().toUpperCase(), pipeline,
+            toNode(parsed, slots), slots.toArray(new Slot[0]), Collections.unmodifiableSet(parameterNames),
+            options != null ? Collections.unmodifiableMap(new LinkedHashMap<>(options)) : Collections.emptyMap(),
+            Collections.unmodifiableSet(collections), false, null);
+    }
+
+    /**
+     * Copy of this plan with the given result caching policy
+     */
+    public CompiledQuery withCaching(boolean cacheable, Integer cacheTimeoutSeconds) {
+        return new CompiledQuery(name, collection, type, pipeline, template, slots, parameterNames, options,
+            collections, cacheable, cacheTimeoutSeconds);
+    }
+
+    /**
+     * Bind parameters into the filter document of a FIND or COUNT query
+     */
+    public Document bindFilter(Map<String, Object> parameters) {
+        if (pipeline) {
+            throw new IllegalArgumentException("Query " + name + " is an aggregation pipeline, not a filter");
+        }
+        return (Document) template.bind(resolve(parameters));
+    }
+
+    /**
+     * Bind parameters into the stages of an AGGREGATE query
+     */
+    @SuppressWarnings("unchecked")
+    public List<Document> bindPipeline(Map<String, Object> parameters) {
+        Object bound = template.bind(resolve(parameters));
+        if (!pipeline) {
+            return Collections.singletonList((Document) bound);
+        }
+        return (List<Document>) bound;
+    }
+
+    /**
+     * Check that every parameter referenced by the template is present
+     */
+    public boolean hasAllParameters(Map<String, Object> parameters) {
+        for (String parameter : parameterNames) {
+            if (parameters == null || !parameters.containsKey(parameter)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Placeholder values of the declared types, used to explain a query without real input
+     */
+    public Map<String, Object> sampleParameters() {
+        Map<String, Object> samples = new LinkedHashMap<>();
+        for (Slot slot : slots) {
+            samples.putIfAbsent(slot.parameter, sampleValue(slot.type));
+        }
+        return samples;
+    }
+
+    private static Object sampleValue(ParameterType type) {
+        switch (type) {
+            case INTEGER: return 0;
+            case LONG: return 0L;
+            case DOUBLE: return 0.0;
+            case BOOLEAN: return true;
+            case OBJECT_ID: return new ObjectId();
+            default: return "sample";
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public boolean isPipeline() {
+        return pipeline;
+    }
+
+    public Set<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    public Map<String, Object> getOptions() {
+        return options;
+    }
+
+    /**
+     * Every collection the query reads: the target collection plus $lookup sources
+     */
+    public Set<String> getCollections() {
+        return collections;
+    }
+
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    public Integer getCacheTimeoutSeconds() {
+        return cacheTimeoutSeconds;
+    }
+
+    private Object[] resolve(Map<String, Object> parameters) {
+        Object[] values = new Object[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            Slot slot = slots[i];
+            Object value = parameters != null ? parameters.get(slot.parameter) : null;
+            if (value == null) {
+                throw new IllegalArgumentException("Missing required parameter: " + slot.parameter);
+            }
+            values[i] = convert(value, slot);
+        }
+        return values;
+    }
+
+    private static Object convert(Object value, Slot slot) {
+        try {
+            switch (slot.type) {
+                case STRING:
+                    return value.toString();
+                case INTEGER:
+                    return value instanceof Number ? ((Number) value).intValue() : Integer.valueOf(value.toString().trim());
+                case LONG:
+                    return value instanceof Number ? ((Number) value).longValue() : Long.valueOf(value.toString().trim());
+                case DOUBLE:
+                    return value instanceof Number ? ((Number) value).doubleValue() : Double.valueOf(value.toString().trim());
+                case BOOLEAN:
+                    return value instanceof Boolean ? value : Boolean.valueOf(value.toString().trim());
+                case OBJECT_ID:
+                    if (value instanceof ObjectId) {
+                        return value;
+                    }
+                    if (!ObjectId.isValid(value.toString())) {
+                        throw new IllegalArgumentException("Invalid ObjectId for parameter " + slot.parameter + ": " + value);
+                    }
+                    return new ObjectId(value.toString());
+                default:
+                    return value;
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + slot.type + " value for parameter " + slot.parameter + ": " + value);
+        }
+    }
+
+    /**
+     * Replace each ${name} placeholder with a slot marker that parses as a string.
+     * Placeholders outside string literals become whole-value slots, placeholders
+     * inside string literals become interpolated text.
+     */
+    private static String markPlaceholders(String template, Map<String, String> variableTypes, List<Slot> slots) {
+        StringBuilder out = new StringBuilder(template.length() + 16);
+        Matcher objectIdMatcher = OBJECT_ID_PLACEHOLDER.matcher(template);
+        char quote = 0;
+        int i = 0;
+
+        while (i < template.length()) {
+            char c = template.charAt(i);
+
+            if (quote != 0) {
+                if (c == '\\' && i + 1 < template.length()) {
+                    out.append(c).append(template.charAt(i + 1));
+                    i += 2;
+                    continue;
+                }
+                if (c == quote) {
+                    quote = 0;
+                } else if (c == '$' && template.startsWith("${", i)) {
+                    int end = closingBrace(template, i);
+                    String parameter = template.substring(i + 2, end).trim();
+                    out.append(marker(addSlot(slots, parameter, ParameterType.STRING)));
+                    i = end + 1;
+                    continue;
+                }
+                out.append(c);
+                i++;
+                continue;
+            }
+
+            if (c == '\'' || c == '"') {
+                quote = c;
+                out.append(c);
+                i++;
+                continue;
+            }
+
+            if (c == 'O' && objectIdMatcher.region(i, template.length()).lookingAt()) {
+                String parameter = objectIdMatcher.group(2).trim();
+                out.append('\'').append(marker(addSlot(slots, parameter, ParameterType.OBJECT_ID))).append('\'');
+                i = objectIdMatcher.end();
+                continue;
+            }
+
+            if (c == '$' && template.startsWith("${", i)) {
+                int end = closingBrace(template, i);
+                String parameter = template.substring(i + 2, end).trim();
+                ParameterType type = ParameterType.fromDeclaration(
+                    variableTypes != null ? variableTypes.get(parameter) : null);
+                out.append('\'').append(marker(addSlot(slots, parameter, type))).append('\'');
+                i = end + 1;
+                continue;
+            }
+
+            out.append(c);
+            i++;
+        }
+
+        return out.toString();
+    }
+
+    private static int closingBrace(String template, int start) {
+        int end = template.indexOf('}', start);
+        if (end < 0) {
+            throw new IllegalArgumentException("Unterminated parameter placeholder at position " + start);
+        }
+        return end;
+    }
+
+    private static int addSlot(List<Slot> slots, String parameter, ParameterType type) {
+        slots.add(new Slot(parameter, type));
+        return slots.size() - 1;
+    }
+
+    private static String marker(int index) {
+        return SLOT_PREFIX + index + SLOT_SUFFIX;
+    }
+
+    private static void collectLookupCollections(Object value, Set<String> collections) {
+        if (value instanceof Document) {
+            Document document = (Document) value;
+            Object lookup = document.get("$lookup");
+            if (lookup instanceof Document && ((Document) lookup).get("from") instanceof String) {
+                collections.add(((Document) lookup).getString("from"));
+            }
+            document.values().forEach(child -> collectLookupCollections(child, collections));
+        } else if (value instanceof List) {
+            ((List<?>) value).forEach(child -> collectLookupCollections(child, collections));
+        }
+    }
+
+    private static Node toNode(Object value, List<Slot> slots) {
+        if (value instanceof Document) {
+            Map<String, Node> fields = new LinkedHashMap<>();
+            boolean constant = true;
+            for (Map.Entry<String, Object> entry : ((Document) value).entrySet()) {
+                Node child = toNode(entry.getValue(), slots);
+                constant &= child instanceof ConstantNode;
+                fields.put(entry.getKey(), child);
+            }
+            return constant ? new ConstantNode(value) : new DocumentNode(fields);
+        }
+
+        if (value instanceof List) {
+            List<Node> items = new ArrayList<>();
+            boolean constant = true;
+            for (Object item : (List<?>) value) {
+                Node child = toNode(item, slots);
+                constant &= child instanceof ConstantNode;
+                items.add(child);
+            }
+            return constant ? new ConstantNode(value) : new ListNode(items);
+        }
+
+        if (value instanceof BsonRegularExpression) {
+            BsonRegularExpression regex = (BsonRegularExpression) value;
+            Node pattern = toNode(regex.getPattern(), slots);
+            return pattern instanceof ConstantNode ? new ConstantNode(regex) : new RegexNode(pattern, regex.getOptions());
+        }
+
+        if (value instanceof String) {
+            String text = (String) value;
+            Matcher matcher = SLOT_MARKER.matcher(text);
+            if (!matcher.find()) {
+                return new ConstantNode(text);
+            }
+            if (matcher.start() == 0 && matcher.end() == text.length()) {
+                return new SlotNode(Integer.parseInt(matcher.group(1)));
+            }
+
+            List<String> literals = new ArrayList<>();
+            List<Integer> indexes = new ArrayList<>();
+            int last = 0;
+            do {
+                literals.add(text.substring(last, matcher.start()));
+                indexes.add(Integer.parseInt(matcher.group(1)));
+                last = matcher.end();
+            } while (matcher.find());
+            literals.add(text.substring(last));
+            return new InterpolatedNode(literals.toArray(new String[0]),
+                indexes.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        return new ConstantNode(value);
+    }
+
+    /**
+     * Parameter slot with its declared type
+     */
+    private static final class Slot {
+        final String parameter;
+        final ParameterType type;
+
+        Slot(String parameter, ParameterType type) {
+            this.parameter = parameter;
+            this.type = type;
+        }
+    }
+
+    private interface Node {
+        Object bind(Object[] values);
+    }
+
+    private static final class ConstantNode implements Node {
+        private final Object value;
+
+        ConstantNode(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object bind(Object[] values) {
+            return value;
+        }
+    }
+
+    private static final class SlotNode implements Node {
+        private final int index;
+
+        SlotNode(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public Object bind(Object[] values) {
+            return values[index];
+        }
+    }
+
+    private static final class InterpolatedNode implements Node {
+        private final String[] literals;
+        private final int[] indexes;
+
+        InterpolatedNode(String[] literals, int[] indexes) {
+            this.literals = literals;
+            this.indexes = indexes;
+        }
+
+        @Override
+        public Object bind(Object[] values) {
+            StringBuilder sb = new StringBuilder(literals[0]);
+            for (int i = 0; i < indexes.length; i++) {
+                sb.append(values[indexes[i]]).append(literals[i + 1]);
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final class RegexNode implements Node {
+        private final Node pattern;
+        private final String options;
+
+        RegexNode(Node pattern, String options) {
+            this.pattern = pattern;
+            this.options = options;
+        }
+
+        @Override
+        public Object bind(Object[] values) {
+            return new BsonRegularExpression(String.valueOf(pattern.bind(values)), options);
+        }
+    }
+
+    private static final class DocumentNode implements Node {
+        private final String[] keys;
+        private final Node[] children;
+
+        DocumentNode(Map<String, Node> fields) {
+            this.keys = fields.keySet().toArray(new String[0]);
+            this.children = fields.values().toArray(new Node[0]);
+        }
+
+        @Override
+        public Object bind(Object[] values) {
+            Document document = new Document();
+            for (int i = 0; i < keys.length; i++) {
+                document.put(keys[i], children[i].bind(values));
+            }
+            return document;
+        }
+    }
+
+    private static final class ListNode implements Node {
+        private final Node[] items;
+
+        ListNode(List<Node> items) {
+            this.items = items.toArray(new Node[0]);
+        }
+
+        @Override
+        public Object bind(Object[] values) {
+            List<Object> list = new ArrayList<>(items.length);
+            for (Node item : items) {
+                list.add(item.bind(values));
+            }
+            return list;
+        }
+    }
+}
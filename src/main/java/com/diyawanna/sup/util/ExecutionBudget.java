@@ -0,0 +1,108 @@
+package com.diyawanna.sup.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Execution limits of a dynamic or stored query
+ *
+ * Read from the query's "options" block (maxTimeMS, maxDocuments,
+ * maxConcurrency), falling back to the global defaults for any key the query
+ * does not declare. A value of 0 disables that limit.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class ExecutionBudget {
+
+    public static final String MAX_TIME_MS = "maxTimeMS";
+    public static final String MAX_DOCUMENTS = "maxDocuments";
+    public static final String MAX_CONCURRENCY = "maxConcurrency";
+
+    private final long maxTimeMs;
+    private final int maxDocuments;
+    private final int maxConcurrency;
+
+    public ExecutionBudget(long maxTimeMs, int maxDocuments, int maxConcurrency) {
+        if (maxTimeMs < 0 || maxDocuments < 0 || maxConcurrency < 0) {
+            throw new IllegalArgumentException("Execution budget limits must not be negative");
+        }
+        this.maxTimeMs = maxTimeMs;
+        this.maxDocuments = maxDocuments;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Resolve the budget declared in a query's options over the given defaults
+     */
+    public static ExecutionBudget from(Map<String, Object> options, ExecutionBudget defaults) {
+        if (options == null || options.isEmpty()) {
+            return defaults;
+        }
+        return new ExecutionBudget(
+            toLong(options.get(MAX_TIME_MS), MAX_TIME_MS, defaults.maxTimeMs),
+            (int) toLong(options.get(MAX_DOCUMENTS), MAX_DOCUMENTS, defaults.maxDocuments),
+            (int) toLong(options.get(MAX_CONCURRENCY), MAX_CONCURRENCY, defaults.maxConcurrency));
+    }
+
+    private static long toLong(Object value, String name, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        long result;
+        if (value instanceof Number) {
+            result = ((Number) value).longValue();
+        } else {
+            try {
+                result = Long.parseLong(value.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(name + " must be a number: " + value);
+            }
+        }
+        if (result < 0 || (!MAX_TIME_MS.equals(name) && result > Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException(name + " is out of range: " + value);
+        }
+        return result;
+    }
+
+    public long getMaxTimeMs() {
+        return maxTimeMs;
+    }
+
+    public int getMaxDocuments() {
+        return maxDocuments;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public boolean hasTimeLimit() {
+        return maxTimeMs > 0;
+    }
+
+    public boolean hasDocumentLimit() {
+        return maxDocuments > 0;
+    }
+
+    public boolean hasConcurrencyLimit() {
+        return maxConcurrency > 0;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put(MAX_TIME_MS, maxTimeMs);
+        map.put(MAX_DOCUMENTS, maxDocuments);
+        map.put(MAX_CONCURRENCY, maxConcurrency);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionBudget{" +
+                "maxTimeMs=" + maxTimeMs +
+                ", maxDocuments=" + maxDocuments +
+                ", maxConcurrency=" + maxConcurrency +
+                '}';
+    }
+}
@@ -0,0 +1,213 @@
+package com.diyawanna.sup.util;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Projection, sort, limit and keyset cursor applied to a find query
+ *
+ * The shape is pushed into the MongoDB query so only the requested fields of
+ * the requested page leave the server. A shape is paged when it carries a
+ * limit or an "after" cursor; paged queries fetch one extra document to
+ * decide whether a next cursor must be issued. The sort keys a cursor needs are
+ * projected only for those queries and removed from the page before it is returned.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class FindQueryShape {
+
+    private static final FindQueryShape NONE = new FindQueryShape(null, null, null, null);
+
+    private final List<String> fields;
+    private final String sort;
+    private final Integer limit;
+    private final String after;
+
+    private FindQueryShape(List<String> fields, String sort, Integer limit, String after) {
+        this.fields = fields != null ? Collections.unmodifiableList(new ArrayList<>(fields)) : Collections.emptyList();
+        this.sort = sort != null && !sort.isBlank() ? sort.trim() : null;
+        this.limit = limit;
+        this.after = after != null && !after.isBlank() ? after.trim() : null;
+    }
+
+    public static FindQueryShape of(List<String> fields, String sort, Integer limit, String after) {
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("limit must be greater than 0");
+        }
+        if (fields != null) {
+            fields.forEach(field -> KeysetCursor.requireFieldName(field == null ? "" : field.trim()));
+        }
+        FindQueryShape shape = new FindQueryShape(fields, sort, limit, after);
+        return shape.isEmpty() ? NONE : shape;
+    }
+
+    public static FindQueryShape none() {
+        return NONE;
+    }
+
+    /**
+     * Fill unset values from a stored query definition; values already set win
+     */
+    public FindQueryShape withDefaults(List<String> defaultFields, String defaultSort, Integer defaultLimit) {
+        return of(
+            fields.isEmpty() ? defaultFields : fields,
+            sort != null ? sort : defaultSort,
+            limit != null ? limit : defaultLimit,
+            after);
+    }
+
+    public boolean isEmpty() {
+        return fields.isEmpty() && sort == null && limit == null && after == null;
+    }
+
+    public boolean isPaged() {
+        return limit != null || after != null;
+    }
+
+    /**
+     * Build the MongoDB query for this shape
+     *
+     * @param filter        bound query filter
+     * @param maxLimit      upper bound for the page size; also the page size when only a cursor is given
+     * @param probeNextPage fetch one extra document so {@link #toPage} can tell whether more remain
+     */
+    public BasicQuery toQuery(Document filter, int maxLimit, boolean probeNextPage) {
+        LinkedHashMap<String, Integer> sortKeys = sort != null || isPaged() ? KeysetCursor.parseSort(sort) : null;
+
+        Document effectiveFilter = filter;
+        if (after != null) {
+            effectiveFilter = KeysetCursor.and(filter, KeysetCursor.condition(sortKeys, KeysetCursor.decode(after, sortKeys)));
+        }
+
+        BasicQuery query = new BasicQuery(effectiveFilter, projection(probeNextPage ? sortKeys : null));
+        if (sortKeys != null) {
+            query.setSortObject(KeysetCursor.toSortDocument(sortKeys));
+        }
+        if (isPaged()) {
+            int pageSize = pageSize(maxLimit);
+            query.limit(probeNextPage && pageSize < Integer.MAX_VALUE ? pageSize + 1 : pageSize);
+        }
+        return query;
+    }
+
+    /**
+     * Trim a probed result list to the page size and issue the next cursor if more remain
+     */
+    public KeysetPage<Document> toPage(List<Document> fetched, int maxLimit) {
+        int pageSize = pageSize(maxLimit);
+        LinkedHashMap<String, Integer> sortKeys = KeysetCursor.parseSort(sort);
+        List<String> cursorKeys = cursorOnlyKeys(sortKeys);
+        if (fetched.size() <= pageSize) {
+            fetched.forEach(document -> cursorKeys.forEach(key -> removePath(document, key)));
+            return new KeysetPage<>(fetched, null);
+        }
+        List<Document> page = new ArrayList<>(fetched.subList(0, pageSize));
+        String nextCursor = KeysetCursor.encode(sortKeys, page.get(pageSize - 1));
+        page.forEach(document -> cursorKeys.forEach(key -> removePath(document, key)));
+        return new KeysetPage<>(page, nextCursor);
+    }
+
+    /**
+     * Stable representation of this shape for cache keys
+     */
+    public Map<String, Object> toKey() {
+        Map<String, Object> key = new HashMap<>();
+        key.put("fields", fields);
+        key.put("sort", sort);
+        key.put("limit", limit);
+        key.put("after", after);
+        return key;
+    }
+
+    private int pageSize(int maxLimit) {
+        return limit != null ? Math.min(limit, maxLimit) : maxLimit;
+    }
+
+    /**
+     * Inclusion projection of the requested fields plus the sort keys a cursor needs
+     */
+    private Document projection(Map<String, Integer> sortKeys) {
+        Document projection = new Document();
+        if (fields.isEmpty()) {
+            return projection;
+        }
+        fields.forEach(field -> projection.append(field.trim(), 1));
+        cursorOnlyKeys(sortKeys).forEach(key -> projection.append(key, 1));
+        return projection;
+    }
+
+    /**
+     * Sort keys projected only so a cursor can be built; empty without a projection
+     */
+    private List<String> cursorOnlyKeys(Map<String, Integer> sortKeys) {
+        List<String> keys = new ArrayList<>();
+        if (fields.isEmpty() || sortKeys == null) {
+            return keys;
+        }
+        for (String key : sortKeys.keySet()) {
+            if (!"_id".equals(key) && !overlaps(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Remove a dotted path, dropping parents it leaves empty
+     */
+    private static void removePath(Object value, String path) {
+        if (value instanceof List) {
+            ((List<?>) value).forEach(element -> removePath(element, path));
+            return;
+        }
+        if (!(value instanceof Document)) {
+            return;
+        }
+        Document document = (Document) value;
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            document.remove(path);
+            return;
+        }
+        String head = path.substring(0, dot);
+        Object child = document.get(head);
+        removePath(child, path.substring(dot + 1));
+        if (child instanceof Document && ((Document) child).isEmpty()) {
+            document.remove(head);
+        }
+    }
+
+    private boolean overlaps(String key) {
+        for (String field : fields) {
+            String f = field.trim();
+            if (f.equals(key) || key.startsWith(f + ".") || f.startsWith(key + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+}
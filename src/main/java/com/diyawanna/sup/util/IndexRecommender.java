@@ -0,0 +1,271 @@
+package com.diyawanna.sup.util;
+
+import org.bson.BsonRegularExpression;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Explain-plan analysis and index proposals for query filters
+ *
+ * Proposals follow the equality, sort, range ordering: fields matched by
+ * equality come first, then the sort keys, then fields matched by range
+ * operators. Equality on a boolean literal (for example "active": true)
+ * becomes a partial filter expression instead of a key, so the index only
+ * holds the documents the query can return.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class IndexRecommender {
+
+    private static final Set<String> EQUALITY_OPERATORS = Set.of("$eq", "$in");
+
+    private IndexRecommender() {
+    }
+
+    /**
+     * Extract the index-relevant filter and sort of a pipeline: its leading $match stages and the $sort after them
+     */
+    public static Document[] filterAndSort(List<Document> stages) {
+        List<Document> matches = new ArrayList<>();
+        Document sort = null;
+        for (Document stage : stages) {
+            if (stage.containsKey("$match") && stage.get("$match") instanceof Document) {
+                matches.add((Document) stage.get("$match"));
+            } else {
+                if (stage.get("$sort") instanceof Document) {
+                    sort = (Document) stage.get("$sort");
+                }
+                break;
+            }
+        }
+        Document filter = matches.isEmpty() ? new Document()
+            : matches.size() == 1 ? matches.get(0) : new Document("$and", matches);
+        return new Document[]{filter, sort};
+    }
+
+    /**
+     * Propose an index for a filter and optional sort, or null if the query cannot use one
+     */
+    public static Proposal propose(Document filter, Document sort) {
+        Map<String, Object> equality = new LinkedHashMap<>();
+        Set<String> range = new LinkedHashSet<>();
+        collectFields(filter, equality, range);
+
+        LinkedHashMap<String, Integer> keys = new LinkedHashMap<>();
+        Document partialFilter = new Document();
+        equality.forEach((field, value) -> {
+            if (value instanceof Boolean) {
+                partialFilter.append(field, value);
+            } else {
+                keys.put(field, 1);
+            }
+        });
+        if (sort != null) {
+            sort.forEach((field, direction) -> keys.putIfAbsent(field,
+                direction instanceof Number && ((Number) direction).intValue() < 0 ? -1 : 1));
+        }
+        range.forEach(field -> keys.putIfAbsent(field, 1));
+
+        if (keys.isEmpty()) {
+            if (partialFilter.isEmpty()) {
+                return null;
+            }
+            // Only boolean flags to match on: index them directly
+            partialFilter.keySet().forEach(field -> keys.put(field, 1));
+            return new Proposal(keys, null);
+        }
+        return new Proposal(keys, partialFilter.isEmpty() ? null : partialFilter);
+    }
+
+    private static void collectFields(Document filter, Map<String, Object> equality, Set<String> range) {
+        if (filter == null) {
+            return;
+        }
+        for (Map.Entry<String, Object> entry : filter.entrySet()) {
+            String field = entry.getKey();
+            Object value = entry.getValue();
+            if ("$and".equals(field) && value instanceof List) {
+                for (Object child : (List<?>) value) {
+                    if (child instanceof Document) {
+                        collectFields((Document) child, equality, range);
+                    }
+                }
+            } else if (field.startsWith("$")) {
+                // $or, $expr, $text and friends need dedicated indexes; leave them to a human
+                continue;
+            } else if (value instanceof BsonRegularExpression || value instanceof Pattern) {
+                range.add(field);
+            } else if (value instanceof Document && isOperatorDocument((Document) value)) {
+                Document operators = (Document) value;
+                if (operators.keySet().stream().allMatch(EQUALITY_OPERATORS::contains)) {
+                    equality.putIfAbsent(field, operators.get("$eq"));
+                } else {
+                    range.add(field);
+                }
+            } else {
+                equality.putIfAbsent(field, value);
+            }
+        }
+        range.removeAll(equality.keySet());
+    }
+
+    private static boolean isOperatorDocument(Document value) {
+        return !value.isEmpty() && value.keySet().iterator().next().startsWith("$");
+    }
+
+    /**
+     * Summarize an explain result from find or aggregate, in any verbosity
+     */
+    public static PlanSummary summarize(Document explain) {
+        PlanSummary summary = new PlanSummary();
+        walk(explain, false, summary);
+        return summary;
+    }
+
+    private static void walk(Object node, boolean inWinningPlan, PlanSummary summary) {
+        if (node instanceof Document) {
+            Document document = (Document) node;
+            if (inWinningPlan) {
+                Object stage = document.get("stage");
+                if (stage instanceof String) {
+                    summary.stages.add((String) stage);
+                }
+                Object indexName = document.get("indexName");
+                if (indexName instanceof String) {
+                    summary.indexes.add((String) indexName);
+                }
+            }
+            if (summary.nReturned == null && document.containsKey("totalDocsExamined")) {
+                summary.nReturned = toLong(document.get("nReturned"));
+                summary.keysExamined = toLong(document.get("totalKeysExamined"));
+                summary.docsExamined = toLong(document.get("totalDocsExamined"));
+            }
+            for (Map.Entry<String, Object> entry : document.entrySet()) {
+                if ("rejectedPlans".equals(entry.getKey()) || "allPlansExecution".equals(entry.getKey())) {
+                    continue;
+                }
+                walk(entry.getValue(), inWinningPlan || "winningPlan".equals(entry.getKey()), summary);
+            }
+        } else if (node instanceof List) {
+            for (Object child : (List<?>) node) {
+                walk(child, inWinningPlan, summary);
+            }
+        }
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    /**
+     * Proposed index: ordered keys and an optional partial filter expression
+     */
+    public static final class Proposal {
+        private final LinkedHashMap<String, Integer> keys;
+        private final Document partialFilter;
+
+        Proposal(LinkedHashMap<String, Integer> keys, Document partialFilter) {
+            this.keys = keys;
+            this.partialFilter = partialFilter;
+        }
+
+        public Map<String, Integer> getKeys() {
+            return keys;
+        }
+
+        public Document getPartialFilter() {
+            return partialFilter;
+        }
+
+        /**
+         * True if an existing index starts with all of the proposed keys, in order
+         */
+        public boolean isCoveredBy(Document existingKeys) {
+            List<String> existing = new ArrayList<>(existingKeys.keySet());
+            List<String> proposed = new ArrayList<>(keys.keySet());
+            return existing.size() >= proposed.size() && existing.subList(0, proposed.size()).equals(proposed);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Proposal)) {
+                return false;
+            }
+            Proposal other = (Proposal) o;
+            return new ArrayList<>(keys.entrySet()).equals(new ArrayList<>(other.keys.entrySet()))
+                && Objects.equals(partialFilter, other.partialFilter);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(new ArrayList<>(keys.entrySet()), partialFilter);
+        }
+
+        @Override
+        public String toString() {
+            return "Proposal{" +
+                    "keys=" + keys +
+                    ", partialFilter=" + partialFilter +
+                    '}';
+        }
+    }
+
+    /**
+     * Stages, indexes and execution counters of a winning plan
+     */
+    public static final class PlanSummary {
+        private final List<String> stages = new ArrayList<>();
+        private final Set<String> indexes = new LinkedHashSet<>();
+        private Long nReturned;
+        private Long keysExamined;
+        private Long docsExamined;
+
+        public List<String> getStages() {
+            return stages;
+        }
+
+        public Set<String> getIndexes() {
+            return indexes;
+        }
+
+        public Long getNReturned() {
+            return nReturned;
+        }
+
+        public Long getKeysExamined() {
+            return keysExamined;
+        }
+
+        public Long getDocsExamined() {
+            return docsExamined;
+        }
+
+        public boolean hasCollectionScan() {
+            return stages.contains("COLLSCAN");
+        }
+
+        public boolean hasInMemorySort() {
+            return stages.contains("SORT");
+        }
+
+        /**
+         * Documents examined per document returned, or null without execution stats
+         */
+        public Double examinedRatio() {
+            if (docsExamined == null || nReturned == null) {
+                return null;
+            }
+            long examined = Math.max(docsExamined, keysExamined != null ? keysExamined : 0);
+            return (double) examined / Math.max(nReturned, 1);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.diyawanna.sup.util;
+
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonParseException;
+import org.bson.json.JsonWriterSettings;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opaque keyset (seek) pagination cursors
+ *
+ * A cursor records the sort specification and the sort-key values of the last
+ * document of a page. The next page is selected with a range condition on
+ * those values instead of skip, so every page costs the same index seek no
+ * matter how deep the client has paged. "_id" is always appended as the final
+ * sort key so the ordering is total.
+ *
+ * Sort specifications use the form "-createdAt,name" (a leading '-' means
+ * descending).
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class KeysetCursor {
+
+    private static final JsonWriterSettings CURSOR_SETTINGS =
+        JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Parse a sort specification into an ordered field-to-direction map ending with "_id"
+     */
+    public static LinkedHashMap<String, Integer> parseSort(String spec) {
+        LinkedHashMap<String, Integer> sort = new LinkedHashMap<>();
+        if (spec != null && !spec.isBlank()) {
+            for (String part : spec.split(",")) {
+                String field = part.trim();
+                int direction = 1;
+                if (field.startsWith("-")) {
+                    direction = -1;
+                    field = field.substring(1).trim();
+                } else if (field.startsWith("+")) {
+                    field = field.substring(1).trim();
+                }
+                requireFieldName(field);
+                if (sort.putIfAbsent(field, direction) != null) {
+                    throw new IllegalArgumentException("Duplicate sort field: " + field);
+                }
+            }
+        }
+        sort.putIfAbsent("_id", 1);
+        return sort;
+    }
+
+    /**
+     * Build the cursor pointing after the given document
+     */
+    public static String encode(Map<String, Integer> sort, Document last) {
+        List<Object> values = new ArrayList<>(sort.size());
+        for (String field : sort.keySet()) {
+            values.add(last.getEmbedded(Arrays.asList(field.split("\\.")), Object.class));
+        }
+        Document cursor = new Document("s", toSortDocument(sort)).append("v", values);
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(cursor.toJson(CURSOR_SETTINGS).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor into its sort-key values, in sort order
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort
+     */
+    public static List<Object> decode(String cursor, Map<String, Integer> sort) {
+        Document decoded;
+        try {
+            decoded = Document.parse(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | JsonParseException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor");
+        }
+
+        Object issuedSort = decoded.get("s");
+        Object values = decoded.get("v");
+        if (!toSortDocument(sort).equals(issuedSort)) {
+            throw new IllegalArgumentException("Pagination cursor does not match the requested sort");
+        }
+        if (!(values instanceof List) || ((List<?>) values).size() != sort.size()) {
+            throw new IllegalArgumentException("Invalid pagination cursor");
+        }
+        return Collections.unmodifiableList((List<?>) values);
+    }
+
+    /**
+     * Build the filter selecting documents strictly after the given sort-key values
+     *
+     * Null and missing values sort before every other value, so they need their own
+     * clauses: after a null, an ascending key continues with the non-null values and
+     * a descending key has nothing left but the tiebreak among nulls; after a non-null
+     * value, a descending key still has the nulls ahead.
+     */
+    public static Document condition(Map<String, Integer> sort, List<Object> values) {
+        List<String> fields = new ArrayList<>(sort.keySet());
+        List<Document> clauses = new ArrayList<>(fields.size() + 1);
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            Object value = values.get(i);
+            boolean ascending = sort.get(field) > 0;
+            if (value == null) {
+                if (ascending) {
+                    clauses.add(prefix(fields, values, i).append(field, new Document("$ne", null)));
+                }
+                continue;
+            }
+            clauses.add(prefix(fields, values, i).append(field, new Document(ascending ? "$gt" : "$lt", value)));
+            if (!ascending) {
+                clauses.add(prefix(fields, values, i).append(field, null));
+            }
+        }
+        return clauses.size() == 1 ? clauses.get(0) : new Document("$or", clauses);
+    }
+
+    /**
+     * Equality on the sort keys before position i
+     */
+    private static Document prefix(List<String> fields, List<Object> values, int i) {
+        Document clause = new Document();
+        for (int j = 0; j < i; j++) {
+            clause.append(fields.get(j), values.get(j));
+        }
+        return clause;
+    }
+
+    /**
+     * Combine a query filter with a keyset condition
+     */
+    public static Document and(Document filter, Document condition) {
+        if (filter == null || filter.isEmpty()) {
+            return condition;
+        }
+        return new Document("$and", Arrays.asList(filter, condition));
+    }
+
+    static void requireFieldName(String field) {
+        if (field.isEmpty() || field.startsWith("$") || field.contains("..")) {
+            throw new IllegalArgumentException("Invalid field name: '" + field + "'");
+        }
+    }
+
+    /**
+     * Sort specification as a Document, for use as a query sort object
+     */
+    public static Document toSortDocument(Map<String, Integer> sort) {
+        return new Document(new LinkedHashMap<String, Object>(sort));
+    }
+}
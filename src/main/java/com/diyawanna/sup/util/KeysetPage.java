@@ -0,0 +1,43 @@
+package com.diyawanna.sup.util;
+
+import java.util.List;
+
+/**
+ * One page of keyset-paginated results
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public class KeysetPage<T> {
+
+    private final List<T> results;
+    private final String nextCursor;
+
+    public KeysetPage(List<T> results, String nextCursor) {
+        this.results = results;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getResults() {
+        return results;
+    }
+
+    /**
+     * Cursor for the following page, or null on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetPage{" +
+                "results=" + (results != null ? results.size() : 0) +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,169 @@
+package com.diyawanna.sup.util;
+
+import org.bson.types.ObjectId;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Approximate retained heap size of cached keys and values
+ *
+ * Used as the cache weigher, so it favours speed over precision: strings,
+ * boxed values, dates, collections, maps and arrays are sized from their
+ * contents, and application objects by walking their instance fields.
+ * Shared references are counted once and the walk stops at a fixed depth.
+ * JDK types without a dedicated rule count as a small fixed size, because
+ * their internals cannot be reflected on.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class ObjectSizeEstimator {
+
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 8;
+    private static final int ENTRY_OVERHEAD = 32;
+    private static final int MAX_DEPTH = 12;
+
+    private static final ClassValue<List<Field>> INSTANCE_FIELDS = new ClassValue<>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    try {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    } catch (RuntimeException e) {
+                        // Inaccessible field; counted as a reference only
+                    }
+                }
+            }
+            return Collections.unmodifiableList(fields);
+        }
+    };
+
+    private ObjectSizeEstimator() {
+    }
+
+    /**
+     * Estimated size in bytes of a cache entry
+     */
+    public static long estimate(Object key, Object value) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        return ENTRY_OVERHEAD + sizeOf(key, visited, 0) + sizeOf(value, visited, 0);
+    }
+
+    /**
+     * Estimated size in bytes of an object graph
+     */
+    public static long estimate(Object value) {
+        return sizeOf(value, Collections.newSetFromMap(new IdentityHashMap<>()), 0);
+    }
+
+    private static long sizeOf(Object value, Set<Object> visited, int depth) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            // Compact strings: one byte per Latin-1 character plus the backing array
+            return visited.add(value) ? OBJECT_HEADER + 8 + OBJECT_HEADER + ((String) value).length() : REFERENCE;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum) {
+            return OBJECT_HEADER + 8;
+        }
+        if (value instanceof Date || value instanceof Temporal || value instanceof ObjectId
+                || value instanceof UUID) {
+            return OBJECT_HEADER + 16;
+        }
+        if (depth >= MAX_DEPTH || !visited.add(value)) {
+            return REFERENCE;
+        }
+
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            Class<?> component = type.getComponentType();
+            int length = Array.getLength(value);
+            if (component.isPrimitive()) {
+                return OBJECT_HEADER + (long) length * primitiveSize(component);
+            }
+            long size = OBJECT_HEADER + (long) length * REFERENCE;
+            for (int i = 0; i < length; i++) {
+                size += sizeOf(Array.get(value, i), visited, depth + 1);
+            }
+            return size;
+        }
+        if (value instanceof Map) {
+            long size = OBJECT_HEADER + 32;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += ENTRY_OVERHEAD + sizeOf(entry.getKey(), visited, depth + 1)
+                    + sizeOf(entry.getValue(), visited, depth + 1);
+            }
+            return size;
+        }
+        if (value instanceof Collection) {
+            long size = OBJECT_HEADER + 32;
+            for (Object item : (Collection<?>) value) {
+                size += REFERENCE + sizeOf(item, visited, depth + 1);
+            }
+            return size;
+        }
+        if (value instanceof Optional) {
+            return OBJECT_HEADER + sizeOf(((Optional<?>) value).orElse(null), visited, depth + 1);
+        }
+        if (isPlatformType(type)) {
+            return OBJECT_HEADER + 16;
+        }
+
+        long size = OBJECT_HEADER;
+        for (Field field : INSTANCE_FIELDS.get(type)) {
+            Class<?> fieldType = field.getType();
+            if (fieldType.isPrimitive()) {
+                size += primitiveSize(fieldType);
+                continue;
+            }
+            size += REFERENCE;
+            try {
+                size += sizeOf(field.get(value), visited, depth + 1);
+            } catch (IllegalAccessException e) {
+                // Counted as a reference only
+            }
+        }
+        return size;
+    }
+
+    private static boolean isPlatformType(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.")
+            || name.startsWith("sun.") || name.startsWith("com.sun.");
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+}
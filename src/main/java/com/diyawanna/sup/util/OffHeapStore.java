@@ -0,0 +1,215 @@
+package com.diyawanna.sup.util;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded byte store in direct (off-heap) memory with LRU eviction
+ *
+ * The capacity is allocated up front as direct buffers and split into
+ * fixed-size blocks. A value occupies as many blocks as it needs, so
+ * storing and freeing never fragments memory or allocates new buffers.
+ * Only the key and a small block index per entry live on the heap.
+ *
+ * Entries carry an optional expiry and are evicted least recently used
+ * first when the free blocks do not fit a new value. All operations are
+ * synchronized; they copy bytes in and out of the buffers and do no
+ * serialization themselves.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class OffHeapStore {
+
+    private static final int MAX_SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    private final int blockSize;
+    private final int blocksPerSegment;
+    private final ByteBuffer[] segments;
+    private final int[] freeBlocks;
+    private int freeCount;
+
+    // Access order, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long storedBytes;
+
+    private long puts;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long rejected;
+
+    /**
+     * @param capacityBytes off-heap memory to allocate, rounded down to whole blocks
+     * @param blockSize     allocation unit in bytes, e.g. 4096
+     */
+    public OffHeapStore(long capacityBytes, int blockSize) {
+        if (blockSize <= 0 || capacityBytes < blockSize) {
+            throw new IllegalArgumentException("Off-heap capacity must hold at least one block of " + blockSize + " bytes");
+        }
+        long blocks = capacityBytes / blockSize;
+        if (blocks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Off-heap capacity too large for block size " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.blocksPerSegment = Math.max(1, MAX_SEGMENT_BYTES / blockSize);
+
+        int segmentCount = (int) ((blocks + blocksPerSegment - 1) / blocksPerSegment);
+        this.segments = new ByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long segmentBlocks = Math.min(blocksPerSegment, blocks - (long) i * blocksPerSegment);
+            segments[i] = ByteBuffer.allocateDirect((int) segmentBlocks * blockSize);
+        }
+
+        this.freeBlocks = new int[(int) blocks];
+        for (int i = 0; i < freeBlocks.length; i++) {
+            freeBlocks[i] = freeBlocks.length - 1 - i;
+        }
+        this.freeCount = freeBlocks.length;
+    }
+
+    /**
+     * Store a value, evicting least recently used entries to make room
+     *
+     * @param expiresAtNanos System.nanoTime() after which the entry is dropped, or 0 for no expiry
+     * @return false if the value is larger than the whole store
+     */
+    public synchronized boolean put(Object key, byte[] value, long expiresAtNanos) {
+        int needed = Math.max(1, (value.length + blockSize - 1) / blockSize);
+        if (needed > freeBlocks.length) {
+            rejected++;
+            return false;
+        }
+
+        release(entries.remove(key));
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (freeCount < needed && eldest.hasNext()) {
+            Entry victim = eldest.next();
+            eldest.remove();
+            release(victim);
+            if (victim.isExpired(System.nanoTime())) {
+                expirations++;
+            } else {
+                evictions++;
+            }
+        }
+
+        int[] blocks = new int[needed];
+        for (int i = 0; i < needed; i++) {
+            blocks[i] = freeBlocks[--freeCount];
+            int offset = i * blockSize;
+            write(blocks[i], value, offset, Math.min(blockSize, value.length - offset));
+        }
+        entries.put(key, new Entry(blocks, value.length, expiresAtNanos));
+        storedBytes += value.length;
+        puts++;
+        return true;
+    }
+
+    /**
+     * Remove and return a value, or null if it is absent or expired
+     */
+    public synchronized byte[] take(Object key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            release(entry);
+            expirations++;
+            misses++;
+            return null;
+        }
+
+        byte[] value = new byte[entry.length];
+        for (int i = 0; i < entry.blocks.length; i++) {
+            int offset = i * blockSize;
+            read(entry.blocks[i], value, offset, Math.min(blockSize, entry.length - offset));
+        }
+        release(entry);
+        hits++;
+        return value;
+    }
+
+    /**
+     * Whether an unexpired value is stored, without counting a hit or miss
+     */
+    public synchronized boolean contains(Object key) {
+        Entry entry = entries.get(key);
+        return entry != null && !entry.isExpired(System.nanoTime());
+    }
+
+    public synchronized void remove(Object key) {
+        release(entries.remove(key));
+    }
+
+    public synchronized void clear() {
+        entries.values().forEach(this::release);
+        entries.clear();
+    }
+
+    private void release(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        for (int block : entry.blocks) {
+            freeBlocks[freeCount++] = block;
+        }
+        storedBytes -= entry.length;
+    }
+
+    private void write(int block, byte[] source, int offset, int length) {
+        ByteBuffer segment = segments[block / blocksPerSegment];
+        segment.position((block % blocksPerSegment) * blockSize);
+        segment.put(source, offset, length);
+    }
+
+    private void read(int block, byte[] target, int offset, int length) {
+        ByteBuffer segment = segments[block / blocksPerSegment];
+        segment.position((block % blocksPerSegment) * blockSize);
+        segment.get(target, offset, length);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Capacity, usage and hit, eviction and rejection counters
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacityBytes", (long) freeBlocks.length * blockSize);
+        stats.put("blockSize", blockSize);
+        stats.put("usedBytes", (long) (freeBlocks.length - freeCount) * blockSize);
+        stats.put("storedBytes", storedBytes);
+        stats.put("entryCount", entries.size());
+        stats.put("puts", puts);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        stats.put("expirations", expirations);
+        stats.put("rejected", rejected);
+        return stats;
+    }
+
+    private static final class Entry {
+        final int[] blocks;
+        final int length;
+        final long expiresAtNanos;
+
+        Entry(int[] blocks, int length, long expiresAtNanos) {
+            this.blocks = blocks;
+            this.length = length;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAtNanos != 0 && now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.diyawanna.sup.util;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Serializes cache values to bytes for the off-heap tier and back
+ *
+ * Supports single objects and lists whose elements all share one class,
+ * for classes accepted by the given predicate (the entities). Other values,
+ * e.g. encoded responses or query result documents, are not encoded and
+ * stay on the heap only. The encoded form is a small header naming the
+ * class, followed by the object's JSON.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class OffHeapValueCodec {
+
+    private static final byte SINGLE = 0;
+    private static final byte LIST = 1;
+
+    private final ObjectMapper objectMapper;
+    private final Predicate<Class<?>> supportedTypes;
+
+    public OffHeapValueCodec(Predicate<Class<?>> supportedTypes) {
+        this.supportedTypes = supportedTypes;
+        this.objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * @return the encoded value, or null if the value is not supported
+     */
+    public byte[] encode(Object value) throws IOException {
+        byte kind;
+        Class<?> type;
+        if (value instanceof List) {
+            kind = LIST;
+            type = elementType((List<?>) value);
+            if (type == null) {
+                return null;
+            }
+        } else {
+            kind = SINGLE;
+            type = value.getClass();
+        }
+        boolean emptyList = kind == LIST && type == Object.class;
+        if (!emptyList && !supportedTypes.test(type)) {
+            return null;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(kind);
+        out.writeUTF(type.getName());
+        out.flush();
+        objectMapper.writeValue(bytes, value);
+        return bytes.toByteArray();
+    }
+
+    public Object decode(byte[] bytes) throws IOException {
+        ByteArrayInputStream source = new ByteArrayInputStream(bytes);
+        DataInputStream in = new DataInputStream(source);
+        byte kind = in.readByte();
+        Class<?> type;
+        try {
+            type = Class.forName(in.readUTF(), false, getClass().getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unknown off-heap value type", e);
+        }
+        if (kind == LIST) {
+            if (type == Object.class) {
+                return new ArrayList<>();
+            }
+            return objectMapper.readValue(source, objectMapper.getTypeFactory().constructCollectionType(ArrayList.class, type));
+        }
+        return objectMapper.readValue(source, type);
+    }
+
+    /**
+     * The common class of all elements, Object for an empty list, or null for mixed or null elements
+     */
+    private static Class<?> elementType(List<?> list) {
+        if (list.isEmpty()) {
+            return Object.class;
+        }
+        Class<?> type = null;
+        for (Object element : list) {
+            if (element == null || (type != null && element.getClass() != type)) {
+                return null;
+            }
+            type = element.getClass();
+        }
+        return type;
+    }
+}
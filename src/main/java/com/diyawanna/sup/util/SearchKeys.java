@@ -0,0 +1,84 @@
+package com.diyawanna.sup.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized search keys derived from a display name
+ *
+ * A name is folded to lowercase with accents removed and split into tokens
+ * of letters and digits, so "Computer-Science" yields "computer" and
+ * "science". The tokens are stored next to the name on write; a search folds
+ * its input the same way and matches each input token as an anchored prefix
+ * of a stored token, which an index on the token array answers with range seeks.
+ *
+ * Tokens never contain regex metacharacters, so prefix patterns built from
+ * them need no escaping.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class SearchKeys {
+
+    /**
+     * Document field holding the distinct tokens of the folded name
+     */
+    public static final String TOKENS_FIELD = "searchTokens";
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchKeys() {}
+
+    /**
+     * Distinct tokens of the folded text, in order of first occurrence
+     */
+    public static List<String> tokens(String text) {
+        return new ArrayList<>(new LinkedHashSet<>(words(text)));
+    }
+
+    /**
+     * Anchored prefix pattern for one token
+     */
+    public static Pattern prefixPattern(String token) {
+        return Pattern.compile("^" + token);
+    }
+
+    /**
+     * Tokens of a search input, dropping any that is a prefix of another
+     * since the longer token already implies it
+     */
+    public static List<String> queryTokens(String text) {
+        List<String> tokens = tokens(text);
+        Set<String> implied = new LinkedHashSet<>();
+        for (String token : tokens) {
+            for (String other : tokens) {
+                if (!other.equals(token) && other.startsWith(token)) {
+                    implied.add(token);
+                }
+            }
+        }
+        tokens.removeAll(implied);
+        return tokens;
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        for (String word : SEPARATORS.split(folded)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,98 @@
+package com.diyawanna.sup.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces concurrent loads of the same key into one execution
+ *
+ * The first caller for a key runs the loader; callers arriving while it is
+ * in flight wait for and share its result or exception instead of running
+ * the loader again. Nothing is remembered once the load completes, so this
+ * deduplicates concurrent work only; storing the result is left to the cache.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Run the loader for the key, or wait for the load already in flight for it
+     *
+     * @throws Exception the exception thrown by the loader, rethrown to every waiting caller
+     */
+    public V execute(K key, Callable<V> loader) throws Exception {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            V value = loader.call();
+            flight.complete(value);
+            return value;
+        } catch (Throwable t) {
+            flight.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) throws Exception {
+        try {
+            return flight.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Loads that ran the loader
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * Callers that shared another caller's load instead of running their own
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Keys currently being loaded
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("executions", getExecutions());
+        map.put("coalesced", getCoalesced());
+        map.put("inFlight", getInFlight());
+        return map;
+    }
+}
@@ -0,0 +1,249 @@
+package com.diyawanna.sup.config;
+
+import com.diyawanna.sup.entity.User;
+import com.diyawanna.sup.util.CacheStatistics;
+import com.diyawanna.sup.util.OffHeapStore;
+import com.diyawanna.sup.util.OffHeapValueCodec;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InstrumentedCacheManager
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+class InstrumentedCacheManagerTest {
+
+    private InstrumentedCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new InstrumentedCacheManager(name -> Caffeine.newBuilder()
+            .executor(Runnable::run)
+            .maximumWeight(1_000)
+            .weigher((key, value) -> 100));
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerRegion("users");
+    }
+
+    @Test
+    void lookupAndPut_ShouldRecordHitsMissesPutsAndLoadTime() {
+        // Given
+        Cache cache = cacheManager.getCache("users");
+
+        // When
+        assertNull(cache.get("user1"));
+        cache.put("user1", "John");
+        assertNotNull(cache.get("user1"));
+        assertNotNull(cache.get("user1"));
+
+        // Then
+        CacheStatistics statistics = cacheManager.getStatistics().get("users");
+        assertEquals(2, statistics.getHits());
+        assertEquals(1, statistics.getMisses());
+        assertEquals(1, statistics.getPuts());
+        assertEquals(1, statistics.getLoads());
+        assertEquals(1, Arrays.stream(statistics.getLoadTimeHistogram()).sum());
+        assertEquals(2.0 / 3, statistics.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    void getWithLoader_ShouldLoadOnceThenServeHitsAndRecordLoad() {
+        // Given
+        Cache cache = cacheManager.getCache("users");
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        String first = cache.get("all_active", () -> "active-" + calls.incrementAndGet());
+        String second = cache.get("all_active", () -> "active-" + calls.incrementAndGet());
+
+        // Then
+        assertEquals("active-1", first);
+        assertEquals("active-1", second);
+        CacheStatistics statistics = cacheManager.getStatistics().get("users");
+        assertEquals(1, statistics.getHits());
+        assertEquals(1, statistics.getMisses());
+        assertEquals(1, statistics.getLoads());
+        assertEquals(1, statistics.getPuts());
+    }
+
+    @Test
+    void getWithLoader_WhenWriteThroughLandsDuringLoad_ShouldKeepWrittenValue() {
+        // Given
+        Cache cache = cacheManager.getCache("users");
+
+        // When: the entity is saved and written through while the slow read is in flight
+        String loaded = cache.get("user1", () -> {
+            cache.put("user1", "John v2");
+            return "John v1";
+        });
+
+        // Then
+        assertEquals("John v1", loaded);
+        assertEquals("John v2", cache.get("user1", String.class));
+    }
+
+    @Test
+    void getWithLoader_WhenKeyEvictedDuringLoad_ShouldNotCacheLoadedValue() {
+        // Given
+        Cache cache = cacheManager.getCache("users");
+
+        // When
+        cache.get("user1", () -> {
+            cache.evict("user1");
+            return "John v1";
+        });
+
+        // Then
+        assertNull(cache.get("user1"));
+    }
+
+    @Test
+    void getWithLoader_WhenLoaderFails_ShouldWrapExceptionAndCacheNothing() {
+        // Given
+        Cache cache = cacheManager.getCache("users");
+
+        // When
+        Cache.ValueRetrievalException error = assertThrows(Cache.ValueRetrievalException.class,
+            () -> cache.get("user1", () -> {
+                throw new IllegalStateException("not found");
+            }));
+
+        // Then
+        assertTrue(error.getCause() instanceof IllegalStateException);
+        assertNull(cache.get("user1"));
+        assertEquals(1, cacheManager.getStatistics().get("users").getLoadFailures());
+    }
+
+    @Test
+    void getWithLoader_NearExpiry_ShouldServeCurrentValueAndRefreshInBackground() {
+        // Given
+        AtomicLong nanos = new AtomicLong();
+        InstrumentedCacheManager refreshingManager = new InstrumentedCacheManager(name -> Caffeine.newBuilder()
+            .executor(Runnable::run)
+            .ticker(nanos::get)
+            .expireAfterWrite(Duration.ofSeconds(100)));
+        refreshingManager.setRefreshAhead(0.2, Runnable::run);
+        refreshingManager.registerRegion("faculties");
+        Cache cache = refreshingManager.getCache("faculties");
+        AtomicInteger calls = new AtomicInteger();
+        cache.get("all_active", () -> "v" + calls.incrementAndGet());
+
+        // When
+        nanos.set(TimeUnit.SECONDS.toNanos(50));
+        String early = cache.get("all_active", () -> "v" + calls.incrementAndGet());
+        nanos.set(TimeUnit.SECONDS.toNanos(90));
+        String nearExpiry = cache.get("all_active", () -> "v" + calls.incrementAndGet());
+
+        // Then
+        assertEquals("v1", early);
+        assertEquals("v1", nearExpiry);
+        assertEquals("v2", cache.get("all_active").get());
+        CacheStatistics statistics = refreshingManager.getStatistics().get("faculties");
+        assertEquals(1, statistics.getRefreshes());
+        assertEquals(0, statistics.getRefreshFailures());
+    }
+
+    @Test
+    void getWithLoader_WhenRefreshFails_ShouldKeepCurrentValue() {
+        // Given
+        AtomicLong nanos = new AtomicLong();
+        InstrumentedCacheManager refreshingManager = new InstrumentedCacheManager(name -> Caffeine.newBuilder()
+            .executor(Runnable::run)
+            .ticker(nanos::get)
+            .expireAfterWrite(Duration.ofSeconds(100)));
+        refreshingManager.setRefreshAhead(0.2, Runnable::run);
+        refreshingManager.registerRegion("faculties");
+        Cache cache = refreshingManager.getCache("faculties");
+        cache.get("all_active", () -> "v1");
+
+        // When
+        nanos.set(TimeUnit.SECONDS.toNanos(90));
+        String value = cache.get("all_active", () -> {
+            throw new IllegalStateException("connection refused");
+        });
+
+        // Then
+        assertEquals("v1", value);
+        assertEquals("v1", cache.get("all_active").get());
+        assertEquals(1, refreshingManager.getStatistics().get("faculties").getRefreshFailures());
+    }
+
+    @Test
+    void put_BeyondMaximumWeight_ShouldEvictAndReportSize() {
+        // Given
+        InstrumentedCacheManager.InstrumentedCache cache =
+            (InstrumentedCacheManager.InstrumentedCache) cacheManager.getCache("users");
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            cache.put("user" + i, "value" + i);
+        }
+        cache.getNativeCache().cleanUp();
+        Map<String, Object> snapshot = cache.getStatisticsSnapshot();
+
+        // Then
+        assertTrue(cache.getStatistics().getEvictions() >= 40);
+        assertTrue((Long) snapshot.get("estimatedBytes") <= 1_000);
+        assertEquals(50L, snapshot.get("puts"));
+    }
+
+    @Test
+    void get_AfterSizeEviction_ShouldReadBackFromOffHeapTierUntilEvicted() {
+        // Given: lists outweigh the whole region, so they are evicted as soon as they are stored
+        InstrumentedCacheManager offHeapManager = new InstrumentedCacheManager(name -> Caffeine.newBuilder()
+            .executor(Runnable::run)
+            .maximumWeight(300)
+            .weigher((key, value) -> value instanceof List ? 1_000 : 100));
+        offHeapManager.setAllowNullValues(false);
+        offHeapManager.setOffHeapTier(name -> new OffHeapStore(64 * 1024, 512),
+            new OffHeapValueCodec(type -> type == User.class));
+        offHeapManager.registerRegion("users");
+        InstrumentedCacheManager.InstrumentedCache cache =
+            (InstrumentedCacheManager.InstrumentedCache) offHeapManager.getCache("users");
+        User john = new User("John Doe", "johndoe", "secret");
+        john.setId("user1");
+
+        // When
+        cache.put("all_active", List.of(john));
+        cache.getNativeCache().cleanUp();
+        Object onHeap = cache.getNativeCache().getIfPresent("all_active");
+        List<?> readBack = cache.get("all_active", () -> List.of());
+
+        // Then
+        assertNull(onHeap);
+        assertEquals(1, readBack.size());
+        assertEquals("johndoe", ((User) readBack.get(0)).getUsername());
+        assertEquals("secret", ((User) readBack.get(0)).getPassword());
+        Map<?, ?> offHeap = (Map<?, ?>) cache.getStatisticsSnapshot().get("offHeap");
+        assertEquals(1L, offHeap.get("promotions"));
+
+        cache.evict("all_active");
+        assertNull(cache.get("all_active"));
+    }
+
+    @Test
+    void getCache_WithUnknownName_ShouldCreateInstrumentedRegion() {
+        // When
+        Cache cache = cacheManager.getCache("reports");
+
+        // Then
+        assertTrue(cache instanceof InstrumentedCacheManager.InstrumentedCache);
+        assertTrue(cacheManager.getStatistics().containsKey("reports"));
+    }
+}
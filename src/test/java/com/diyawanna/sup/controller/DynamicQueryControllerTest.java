@@ -0,0 +1,122 @@
+package com.diyawanna.sup.controller;
+
+import com.diyawanna.sup.dto.QueryExecutionRequest;
+import com.diyawanna.sup.exception.QueryBudgetExceededException;
+import com.diyawanna.sup.service.DynamicQueryBatchService;
+import com.diyawanna.sup.service.DynamicQueryService;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the NDJSON streaming of DynamicQueryController
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class DynamicQueryControllerTest {
+
+    @Mock
+    private DynamicQueryService dynamicQueryService;
+
+    @Mock
+    private DynamicQueryBatchService dynamicQueryBatchService;
+
+    @Mock
+    private CloseableIterator<Document> cursor;
+
+    @InjectMocks
+    private DynamicQueryController dynamicQueryController;
+
+    private ServletWebRequest webRequest;
+    private QueryExecutionRequest request;
+
+    @BeforeEach
+    void setUp() {
+        webRequest = new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+        request = new QueryExecutionRequest("user.findActive", Map.of());
+        request.setStream(true);
+        when(dynamicQueryService.validateParameters(eq("user.findActive"), anyMap())).thenReturn(true);
+    }
+
+    @Test
+    void executeDynamicQuery_WhenCursorFailsMidStream_ShouldWriteErrorLineAndCloseCursor() throws Exception {
+        // Given
+        when(dynamicQueryService.streamDynamicQuery(eq("user.findActive"), anyMap(), any())).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true).thenThrow(new IllegalStateException("cursor killed"));
+        when(cursor.next()).thenReturn(new Document("name", "John Doe"));
+
+        // When
+        ResponseEntity<?> response = dynamicQueryController.executeDynamicQuery(request, null, webRequest);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(output);
+
+        // Then
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("John Doe"));
+        assertTrue(lines[1].contains("cursor killed"));
+        verify(cursor).close();
+    }
+
+    @Test
+    void executeDynamicQuery_WhenStreamNeverRuns_ShouldCloseCursorOnCompletion() throws Exception {
+        // Given
+        when(dynamicQueryService.streamDynamicQuery(eq("user.findActive"), anyMap(), any())).thenReturn(cursor);
+
+        // When: the request completes (timeout, error or rejection) without running the body
+        dynamicQueryController.executeDynamicQuery(request, null, webRequest);
+        CallableProcessingInterceptor interceptor = WebAsyncUtils.getAsyncManager(webRequest)
+            .getCallableInterceptor(DynamicQueryController.STREAM_CURSOR_KEY);
+        interceptor.afterCompletion(webRequest, null);
+
+        // Then
+        verify(cursor).close();
+        verify(cursor, never()).hasNext();
+    }
+
+    @Test
+    void executeDynamicQuery_WhenBulkheadFullForNdjsonClient_ShouldReturnNdjsonError() {
+        // Given
+        request.setStream(false);
+        when(dynamicQueryService.streamDynamicQuery(eq("user.findActive"), anyMap(), any()))
+            .thenThrow(new QueryBudgetExceededException(QueryBudgetExceededException.Limit.MAX_CONCURRENCY, "busy"));
+
+        // When
+        ResponseEntity<?> response = dynamicQueryController.executeDynamicQuery(request,
+            MediaType.APPLICATION_NDJSON_VALUE, webRequest);
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String body = (String) response.getBody();
+        assertTrue(body.endsWith("\n"));
+        assertEquals("busy", Document.parse(body.trim()).getString("message"));
+    }
+}
@@ -0,0 +1,157 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.dto.BulkWriteResponse;
+import com.diyawanna.sup.entity.User;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.validation.Validator;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BulkWriteService
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkWriteServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Mock
+    private QueryResultCacheService queryResultCacheService;
+
+    @Mock
+    private ExistenceFilterService existenceFilterService;
+
+    @Mock
+    private Validator validator;
+
+    @InjectMocks
+    private BulkWriteService bulkWriteService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkWriteService, "chunkSize", 1000);
+        ReflectionTestUtils.setField(bulkWriteService, "maxItems", 50000);
+        ReflectionTestUtils.setField(bulkWriteService, "prepareThreads", 2);
+        ReflectionTestUtils.setField(bulkWriteService, "prepareQueueCapacity", 4);
+        bulkWriteService.init();
+        lenient().when(mongoTemplate.getConverter())
+            .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)).thenReturn(bulkOperations);
+        lenient().when(mongoTemplate.getCollectionName(User.class)).thenReturn("user");
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkWriteService.shutdown();
+    }
+
+    @Test
+    void create_WithDuplicateKey_ShouldReportItemAndInvalidateOnce() {
+        // Given
+        List<User> users = List.of(new User("John Doe", "johndoe", "secret"), new User("Jane Doe", "janedoe", "secret"));
+        when(validator.validate(any())).thenReturn(Collections.emptySet());
+        BulkWriteError duplicate = new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1);
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("Bulk write failed",
+            new MongoBulkWriteException(BulkWriteResult.unacknowledged(), List.of(duplicate), null, new ServerAddress())));
+
+        // When
+        BulkWriteResponse response = bulkWriteService.create(User.class, users, user -> user.setActive(true));
+
+        // Then
+        assertEquals(1, response.getSucceeded());
+        assertEquals(BulkWriteResponse.CREATED, response.getItems().get(0).getStatus());
+        assertNotNull(response.getItems().get(0).getId());
+        assertEquals(BulkWriteResponse.DUPLICATE, response.getItems().get(1).getStatus());
+        verify(bulkOperations, times(2)).insert(any(Object.class));
+        verify(existenceFilterService).recordSaved(eq("user"), any());
+        verify(cacheInvalidationService).evictBatch(User.class, Set.of());
+        verify(queryResultCacheService).invalidateCollection("user");
+    }
+
+    @Test
+    void create_ShouldPrepareItemsOnDedicatedPool() {
+        // Given
+        List<User> users = List.of(new User("John Doe", "johndoe", "secret"), new User("Jane Doe", "janedoe", "secret"));
+        when(validator.validate(any())).thenReturn(Collections.emptySet());
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.unacknowledged());
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        // When
+        bulkWriteService.create(User.class, users, user -> threads.add(Thread.currentThread().getName()));
+
+        // Then
+        assertFalse(threads.isEmpty());
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("bulk-prepare-")));
+    }
+
+    @Test
+    void softDelete_WithUnknownId_ShouldReportNotFoundAndEvictKnownKeys() {
+        // Given
+        User user = new User("John Doe", "johndoe", "secret");
+        user.setId("5f1d7f0e8b3e4a2d9c0b1a2f");
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(List.of(user));
+        when(cacheInvalidationService.keysOf(user)).thenReturn(Set.of(user.getId(), "username_johndoe"));
+
+        // When
+        BulkWriteResponse response = bulkWriteService.softDelete(User.class,
+            List.of(user.getId(), "5f1d7f0e8b3e4a2d9c0b1a30"));
+
+        // Then
+        assertEquals(BulkWriteResponse.DELETED, response.getItems().get(0).getStatus());
+        assertEquals(BulkWriteResponse.NOT_FOUND, response.getItems().get(1).getStatus());
+        verify(bulkOperations).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations).execute();
+        verify(cacheInvalidationService).evictBatch(User.class, Set.of(user.getId(), "username_johndoe"));
+    }
+
+    @Test
+    void create_WithTooManyItems_ShouldThrowException() {
+        // Given
+        ReflectionTestUtils.setField(bulkWriteService, "maxItems", 1);
+        List<User> users = List.of(new User("John Doe", "johndoe", "secret"), new User("Jane Doe", "janedoe", "secret"));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> bulkWriteService.create(User.class, users, user -> {}));
+        verifyNoInteractions(bulkOperations);
+    }
+}
@@ -0,0 +1,131 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.config.InstrumentedCacheManager;
+import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.entity.User;
+import com.diyawanna.sup.util.CacheStatistics;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CacheInvalidationService
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationServiceTest {
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager("users", "queries");
+
+    @InjectMocks
+    private CacheInvalidationService cacheInvalidationService;
+
+    @BeforeEach
+    void setUp() {
+        cacheInvalidationService.registerDependencies();
+    }
+
+    @Test
+    void saved_WithRenamedQuery_ShouldEvictOldNameAndAggregateOnly() {
+        // Given
+        Cache cache = cacheManager.getCache("queries");
+        Query query = new Query("activeUsers", "{'active': true}", "FIND", "user");
+        query.setId("query1");
+        Query other = new Query("allFaculties", "{}", "FIND", "faculty");
+        other.setId("query2");
+        cache.put("query1", query);
+        cache.put("name_activeUsers", query);
+        cache.put("query2", other);
+        cache.put("name_allFaculties", other);
+        cache.put("all_active", List.of(query, other));
+
+        // When
+        Set<Object> previousKeys = cacheInvalidationService.keysOf(query);
+        query.setName("recentUsers");
+        cacheInvalidationService.saved(previousKeys, query);
+
+        // Then
+        assertNull(cache.get("name_activeUsers"));
+        assertNull(cache.get("all_active"));
+        assertSame(query, cache.get("query1").get());
+        assertSame(query, cache.get("name_recentUsers").get());
+        assertSame(other, cache.get("query2").get());
+        assertSame(other, cache.get("name_allFaculties").get());
+    }
+
+    @Test
+    void removed_ShouldEvictIdSecondaryAndAggregateKeys() {
+        // Given
+        Cache cache = cacheManager.getCache("users");
+        User user = new User("John Doe", "johndoe", "secret");
+        user.setId("user1");
+        User other = new User("Jane Doe", "janedoe", "secret");
+        other.setId("user2");
+        cache.put("user1", user);
+        cache.put("username_johndoe", user);
+        cache.put("user2", other);
+        cache.put("all_active", List.of(user, other));
+
+        // When
+        cacheInvalidationService.removed(user);
+
+        // Then
+        assertNull(cache.get("user1"));
+        assertNull(cache.get("username_johndoe"));
+        assertNull(cache.get("all_active"));
+        assertSame(other, cache.get("user2").get());
+    }
+
+    @Test
+    void evictChanged_ShouldReadCachedCopyWithoutCountingLookups() {
+        // Given
+        InstrumentedCacheManager instrumented =
+            new InstrumentedCacheManager(name -> Caffeine.newBuilder().executor(Runnable::run));
+        instrumented.registerRegion("users");
+        ReflectionTestUtils.setField(cacheInvalidationService, "cacheManager", instrumented);
+        Cache cache = instrumented.getCache("users");
+        User cached = new User("John Doe", "johndoe", "secret");
+        cached.setId("user1");
+        cache.put("user1", cached);
+        cache.put("username_johndoe", cached);
+        User current = new User("John Doe", "jdoe", "secret");
+        current.setId("user1");
+
+        // When
+        boolean resolved = cacheInvalidationService.evictChanged(User.class, "user1", current);
+
+        // Then
+        assertTrue(resolved);
+        com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache =
+            (com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache();
+        assertNull(nativeCache.asMap().get("user1"));
+        assertNull(nativeCache.asMap().get("username_johndoe"));
+        CacheStatistics statistics = instrumented.getStatistics().get("users");
+        assertEquals(0, statistics.getHits());
+        assertEquals(0, statistics.getMisses());
+    }
+
+    @Test
+    void keysOf_WithUnregisteredType_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> cacheInvalidationService.keysOf("not an entity"));
+    }
+}
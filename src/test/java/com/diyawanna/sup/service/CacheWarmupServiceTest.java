@@ -0,0 +1,165 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.config.InstrumentedCacheManager;
+import com.diyawanna.sup.entity.Faculty;
+import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.entity.University;
+import com.diyawanna.sup.entity.User;
+import com.diyawanna.sup.repository.FacultyRepository;
+import com.diyawanna.sup.repository.QueryRepository;
+import com.diyawanna.sup.repository.UniversityRepository;
+import com.diyawanna.sup.repository.UserRepository;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CacheWarmupService
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class CacheWarmupServiceTest {
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager("users", "universities", "faculties", "queries");
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UniversityRepository universityRepository;
+
+    @Mock
+    private FacultyRepository facultyRepository;
+
+    @Mock
+    private QueryRepository queryRepository;
+
+    @InjectMocks
+    private CacheWarmupService cacheWarmupService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cacheWarmupService, "warmUpOnStartup", true);
+        ReflectionTestUtils.setField(cacheWarmupService, "parallelism", 2);
+        ReflectionTestUtils.setField(cacheWarmupService, "recentUsers", 10);
+        ReflectionTestUtils.setField(cacheWarmupService, "timeoutSeconds", 10L);
+    }
+
+    @Test
+    void run_AtStartup_ShouldLoadRegionsUnderServiceCacheKeys() {
+        // Given
+        User user = new User("John Doe", "johndoe", "secret");
+        user.setId("user1");
+        University university = new University();
+        university.setId("uni1");
+        university.setName("Colombo");
+        Query query = new Query("activeUsers", "{'active': true}", "FIND", "user");
+        query.setId("query1");
+        when(userRepository.findByActiveTrue()).thenReturn(List.of(user));
+        when(userRepository.findByActiveTrue(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(user)));
+        when(universityRepository.findByActiveTrue()).thenReturn(List.of(university));
+        when(facultyRepository.findByActiveTrue()).thenReturn(List.<Faculty>of());
+        when(queryRepository.findByActiveTrue()).thenReturn(List.of(query));
+
+        // When
+        cacheWarmupService.run(null);
+
+        // Then
+        assertSame(user, cacheManager.getCache("users").get("user1").get());
+        assertSame(user, cacheManager.getCache("users").get("username_johndoe").get());
+        assertSame(university, cacheManager.getCache("universities").get("name_Colombo").get());
+        assertNotNull(cacheManager.getCache("faculties").get("all_active"));
+        assertSame(query, cacheManager.getCache("queries").get("name_activeUsers").get());
+
+        Map<String, Object> progress = cacheWarmupService.getProgress();
+        assertEquals("COMPLETED", progress.get("status"));
+        assertEquals("startup", progress.get("trigger"));
+    }
+
+    @Test
+    void run_WhenKeysWrittenDuringRead_ShouldNotStoreSnapshotOverThem() {
+        // Given: a write-through and an eviction land between the repository read and the fill
+        InstrumentedCacheManager instrumented =
+            new InstrumentedCacheManager(name -> Caffeine.newBuilder().executor(Runnable::run));
+        List.of("users", "universities", "faculties", "queries").forEach(instrumented::registerRegion);
+        ReflectionTestUtils.setField(cacheWarmupService, "cacheManager", instrumented);
+        Cache users = instrumented.getCache("users");
+        User stale = new User("John Doe", "johndoe", "secret");
+        stale.setId("user1");
+        User fresh = new User("John Doe", "johndoe", "changed");
+        fresh.setId("user1");
+        when(userRepository.findByActiveTrue()).thenAnswer(invocation -> {
+            users.evict("all_active");
+            users.put("user1", fresh);
+            return List.of(stale);
+        });
+        when(userRepository.findByActiveTrue(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(stale)));
+        when(universityRepository.findByActiveTrue()).thenReturn(List.of());
+        when(facultyRepository.findByActiveTrue()).thenReturn(List.of());
+        when(queryRepository.findByActiveTrue()).thenReturn(List.of());
+
+        // When
+        cacheWarmupService.run(null);
+
+        // Then
+        assertNull(users.get("all_active"));
+        assertSame(fresh, users.get("user1").get());
+    }
+
+    @Test
+    void warmUp_WithFailingRegion_ShouldReportRegionError() throws Exception {
+        // Given
+        when(userRepository.findByActiveTrue()).thenThrow(new IllegalStateException("connection refused"));
+        when(universityRepository.findByActiveTrue()).thenReturn(List.of());
+        when(facultyRepository.findByActiveTrue()).thenReturn(List.of());
+        when(queryRepository.findByActiveTrue()).thenReturn(List.of());
+
+        // When
+        Map<String, Object> started = cacheWarmupService.warmUp("request");
+        Map<String, Object> progress = awaitCompletion();
+
+        // Then
+        assertEquals(true, started.get("started"));
+        assertEquals("COMPLETED_WITH_ERRORS", progress.get("status"));
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> regions = (Map<String, Map<String, Object>>) progress.get("regions");
+        assertEquals("FAILED", regions.get("users").get("status"));
+        assertEquals("connection refused", regions.get("users").get("error"));
+        assertEquals("COMPLETED", regions.get("queries").get("status"));
+    }
+
+    private Map<String, Object> awaitCompletion() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Map<String, Object> progress = cacheWarmupService.getProgress();
+            if (!"RUNNING".equals(progress.get("status"))) {
+                return progress;
+            }
+            Thread.sleep(20);
+        }
+        fail("Warm-up did not complete");
+        return null;
+    }
+}
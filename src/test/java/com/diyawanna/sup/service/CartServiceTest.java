@@ -0,0 +1,99 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.entity.Cart;
+import com.diyawanna.sup.entity.Cart.CartItem;
+import com.diyawanna.sup.exception.CartNotFoundException;
+import com.diyawanna.sup.repository.CartRepository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CartService
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class CartServiceTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Mock
+    private QueryResultCacheService queryResultCacheService;
+
+    @InjectMocks
+    private CartService cartService;
+
+    @Test
+    void addItemToCart_ShouldPushItemAndIncrementTotalInOneUpdate() {
+        // Given
+        Cart updated = new Cart();
+        updated.setId("cart1");
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+            any(FindAndModifyOptions.class), eq(Cart.class))).thenReturn(updated);
+        when(mongoTemplate.getCollectionName(Cart.class)).thenReturn("cart");
+
+        // When
+        Cart result = cartService.addItemToCart("cart1", new CartItem("item1", "Book", 2, 12.5));
+
+        // Then
+        assertSame(updated, result);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), options.capture(), eq(Cart.class));
+        Document updateObject = ((Update) update.getValue()).getUpdateObject();
+        assertTrue(updateObject.containsKey("$push"));
+        assertEquals(25.0, updateObject.get("$inc", Document.class).get("totalAmount"));
+        assertTrue(options.getValue().isReturnNew());
+        verify(cacheInvalidationService).evictChanged(Cart.class, "cart1", updated);
+        verify(queryResultCacheService).invalidateCollection("cart");
+        verifyNoInteractions(cartRepository);
+    }
+
+    @Test
+    void removeItemFromCart_ShouldUsePipelineUpdate() {
+        // Given
+        Cart updated = new Cart();
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+            any(FindAndModifyOptions.class), eq(Cart.class))).thenReturn(updated);
+
+        // When
+        cartService.removeItemFromCart("cart1", "item1");
+
+        // Then
+        verify(mongoTemplate).findAndModify(any(Query.class), any(AggregationUpdate.class),
+            any(FindAndModifyOptions.class), eq(Cart.class));
+        verifyNoInteractions(cartRepository);
+    }
+
+    @Test
+    void updateCartStatus_WithUnknownCart_ShouldThrowException() {
+        // When & Then
+        assertThrows(CartNotFoundException.class, () -> cartService.updateCartStatus("missing", "COMPLETED"));
+        verifyNoInteractions(cacheInvalidationService);
+    }
+}
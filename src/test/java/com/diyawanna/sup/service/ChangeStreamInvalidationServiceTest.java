@@ -0,0 +1,140 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.entity.User;
+
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ChangeStreamInvalidationService
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class ChangeStreamInvalidationServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoConverter converter;
+
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Mock
+    private QueryResultCacheService queryResultCacheService;
+
+    @Mock
+    private ExistenceFilterService existenceFilterService;
+
+    @Mock
+    private StoredQueryRegistry storedQueryRegistry;
+
+    @InjectMocks
+    private ChangeStreamInvalidationService changeStreamInvalidationService;
+
+    @Test
+    void apply_WithUserUpdate_ShouldEvictOldAndNewKeysLocally() {
+        // Given
+        Document document = new Document("username", "johndoe");
+        User user = new User("John Doe", "johndoe", "secret");
+        user.setId("user1");
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(converter.read(User.class, document)).thenReturn(user);
+        when(cacheInvalidationService.evictChanged(User.class, "user1", user)).thenReturn(true);
+
+        // When
+        boolean open = changeStreamInvalidationService.apply("update", "user", "user1", document);
+
+        // Then
+        assertTrue(open);
+        verify(cacheInvalidationService, never()).evictRegion(any());
+        verify(queryResultCacheService).invalidateCollection("user");
+        verify(existenceFilterService).recordSaved("user", document);
+        verifyNoInteractions(storedQueryRegistry);
+    }
+
+    @Test
+    void apply_WithDeleteOfUncachedQuery_ShouldEvictRegionAndUnregister() {
+        // Given
+        when(cacheInvalidationService.evictChanged(eq(Query.class), eq("query1"), isNull())).thenReturn(false);
+
+        // When
+        changeStreamInvalidationService.apply("delete", "query", "query1", null);
+
+        // Then
+        verify(cacheInvalidationService).evictRegion(Query.class);
+        verify(queryResultCacheService).invalidateCollection("query");
+        verify(storedQueryRegistry).remove("query1");
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void apply_WithInvalidate_ShouldFlushEveryWatchedRegionAndEndStream() {
+        // When
+        boolean open = changeStreamInvalidationService.apply("invalidate", null, null, null);
+
+        // Then
+        assertFalse(open);
+        ChangeStreamInvalidationService.COLLECTIONS.values()
+            .forEach(type -> verify(cacheInvalidationService).evictRegion(type));
+        verify(queryResultCacheService).invalidateAll();
+        verify(cacheInvalidationService, never()).evictChanged(any(), any(), any());
+    }
+
+    @Test
+    void start_WithoutResumeToken_ShouldOpenStreamWithoutFlushingCaches() {
+        // Given
+        MongoDatabase database = mock(MongoDatabase.class);
+        @SuppressWarnings("unchecked")
+        ChangeStreamIterable<Document> stream = mock(ChangeStreamIterable.class);
+        @SuppressWarnings("unchecked")
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mock(MongoChangeStreamCursor.class);
+        when(mongoTemplate.getDb()).thenReturn(database);
+        when(database.watch(anyList())).thenReturn(stream);
+        when(stream.fullDocument(any())).thenReturn(stream);
+        when(stream.maxAwaitTime(anyLong(), any(TimeUnit.class))).thenReturn(stream);
+        when(stream.cursor()).thenReturn(cursor);
+        ReflectionTestUtils.setField(changeStreamInvalidationService, "enabled", true);
+        ReflectionTestUtils.setField(changeStreamInvalidationService, "resumeTokenFile", "");
+        ReflectionTestUtils.setField(changeStreamInvalidationService, "persistIntervalMs", 1000L);
+
+        // When
+        changeStreamInvalidationService.start();
+        try {
+            verify(cursor, timeout(1000).atLeast(2)).tryNext();
+        } finally {
+            changeStreamInvalidationService.stop();
+        }
+
+        // Then: the stream opened before warm-up, so there was nothing cached to flush
+        verify(stream, times(1)).cursor();
+        verify(cacheInvalidationService, never()).evictRegion(any());
+        verify(queryResultCacheService, never()).invalidateAll();
+        verify(existenceFilterService, never()).requestRebuild();
+    }
+}
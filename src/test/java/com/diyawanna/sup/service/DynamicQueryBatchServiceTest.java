@@ -0,0 +1,111 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.dto.QueryExecutionRequest;
+import com.diyawanna.sup.dto.QueryExecutionResponse;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DynamicQueryBatchService
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class DynamicQueryBatchServiceTest {
+
+    @Mock
+    private DynamicQueryService dynamicQueryService;
+
+    @InjectMocks
+    private DynamicQueryBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(batchService, "poolSize", 4);
+        ReflectionTestUtils.setField(batchService, "queueCapacity", 16);
+        ReflectionTestUtils.setField(batchService, "maxItems", 5);
+        ReflectionTestUtils.setField(batchService, "defaultItemTimeoutMs", 2000L);
+        batchService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchService.shutdown();
+    }
+
+    @Test
+    void executeBatch_WithDuplicateRequests_ShouldExecuteOnce() {
+        // Given
+        QueryExecutionRequest first = new QueryExecutionRequest("user.findByUsername", Map.of("username", "johndoe"));
+        QueryExecutionRequest duplicate = new QueryExecutionRequest("user.findByUsername", Map.of("username", "johndoe"));
+        QueryExecutionRequest other = new QueryExecutionRequest("user.findByUsername", Map.of("username", "janedoe"));
+        when(dynamicQueryService.validateParameters(anyString(), anyMap())).thenReturn(true);
+        when(dynamicQueryService.executeDynamicQuery(eq("user.findByUsername"), anyMap(), anyBoolean(), any(), any()))
+            .thenAnswer(invocation -> Collections.singletonList(invocation.getArgument(1)));
+
+        // When
+        List<QueryExecutionResponse> results = batchService.executeBatch(Arrays.asList(first, duplicate, other), null);
+
+        // Then
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(QueryExecutionResponse::isSuccess));
+        assertEquals(results.get(0).getData(), results.get(1).getData());
+        assertEquals(0, results.get(1).getMetadata().get("duplicateOf"));
+        verify(dynamicQueryService, times(2)).executeDynamicQuery(anyString(), anyMap(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    void executeBatch_WithSlowAndFailingItems_ShouldReportPerItemErrors() {
+        // Given
+        QueryExecutionRequest slow = new QueryExecutionRequest("user.slow", Map.of());
+        QueryExecutionRequest failing = new QueryExecutionRequest("user.failing", Map.of());
+        QueryExecutionRequest invalid = new QueryExecutionRequest("user.invalid", Map.of());
+        when(dynamicQueryService.validateParameters(anyString(), anyMap()))
+            .thenAnswer(invocation -> !"user.invalid".equals(invocation.getArgument(0)));
+        when(dynamicQueryService.executeDynamicQuery(eq("user.slow"), anyMap(), anyBoolean(), any(), any()))
+            .thenAnswer(invocation -> {
+                Thread.sleep(5000);
+                return Collections.emptyList();
+            });
+        when(dynamicQueryService.executeDynamicQuery(eq("user.failing"), anyMap(), anyBoolean(), any(), any()))
+            .thenThrow(new RuntimeException("boom"));
+
+        // When
+        List<QueryExecutionResponse> results = batchService.executeBatch(Arrays.asList(slow, failing, invalid), 100L);
+
+        // Then
+        assertFalse(results.get(0).isSuccess());
+        assertTrue(results.get(0).getMessage().contains("timed out"));
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("boom", results.get(1).getMessage());
+        assertFalse(results.get(2).isSuccess());
+        verify(dynamicQueryService, never()).executeDynamicQuery(eq("user.invalid"), anyMap(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    void executeBatch_WithTooManyItems_ShouldThrowException() {
+        // Given
+        List<QueryExecutionRequest> requests = Collections.nCopies(6,
+            new QueryExecutionRequest("user.findByUsername", Map.of("username", "johndoe")));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> batchService.executeBatch(requests, null));
+    }
+}
@@ -0,0 +1,139 @@
+package com.diyawanna.sup.service;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ExistenceFilterService
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class ExistenceFilterServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private Predicate<String> databaseCheck;
+
+    @InjectMocks
+    private ExistenceFilterService existenceFilterService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(existenceFilterService, "enabled", true);
+        ReflectionTestUtils.setField(existenceFilterService, "expectedInsertions", 1_000L);
+        ReflectionTestUtils.setField(existenceFilterService, "falsePositiveRate", 0.01);
+    }
+
+    @Test
+    void exists_WithUnknownUsername_ShouldAnswerWithoutDatabase() {
+        // Given
+        buildUsernames("johndoe", "janedoe");
+
+        // When
+        boolean exists = existenceFilterService.exists(ExistenceFilterService.USERNAME, "newuser", databaseCheck);
+
+        // Then
+        assertFalse(exists);
+        verifyNoInteractions(databaseCheck);
+    }
+
+    @Test
+    void exists_WithKnownUsername_ShouldConfirmWithDatabase() {
+        // Given
+        buildUsernames("johndoe", "janedoe");
+        when(databaseCheck.test("johndoe")).thenReturn(true);
+
+        // When
+        boolean exists = existenceFilterService.exists(ExistenceFilterService.USERNAME, "johndoe", databaseCheck);
+
+        // Then
+        assertTrue(exists);
+        verify(databaseCheck).test("johndoe");
+    }
+
+    @Test
+    void recordSaved_ShouldExtendFilterOfCollection() {
+        // Given
+        buildUsernames("johndoe");
+        when(databaseCheck.test("newuser")).thenReturn(true);
+
+        // When
+        existenceFilterService.recordSaved("user", new Document("username", "newuser").append("email", "new@example.com"));
+        boolean exists = existenceFilterService.exists(ExistenceFilterService.USERNAME, "newuser", databaseCheck);
+
+        // Then
+        assertTrue(exists);
+        verify(databaseCheck).test("newuser");
+    }
+
+    @Test
+    void exists_BeforeFilterIsBuilt_ShouldFallBackToDatabase() {
+        // Given
+        when(databaseCheck.test("Colombo")).thenReturn(false);
+
+        // When
+        boolean exists = existenceFilterService.exists(ExistenceFilterService.UNIVERSITY_NAME, "Colombo", databaseCheck);
+
+        // Then
+        assertFalse(exists);
+        verify(databaseCheck).test("Colombo");
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> domains =
+            (Map<String, Map<String, Object>>) existenceFilterService.getStatistics().get("domains");
+        assertEquals(false, domains.get(ExistenceFilterService.UNIVERSITY_NAME).get("ready"));
+        assertEquals(1L, domains.get(ExistenceFilterService.UNIVERSITY_NAME).get("databaseChecks"));
+    }
+
+    private void buildUsernames(String... usernames) {
+        when(mongoTemplate.estimatedCount("user")).thenReturn((long) usernames.length);
+        List<Document> documents = new ArrayList<>();
+        for (String username : usernames) {
+            documents.add(new Document("username", username));
+        }
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("user"))).thenReturn(iterate(documents));
+        existenceFilterService.rebuild(ExistenceFilterService.USERNAME);
+    }
+
+    private static CloseableIterator<Document> iterate(List<Document> documents) {
+        Iterator<Document> iterator = documents.iterator();
+        return new CloseableIterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Document next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.entity.User;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FieldSelectionService
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class FieldSelectionServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private FieldSelectionService fieldSelectionService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(fieldSelectionService, "objectMapper",
+            new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        lenient().when(mongoTemplate.getConverter())
+            .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+    }
+
+    @Test
+    void resolve_WithSummary_ShouldSelectIdAndPresetFields() {
+        // When
+        Set<String> fields = fieldSelectionService.resolve(User.class, "summary");
+
+        // Then
+        assertEquals(List.of("id", "name", "username", "university"), List.copyOf(fields));
+    }
+
+    @Test
+    void resolve_WithHiddenOrUnknownField_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> fieldSelectionService.resolve(User.class, "name,password"));
+        assertThrows(IllegalArgumentException.class, () -> fieldSelectionService.resolve(User.class, "nickname"));
+        assertNull(fieldSelectionService.resolve(User.class, " "));
+    }
+
+    @Test
+    void find_WithFields_ShouldProjectAndOmitUnreadDefaults() {
+        // Given
+        User user = new User("John Doe", "johndoe", null);
+        user.setId("user1");
+        user.setActive(false); // what an unread primitive looks like after a projected read
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(List.of(user));
+        Set<String> fields = fieldSelectionService.resolve(User.class, "name");
+
+        // When
+        List<Map<String, Object>> result = fieldSelectionService.find(User.class, Criteria.where("active").is(true), fields);
+
+        // Then
+        assertEquals(List.of(Map.of("id", "user1", "name", "John Doe")), result);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(User.class));
+        assertEquals(Set.of("id", "name"), query.getValue().getFieldsObject().keySet());
+    }
+}
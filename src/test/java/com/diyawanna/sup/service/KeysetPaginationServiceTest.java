@@ -0,0 +1,112 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.entity.User;
+import com.diyawanna.sup.util.KeysetPage;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for KeysetPaginationService
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class KeysetPaginationServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private KeysetPaginationService keysetPaginationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(keysetPaginationService, "defaultLimit", 50);
+        ReflectionTestUtils.setField(keysetPaginationService, "maxLimit", 500);
+    }
+
+    @Test
+    void page_WithMoreResults_ShouldReturnCursorThatResumesAfterLastId() {
+        // Given
+        List<User> fetched = users(new ObjectId(), new ObjectId(), new ObjectId());
+        when(mongoTemplate.getConverter())
+            .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(fetched);
+
+        // When
+        KeysetPage<User> first = keysetPaginationService.page(User.class,
+            Criteria.where("active").is(true), null, 2, null, "password");
+        keysetPaginationService.page(User.class, Criteria.where("active").is(true), null, 2, first.getNextCursor());
+
+        // Then
+        assertEquals(2, first.getResults().size());
+        assertNotNull(first.getNextCursor());
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(queries.capture(), eq(User.class));
+        Query firstQuery = queries.getAllValues().get(0);
+        assertEquals(3, firstQuery.getLimit());
+        assertEquals(0, firstQuery.getFieldsObject().get("password"));
+        Document secondFilter = queries.getAllValues().get(1).getQueryObject();
+        assertEquals(new Document("$gt", new ObjectId(fetched.get(1).getId())), secondFilter.get("_id"));
+    }
+
+    @Test
+    void page_WithLastPage_ShouldReturnNoCursorAndCapLimit() {
+        // Given
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(users(new ObjectId()));
+
+        // When
+        KeysetPage<User> page = keysetPaginationService.page(User.class,
+            Criteria.where("active").is(true), null, 10_000, null);
+
+        // Then
+        assertEquals(1, page.getResults().size());
+        assertNull(page.getNextCursor());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(User.class));
+        assertEquals(501, query.getValue().getLimit());
+    }
+
+    @Test
+    void page_WithInvalidCursor_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> keysetPaginationService.page(User.class,
+            Criteria.where("active").is(true), null, 10, "not-a-cursor"));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private static List<User> users(ObjectId... ids) {
+        List<User> users = new ArrayList<>();
+        for (ObjectId id : Arrays.asList(ids)) {
+            User user = new User("User " + id, "user" + id, "secret");
+            user.setId(id.toHexString());
+            users.add(user);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,146 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.config.InstrumentedCacheManager;
+import com.diyawanna.sup.util.CacheStatistics;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for QueryResultCacheService
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+class QueryResultCacheServiceTest {
+
+    private QueryResultCacheService service;
+    private InstrumentedCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new InstrumentedCacheManager(name -> Caffeine.newBuilder().executor(Runnable::run));
+        cacheManager.registerRegion(QueryResultCacheService.CACHE_NAME);
+        service = newService(cacheManager);
+    }
+
+    @Test
+    void buildKey_ShouldNotDependOnParameterOrderButOnTypes() {
+        // Given
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("userId", "u1");
+        first.put("filter", Map.of("active", true, "age", 30));
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("filter", Map.of("age", 30, "active", true));
+        second.put("userId", "u1");
+
+        // When & Then
+        assertEquals(service.buildKey("dynamic:users", first), service.buildKey("dynamic:users", second));
+        assertNotEquals(service.buildKey("dynamic:users", Map.of("age", 30)),
+            service.buildKey("dynamic:users", Map.of("age", "30")));
+        assertNotEquals(service.buildKey("dynamic:users", first), service.buildKey("dynamic:carts", first));
+    }
+
+    @Test
+    void get_WithExpiredEntry_ShouldEvictAndReturnNull() {
+        // Given
+        Cache cache = cacheManager.getCache(QueryResultCacheService.CACHE_NAME);
+        cache.put("dynamic:users#1", new QueryResultCacheService.CachedResult("stale", System.currentTimeMillis() - 1));
+
+        // When
+        Object result = service.get("dynamic:users#1");
+
+        // Then
+        assertNull(result);
+        assertNull(cache.get("dynamic:users#1"));
+    }
+
+    @Test
+    void invalidateCollection_ShouldEvictResultsReadFromIt() {
+        // Given
+        List<String> users = List.of("user");
+        List<String> carts = List.of("cart");
+        service.put("users#1", "u", 60, users, service.captureVersions(users));
+        service.put("carts#1", "c", 60, carts, service.captureVersions(carts));
+
+        // When
+        service.invalidateCollection("user");
+
+        // Then
+        assertNull(service.get("users#1"));
+        assertEquals("c", service.get("carts#1"));
+    }
+
+    @Test
+    void put_AfterWriteSinceCapture_ShouldNotStore() {
+        // Given
+        List<String> users = List.of("user");
+        long[] versions = service.captureVersions(users);
+        service.invalidateCollection("user");
+
+        // When
+        service.put("users#1", "stale", 60, users, versions);
+
+        // Then
+        assertNull(service.get("users#1"));
+    }
+
+    @Test
+    void put_WhenInvalidatedWhileStoring_ShouldEvictStoredResult() {
+        // Given: the collection is written between the version check and the cache put
+        SimpleCacheManager racingManager = new SimpleCacheManager();
+        QueryResultCacheService[] racing = new QueryResultCacheService[1];
+        racingManager.setCaches(List.of(new ConcurrentMapCache(QueryResultCacheService.CACHE_NAME) {
+            @Override
+            public void put(Object key, Object value) {
+                racing[0].invalidateCollection("user");
+                super.put(key, value);
+            }
+        }));
+        racingManager.afterPropertiesSet();
+        racing[0] = newService(racingManager);
+        List<String> users = List.of("user");
+
+        // When
+        racing[0].put("users#1", "stale", 60, users, racing[0].captureVersions(users));
+
+        // Then
+        assertNull(racing[0].get("users#1"));
+    }
+
+    @Test
+    void put_WhenCleanupRuns_ShouldNotCountCacheLookups() {
+        // Given
+        ReflectionTestUtils.setField(service, "cleanupIntervalSeconds", 0);
+        List<String> users = List.of("user");
+
+        // When
+        service.put("users#1", "u", 60, users, service.captureVersions(users));
+        service.put("users#2", "u", 60, users, service.captureVersions(users));
+
+        // Then
+        CacheStatistics statistics = cacheManager.getStatistics().get(QueryResultCacheService.CACHE_NAME);
+        assertEquals(0, statistics.getHits());
+        assertEquals(0, statistics.getMisses());
+    }
+
+    private static QueryResultCacheService newService(org.springframework.cache.CacheManager cacheManager) {
+        QueryResultCacheService service = new QueryResultCacheService();
+        ReflectionTestUtils.setField(service, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(service, "defaultTtlSeconds", 300);
+        ReflectionTestUtils.setField(service, "cleanupIntervalSeconds", 60);
+        return service;
+    }
+}
@@ -0,0 +1,88 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.exception.QueryAlreadyExistsException;
+import com.diyawanna.sup.repository.QueryRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for QueryService
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class QueryServiceTest {
+
+    @Mock
+    private QueryRepository queryRepository;
+
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Mock
+    private ExistenceFilterService existenceFilterService;
+
+    @Mock
+    private StoredQueryRegistry storedQueryRegistry;
+
+    @InjectMocks
+    private QueryService queryService;
+
+    @BeforeEach
+    void setUp() {
+        // Behave like a filter that cannot rule anything out: every check reaches the repository
+        lenient().when(existenceFilterService.exists(anyString(), any(), any())).thenAnswer(invocation ->
+            invocation.<Predicate<String>>getArgument(2).test(invocation.getArgument(1)));
+    }
+
+    @Test
+    void createQuery_WithNameMissedByFilter_ShouldMapDuplicateKey() {
+        // Given
+        Query query = new Query("activeUsers", "{'active': true}", "FIND", "user");
+        when(queryRepository.existsByName("activeUsers")).thenReturn(false);
+        when(queryRepository.save(any(Query.class)))
+            .thenThrow(new DuplicateKeyException("E11000 duplicate key error index: name_1"));
+
+        // When & Then
+        QueryAlreadyExistsException exception =
+            assertThrows(QueryAlreadyExistsException.class, () -> queryService.createQuery(query));
+        assertEquals("Query already exists with name: activeUsers", exception.getMessage());
+        verifyNoInteractions(storedQueryRegistry);
+        verify(cacheInvalidationService, never()).saved(any(), any());
+    }
+
+    @Test
+    void updateQuery_WithNameMissedByFilter_ShouldMapDuplicateKey() {
+        // Given
+        Query existing = new Query("activeUsers", "{'active': true}", "FIND", "user");
+        existing.setId("query1");
+        Query update = new Query();
+        update.setName("allUsers");
+        when(queryRepository.findById("query1")).thenReturn(Optional.of(existing));
+        when(queryRepository.existsByName("allUsers")).thenReturn(false);
+        when(queryRepository.save(any(Query.class)))
+            .thenThrow(new DuplicateKeyException("E11000 duplicate key error index: name_1"));
+
+        // When & Then
+        QueryAlreadyExistsException exception =
+            assertThrows(QueryAlreadyExistsException.class, () -> queryService.updateQuery("query1", update));
+        assertEquals("Query already exists with name: allUsers", exception.getMessage());
+        verifyNoInteractions(storedQueryRegistry);
+        verify(cacheInvalidationService, never()).saved(any(), any());
+    }
+}
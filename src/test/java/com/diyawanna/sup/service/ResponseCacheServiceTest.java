@@ -0,0 +1,116 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.entity.User;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ResponseCacheService
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class ResponseCacheServiceTest {
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager("users");
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private ResponseCacheService responseCacheService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(responseCacheService, "gzipMinBytes", 1024);
+    }
+
+    @Test
+    void respond_WithMatchingETag_ShouldReturnNotModifiedWithoutReloading() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        List<User> users = List.of(new User("Test User", "testuser", "secret", "test@example.com"));
+
+        // When
+        ResponseEntity<byte[]> first = responseCacheService.respond("users", "all_active", null, null,
+            () -> { loads.incrementAndGet(); return users; });
+        String etag = first.getHeaders().getETag();
+        ResponseEntity<byte[]> second = responseCacheService.respond("users", "all_active", "W/" + etag, null,
+            () -> { loads.incrementAndGet(); return users; });
+
+        // Then
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertNotNull(etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertEquals(etag, second.getHeaders().getETag());
+        assertNull(second.getBody());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void respond_WithOmittedField_ShouldStripItWithoutTouchingCachedEntities() {
+        // Given
+        User user = new User("Test User", "testuser", "secret", "test@example.com");
+
+        // When
+        ResponseEntity<byte[]> response = responseCacheService.respond("users", "all_active", null, null,
+            () -> List.of(user), "password");
+
+        // Then
+        String json = new String(response.getBody(), StandardCharsets.UTF_8);
+        assertTrue(json.contains("testuser"));
+        assertFalse(json.contains("password"));
+        assertEquals("secret", user.getPassword());
+    }
+
+    @Test
+    void respond_WithLargeBodyAndGzipAccepted_ShouldServePrecompressedBytes() throws IOException {
+        // Given
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            users.add(new User("User " + i, "user" + i, "secret", "user" + i + "@example.com"));
+        }
+        ResponseEntity<byte[]> identity = responseCacheService.respond("users", "all_active", null, null, () -> users);
+
+        // When
+        ResponseEntity<byte[]> gzip = responseCacheService.respond("users", "all_active", null, "gzip, deflate, br",
+            () -> users);
+        ResponseEntity<byte[]> refused = responseCacheService.respond("users", "all_active", null, "gzip;q=0",
+            () -> users);
+
+        // Then
+        assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(gzip.getBody().length < identity.getBody().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getBody()))) {
+            assertArrayEquals(identity.getBody(), in.readAllBytes());
+        }
+        assertNull(refused.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNotEquals(identity.getHeaders().getETag(), gzip.getHeaders().getETag());
+        assertEquals(identity.getHeaders().getETag(), refused.getHeaders().getETag());
+    }
+}
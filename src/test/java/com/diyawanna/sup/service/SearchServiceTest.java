@@ -0,0 +1,162 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.entity.Cart;
+import com.diyawanna.sup.entity.Faculty;
+import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.entity.University;
+import com.diyawanna.sup.entity.User;
+import com.diyawanna.sup.util.KeysetPage;
+import com.diyawanna.sup.util.SearchKeys;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SearchService
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private KeysetPaginationService keysetPaginationService;
+
+    @InjectMocks
+    private SearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(searchService, "mode", "prefix");
+        lenient().when(mongoTemplate.getCollectionName(User.class)).thenReturn("user");
+        lenient().when(mongoTemplate.getCollectionName(University.class)).thenReturn("university");
+        lenient().when(mongoTemplate.getCollectionName(Faculty.class)).thenReturn("faculty");
+        lenient().when(mongoTemplate.getCollectionName(Cart.class)).thenReturn("cart");
+        lenient().when(mongoTemplate.getCollectionName(Query.class)).thenReturn("query");
+        searchService.resolveCollections();
+    }
+
+    @Test
+    void applyKeys_ShouldWriteFoldedTokensOfName() {
+        // Given
+        Document document = new Document("name", "Caf\u00e9  Z\u00fcrich-Caf\u00e9 2");
+
+        // When
+        searchService.applyKeys("university", document);
+
+        // Then
+        assertEquals(List.of("cafe", "zurich", "2"), document.get(SearchKeys.TOKENS_FIELD));
+    }
+
+    @Test
+    void applyKeys_WithOtherCollection_ShouldLeaveDocumentUnchanged() {
+        // Given
+        Document document = new Document("name", "Audit entry");
+
+        // When
+        searchService.applyKeys("audit", document);
+
+        // Then
+        assertFalse(document.containsKey(SearchKeys.TOKENS_FIELD));
+    }
+
+    @Test
+    void searchByName_ShouldMatchAnchoredTokenPrefixes() {
+        // When
+        searchService.searchByName(Faculty.class, "Sci. (comp");
+
+        // Then
+        ArgumentCaptor<org.springframework.data.mongodb.core.query.Query> query =
+            ArgumentCaptor.forClass(org.springframework.data.mongodb.core.query.Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Faculty.class));
+        Document tokens = (Document) query.getValue().getQueryObject().get(SearchKeys.TOKENS_FIELD);
+        List<?> prefixes = (List<?>) tokens.get("$all");
+        assertEquals(List.of("^sci", "^comp"),
+            prefixes.stream().map(prefix -> ((Pattern) prefix).pattern()).collect(Collectors.toList()));
+        assertEquals(true, query.getValue().getQueryObject().get("active"));
+    }
+
+    @Test
+    void searchByName_WithoutLettersOrDigits_ShouldNotQuery() {
+        // When
+        List<User> result = searchService.searchByName(User.class, ".*(");
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(mongoTemplate, never()).find(any(), eq(User.class));
+    }
+
+    @Test
+    void searchByName_InTextMode_ShouldUseTextQuery() {
+        // Given
+        ReflectionTestUtils.setField(searchService, "mode", "text");
+
+        // When
+        searchService.searchByName(Query.class, "computing");
+
+        // Then
+        verify(mongoTemplate).find(any(TextQuery.class), eq(Query.class));
+    }
+
+    @Test
+    void searchByNamePage_ShouldPageActiveMatchesWithoutPasswords() {
+        // When
+        searchService.searchByNamePage(User.class, "comp", null, 20, "cursor", "password");
+
+        // Then
+        ArgumentCaptor<Criteria> criteria = ArgumentCaptor.forClass(Criteria.class);
+        verify(keysetPaginationService).page(eq(User.class), criteria.capture(), isNull(), eq(20), eq("cursor"),
+            eq("password"));
+        Document filter = criteria.getValue().getCriteriaObject();
+        assertTrue(filter.containsKey(SearchKeys.TOKENS_FIELD));
+        assertEquals(true, filter.get("active"));
+    }
+
+    @Test
+    void searchByNamePage_InTextMode_ShouldPageTextMatches() {
+        // Given
+        ReflectionTestUtils.setField(searchService, "mode", "text");
+
+        // When
+        searchService.searchByNamePage(Query.class, "computing", null, null, null);
+
+        // Then
+        ArgumentCaptor<Criteria> criteria = ArgumentCaptor.forClass(Criteria.class);
+        verify(keysetPaginationService).page(eq(Query.class), criteria.capture(), isNull(), isNull(), isNull());
+        assertEquals(new Document("$search", "computing"), criteria.getValue().getCriteriaObject().get("$text"));
+    }
+
+    @Test
+    void searchByNamePage_WithoutLettersOrDigits_ShouldReturnEmptyPage() {
+        // When
+        KeysetPage<User> page = searchService.searchByNamePage(User.class, "?!", null, 10, null);
+
+        // Then
+        assertTrue(page.getResults().isEmpty());
+        assertNull(page.getNextCursor());
+        verifyNoInteractions(keysetPaginationService);
+    }
+}
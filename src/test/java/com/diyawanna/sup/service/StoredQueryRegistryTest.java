@@ -0,0 +1,109 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.repository.QueryRepository;
+import com.diyawanna.sup.util.CompiledQuery;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StoredQueryRegistry
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class StoredQueryRegistryTest {
+
+    @Mock
+    private QueryRepository queryRepository;
+
+    @InjectMocks
+    private StoredQueryRegistry registry;
+
+    private Query testQuery;
+
+    @BeforeEach
+    void setUp() {
+        testQuery = new Query("activeUsers", "{'active': true}", "FIND", "user");
+        testQuery.setId("query123");
+        testQuery.setActive(true);
+        testQuery.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Test
+    void register_WithActiveQuery_ShouldServeByIdAndNameWithoutRepository() {
+        // When
+        registry.register(testQuery);
+
+        // Then
+        assertEquals("activeUsers", registry.findById("query123").getQuery().getName());
+        assertSame(registry.findById("query123"), registry.findByName("activeUsers"));
+        verifyNoInteractions(queryRepository);
+    }
+
+    @Test
+    void register_WithRenamedOrDeactivatedQuery_ShouldUpdateIndexes() {
+        // Given
+        registry.register(testQuery);
+        Query renamed = new Query("allActiveUsers", "{'active': true}", "FIND", "user");
+        renamed.setId("query123");
+        renamed.setActive(true);
+        renamed.setUpdatedAt(testQuery.getUpdatedAt().plusSeconds(1));
+        when(queryRepository.findByName("activeUsers")).thenReturn(Optional.empty());
+
+        // When
+        registry.register(renamed);
+
+        // Then
+        assertNull(registry.findByName("activeUsers"));
+        assertEquals("allActiveUsers", registry.findById("query123").getQuery().getName());
+
+        // When
+        renamed.setActive(false);
+        renamed.setUpdatedAt(renamed.getUpdatedAt().plusSeconds(1));
+        registry.register(renamed);
+        when(queryRepository.findById("query123")).thenReturn(Optional.of(renamed));
+
+        // Then
+        assertFalse(registry.findById("query123").getQuery().isActive());
+        assertEquals(0, registry.getStatistics().get("registeredQueries"));
+    }
+
+    @Test
+    void compiled_WithSameRegistryVersion_ShouldCompileOnce() {
+        // Given
+        registry.register(testQuery);
+        StoredQueryRegistry.Entry entry = registry.findById("query123");
+        AtomicInteger compilations = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            entry.compiled(1L, query -> {
+                compilations.incrementAndGet();
+                return CompiledQuery.compile(query.getName(), query.getQueryContent(), query.getCollection(),
+                    query.getQueryType(), null, null);
+            });
+        }
+        entry.compiled(2L, query -> {
+            compilations.incrementAndGet();
+            return CompiledQuery.compile(query.getName(), query.getQueryContent(), query.getCollection(),
+                query.getQueryType(), null, null);
+        });
+
+        // Then
+        assertEquals(2, compilations.get());
+    }
+}
@@ -0,0 +1,85 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.entity.University;
+import com.diyawanna.sup.exception.UniversityAlreadyExistsException;
+import com.diyawanna.sup.repository.UniversityRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UniversityService
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class UniversityServiceTest {
+
+    @Mock
+    private UniversityRepository universityRepository;
+
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Mock
+    private ExistenceFilterService existenceFilterService;
+
+    @InjectMocks
+    private UniversityService universityService;
+
+    @BeforeEach
+    void setUp() {
+        // Behave like a filter that cannot rule anything out: every check reaches the repository
+        lenient().when(existenceFilterService.exists(anyString(), any(), any())).thenAnswer(invocation ->
+            invocation.<Predicate<String>>getArgument(2).test(invocation.getArgument(1)));
+    }
+
+    @Test
+    void createUniversity_WithNameMissedByFilter_ShouldMapDuplicateKey() {
+        // Given
+        University university = new University();
+        university.setName("University of Colombo");
+        when(universityRepository.existsByName("University of Colombo")).thenReturn(false);
+        when(universityRepository.save(any(University.class)))
+            .thenThrow(new DuplicateKeyException("E11000 duplicate key error index: name_1"));
+
+        // When & Then
+        UniversityAlreadyExistsException exception = assertThrows(UniversityAlreadyExistsException.class,
+            () -> universityService.createUniversity(university));
+        assertEquals("University already exists with name: University of Colombo", exception.getMessage());
+        verify(cacheInvalidationService, never()).saved(any(), any());
+    }
+
+    @Test
+    void updateUniversity_WithNameMissedByFilter_ShouldMapDuplicateKey() {
+        // Given
+        University existing = new University();
+        existing.setId("uni1");
+        existing.setName("University of Colombo");
+        University update = new University();
+        update.setName("University of Kelaniya");
+        when(universityRepository.findById("uni1")).thenReturn(Optional.of(existing));
+        when(universityRepository.existsByName("University of Kelaniya")).thenReturn(false);
+        when(universityRepository.save(any(University.class)))
+            .thenThrow(new DuplicateKeyException("E11000 duplicate key error index: name_1"));
+
+        // When & Then
+        UniversityAlreadyExistsException exception = assertThrows(UniversityAlreadyExistsException.class,
+            () -> universityService.updateUniversity("uni1", update));
+        assertEquals("University already exists with name: University of Kelaniya", exception.getMessage());
+        verify(cacheInvalidationService, never()).saved(any(), any());
+    }
+}
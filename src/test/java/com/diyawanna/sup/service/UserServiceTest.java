@@ -11,12 +11,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -37,6 +40,15 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Mock
+    private ExistenceFilterService existenceFilterService;
+
+    @Mock
+    private SearchService searchService;
+
     @InjectMocks
     private UserService userService;
 
@@ -55,6 +67,10 @@ class UserServiceTest {
         testUser.setActive(true);
         testUser.setCreatedAt(LocalDateTime.now());
         testUser.setUpdatedAt(LocalDateTime.now());
+
+        // Behave like a filter that cannot rule anything out: every check reaches the repository
+        lenient().when(existenceFilterService.exists(anyString(), any(), any())).thenAnswer(invocation ->
+            invocation.<Predicate<String>>getArgument(2).test(invocation.getArgument(1)));
     }
 
     @Test
@@ -181,6 +197,25 @@ class UserServiceTest {
         verify(userRepository, never()).save(any(User.class));
     }
 
+    @Test
+    void createUser_WithEmailMissedByFilter_ShouldMapDuplicateKey() {
+        // Given
+        User newUser = new User();
+        newUser.setUsername("newuser");
+        newUser.setEmail("john@example.com");
+
+        when(userRepository.existsByUsername("newuser")).thenReturn(false);
+        when(userRepository.existsByEmail("john@example.com")).thenReturn(false);
+        when(userRepository.save(any(User.class)))
+            .thenThrow(new DuplicateKeyException("E11000 duplicate key error index: email_1"));
+
+        // When & Then
+        UserAlreadyExistsException exception =
+            assertThrows(UserAlreadyExistsException.class, () -> userService.createUser(newUser));
+        assertEquals("Email already exists: john@example.com", exception.getMessage());
+        verify(cacheInvalidationService, never()).saved(any(), any());
+    }
+
     @Test
     void updateUser_WithValidData_ShouldUpdateUser() {
         // Given
@@ -200,6 +235,25 @@ class UserServiceTest {
         verify(userRepository).save(any(User.class));
     }
 
+    @Test
+    void updateUser_ShouldRefreshOnlyKeysOfUpdatedUser() {
+        // Given
+        User updateData = new User();
+        updateData.setName("John Updated");
+        Set<Object> previousKeys = Set.of("user123", "username_johndoe");
+
+        when(userRepository.findById("user123")).thenReturn(Optional.of(testUser));
+        when(cacheInvalidationService.keysOf(testUser)).thenReturn(previousKeys);
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        // When
+        userService.updateUser("user123", updateData);
+
+        // Then
+        verify(cacheInvalidationService).saved(previousKeys, testUser);
+        verify(cacheInvalidationService, never()).removed(any());
+    }
+
     @Test
     void deleteUser_WithValidId_ShouldSoftDeleteUser() {
         // Given
@@ -218,7 +272,7 @@ class UserServiceTest {
     void searchUsersByName_ShouldReturnMatchingUsers() {
         // Given
         List<User> matchingUsers = Arrays.asList(testUser);
-        when(userRepository.findByNameContainingIgnoreCase("John")).thenReturn(matchingUsers);
+        when(searchService.searchByName(User.class, "John")).thenReturn(matchingUsers);
 
         // When
         List<User> result = userService.searchUsersByName("John");
@@ -226,7 +280,7 @@ class UserServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(userRepository).findByNameContainingIgnoreCase("John");
+        verify(searchService).searchByName(User.class, "John");
     }
 
     @Test
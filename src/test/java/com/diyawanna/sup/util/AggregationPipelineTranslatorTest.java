@@ -0,0 +1,81 @@
+package com.diyawanna.sup.util;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AggregationPipelineTranslator
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+class AggregationPipelineTranslatorTest {
+
+    @Test
+    void translate_WithConfiguredStages_ShouldKeepEveryStage() {
+        // Given
+        List<Document> stages = List.of(
+            Document.parse("{'$match': {'active': true}}"),
+            Document.parse("{'$unwind': '$subjects'}"),
+            Document.parse("{'$group': {'_id': '$subjects', 'count': {'$sum': 1}}}"),
+            Document.parse("{'$sort': {'count': -1}}"),
+            Document.parse("{'$skip': 5}"),
+            Document.parse("{'$limit': 10}"),
+            Document.parse("{'$count': 'total'}")
+        );
+
+        // When
+        Aggregation aggregation = AggregationPipelineTranslator.translate(stages, null);
+        List<Document> pipeline = aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT);
+
+        // Then
+        assertEquals(7, pipeline.size());
+        assertEquals(Document.parse("{'active': true}"), pipeline.get(0).get("$match"));
+        assertEquals("$subjects", pipeline.get(1).get("$unwind"));
+        assertEquals(5L, ((Number) pipeline.get(4).get("$skip")).longValue());
+        assertEquals(10L, ((Number) pipeline.get(5).get("$limit")).longValue());
+        assertEquals("total", pipeline.get(6).get("$count"));
+    }
+
+    @Test
+    void translate_WithFacet_ShouldValidateSubPipelines() {
+        // Given
+        List<Document> valid = List.of(Document.parse(
+            "{'$facet': {'byStatus': [{'$group': {'_id': '$status'}}], 'total': [{'$count': 'n'}]}}"));
+        List<Document> invalid = List.of(Document.parse(
+            "{'$facet': {'bad': [{'$out': 'other'}]}}"));
+
+        // When & Then
+        assertEquals(1, AggregationPipelineTranslator.translate(valid, null)
+            .toPipeline(Aggregation.DEFAULT_CONTEXT).size());
+        assertThrows(IllegalArgumentException.class, () -> AggregationPipelineTranslator.translate(invalid, null));
+    }
+
+    @Test
+    void translate_WithUnsupportedStage_ShouldThrowException() {
+        // Given
+        List<Document> stages = List.of(Document.parse("{'$out': 'copy'}"));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> AggregationPipelineTranslator.translate(stages, null));
+    }
+
+    @Test
+    void toOptions_ShouldPassCursorOptionsThrough() {
+        // When
+        AggregationOptions options = AggregationPipelineTranslator.toOptions(
+            Map.of("allowDiskUse", true, "batchSize", 500, "maxTimeMS", 2000));
+
+        // Then
+        assertTrue(options.isAllowDiskUse());
+        assertEquals(500, options.getCursorBatchSize());
+        assertEquals(2000, options.getMaxTime().toMillis());
+    }
+}
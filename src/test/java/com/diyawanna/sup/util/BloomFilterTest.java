@@ -0,0 +1,60 @@
+package com.diyawanna.sup.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BloomFilter
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+class BloomFilterTest {
+
+    @Test
+    void mightContain_WithAddedValues_ShouldNeverReturnFalse() {
+        // Given
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            filter.put("user" + i);
+        }
+
+        // Then
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+        }
+        assertEquals(1_000, filter.getInsertions());
+        assertFalse(filter.isSaturated());
+    }
+
+    @Test
+    void mightContain_WithUnknownValues_ShouldStayNearTargetFalsePositiveRate() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("johndoe" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("janedoe" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertEquals(0.01, filter.getEstimatedFalsePositiveRate(), 0.005);
+    }
+
+    @Test
+    void constructor_WithInvalidRate_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+    }
+}
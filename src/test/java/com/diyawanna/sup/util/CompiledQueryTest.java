@@ -0,0 +1,119 @@
+package com.diyawanna.sup.util;
+
+import org.bson.BsonRegularExpression;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompiledQuery
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+class CompiledQueryTest {
+
+    private final Map<String, String> variableTypes = Map.of(
+        "id", "String",
+        "username", "String",
+        "minAge", "Integer",
+        "maxAge", "Integer"
+    );
+
+    @Test
+    void bindFilter_WithObjectIdPlaceholder_ShouldBindObjectId() {
+        // Given
+        CompiledQuery query = CompiledQuery.compile("user.findById",
+            "{'_id': ObjectId('${id}'), 'active': true}", "user", "FIND", Arrays.asList("id"), variableTypes);
+        String id = new ObjectId().toHexString();
+
+        // When
+        Document filter = query.bindFilter(Map.of("id", id));
+
+        // Then
+        assertEquals(new ObjectId(id), filter.get("_id"));
+        assertEquals(true, filter.get("active"));
+        assertEquals("FIND", query.getType());
+    }
+
+    @Test
+    void bindFilter_WithQuotedPlaceholder_ShouldBindValueWithoutInjection() {
+        // Given
+        CompiledQuery query = CompiledQuery.compile("user.findByUsername",
+            "{'username': '${username}', 'active': true}", "user", "FIND", null, variableTypes);
+
+        // When
+        Document filter = query.bindFilter(Map.of("username", "x', 'active': false, 'y': '"));
+
+        // Then
+        assertEquals("x', 'active': false, 'y': '", filter.get("username"));
+        assertEquals(true, filter.get("active"));
+        assertEquals(2, filter.size());
+    }
+
+    @Test
+    void bindPipeline_WithTypedPlaceholders_ShouldConvertValues() {
+        // Given
+        CompiledQuery query = CompiledQuery.compile("user.countByAge",
+            "[{'$match': {'age': {'$gte': ${minAge}, '$lte': ${maxAge}}, 'active': true}}, {'$count': 'total'}]",
+            "user", "AGGREGATE", null, variableTypes);
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("minAge", "18");
+        parameters.put("maxAge", 30L);
+
+        // When
+        List<Document> stages = query.bindPipeline(parameters);
+
+        // Then
+        assertTrue(query.isPipeline());
+        assertEquals(2, stages.size());
+        Document age = (Document) ((Document) stages.get(0).get("$match")).get("age");
+        assertEquals(18, age.get("$gte"));
+        assertEquals(30, age.get("$lte"));
+        assertEquals("total", stages.get(1).get("$count"));
+    }
+
+    @Test
+    void bindFilter_WithInterpolatedPlaceholder_ShouldBuildString() {
+        // Given
+        CompiledQuery query = CompiledQuery.compile("university.findByPrefix",
+            "{'name': {'$regex': '^${prefix}.*', '$options': 'i'}}", "university", "FIND", null, null);
+
+        // When
+        Document filter = query.bindFilter(Map.of("prefix", "Col"));
+
+        // Then
+        BsonRegularExpression regex = (BsonRegularExpression) filter.get("name");
+        assertEquals("^Col.*", regex.getPattern());
+        assertEquals("i", regex.getOptions());
+    }
+
+    @Test
+    void bindFilter_WithMissingParameter_ShouldThrowException() {
+        // Given
+        CompiledQuery query = CompiledQuery.compile("user.findByUsername",
+            "{'username': '${username}'}", "user", "FIND", null, variableTypes);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> query.bindFilter(new HashMap<>()));
+        assertFalse(query.hasAllParameters(new HashMap<>()));
+        assertTrue(query.hasAllParameters(Map.of("username", "johndoe")));
+    }
+
+    @Test
+    void bindFilter_WithInvalidObjectId_ShouldThrowException() {
+        // Given
+        CompiledQuery query = CompiledQuery.compile("user.findById",
+            "{'_id': ObjectId('${id}')}", "user", "FIND", null, variableTypes);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> query.bindFilter(Map.of("id", "not-an-id")));
+    }
+}
@@ -0,0 +1,64 @@
+package com.diyawanna.sup.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ExecutionBudget
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+class ExecutionBudgetTest {
+
+    private final ExecutionBudget defaults = new ExecutionBudget(30000, 10000, 4);
+
+    @Test
+    void from_WithoutBudgetOptions_ShouldUseDefaults() {
+        // Given
+        Map<String, Object> options = new HashMap<>();
+        options.put("allowDiskUse", true);
+
+        // When
+        ExecutionBudget budget = ExecutionBudget.from(options, defaults);
+
+        // Then
+        assertEquals(30000, budget.getMaxTimeMs());
+        assertEquals(10000, budget.getMaxDocuments());
+        assertEquals(4, budget.getMaxConcurrency());
+        assertSame(defaults, ExecutionBudget.from(null, defaults));
+    }
+
+    @Test
+    void from_WithQueryOptions_ShouldOverrideDefaultsAndAllowDisabling() {
+        // Given
+        Map<String, Object> options = new HashMap<>();
+        options.put("maxTimeMS", 60000);
+        options.put("maxDocuments", "0");
+        options.put("maxConcurrency", 2L);
+
+        // When
+        ExecutionBudget budget = ExecutionBudget.from(options, defaults);
+
+        // Then
+        assertEquals(60000, budget.getMaxTimeMs());
+        assertFalse(budget.hasDocumentLimit());
+        assertEquals(2, budget.getMaxConcurrency());
+        assertTrue(budget.hasConcurrencyLimit());
+    }
+
+    @Test
+    void from_WithInvalidOptions_ShouldThrowException() {
+        // Given
+        Map<String, Object> notANumber = Map.of("maxConcurrency", "many");
+        Map<String, Object> negative = Map.of("maxTimeMS", -1);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> ExecutionBudget.from(notANumber, defaults));
+        assertThrows(IllegalArgumentException.class, () -> ExecutionBudget.from(negative, defaults));
+    }
+}
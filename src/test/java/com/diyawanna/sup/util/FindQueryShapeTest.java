@@ -0,0 +1,135 @@
+package com.diyawanna.sup.util;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FindQueryShape and KeysetCursor
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+class FindQueryShapeTest {
+
+    @Test
+    void toQuery_WithFieldsSortAndLimit_ShouldPushDownProjectionSortAndProbeLimit() {
+        // Given
+        FindQueryShape shape = FindQueryShape.of(Arrays.asList("name", "email"), "-age", 10, null);
+
+        // When
+        BasicQuery query = shape.toQuery(new Document("active", true), 1000, true);
+
+        // Then
+        assertEquals(new Document("name", 1).append("email", 1).append("age", 1), query.getFieldsObject());
+        assertEquals(new Document("age", -1).append("_id", 1), query.getSortObject());
+        assertEquals(11, query.getLimit());
+        assertEquals(new Document("active", true), query.getQueryObject());
+    }
+
+    @Test
+    void toPage_WithMoreResults_ShouldIssueCursorSelectingNextPage() {
+        // Given
+        FindQueryShape shape = FindQueryShape.of(null, "-age", 2, null);
+        ObjectId lastId = new ObjectId();
+        List<Document> fetched = Arrays.asList(
+            new Document("_id", new ObjectId()).append("age", 30),
+            new Document("_id", lastId).append("age", 25),
+            new Document("_id", new ObjectId()).append("age", 20));
+
+        // When
+        KeysetPage<Document> page = shape.toPage(fetched, 1000);
+        BasicQuery next = FindQueryShape.of(null, "-age", 2, page.getNextCursor())
+            .toQuery(new Document("active", true), 1000, true);
+
+        // Then
+        assertEquals(2, page.getResults().size());
+        assertTrue(page.isHasMore());
+        Document expectedCondition = new Document("$or", Arrays.asList(
+            new Document("age", new Document("$lt", 25)),
+            new Document("age", null),
+            new Document("age", 25).append("_id", new Document("$gt", lastId))));
+        assertEquals(new Document("$and", Arrays.asList(new Document("active", true), expectedCondition)),
+            next.getQueryObject());
+    }
+
+    @Test
+    void toQuery_WithNullSortValueInCursor_ShouldContinueAfterNulls() {
+        // Given
+        ObjectId lastId = new ObjectId();
+        Document last = new Document("_id", lastId).append("name", "a");
+        String ascending = KeysetCursor.encode(KeysetCursor.parseSort("age"), last);
+        String descending = KeysetCursor.encode(KeysetCursor.parseSort("-age"), last);
+
+        // When
+        BasicQuery ascendingNext = FindQueryShape.of(null, "age", 2, ascending).toQuery(new Document(), 1000, true);
+        BasicQuery descendingNext = FindQueryShape.of(null, "-age", 2, descending).toQuery(new Document(), 1000, true);
+
+        // Then
+        assertEquals(new Document("$or", Arrays.asList(
+            new Document("age", new Document("$ne", null)),
+            new Document("age", null).append("_id", new Document("$gt", lastId)))),
+            ascendingNext.getQueryObject());
+        assertEquals(new Document("age", null).append("_id", new Document("$gt", lastId)),
+            descendingNext.getQueryObject());
+    }
+
+    @Test
+    void toPage_WithProjectedSortKey_ShouldRemoveItFromResults() {
+        // Given
+        FindQueryShape shape = FindQueryShape.of(Arrays.asList("name"), "-age,address.city", 1, null);
+        List<Document> fetched = Arrays.asList(
+            new Document("_id", 1).append("name", "a").append("age", 30)
+                .append("address", new Document("city", "Colombo")),
+            new Document("_id", 2).append("name", "b").append("age", 20)
+                .append("address", new Document("city", "Kandy")));
+
+        // When
+        KeysetPage<Document> page = shape.toPage(fetched, 1000);
+
+        // Then
+        assertEquals(new Document("_id", 1).append("name", "a"), page.getResults().get(0));
+        assertNotNull(page.getNextCursor());
+        assertEquals(new Document("name", 1),
+            FindQueryShape.of(Arrays.asList("name"), "-age", null, null).toQuery(new Document(), 1000, false)
+                .getFieldsObject());
+    }
+
+    @Test
+    void toPage_WithLastPage_ShouldNotIssueCursor() {
+        // Given
+        FindQueryShape shape = FindQueryShape.of(null, null, 5, null);
+
+        // When
+        KeysetPage<Document> page = shape.toPage(Arrays.asList(new Document("_id", 1)), 1000);
+
+        // Then
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void toQuery_WithCursorFromAnotherSort_ShouldThrowException() {
+        // Given
+        String cursor = KeysetCursor.encode(KeysetCursor.parseSort("name"), new Document("_id", 1).append("name", "a"));
+        FindQueryShape shape = FindQueryShape.of(null, "-age", 10, cursor);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> shape.toQuery(new Document(), 1000, true));
+        assertThrows(IllegalArgumentException.class,
+            () -> FindQueryShape.of(null, null, 10, "not-a-cursor").toQuery(new Document(), 1000, true));
+    }
+
+    @Test
+    void of_WithInvalidValues_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> FindQueryShape.of(null, null, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> FindQueryShape.of(Arrays.asList("$where"), null, null, null));
+        assertTrue(FindQueryShape.of(null, " ", null, "").isEmpty());
+    }
+}
@@ -0,0 +1,70 @@
+package com.diyawanna.sup.util;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IndexRecommender
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+class IndexRecommenderTest {
+
+    @Test
+    void propose_WithEqualityAndBooleanFlag_ShouldProposePartialIndex() {
+        // Given
+        Document filter = Document.parse("{'university': 'Colombo', 'active': true}");
+
+        // When
+        IndexRecommender.Proposal proposal = IndexRecommender.propose(filter, null);
+
+        // Then
+        assertEquals(Arrays.asList("university"), List.copyOf(proposal.getKeys().keySet()));
+        assertEquals(new Document("active", true), proposal.getPartialFilter());
+    }
+
+    @Test
+    void propose_WithRangeAndSort_ShouldOrderEqualitySortRange() {
+        // Given
+        List<Document> stages = Arrays.asList(
+            Document.parse("{'$match': {'age': {'$gte': 18, '$lte': 30}, 'status': 'ACTIVE'}}"),
+            Document.parse("{'$sort': {'createdAt': -1}}"),
+            Document.parse("{'$limit': 10}"));
+
+        // When
+        Document[] filterAndSort = IndexRecommender.filterAndSort(stages);
+        IndexRecommender.Proposal proposal = IndexRecommender.propose(filterAndSort[0], filterAndSort[1]);
+
+        // Then
+        assertEquals(Arrays.asList("status", "createdAt", "age"), List.copyOf(proposal.getKeys().keySet()));
+        assertEquals(-1, proposal.getKeys().get("createdAt"));
+        assertNull(proposal.getPartialFilter());
+        assertTrue(proposal.isCoveredBy(Document.parse("{'status': 1, 'createdAt': -1, 'age': 1, 'name': 1}")));
+        assertFalse(proposal.isCoveredBy(Document.parse("{'status': 1, 'age': 1}")));
+    }
+
+    @Test
+    void summarize_WithCollectionScanExplain_ShouldReportStagesAndRatio() {
+        // Given
+        Document explain = Document.parse("{"
+            + "'queryPlanner': {"
+            + "  'winningPlan': {'stage': 'SORT', 'inputStage': {'stage': 'COLLSCAN'}},"
+            + "  'rejectedPlans': [{'stage': 'FETCH', 'inputStage': {'stage': 'IXSCAN', 'indexName': 'x_1'}}]},"
+            + "'executionStats': {'nReturned': 2, 'totalKeysExamined': 0, 'totalDocsExamined': 500}}");
+
+        // When
+        IndexRecommender.PlanSummary summary = IndexRecommender.summarize(explain);
+
+        // Then
+        assertTrue(summary.hasCollectionScan());
+        assertTrue(summary.hasInMemorySort());
+        assertTrue(summary.getIndexes().isEmpty());
+        assertEquals(250.0, summary.examinedRatio());
+    }
+}
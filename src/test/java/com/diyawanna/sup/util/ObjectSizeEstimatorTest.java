@@ -0,0 +1,71 @@
+package com.diyawanna.sup.util;
+
+import com.diyawanna.sup.entity.User;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ObjectSizeEstimator
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+class ObjectSizeEstimatorTest {
+
+    @Test
+    void estimate_WithLongerContent_ShouldWeighMore() {
+        // Given
+        String shortText = "a";
+        String longText = "a".repeat(10_000);
+
+        // When
+        long shortSize = ObjectSizeEstimator.estimate(shortText);
+        long longSize = ObjectSizeEstimator.estimate(longText);
+
+        // Then
+        assertTrue(longSize - shortSize >= 9_999);
+        assertEquals(0, ObjectSizeEstimator.estimate(null));
+    }
+
+    @Test
+    void estimate_WithEntityGraph_ShouldIncludeFieldContents() {
+        // Given
+        User user = new User("John Doe", "johndoe", "secret");
+        User verbose = new User("John Doe", "johndoe", "secret");
+        verbose.setAddress("x".repeat(5_000));
+
+        // When
+        long size = ObjectSizeEstimator.estimate(user);
+        long verboseSize = ObjectSizeEstimator.estimate(verbose);
+
+        // Then
+        assertTrue(size > 4 * 16);
+        assertTrue(verboseSize - size >= 5_000);
+    }
+
+    @Test
+    void estimate_WithSharedAndCyclicReferences_ShouldCountEachObjectOnce() {
+        // Given
+        String shared = "s".repeat(1_000);
+        List<Object> list = new ArrayList<>(Arrays.asList(shared, shared, shared));
+        Map<String, Object> cyclic = new HashMap<>();
+        cyclic.put("self", cyclic);
+        cyclic.put("list", list);
+
+        // When
+        long listSize = ObjectSizeEstimator.estimate(list);
+        long cyclicSize = ObjectSizeEstimator.estimate(cyclic);
+
+        // Then
+        assertTrue(listSize < 2_000);
+        assertTrue(cyclicSize > listSize);
+    }
+}
@@ -0,0 +1,90 @@
+package com.diyawanna.sup.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OffHeapStore
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+class OffHeapStoreTest {
+
+    @Test
+    void take_WithValueSpanningBlocks_ShouldReturnSameBytesOnce() {
+        // Given
+        OffHeapStore store = new OffHeapStore(4_096, 64);
+        byte[] value = new byte[1_000];
+        Arrays.fill(value, (byte) 7);
+        value[999] = 42;
+
+        // When
+        assertTrue(store.put("all_active", value, 0));
+        byte[] first = store.take("all_active");
+        byte[] second = store.take("all_active");
+
+        // Then
+        assertArrayEquals(value, first);
+        assertNull(second);
+        assertEquals(0L, store.getStatistics().get("usedBytes"));
+    }
+
+    @Test
+    void put_WhenFull_ShouldEvictLeastRecentlyUsedFirst() {
+        // Given
+        OffHeapStore store = new OffHeapStore(3 * 64, 64);
+        store.put("user1", bytes("John"), 0);
+        store.put("user2", bytes("Jane"), 0);
+        store.put("user3", bytes("Jack"), 0);
+
+        // When
+        assertTrue(store.put("user1", bytes("John Doe"), 0));
+        store.put("user4", bytes("Jill"), 0);
+
+        // Then
+        assertNull(store.take("user2"));
+        assertArrayEquals(bytes("John Doe"), store.take("user1"));
+        assertArrayEquals(bytes("Jill"), store.take("user4"));
+        assertEquals(1L, store.getStatistics().get("evictions"));
+    }
+
+    @Test
+    void take_AfterExpiry_ShouldReturnNullAndFreeBlocks() {
+        // Given
+        OffHeapStore store = new OffHeapStore(4_096, 64);
+        store.put("user1", bytes("John"), System.nanoTime() - 1);
+
+        // When
+        byte[] value = store.take("user1");
+
+        // Then
+        assertNull(value);
+        Map<String, Object> statistics = store.getStatistics();
+        assertEquals(1L, statistics.get("expirations"));
+        assertEquals(0L, statistics.get("usedBytes"));
+    }
+
+    @Test
+    void put_LargerThanCapacity_ShouldBeRejected() {
+        // Given
+        OffHeapStore store = new OffHeapStore(128, 64);
+
+        // When
+        boolean stored = store.put("all_active", new byte[200], 0);
+
+        // Then
+        assertFalse(stored);
+        assertEquals(0, store.size());
+        assertEquals(1L, store.getStatistics().get("rejected"));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
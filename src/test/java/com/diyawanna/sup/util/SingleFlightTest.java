@@ -0,0 +1,74 @@
+package com.diyawanna.sup.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_WithConcurrentCallersForSameKey_ShouldRunLoaderOnce() throws Exception {
+        // Given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            Future<String> leader = executor.submit(() -> singleFlight.execute("universities", () -> {
+                calls.incrementAndGet();
+                loading.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return "loaded";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executor.submit(() -> singleFlight.execute("universities", () -> {
+                calls.incrementAndGet();
+                return "second load";
+            }));
+            while (singleFlight.getCoalesced() == 0) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            // Then
+            assertEquals("loaded", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("loaded", follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+            assertEquals(1, singleFlight.getExecutions());
+            assertEquals(1, singleFlight.getCoalesced());
+            assertEquals(0, singleFlight.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_AfterFailedLoad_ShouldRethrowAndAllowRetry() throws Exception {
+        // When & Then
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+            () -> singleFlight.execute("users", () -> {
+                throw new IllegalStateException("connection refused");
+            }));
+        assertEquals("connection refused", error.getMessage());
+        assertEquals("retried", singleFlight.execute("users", () -> "retried"));
+        assertEquals(2, singleFlight.getExecutions());
+        assertEquals(0, singleFlight.getCoalesced());
+    }
+}